@@ -1,13 +1,21 @@
 package imt.nord.europe.architecture.tp;
 
+import imt.nord.europe.architecture.tp.api.cli.ImportCommand;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class TpApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(TpApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(TpApplication.class, args);
+		// Mode import : l'import est terminé, le code de sortie est celui rendu par ImportCommand
+		if (context.getBeanProvider(ImportCommand.class).getIfAvailable() != null) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
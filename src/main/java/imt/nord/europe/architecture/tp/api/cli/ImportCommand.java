@@ -0,0 +1,79 @@
+package imt.nord.europe.architecture.tp.api.cli;
+
+import imt.nord.europe.architecture.tp.business.client.services.ClientImportService;
+import imt.nord.europe.architecture.tp.business.vehicle.services.VehicleImportService;
+import imt.nord.europe.architecture.tp.common.exceptions.ValidationException;
+import imt.nord.europe.architecture.tp.common.imports.ImportFormat;
+import imt.nord.europe.architecture.tp.common.imports.ImportReport;
+import imt.nord.europe.architecture.tp.infrastructure.config.ImportProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Import en masse en ligne de commande : importe un fichier au démarrage puis arrête l'application.
+ *
+ * Exemple :
+ * {@code java -jar tp.jar --spring.main.web-application-type=none --tp.import.type=vehicles --tp.import.file=parc.csv}
+ *
+ * Le code de sortie vaut 0 si toutes les lignes ont été importées, 1 si des lignes ont été rejetées
+ * (le détail est écrit dans les logs). Il est rendu par {@link #getExitCode()} : {@code TpApplication.main}
+ * ferme l'application et quitte la JVM une fois le démarrage terminé.
+ * En mode import, les tâches planifiées (scheduler, relais de l'outbox, minuteries du cycle de vie)
+ * ne sont pas activées, voir {@code SchedulingConfiguration}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "tp.import", name = "file")
+@RequiredArgsConstructor
+@Slf4j
+public class ImportCommand implements ApplicationRunner, ExitCodeGenerator {
+
+    private final VehicleImportService vehicleImportService;
+    private final ClientImportService clientImportService;
+    private final ImportProperties importProperties;
+
+    private int exitCode;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        Path file = Path.of(importProperties.getFile());
+        ImportFormat format = ImportFormat.fromFileName(file.getFileName().toString());
+        String type = importProperties.getType();
+
+        ImportReport report;
+        try (InputStream input = Files.newInputStream(file)) {
+            if ("vehicles".equals(type)) {
+                report = vehicleImportService.importVehicles(input, StandardCharsets.UTF_8, format);
+            } else if ("clients".equals(type)) {
+                report = clientImportService.importClients(input, StandardCharsets.UTF_8, format);
+            } else {
+                throw new ValidationException("tp.import.type doit valoir vehicles ou clients (valeur : " + type + ")");
+            }
+        }
+
+        report.errors().forEach(error -> log.warn("Ligne {} rejetée : {}", error.line(), error.message()));
+        if (report.failed() > report.errors().size()) {
+            log.warn("{} autre(s) ligne(s) rejetée(s) non détaillée(s) (tp.import.max-reported-errors)",
+                     report.failed() - report.errors().size());
+        }
+        log.info("Import de {} : {} ligne(s), {} importée(s), {} rejetée(s)",
+                 file, report.total(), report.imported(), report.failed());
+
+        exitCode = report.failed() == 0 ? 0 : 1;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+}
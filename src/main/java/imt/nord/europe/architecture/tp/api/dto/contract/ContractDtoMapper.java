@@ -1,14 +1,21 @@
 package imt.nord.europe.architecture.tp.api.dto.contract;
 
 import imt.nord.europe.architecture.tp.api.dto.contract.request.ContractRequestDto;
+import imt.nord.europe.architecture.tp.api.dto.contract.response.ContractBatchItemResponseDto;
+import imt.nord.europe.architecture.tp.api.dto.contract.response.ContractBatchResponseDto;
 import imt.nord.europe.architecture.tp.api.dto.contract.response.ContractResponseDto;
 import imt.nord.europe.architecture.tp.api.dto.client.ClientDtoMapper;
 import imt.nord.europe.architecture.tp.api.dto.vehicle.VehicleDtoMapper;
 import imt.nord.europe.architecture.tp.business.contract.models.Contract;
+import imt.nord.europe.architecture.tp.business.contract.models.ContractBooking;
+import imt.nord.europe.architecture.tp.business.contract.models.ContractBookingResult;
 import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractSummary;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Mapper pour convertir entre les DTOs Contract et le modèle métier Contract.
  */
@@ -42,6 +49,30 @@ public class ContractDtoMapper {
             .build();
     }
     
+    /**
+     * Convertit une vue de lecture (liste de contrats) en DTO de réponse.
+     * Le client et le véhicule sont convertis par leurs mappers, comme pour un contrat.
+     * 
+     * @param summary la vue de lecture
+     * @return le DTO de réponse
+     */
+    public ContractResponseDto toResponseDto(ContractSummary summary) {
+        if (summary == null) {
+            return null;
+        }
+        
+        return ContractResponseDto.builder()
+            .id(summary.id())
+            .client(clientDtoMapper.toResponseDto(summary.client()))
+            .vehicle(vehicleDtoMapper.toResponseDto(summary.vehicle()))
+            .startDate(summary.startDate())
+            .endDate(summary.endDate())
+            .status(summary.status())
+            .createdAt(summary.createdAt())
+            .updatedAt(summary.updatedAt())
+            .build();
+    }
+    
     /**
      * Convertit un DTO de requête en modèle métier.
      * Note : L'ID et les dates de création seront définis par la base de données.
@@ -61,4 +92,43 @@ public class ContractDtoMapper {
             .status(ContractStatus.PENDING)
             .build();
     }
+    
+    /**
+     * Convertit un DTO de requête en réservation d'un lot.
+     * 
+     * @param requestDto le DTO de requête
+     * @return la réservation
+     */
+    public ContractBooking toBooking(ContractRequestDto requestDto) {
+        return new ContractBooking(
+            requestDto.getClientId(),
+            requestDto.getVehicleId(),
+            requestDto.getStartDate(),
+            requestDto.getEndDate()
+        );
+    }
+    
+    /**
+     * Convertit les résultats d'un lot de réservations en DTO de réponse.
+     * 
+     * @param results les résultats, dans l'ordre du lot
+     * @return le DTO de réponse
+     */
+    public ContractBatchResponseDto toBatchResponseDto(List<ContractBookingResult> results) {
+        List<ContractBatchItemResponseDto> items = results.stream()
+            .map(result -> ContractBatchItemResponseDto.builder()
+                .index(result.index())
+                .status(result.status())
+                .contract(toResponseDto(result.contract()))
+                .error(result.error())
+                .build())
+            .toList();
+        int created = (int) results.stream().filter(result -> result.status() == ContractBookingResult.Status.CREATED).count();
+        
+        return ContractBatchResponseDto.builder()
+            .created(created)
+            .rejected(results.size() - created)
+            .results(items)
+            .build();
+    }
 }
@@ -0,0 +1,24 @@
+package imt.nord.europe.architecture.tp.api.dto.contract.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de requête pour la création d'un lot de contrats.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContractBatchRequestDto {
+    
+    /**
+     * true pour ne créer aucun contrat si une réservation du lot est refusée.
+     */
+    private boolean allOrNothing;
+    private List<ContractRequestDto> contracts;
+}
@@ -0,0 +1,22 @@
+package imt.nord.europe.architecture.tp.api.dto.contract.response;
+
+import imt.nord.europe.architecture.tp.business.contract.models.ContractBookingResult;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de réponse pour une réservation d'un lot : le contrat créé ou le motif du refus.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContractBatchItemResponseDto {
+    
+    private int index;
+    private ContractBookingResult.Status status;
+    private ContractResponseDto contract;
+    private String error;
+}
@@ -0,0 +1,22 @@
+package imt.nord.europe.architecture.tp.api.dto.contract.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de réponse pour la création d'un lot de contrats, avec le résultat de chaque réservation dans l'ordre du lot.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContractBatchResponseDto {
+    
+    private int created;
+    private int rejected;
+    private List<ContractBatchItemResponseDto> results;
+}
@@ -0,0 +1,20 @@
+package imt.nord.europe.architecture.tp.api.dto.lookup;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de requête pour la lecture d'un lot d'IDs (variante POST de {@code ?ids=}, pour les grands lots).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LookupRequestDto {
+    
+    private List<Long> ids;
+}
@@ -3,16 +3,27 @@ package imt.nord.europe.architecture.tp.api.rest;
 import imt.nord.europe.architecture.tp.api.dto.client.ClientDtoMapper;
 import imt.nord.europe.architecture.tp.api.dto.client.request.ClientRequestDto;
 import imt.nord.europe.architecture.tp.api.dto.client.response.ClientResponseDto;
+import imt.nord.europe.architecture.tp.api.dto.lookup.LookupRequestDto;
 import imt.nord.europe.architecture.tp.business.client.models.Client;
+import imt.nord.europe.architecture.tp.business.client.services.ClientImportService;
 import imt.nord.europe.architecture.tp.business.client.services.ClientService;
 import imt.nord.europe.architecture.tp.common.exceptions.BusinessException;
+import imt.nord.europe.architecture.tp.common.exceptions.ValidationException;
+import imt.nord.europe.architecture.tp.common.imports.ImportFormat;
+import imt.nord.europe.architecture.tp.common.imports.ImportReport;
+import imt.nord.europe.architecture.tp.common.lookup.LookupResult;
+import imt.nord.europe.architecture.tp.common.pagination.CursorPage;
+import imt.nord.europe.architecture.tp.infrastructure.config.ApiProperties;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Contrôleur REST pour la gestion des clients.
@@ -25,29 +36,66 @@ public class ClientController {
     
     private final ClientService clientService;
     private final ClientDtoMapper clientDtoMapper;
+    private final CursorPagination cursorPagination;
+    private final NdjsonExport ndjsonExport;
+    private final ApiProperties apiProperties;
+    private final ClientImportService clientImportService;
+    private final IdLookup idLookup;
     
     /**
-     * Récupère les clients.
-     * Si lastName est fourni, filtre par ce nom. Sinon, retourne tous les clients.
+     * Récupère une page de clients.
+     * Si lastName est fourni, filtre par ce nom. Sinon, parcourt tous les clients.
+     * Les clients sont triés par ID ; s'il en reste, la réponse contient le curseur de la page suivante.
      * 
      * @param lastName optionnel - le nom du client pour filtrer
-     * @return la liste des clients correspondants
+     * @param after optionnel - le curseur renvoyé par la page précédente (en-tête X-Next-Cursor)
+     * @param size optionnel - le nombre d'éléments par page (plafonné par tp.api.pagination.max-size)
+     * @return la page des clients correspondants
      */
     @GetMapping
-    public ResponseEntity<List<ClientResponseDto>> getClients(@RequestParam(required = false) String lastName) {
-        List<ClientResponseDto> clients;
+    public ResponseEntity<List<ClientResponseDto>> getClients(
+            @RequestParam(required = false) String lastName,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
         
-        if (lastName != null && !lastName.trim().isEmpty()) {
-            clients = clientService.getClientsByLastName(lastName)
-                .stream()
-                .map(clientDtoMapper::toResponseDto)
-                .collect(Collectors.toList());
-        } else {
-            clients = clientService.getAllClients()
-                .stream()
-                .map(clientDtoMapper::toResponseDto)
-                .collect(Collectors.toList());
-        }
+        String lastNameFilter = lastName != null && !lastName.trim().isEmpty() ? lastName : null;
+        int pageSize = cursorPagination.resolveSize(size);
+        CursorPage<ClientResponseDto> clients = clientService
+            .getClientsPage(lastNameFilter, after, pageSize)
+            .map(clientDtoMapper::toResponseDto);
+        
+        return cursorPagination.toResponse(clients, pageSize);
+    }
+    
+    /**
+     * Exporte tous les clients en NDJSON (un client JSON par ligne, triés par ID).
+     * Les clients sont lus par curseur et écrits au fil de l'eau, sans être chargés en mémoire.
+     * 
+     * @return le flux NDJSON des clients
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportClients() {
+        return ndjsonExport.<ClientResponseDto>stream(sink ->
+            clientService.exportClients(item -> sink.accept(clientDtoMapper.toResponseDto(item))));
+    }
+    
+    /**
+     * Recherche les clients dont l'email contient un fragment (au moins 3 caractères, sans tenir compte de la casse).
+     * Les résultats sont classés par pertinence (email identique, puis les plus proches) et leur nombre est plafonné.
+     * 
+     * @param q le fragment d'email recherché
+     * @param limit optionnel - le nombre maximal de résultats (plafonné par tp.api.search.max-limit)
+     * @return les clients correspondants, les plus pertinents en premier
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<ClientResponseDto>> searchClients(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        
+        List<ClientResponseDto> clients = clientService.searchClientsByEmail(q, resolveSearchLimit(limit))
+            .stream()
+            .map(clientDtoMapper::toResponseDto)
+            .toList();
         
         return ResponseEntity.ok(clients);
     }
@@ -64,6 +112,30 @@ public class ClientController {
         return ResponseEntity.ok(clientDtoMapper.toResponseDto(client));
     }
     
+    /**
+     * Récupère plusieurs clients par leur ID (ex. {@code ?ids=1,2,3}), en une lecture.
+     * 
+     * @param ids les IDs des clients (au plus tp.api.batch.max-size)
+     * @return les clients trouvés dans l'ordre des IDs demandés, et les IDs inexistants
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<LookupResult<ClientResponseDto>> getClientsByIds(@RequestParam List<Long> ids) {
+        LookupResult<ClientResponseDto> clients = clientService.getClientsByIds(idLookup.resolveIds(ids))
+            .map(clientDtoMapper::toResponseDto);
+        return ResponseEntity.ok(clients);
+    }
+    
+    /**
+     * Récupère plusieurs clients par leur ID, transmis dans le body (variante de {@code ?ids=} pour les grands lots).
+     * 
+     * @param requestDto les IDs des clients (au plus tp.api.batch.max-size)
+     * @return les clients trouvés dans l'ordre des IDs demandés, et les IDs inexistants
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<LookupResult<ClientResponseDto>> lookupClients(@RequestBody LookupRequestDto requestDto) {
+        return getClientsByIds(requestDto.getIds());
+    }
+    
     /**
      * Crée un nouveau client.
      * 
@@ -85,6 +157,23 @@ public class ClientController {
         return ResponseEntity.status(HttpStatus.CREATED).body(clientDtoMapper.toResponseDto(client));
     }
     
+    /**
+     * Importe en masse des clients depuis un fichier CSV (avec en-tête) ou NDJSON.
+     * Colonnes : firstName, lastName, dateOfBirth, licenseNumber, address, email, phone.
+     * Les lignes valides sont importées même si d'autres sont rejetées.
+     * 
+     * @param contentType text/csv ou application/x-ndjson (charset optionnel, UTF-8 par défaut)
+     * @param body le contenu du fichier
+     * @return le rapport d'import, avec le numéro et le motif de chaque ligne rejetée
+     */
+    @PostMapping(value = "/import", consumes = {ImportFormat.CSV_MEDIA_TYPE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportReport> importClients(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                      InputStream body) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        return ResponseEntity.ok(clientImportService.importClients(
+            body, mediaType.getCharset(), ImportFormat.fromMediaType(mediaType)));
+    }
+    
     /**
      * Modifie un client existant.
      * 
@@ -120,6 +209,17 @@ public class ClientController {
         return ResponseEntity.noContent().build();
     }
     
+    private int resolveSearchLimit(Integer requestedLimit) {
+        ApiProperties.Search search = apiProperties.getSearch();
+        if (requestedLimit == null) {
+            return search.getDefaultLimit();
+        }
+        if (requestedLimit <= 0) {
+            throw new ValidationException("Le nombre de résultats doit être strictement positif");
+        }
+        return Math.min(requestedLimit, search.getMaxLimit());
+    }
+    
     /**
      * Gère les exceptions métier et les retourne en tant que réponses HTTP.
      */
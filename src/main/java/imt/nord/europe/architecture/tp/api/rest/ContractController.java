@@ -1,19 +1,29 @@
 package imt.nord.europe.architecture.tp.api.rest;
 
 import imt.nord.europe.architecture.tp.api.dto.contract.ContractDtoMapper;
+import imt.nord.europe.architecture.tp.api.dto.contract.request.ContractBatchRequestDto;
 import imt.nord.europe.architecture.tp.api.dto.contract.request.ContractRequestDto;
+import imt.nord.europe.architecture.tp.api.dto.contract.response.ContractBatchResponseDto;
 import imt.nord.europe.architecture.tp.api.dto.contract.response.ContractResponseDto;
+import imt.nord.europe.architecture.tp.api.dto.lookup.LookupRequestDto;
 import imt.nord.europe.architecture.tp.business.contract.models.Contract;
+import imt.nord.europe.architecture.tp.business.contract.models.ContractBooking;
+import imt.nord.europe.architecture.tp.business.contract.models.ContractBookingResult;
 import imt.nord.europe.architecture.tp.business.contract.services.ContractService;
 import imt.nord.europe.architecture.tp.common.exceptions.BusinessException;
+import imt.nord.europe.architecture.tp.common.exceptions.ValidationException;
 import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
+import imt.nord.europe.architecture.tp.common.lookup.LookupResult;
+import imt.nord.europe.architecture.tp.common.pagination.CursorPage;
+import imt.nord.europe.architecture.tp.infrastructure.config.ApiProperties;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Contrôleur REST pour la gestion des contrats (locations).
@@ -26,43 +36,100 @@ public class ContractController {
     
     private final ContractService contractService;
     private final ContractDtoMapper contractDtoMapper;
+    private final CursorPagination cursorPagination;
+    private final NdjsonExport ndjsonExport;
+    private final ApiProperties apiProperties;
+    private final IdLookup idLookup;
     
     /**
-     * Récupère les contrats avec filtrage optionnel.
+     * Récupère une page de contrats avec filtrage optionnel.
      * Les filtres clientId, vehicleId et status peuvent être combinés et s'appliquent à la base de données.
-     * Si aucun filtre n'est fourni, retourne tous les contrats.
+     * Les contrats sont triés par ID ; s'il en reste, la réponse contient le curseur de la page suivante.
+     * Les lignes lues sont converties directement en DTO, sans entités ni modèles métier intermédiaires.
+     * Avec history=true, les contrats archivés (terminés depuis longtemps) sont inclus.
      * 
      * @param clientId optionnel - filtrer par ID du client
      * @param vehicleId optionnel - filtrer par ID du véhicule
      * @param status optionnel - filtrer par statut (PENDING, ONGOING, COMPLETED, OVERDUE, CANCELLED)
-     * @return la liste des contrats correspondants aux critères
+     * @param after optionnel - le curseur renvoyé par la page précédente (en-tête X-Next-Cursor)
+     * @param size optionnel - le nombre d'éléments par page (plafonné par tp.api.pagination.max-size)
+     * @param history optionnel - true pour inclure les contrats archivés
+     * @return la page des contrats correspondants aux critères
      */
     @GetMapping
     public ResponseEntity<List<ContractResponseDto>> getContracts(
             @RequestParam(required = false) Long clientId,
             @RequestParam(required = false) Long vehicleId,
-            @RequestParam(required = false) ContractStatus status) {
+            @RequestParam(required = false) ContractStatus status,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean history) {
         
-        List<ContractResponseDto> contracts = contractService.getContractsByFilters(clientId, vehicleId, status)
-            .stream()
-            .map(contractDtoMapper::toResponseDto)
-            .collect(Collectors.toList());
+        int pageSize = cursorPagination.resolveSize(size);
+        CursorPage<ContractResponseDto> contracts = contractService
+            .getContractsPage(clientId, vehicleId, status, after, pageSize, history)
+            .map(contractDtoMapper::toResponseDto);
         
-        return ResponseEntity.ok(contracts);
+        return cursorPagination.toResponse(contracts, pageSize);
+    }
+    
+    /**
+     * Exporte tous les contrats en NDJSON (un contrat JSON par ligne, triés par ID).
+     * Les contrats sont lus par curseur et écrits au fil de l'eau, sans être chargés en mémoire.
+     * 
+     * @param history optionnel - true pour inclure les contrats archivés
+     * @return le flux NDJSON des contrats
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportContracts(@RequestParam(defaultValue = "false") boolean history) {
+        return ndjsonExport.<ContractResponseDto>stream(sink ->
+            contractService.exportContracts(item -> sink.accept(contractDtoMapper.toResponseDto(item)), history));
     }
     
     /**
      * Récupère un contrat par son ID.
      * 
      * @param id l'ID du contrat
+     * @param history optionnel - true pour chercher aussi parmi les contrats archivés
      * @return le contrat correspondant
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ContractResponseDto> getContractById(@PathVariable Long id) {
-        Contract contract = contractService.getContractById(id);
+    public ResponseEntity<ContractResponseDto> getContractById(@PathVariable Long id,
+                                                               @RequestParam(defaultValue = "false") boolean history) {
+        Contract contract = contractService.getContractById(id, history);
         return ResponseEntity.ok(contractDtoMapper.toResponseDto(contract));
     }
     
+    /**
+     * Récupère plusieurs contrats par leur ID (ex. {@code ?ids=1,2,3}), avec leur client et leur véhicule, en une lecture.
+     * 
+     * @param ids les IDs des contrats (au plus tp.api.batch.max-size)
+     * @param history optionnel - true pour chercher aussi parmi les contrats archivés
+     * @return les contrats trouvés dans l'ordre des IDs demandés, et les IDs inexistants
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<LookupResult<ContractResponseDto>> getContractsByIds(
+            @RequestParam List<Long> ids,
+            @RequestParam(defaultValue = "false") boolean history) {
+        LookupResult<ContractResponseDto> contracts = contractService.getContractsByIds(idLookup.resolveIds(ids), history)
+            .map(contractDtoMapper::toResponseDto);
+        return ResponseEntity.ok(contracts);
+    }
+    
+    /**
+     * Récupère plusieurs contrats par leur ID, transmis dans le body (variante de {@code ?ids=} pour les grands lots).
+     * 
+     * @param requestDto les IDs des contrats (au plus tp.api.batch.max-size)
+     * @param history optionnel - true pour chercher aussi parmi les contrats archivés
+     * @return les contrats trouvés dans l'ordre des IDs demandés, et les IDs inexistants
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<LookupResult<ContractResponseDto>> lookupContracts(
+            @RequestBody LookupRequestDto requestDto,
+            @RequestParam(defaultValue = "false") boolean history) {
+        return getContractsByIds(requestDto.getIds(), history);
+    }
+    
     /**
      * Crée un nouveau contrat.
      * 
@@ -81,6 +148,32 @@ public class ContractController {
         return ResponseEntity.status(HttpStatus.CREATED).body(contractDtoMapper.toResponseDto(contract));
     }
     
+    /**
+     * Crée un lot de contrats (réservations des partenaires) avec les mêmes règles que la création unitaire.
+     * Le lot est vérifié et inséré en un nombre fixe de requêtes, quelle que soit sa taille.
+     * Une réservation qui chevauche une réservation précédente du lot (même véhicule) est refusée.
+     * Avec allOrNothing=true, aucun contrat n'est créé si une réservation est refusée.
+     * 
+     * @param requestDto les réservations (au plus tp.api.batch.max-size) et le mode tout ou rien
+     * @return le résultat de chaque réservation, dans l'ordre du lot
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ContractBatchResponseDto> createContracts(@RequestBody ContractBatchRequestDto requestDto) {
+        List<ContractRequestDto> contracts = requestDto.getContracts();
+        if (contracts == null || contracts.isEmpty()) {
+            throw new ValidationException("Le lot doit contenir au moins un contrat");
+        }
+        int maxSize = apiProperties.getBatch().getMaxSize();
+        if (contracts.size() > maxSize) {
+            throw new ValidationException("Le lot ne peut pas contenir plus de " + maxSize + " contrats");
+        }
+        
+        List<ContractBooking> bookings = contracts.stream().map(contractDtoMapper::toBooking).toList();
+        List<ContractBookingResult> results = contractService.createContracts(bookings, requestDto.isAllOrNothing());
+        
+        return ResponseEntity.ok(contractDtoMapper.toBatchResponseDto(results));
+    }
+    
     /**
      * Modifie un contrat existant.
      * 
@@ -0,0 +1,68 @@
+package imt.nord.europe.architecture.tp.api.rest;
+
+import imt.nord.europe.architecture.tp.common.exceptions.ValidationException;
+import imt.nord.europe.architecture.tp.common.pagination.CursorPage;
+import imt.nord.europe.architecture.tp.infrastructure.config.ApiProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * Pagination par curseur des endpoints de liste.
+ *
+ * Le client fournit optionnellement {@code after} (curseur renvoyé par la page précédente) et {@code size}.
+ * La réponse contient les éléments de la page et, s'il reste des éléments :
+ * - l'en-tête {@code X-Next-Cursor} avec le curseur de la page suivante ;
+ * - l'en-tête {@code Link} (rel="next") avec l'URL complète de la page suivante.
+ */
+@Component
+@RequiredArgsConstructor
+public class CursorPagination {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final ApiProperties apiProperties;
+
+    /**
+     * Détermine la taille de page à utiliser : la taille par défaut si aucune n'est demandée,
+     * la taille maximale si la taille demandée la dépasse.
+     *
+     * @param requestedSize la taille demandée (optionnelle)
+     * @return la taille de page effective
+     * @throws ValidationException si la taille demandée n'est pas strictement positive
+     */
+    public int resolveSize(Integer requestedSize) {
+        if (requestedSize == null) {
+            return apiProperties.getPagination().getDefaultSize();
+        }
+        if (requestedSize <= 0) {
+            throw new ValidationException("La taille de page doit être strictement positive");
+        }
+        return Math.min(requestedSize, apiProperties.getPagination().getMaxSize());
+    }
+
+    /**
+     * Construit la réponse d'une page, avec les en-têtes de la page suivante s'il y en a une.
+     *
+     * @param page la page à renvoyer
+     * @param size la taille de page effective
+     * @return la réponse HTTP 200
+     */
+    public <T> ResponseEntity<List<T>> toResponse(CursorPage<T> page, int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            String nextUrl = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", page.nextCursor())
+                .replaceQueryParam("size", size)
+                .build()
+                .toUriString();
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor().toString());
+            response.header(HttpHeaders.LINK, "<" + nextUrl + ">; rel=\"next\"");
+        }
+        return response.body(page.items());
+    }
+}
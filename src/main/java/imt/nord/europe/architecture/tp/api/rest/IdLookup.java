@@ -0,0 +1,45 @@
+package imt.nord.europe.architecture.tp.api.rest;
+
+import imt.nord.europe.architecture.tp.common.exceptions.ValidationException;
+import imt.nord.europe.architecture.tp.infrastructure.config.ApiProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lecture par lot d'IDs (multi-get) des endpoints {@code GET ?ids=1,2,3} et {@code POST /lookup}.
+ *
+ * Les IDs demandés en double ne sont lus et rendus qu'une fois ; le nombre d'IDs distincts
+ * est plafonné par tp.api.batch.max-size.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdLookup {
+
+    private final ApiProperties apiProperties;
+
+    /**
+     * Valide les IDs demandés et retire les doublons, en conservant l'ordre de la demande.
+     *
+     * @param ids les IDs demandés
+     * @return les IDs distincts, dans l'ordre de la demande
+     * @throws ValidationException si aucun ID n'est demandé, si un ID est vide ou s'il y en a trop
+     */
+    public List<Long> resolveIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ValidationException("Au moins un ID doit être demandé");
+        }
+        if (ids.contains(null)) {
+            throw new ValidationException("Les IDs demandés ne peuvent pas être vides");
+        }
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        int maxSize = apiProperties.getBatch().getMaxSize();
+        if (distinct.size() > maxSize) {
+            throw new ValidationException("Au plus " + maxSize + " IDs peuvent être demandés à la fois");
+        }
+        return List.copyOf(distinct);
+    }
+}
@@ -0,0 +1,61 @@
+package imt.nord.europe.architecture.tp.api.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Réponses d'export en NDJSON (un objet JSON par ligne).
+ *
+ * Le corps est écrit au fil de la lecture en base, sur un thread de requête asynchrone :
+ * la mémoire utilisée ne dépend pas du nombre de lignes, et les premières lignes sont envoyées
+ * dès qu'elles sont lues (vidage après la première ligne puis à chaque paquet).
+ */
+@Component
+@RequiredArgsConstructor
+public class NdjsonExport {
+
+    /**
+     * Nombre de lignes écrites entre deux vidages du flux de sortie.
+     */
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Construit la réponse d'un export.
+     *
+     * @param producer la production des éléments : appelle le consommateur fourni pour chaque élément à écrire
+     * @return la réponse HTTP 200 en flux NDJSON
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(Consumer<Consumer<T>> producer) {
+        ObjectWriter writer = objectMapper.writer();
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            long[] written = {0};
+            producer.accept(item -> {
+                try {
+                    out.write(writer.writeValueAsBytes(item));
+                    out.write('\n');
+                    if (++written[0] == 1 || written[0] % FLUSH_INTERVAL == 0) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
@@ -1,19 +1,30 @@
 package imt.nord.europe.architecture.tp.api.rest;
 
+import imt.nord.europe.architecture.tp.api.dto.lookup.LookupRequestDto;
 import imt.nord.europe.architecture.tp.api.dto.vehicle.VehicleDtoMapper;
 import imt.nord.europe.architecture.tp.api.dto.vehicle.request.VehicleRequestDto;
 import imt.nord.europe.architecture.tp.api.dto.vehicle.response.VehicleResponseDto;
 import imt.nord.europe.architecture.tp.business.vehicle.models.Vehicle;
+import imt.nord.europe.architecture.tp.business.vehicle.services.VehicleImportService;
 import imt.nord.europe.architecture.tp.business.vehicle.services.VehicleService;
 import imt.nord.europe.architecture.tp.common.exceptions.BusinessException;
 import imt.nord.europe.architecture.tp.common.enums.VehicleStatus;
+import imt.nord.europe.architecture.tp.common.imports.ImportFormat;
+import imt.nord.europe.architecture.tp.common.imports.ImportReport;
+import imt.nord.europe.architecture.tp.common.lookup.LookupResult;
+import imt.nord.europe.architecture.tp.common.pagination.CursorPage;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Contrôleur REST pour la gestion des véhicules.
@@ -26,27 +37,77 @@ public class VehicleController {
     
     private final VehicleService vehicleService;
     private final VehicleDtoMapper vehicleDtoMapper;
+    private final CursorPagination cursorPagination;
+    private final NdjsonExport ndjsonExport;
+    private final VehicleImportService vehicleImportService;
+    private final IdLookup idLookup;
     
     /**
-     * Récupère les véhicules avec filtrage optionnel.
+     * Récupère une page de véhicules avec filtrage optionnel.
      * Les filtres status et brand peuvent être combinés et s'appliquent à la base de données.
-     * Si aucun filtre n'est fourni, retourne tous les véhicules.
+     * Les véhicules sont triés par ID ; s'il en reste, la réponse contient le curseur de la page suivante.
      * 
      * @param status optionnel - filtrer par statut (AVAILABLE, RENTED, BROKEN_DOWN)
      * @param brand optionnel - filtrer par marque
-     * @return la liste des véhicules correspondants aux critères
+     * @param after optionnel - le curseur renvoyé par la page précédente (en-tête X-Next-Cursor)
+     * @param size optionnel - le nombre d'éléments par page (plafonné par tp.api.pagination.max-size)
+     * @return la page des véhicules correspondants aux critères
      */
     @GetMapping
     public ResponseEntity<List<VehicleResponseDto>> getVehicles(
             @RequestParam(required = false) VehicleStatus status,
-            @RequestParam(required = false) String brand) {
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
         
-        List<VehicleResponseDto> vehicles = vehicleService.getVehiclesByStatusAndBrand(status, brand)
-            .stream()
-            .map(vehicleDtoMapper::toResponseDto)
-            .collect(Collectors.toList());
+        int pageSize = cursorPagination.resolveSize(size);
+        CursorPage<VehicleResponseDto> vehicles = vehicleService
+            .getVehiclesPage(status, brand, after, pageSize)
+            .map(vehicleDtoMapper::toResponseDto);
         
-        return ResponseEntity.ok(vehicles);
+        return cursorPagination.toResponse(vehicles, pageSize);
+    }
+    
+    /**
+     * Exporte tous les véhicules en NDJSON (un véhicule JSON par ligne, triés par ID).
+     * Les véhicules sont lus par curseur et écrits au fil de l'eau, sans être chargés en mémoire.
+     * 
+     * @return le flux NDJSON des véhicules
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportVehicles() {
+        return ndjsonExport.<VehicleResponseDto>stream(sink ->
+            vehicleService.exportVehicles(item -> sink.accept(vehicleDtoMapper.toResponseDto(item))));
+    }
+    
+    /**
+     * Recherche une page de véhicules libres sur une période.
+     * Un véhicule est libre s'il n'est pas en panne et qu'aucun contrat actif ne chevauche la période.
+     * Les véhicules sont triés par ID ; s'il en reste, la réponse contient le curseur de la page suivante.
+     * 
+     * @param from début de la période (ISO-8601, ex: 2025-06-01T10:00:00)
+     * @param to fin de la période (ISO-8601)
+     * @param brand optionnel - filtrer par marque
+     * @param motorization optionnel - filtrer par motorisation
+     * @param after optionnel - le curseur renvoyé par la page précédente (en-tête X-Next-Cursor)
+     * @param size optionnel - le nombre d'éléments par page (plafonné par tp.api.pagination.max-size)
+     * @return la page des véhicules disponibles sur la période
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<List<VehicleResponseDto>> getAvailableVehicles(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String motorization,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        
+        int pageSize = cursorPagination.resolveSize(size);
+        CursorPage<VehicleResponseDto> vehicles = vehicleService
+            .getAvailableVehiclesPage(from, to, brand, motorization, after, pageSize)
+            .map(vehicleDtoMapper::toResponseDto);
+        
+        return cursorPagination.toResponse(vehicles, pageSize);
     }
     
     /**
@@ -61,6 +122,30 @@ public class VehicleController {
         return ResponseEntity.ok(vehicleDtoMapper.toResponseDto(vehicle));
     }
     
+    /**
+     * Récupère plusieurs véhicules par leur ID (ex. {@code ?ids=1,2,3}), en une lecture.
+     * 
+     * @param ids les IDs des véhicules (au plus tp.api.batch.max-size)
+     * @return les véhicules trouvés dans l'ordre des IDs demandés, et les IDs inexistants
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<LookupResult<VehicleResponseDto>> getVehiclesByIds(@RequestParam List<Long> ids) {
+        LookupResult<VehicleResponseDto> vehicles = vehicleService.getVehiclesByIds(idLookup.resolveIds(ids))
+            .map(vehicleDtoMapper::toResponseDto);
+        return ResponseEntity.ok(vehicles);
+    }
+    
+    /**
+     * Récupère plusieurs véhicules par leur ID, transmis dans le body (variante de {@code ?ids=} pour les grands lots).
+     * 
+     * @param requestDto les IDs des véhicules (au plus tp.api.batch.max-size)
+     * @return les véhicules trouvés dans l'ordre des IDs demandés, et les IDs inexistants
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<LookupResult<VehicleResponseDto>> lookupVehicles(@RequestBody LookupRequestDto requestDto) {
+        return getVehiclesByIds(requestDto.getIds());
+    }
+    
     /**
      * Crée un nouveau véhicule.
      * 
@@ -81,6 +166,23 @@ public class VehicleController {
         return ResponseEntity.status(HttpStatus.CREATED).body(vehicleDtoMapper.toResponseDto(vehicle));
     }
     
+    /**
+     * Importe en masse des véhicules depuis un fichier CSV (avec en-tête) ou NDJSON.
+     * Colonnes : registrationPlate, brand, model, motorization, color, acquisitionDate.
+     * Les lignes valides sont importées même si d'autres sont rejetées.
+     * 
+     * @param contentType text/csv ou application/x-ndjson (charset optionnel, UTF-8 par défaut)
+     * @param body le contenu du fichier
+     * @return le rapport d'import, avec le numéro et le motif de chaque ligne rejetée
+     */
+    @PostMapping(value = "/import", consumes = {ImportFormat.CSV_MEDIA_TYPE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportReport> importVehicles(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                       InputStream body) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        return ResponseEntity.ok(vehicleImportService.importVehicles(
+            body, mediaType.getCharset(), ImportFormat.fromMediaType(mediaType)));
+    }
+    
     /**
      * Modifie un véhicule existant.
      * 
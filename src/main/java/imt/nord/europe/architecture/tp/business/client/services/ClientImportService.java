@@ -0,0 +1,115 @@
+package imt.nord.europe.architecture.tp.business.client.services;
+
+import imt.nord.europe.architecture.tp.business.client.validators.ClientValidator;
+import imt.nord.europe.architecture.tp.common.imports.ImportFormat;
+import imt.nord.europe.architecture.tp.common.imports.ImportReport;
+import imt.nord.europe.architecture.tp.common.utils.ValidationUtils;
+import imt.nord.europe.architecture.tp.infrastructure.db.BulkCopyLoader;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ClientEntity;
+import imt.nord.europe.architecture.tp.infrastructure.imports.BulkImporter;
+import imt.nord.europe.architecture.tp.infrastructure.imports.ImportReader;
+import imt.nord.europe.architecture.tp.infrastructure.imports.ImportRow;
+import imt.nord.europe.architecture.tp.infrastructure.imports.ImportTarget;
+import imt.nord.europe.architecture.tp.infrastructure.index.UniqueKeyFilters;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Service d'import en masse des clients (reprise des clients d'une nouvelle agence).
+ *
+ * Chaque ligne est validée avec les règles de création d'un client ({@link ClientValidator}) ;
+ * l'unicité (identité, numéro de permis, email) est vérifiée par la base à l'insertion,
+ * par lots (voir {@link BulkCopyLoader}).
+ *
+ * Colonnes (CSV) ou champs (NDJSON) : firstName, lastName, dateOfBirth (AAAA-MM-JJ), licenseNumber,
+ * address, email, phone (optionnel).
+ */
+@Service
+@RequiredArgsConstructor
+public class ClientImportService implements ImportTarget<ClientEntity> {
+
+    private final ClientValidator clientValidator;
+    private final ImportReader importReader;
+    private final BulkImporter bulkImporter;
+    private final BulkCopyLoader bulkCopyLoader;
+    private final UniqueKeyFilters uniqueKeyFilters;
+
+    /**
+     * Importe les clients d'un fichier CSV ou NDJSON.
+     *
+     * @param input le contenu du fichier
+     * @param charset l'encodage du contenu (UTF-8 si null)
+     * @param format le format du contenu
+     * @return le rapport d'import (lignes importées et lignes rejetées avec leur motif)
+     */
+    public ImportReport importClients(InputStream input, Charset charset, ImportFormat format) {
+        return bulkImporter.run(importReader.read(input, charset, format), this);
+    }
+
+    @Override
+    public String name() {
+        return "clients";
+    }
+
+    @Override
+    public ClientEntity parse(ImportRow row) {
+        String firstName = row.text("firstName", 100);
+        String lastName = row.text("lastName", 100);
+        LocalDate dateOfBirth = row.date("dateOfBirth");
+        String licenseNumber = row.text("licenseNumber", 50);
+        String address = row.text("address", 255);
+        String email = row.text("email", 150);
+        String phone = row.text("phone", 20);
+
+        clientValidator.validateBasicFields(firstName, lastName, dateOfBirth, licenseNumber);
+        ValidationUtils.notEmpty(address, "L'adresse du client ne peut pas être vide");
+        ValidationUtils.notEmpty(email, "L'email du client ne peut pas être vide");
+
+        LocalDateTime now = LocalDateTime.now();
+        return ClientEntity.builder()
+            .firstName(firstName)
+            .lastName(lastName)
+            .dateOfBirth(dateOfBirth)
+            .licenseNumber(licenseNumber)
+            .address(address)
+            .email(email)
+            .phone(phone)
+            .createdAt(now)
+            .updatedAt(now)
+            .build();
+    }
+
+    /**
+     * Le numéro de permis (clé renvoyée par le chargement), puis l'email et l'identité.
+     */
+    @Override
+    public List<String> uniqueKeys(ClientEntity client) {
+        return List.of(
+            client.getLicenseNumber(),
+            "email:" + client.getEmail(),
+            "identity:" + client.getFirstName() + '\u001F' + client.getLastName() + '\u001F' + client.getDateOfBirth());
+    }
+
+    @Override
+    public Set<String> load(List<ClientEntity> clients) {
+        Set<String> inserted = bulkCopyLoader.insertClients(clients);
+        clients.stream()
+            .filter(client -> inserted.contains(client.getLicenseNumber()))
+            .forEach(client -> uniqueKeyFilters.recordClient(client.getLicenseNumber(),
+                client.getFirstName(), client.getLastName(), client.getDateOfBirth()));
+        return inserted;
+    }
+
+    @Override
+    public String duplicateMessage(ClientEntity client) {
+        return String.format("Un client avec la même identité, le même numéro de permis ('%s') ou le même email existe déjà.",
+            client.getLicenseNumber());
+    }
+}
@@ -2,17 +2,29 @@ package imt.nord.europe.architecture.tp.business.client.services;
 
 import imt.nord.europe.architecture.tp.business.client.models.Client;
 import imt.nord.europe.architecture.tp.business.client.validators.ClientValidator;
+import imt.nord.europe.architecture.tp.common.exceptions.DuplicateClientException;
 import imt.nord.europe.architecture.tp.common.exceptions.ResourceNotFoundException;
+import imt.nord.europe.architecture.tp.common.lookup.LookupResult;
+import imt.nord.europe.architecture.tp.common.exceptions.ValidationException;
+import imt.nord.europe.architecture.tp.common.pagination.CursorPage;
+import imt.nord.europe.architecture.tp.infrastructure.cache.ClientCache;
+import imt.nord.europe.architecture.tp.infrastructure.db.ConstraintViolations;
+import imt.nord.europe.architecture.tp.infrastructure.db.EntityStreamReader;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.ClientEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.mapper.ClientPersistenceMapper;
 import imt.nord.europe.architecture.tp.infrastructure.db.repository.ClientRepository;
+import imt.nord.europe.architecture.tp.infrastructure.index.UniqueKeyFilters;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -24,12 +36,21 @@ import java.util.stream.Collectors;
 @Transactional
 public class ClientService {
     
+    /**
+     * Longueur minimale d'un fragment d'email recherché : en deçà, il ne contient aucun trigramme complet
+     * et l'index de recherche ne peut pas filtrer.
+     */
+    static final int MIN_SEARCH_LENGTH = 3;
+    
     private final ClientRepository clientRepository;
     private final ClientPersistenceMapper clientMapper;
     private final ClientValidator clientValidator;
+    private final EntityStreamReader entityStreamReader;
+    private final ClientCache clientCache;
+    private final UniqueKeyFilters uniqueKeyFilters;
     
     /**
-     * Récupère un client par son ID.
+     * Récupère un client par son ID (servi par le cache des clients).
      * 
      * @param clientId l'ID du client
      * @return le client correspondant
@@ -37,13 +58,23 @@ public class ClientService {
      */
     @Transactional(readOnly = true)
     public Client getClientById(Long clientId) {
-        return clientRepository.findById(clientId)
-            .map(clientMapper::toDomainModel)
+        return clientCache.findById(clientId)
             .orElseThrow(() -> new ResourceNotFoundException("Le client avec l'ID " + clientId + " n'existe pas"));
     }
     
     /**
-     * Récupère un client par son email.
+     * Récupère plusieurs clients par leur ID (servis par le cache, les absents étant lus en une requête).
+     * 
+     * @param clientIds les IDs des clients (sans doublon)
+     * @return les clients trouvés dans l'ordre des IDs demandés, et les IDs inexistants
+     */
+    @Transactional(readOnly = true)
+    public LookupResult<Client> getClientsByIds(List<Long> clientIds) {
+        return LookupResult.of(clientIds, clientCache.findAllById(clientIds));
+    }
+    
+    /**
+     * Récupère un client par son email (servi par le cache des clients).
      * 
      * @param email l'email du client
      * @return le client correspondant
@@ -51,11 +82,23 @@ public class ClientService {
      */
     @Transactional(readOnly = true)
     public Client getClientByEmail(String email) {
-        return clientRepository.findByEmail(email)
-            .map(clientMapper::toDomainModel)
+        return clientCache.findByEmail(email)
             .orElseThrow(() -> new ResourceNotFoundException("Le client avec l'email '" + email + "' n'existe pas"));
     }
     
+    /**
+     * Récupère un client par son numéro de permis (servi par le cache des clients).
+     * 
+     * @param licenseNumber le numéro de permis du client
+     * @return le client correspondant
+     * @throws ResourceNotFoundException si le client n'existe pas
+     */
+    @Transactional(readOnly = true)
+    public Client getClientByLicenseNumber(String licenseNumber) {
+        return clientCache.findByLicenseNumber(licenseNumber)
+            .orElseThrow(() -> new ResourceNotFoundException("Le client avec le numéro de permis '" + licenseNumber + "' n'existe pas"));
+    }
+    
     /**
      * Récupère tous les clients.
      * 
@@ -69,6 +112,59 @@ public class ClientService {
             .collect(Collectors.toList());
     }
     
+    /**
+     * Récupère une page de clients, filtrés ou non par nom, par curseur sur l'ID.
+     * Seuls size + 1 clients sont lus, quelle que soit la taille de la table.
+     * 
+     * @param lastName le nom du client (optionnel)
+     * @param afterId optionnel - le curseur renvoyé par la page précédente (null pour la première page)
+     * @param size le nombre maximal de clients de la page
+     * @return la page de clients, triés par ID croissant
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Client> getClientsPage(String lastName, Long afterId, int size) {
+        return CursorPage.of(
+            clientRepository.findSliceByLastName(lastName, afterId == null ? 0L : afterId, PageRequest.ofSize(size)),
+            ClientEntity::getId,
+            clientMapper::toDomainModel);
+    }
+    
+    /**
+     * Parcourt tous les clients par curseur JDBC, sans les charger tous en mémoire (export).
+     * Chaque client est transmis au consommateur dès sa lecture.
+     * 
+     * @param consumer le consommateur des clients, appelé dans l'ordre des IDs
+     * @return le nombre de clients exportés
+     */
+    @Transactional(readOnly = true)
+    public long exportClients(Consumer<Client> consumer) {
+        return entityStreamReader.forEach(clientRepository.streamAllForExport(),
+            entity -> consumer.accept(clientMapper.toDomainModel(entity)));
+    }
+    
+    /**
+     * Recherche les clients dont l'email contient un fragment (sans tenir compte de la casse),
+     * les plus pertinents en premier : email identique au fragment, puis emails les plus proches.
+     * 
+     * @param query le fragment d'email recherché
+     * @param limit le nombre maximal de clients retournés
+     * @return les clients correspondants, classés par pertinence
+     * @throws ValidationException si le fragment compte moins de 3 caractères
+     */
+    @Transactional(readOnly = true)
+    public List<Client> searchClientsByEmail(String query, int limit) {
+        String term = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (term.length() < MIN_SEARCH_LENGTH) {
+            throw new ValidationException("La recherche doit contenir au moins " + MIN_SEARCH_LENGTH + " caractères");
+        }
+        
+        String pattern = "%" + term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return clientRepository.searchByEmail(pattern, term, limit)
+            .stream()
+            .map(clientMapper::toDomainModel)
+            .collect(Collectors.toList());
+    }
+    
     /**
      * Récupère tous les clients avec un certain nom.
      * 
@@ -115,7 +211,8 @@ public class ClientService {
             .build();
         
         // Sauvegarde
-        ClientEntity savedEntity = clientRepository.save(entity);
+        ClientEntity savedEntity = saveUnique(entity);
+        uniqueKeyFilters.recordClient(licenseNumber, firstName, lastName, dateOfBirth);
         return clientMapper.toDomainModel(savedEntity);
     }
     
@@ -154,7 +251,9 @@ public class ClientService {
         entity.setUpdatedAt(LocalDateTime.now());
         
         // Sauvegarde
-        ClientEntity updatedEntity = clientRepository.save(entity);
+        ClientEntity updatedEntity = saveUnique(entity);
+        uniqueKeyFilters.recordClient(licenseNumber, firstName, lastName, dateOfBirth);
+        clientCache.evict(clientId);
         return clientMapper.toDomainModel(updatedEntity);
     }
     
@@ -169,5 +268,32 @@ public class ClientService {
             throw new ResourceNotFoundException("Le client avec l'ID " + clientId + " n'existe pas");
         }
         clientRepository.deleteById(clientId);
+        clientCache.evict(clientId);
+    }
+    
+    /**
+     * Sauvegarde un client et force l'écriture en base pour que les contraintes d'unicité soient vérifiées
+     * immédiatement. Un doublon que la validation n'a pas recherché en base (voir {@link UniqueKeyFilters})
+     * est ainsi traduit en DuplicateClientException.
+     * 
+     * @param entity le client à sauvegarder
+     * @return le client sauvegardé
+     * @throws DuplicateClientException si l'identité ou le numéro de permis existe déjà
+     */
+    private ClientEntity saveUnique(ClientEntity entity) {
+        try {
+            ClientEntity savedEntity = clientRepository.save(entity);
+            clientRepository.flush();
+            return savedEntity;
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isUniqueViolation(e, ClientEntity.IDENTITY_CONSTRAINT)) {
+                throw DuplicateClientException.byIdentity(
+                    entity.getFirstName(), entity.getLastName(), entity.getDateOfBirth().toString());
+            }
+            if (ConstraintViolations.isUniqueViolation(e, "license_number")) {
+                throw DuplicateClientException.byLicenseNumber(entity.getLicenseNumber());
+            }
+            throw e;
+        }
     }
 }
@@ -5,6 +5,7 @@ import imt.nord.europe.architecture.tp.common.exceptions.ValidationException;
 import imt.nord.europe.architecture.tp.common.utils.ValidationUtils;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.ClientEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.repository.ClientRepository;
+import imt.nord.europe.architecture.tp.infrastructure.index.UniqueKeyFilters;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -16,12 +17,16 @@ import java.util.Optional;
  * Vérifie les règles de gestion suivantes :
  * 1. Un client doit être unique par (firstName, lastName, dateOfBirth)
  * 2. Deux clients distincts ne peuvent pas avoir le même numéro de permis
+ *
+ * Une clé absente des {@link UniqueKeyFilters} n'est pas recherchée en base :
+ * les contraintes uniques de la table clients restent la garantie finale.
  */
 @Component
 @RequiredArgsConstructor
 public class ClientValidator {
     
     private final ClientRepository clientRepository;
+    private final UniqueKeyFilters uniqueKeyFilters;
     
     /**
      * Valide un client lors de sa création.
@@ -58,9 +63,16 @@ public class ClientValidator {
     }
     
     /**
-     * Valide les champs basiques du client.
+     * Valide les champs basiques du client, sans vérifier l'unicité.
+     * Utilisé seul par l'import en masse, où l'unicité est vérifiée par la base à l'insertion.
+     * 
+     * @param firstName Le prénom du client
+     * @param lastName Le nom du client
+     * @param dateOfBirth La date de naissance du client
+     * @param licenseNumber Le numéro de permis
+     * @throws ValidationException si les données sont invalides
      */
-    private void validateBasicFields(String firstName, String lastName, LocalDate dateOfBirth, String licenseNumber) {
+    public void validateBasicFields(String firstName, String lastName, LocalDate dateOfBirth, String licenseNumber) {
         ValidationUtils.notEmpty(firstName, "Le prénom du client ne peut pas être vide");
         ValidationUtils.notEmpty(lastName, "Le nom du client ne peut pas être vide");
         ValidationUtils.notNull(dateOfBirth, "La date de naissance ne peut pas être null");
@@ -89,6 +101,10 @@ public class ClientValidator {
      * @throws DuplicateClientException si un client en double est détecté
      */
     private void validateClientUniqueness(String firstName, String lastName, LocalDate dateOfBirth, Long excludeClientId) {
+        if (!uniqueKeyFilters.mightContainIdentity(firstName, lastName, dateOfBirth)) {
+            return;
+        }
+        
         Optional<ClientEntity> existingClient = clientRepository.findByFirstNameAndLastNameAndDateOfBirth(firstName, lastName, dateOfBirth);
         
         if (existingClient.isPresent()) {
@@ -108,6 +124,10 @@ public class ClientValidator {
      * @throws DuplicateClientException si le numéro de permis existe déjà pour un autre client
      */
     private void validateLicenseNumberUniqueness(String licenseNumber, Long excludeClientId) {
+        if (!uniqueKeyFilters.mightContainLicenseNumber(licenseNumber)) {
+            return;
+        }
+        
         Optional<ClientEntity> existingClient = clientRepository.findByLicenseNumber(licenseNumber);
         
         if (existingClient.isPresent()) {
@@ -0,0 +1,14 @@
+package imt.nord.europe.architecture.tp.business.contract.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Réservation demandée dans un lot (création de contrat en masse).
+ *
+ * @param clientId l'ID du client
+ * @param vehicleId l'ID du véhicule
+ * @param startDate la date de début de location
+ * @param endDate la date de fin de location
+ */
+public record ContractBooking(Long clientId, Long vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
+}
@@ -0,0 +1,34 @@
+package imt.nord.europe.architecture.tp.business.contract.models;
+
+/**
+ * Résultat d'une réservation d'un lot.
+ *
+ * @param index la position de la réservation dans le lot (à partir de 0)
+ * @param status le résultat de la réservation
+ * @param contract le contrat créé (null si la réservation n'a pas été créée)
+ * @param error la raison du refus ou de l'abandon (null si le contrat a été créé)
+ */
+public record ContractBookingResult(int index, Status status, Contract contract, String error) {
+
+    public enum Status {
+        /** Contrat créé. */
+        CREATED,
+        /** Réservation refusée (données invalides, client ou véhicule introuvable, conflit). */
+        REJECTED,
+        /** Réservation valide mais non créée : le lot, en tout ou rien, contient des réservations refusées. */
+        ABORTED
+    }
+
+    public static ContractBookingResult created(int index, Contract contract) {
+        return new ContractBookingResult(index, Status.CREATED, contract, null);
+    }
+
+    public static ContractBookingResult rejected(int index, String error) {
+        return new ContractBookingResult(index, Status.REJECTED, null, error);
+    }
+
+    public static ContractBookingResult aborted(int index) {
+        return new ContractBookingResult(index, Status.ABORTED, null,
+            "Réservation non créée : le lot (tout ou rien) contient des réservations refusées");
+    }
+}
@@ -1,23 +1,52 @@
 package imt.nord.europe.architecture.tp.business.contract.services;
 
 import imt.nord.europe.architecture.tp.business.contract.models.Contract;
+import imt.nord.europe.architecture.tp.business.contract.models.ContractBooking;
+import imt.nord.europe.architecture.tp.business.contract.models.ContractBookingResult;
 import imt.nord.europe.architecture.tp.business.contract.validators.ContractValidator;
 import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
+import imt.nord.europe.architecture.tp.common.exceptions.BusinessException;
+import imt.nord.europe.architecture.tp.common.exceptions.ContractConflictException;
 import imt.nord.europe.architecture.tp.common.exceptions.ResourceNotFoundException;
-import imt.nord.europe.architecture.tp.infrastructure.db.entity.ClientEntity;
+import imt.nord.europe.architecture.tp.common.lookup.LookupResult;
+import imt.nord.europe.architecture.tp.common.exceptions.ValidationException;
+import imt.nord.europe.architecture.tp.common.pagination.CursorPage;
+import imt.nord.europe.architecture.tp.infrastructure.db.ContractBatchStore;
+import imt.nord.europe.architecture.tp.infrastructure.db.EntityStreamReader;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
-import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.mapper.ContractPersistenceMapper;
-import imt.nord.europe.architecture.tp.infrastructure.db.repository.ClientRepository;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractBookingCheck;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractSummary;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractValidationContext;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractArchiveRepository;
 import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractRepository;
-import imt.nord.europe.architecture.tp.infrastructure.db.repository.VehicleRepository;
+import imt.nord.europe.architecture.tp.infrastructure.event.SpringEventPublisher;
+import imt.nord.europe.architecture.tp.infrastructure.index.ContractAvailabilityIndex;
+import imt.nord.europe.architecture.tp.infrastructure.lock.VehicleLockManager;
+import imt.nord.europe.architecture.tp.infrastructure.scheduler.ContractDeadlineQueue;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service métier pour la gestion des contrats (locations).
@@ -28,11 +57,21 @@ import java.util.stream.Collectors;
 @Transactional
 public class ContractService {
     
+    /**
+     * Code SQLSTATE PostgreSQL d'une violation de contrainte d'exclusion (exclusion_violation).
+     */
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+    
     private final ContractRepository contractRepository;
-    private final ClientRepository clientRepository;
-    private final VehicleRepository vehicleRepository;
     private final ContractPersistenceMapper contractMapper;
     private final ContractValidator contractValidator;
+    private final ContractAvailabilityIndex availabilityIndex;
+    private final VehicleLockManager vehicleLockManager;
+    private final ContractDeadlineQueue deadlineQueue;
+    private final SpringEventPublisher eventPublisher;
+    private final EntityStreamReader entityStreamReader;
+    private final ContractArchiveRepository contractArchiveRepository;
+    private final ContractBatchStore contractBatchStore;
     
     /**
      * Récupère un contrat par son ID.
@@ -43,11 +82,49 @@ public class ContractService {
      */
     @Transactional(readOnly = true)
     public Contract getContractById(Long contractId) {
-        return contractRepository.findById(contractId)
+        return getContractById(contractId, false);
+    }
+    
+    /**
+     * Récupère un contrat par son ID, en cherchant aussi dans l'historique (contrats archivés) si demandé.
+     * 
+     * @param contractId l'ID du contrat
+     * @param includeArchived true pour chercher aussi parmi les contrats archivés
+     * @return le contrat correspondant
+     * @throws ResourceNotFoundException si le contrat n'existe pas
+     */
+    @Transactional(readOnly = true)
+    public Contract getContractById(Long contractId, boolean includeArchived) {
+        return contractRepository.findWithClientAndVehicleById(contractId)
             .map(contractMapper::toDomainModel)
+            .or(() -> includeArchived
+                ? contractArchiveRepository.findWithClientAndVehicleById(contractId).map(contractMapper::toDomainModel)
+                : Optional.empty())
             .orElseThrow(() -> new ResourceNotFoundException("Le contrat avec l'ID " + contractId + " n'existe pas"));
     }
     
+    /**
+     * Récupère plusieurs contrats par leur ID avec leur client et leur véhicule, en une requête
+     * (plus une requête sur l'historique pour les IDs non trouvés, si demandé).
+     * 
+     * @param contractIds les IDs des contrats (sans doublon)
+     * @param includeArchived true pour chercher aussi parmi les contrats archivés
+     * @return les contrats trouvés dans l'ordre des IDs demandés, et les IDs inexistants
+     */
+    @Transactional(readOnly = true)
+    public LookupResult<Contract> getContractsByIds(List<Long> contractIds, boolean includeArchived) {
+        Map<Long, Contract> found = new HashMap<>();
+        contractRepository.findWithClientAndVehicleByIdIn(contractIds)
+            .forEach(entity -> found.put(entity.getId(), contractMapper.toDomainModel(entity)));
+        
+        if (includeArchived && found.size() < contractIds.size()) {
+            List<Long> notFound = contractIds.stream().filter(id -> !found.containsKey(id)).toList();
+            contractArchiveRepository.findWithClientAndVehicleByIdIn(notFound)
+                .forEach(archived -> found.put(archived.getId(), contractMapper.toDomainModel(archived)));
+        }
+        return LookupResult.of(contractIds, found);
+    }
+    
     /**
      * Récupère tous les contrats.
      * 
@@ -55,38 +132,72 @@ public class ContractService {
      */
     @Transactional(readOnly = true)
     public List<Contract> getAllContracts() {
-        return contractRepository.findAll()
+        return contractRepository.findAllWithClientAndVehicle()
             .stream()
             .map(contractMapper::toDomainModel)
             .collect(Collectors.toList());
     }
     
     /**
-     * Récupère tous les contrats d'un client.
+     * Récupère tous les contrats (non archivés) d'un client.
      * 
      * @param clientId l'ID du client
      * @return la liste des contrats du client
      */
     @Transactional(readOnly = true)
     public List<Contract> getContractsByClientId(Long clientId) {
-        return contractRepository.findByClientId(clientId)
+        return getContractsByClientId(clientId, false);
+    }
+    
+    /**
+     * Récupère tous les contrats d'un client, y compris les contrats archivés si demandé.
+     * 
+     * @param clientId l'ID du client
+     * @param includeArchived true pour inclure les contrats archivés
+     * @return la liste des contrats du client
+     */
+    @Transactional(readOnly = true)
+    public List<Contract> getContractsByClientId(Long clientId, boolean includeArchived) {
+        List<Contract> contracts = contractRepository.findByClientId(clientId)
             .stream()
             .map(contractMapper::toDomainModel)
             .collect(Collectors.toList());
+        if (includeArchived) {
+            contractArchiveRepository.findByClientId(clientId)
+                .forEach(archived -> contracts.add(contractMapper.toDomainModel(archived)));
+        }
+        return contracts;
     }
     
     /**
-     * Récupère tous les contrats d'un véhicule.
+     * Récupère tous les contrats (non archivés) d'un véhicule.
      * 
      * @param vehicleId l'ID du véhicule
      * @return la liste des contrats du véhicule
      */
     @Transactional(readOnly = true)
     public List<Contract> getContractsByVehicleId(Long vehicleId) {
-        return contractRepository.findByVehicleId(vehicleId)
+        return getContractsByVehicleId(vehicleId, false);
+    }
+    
+    /**
+     * Récupère tous les contrats d'un véhicule, y compris les contrats archivés si demandé.
+     * 
+     * @param vehicleId l'ID du véhicule
+     * @param includeArchived true pour inclure les contrats archivés
+     * @return la liste des contrats du véhicule
+     */
+    @Transactional(readOnly = true)
+    public List<Contract> getContractsByVehicleId(Long vehicleId, boolean includeArchived) {
+        List<Contract> contracts = contractRepository.findByVehicleId(vehicleId)
             .stream()
             .map(contractMapper::toDomainModel)
             .collect(Collectors.toList());
+        if (includeArchived) {
+            contractArchiveRepository.findByVehicleId(vehicleId)
+                .forEach(archived -> contracts.add(contractMapper.toDomainModel(archived)));
+        }
+        return contracts;
     }
     
     /**
@@ -120,6 +231,71 @@ public class ContractService {
             .collect(Collectors.toList());
     }
     
+    /**
+     * Récupère une page de contrats filtrés par clientId, vehicleId et statut, par curseur sur l'ID.
+     * Seuls size + 1 contrats sont lus, quelle que soit la taille de la table, et projetés directement
+     * en vues de lecture (sans entités ni modèles métier intermédiaires).
+     * Avec l'historique, les contrats archivés sont lus avec le même curseur et fusionnés par ID :
+     * la pagination reste continue entre les deux tables.
+     * 
+     * @param clientId l'ID du client (optionnel)
+     * @param vehicleId l'ID du véhicule (optionnel)
+     * @param status le statut du contrat (optionnel)
+     * @param afterId optionnel - le curseur renvoyé par la page précédente (null pour la première page)
+     * @param size le nombre maximal de contrats de la page
+     * @param includeArchived true pour inclure les contrats archivés
+     * @return la page de contrats, triés par ID croissant
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ContractSummary> getContractsPage(Long clientId, Long vehicleId, ContractStatus status,
+                                                        Long afterId, int size, boolean includeArchived) {
+        long cursor = afterId == null ? 0L : afterId;
+        Pageable pageable = PageRequest.ofSize(size);
+        if (!includeArchived) {
+            return CursorPage.of(
+                contractRepository.findSummarySliceByFilters(clientId, vehicleId, status, cursor, pageable),
+                ContractSummary::id,
+                Function.identity());
+        }
+        return CursorPage.merge(
+            contractRepository.findSummarySliceByFilters(clientId, vehicleId, status, cursor, pageable),
+            contractArchiveRepository.findSummarySliceByFilters(clientId, vehicleId, status, cursor, pageable),
+            size,
+            ContractSummary::id,
+            Function.identity());
+    }
+    
+    /**
+     * Parcourt tous les contrats (non archivés) par curseur JDBC, sans les charger tous en mémoire (export).
+     * 
+     * @param consumer le consommateur des contrats, appelé dans l'ordre des IDs
+     * @return le nombre de contrats exportés
+     */
+    @Transactional(readOnly = true)
+    public long exportContracts(Consumer<Contract> consumer) {
+        return exportContracts(consumer, false);
+    }
+    
+    /**
+     * Parcourt tous les contrats par curseur JDBC, sans les charger tous en mémoire (export).
+     * Chaque contrat est transmis au consommateur dès sa lecture. Avec l'historique, les contrats actifs
+     * et archivés sont lus par deux curseurs ouverts ensemble et fusionnés par ID.
+     * 
+     * @param consumer le consommateur des contrats, appelé dans l'ordre des IDs
+     * @param includeArchived true pour inclure les contrats archivés
+     * @return le nombre de contrats exportés
+     */
+    @Transactional(readOnly = true)
+    public long exportContracts(Consumer<Contract> consumer, boolean includeArchived) {
+        Stream<Contract> contracts = contractRepository.streamAllForExport().map(contractMapper::toDomainModel);
+        if (includeArchived) {
+            contracts = EntityStreamReader.mergeSorted(contracts,
+                contractArchiveRepository.streamAllForExport().map(contractMapper::toDomainModel),
+                Comparator.comparing(Contract::getId));
+        }
+        return entityStreamReader.forEach(contracts, consumer);
+    }
+    
     /**
      * Récupère tous les contrats en attente.
      * 
@@ -165,6 +341,7 @@ public class ContractService {
      * - Le client existe
      * - Le véhicule existe et n'est pas en panne
      * - Pas de conflit de réservation pour le véhicule
+     * Une réservation coûte une lecture (contexte de validation) et une insertion.
      * 
      * @param clientId l'ID du client
      * @param vehicleId l'ID du véhicule
@@ -172,19 +349,19 @@ public class ContractService {
      * @param endDate la date de fin de location
      * @return le contrat créé
      * @throws ValidationException si les données ne respectent pas les règles métier
+     * @throws ContractConflictException si la période chevauche un autre contrat actif du véhicule
      */
     public Contract createContract(Long clientId, Long vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
-        // Validation métier complète
-        contractValidator.validateForCreation(clientId, vehicleId, startDate, endDate);
+        // Sérialise les réservations d'un même véhicule jusqu'à la fin de la transaction
+        vehicleLockManager.lockVehicles(vehicleId);
         
-        // Récupération des entités (validation nous assure qu'elles existent)
-        ClientEntity client = clientRepository.findById(clientId).orElseThrow();
-        VehicleEntity vehicle = vehicleRepository.findById(vehicleId).orElseThrow();
+        // Validation métier complète (client, véhicule et conflits lus en une requête)
+        ContractValidationContext context = contractValidator.validateForCreation(clientId, vehicleId, startDate, endDate);
         
-        // Création de l'entité contrat
+        // Création de l'entité contrat, associée au client et au véhicule déjà chargés
         ContractEntity entity = ContractEntity.builder()
-            .client(client)
-            .vehicle(vehicle)
+            .client(context.client())
+            .vehicle(context.vehicle())
             .startDate(startDate)
             .endDate(endDate)
             .status(ContractStatus.PENDING)
@@ -192,13 +369,96 @@ public class ContractService {
             .updatedAt(LocalDateTime.now())
             .build();
         
-        // Sauvegarde
-        ContractEntity savedEntity = contractRepository.save(entity);
+        // Sauvegarde (la contrainte d'exclusion en base garantit l'absence de chevauchement)
+        ContractEntity savedEntity = saveWithoutOverlap(entity);
+        availabilityIndex.track(savedEntity);
+        deadlineQueue.schedule(savedEntity);
         return contractMapper.toDomainModel(savedEntity);
     }
     
+    /**
+     * Crée un lot de contrats avec les règles de {@link #createContract}, en un nombre fixe de requêtes :
+     * - les champs de chaque réservation sont validés sans accès à la base ;
+     * - les véhicules du lot sont verrouillés (dans un ordre fixe, sans interblocage) ;
+     * - une requête vérifie toutes les réservations : client, véhicule, conflits avec les contrats actifs
+     *   et chevauchements entre réservations du lot ;
+     * - une requête insère les contrats acceptés, une autre les relit avec leur client et leur véhicule.
+     * 
+     * Les réservations sont examinées dans l'ordre du lot : une réservation qui chevauche une réservation
+     * précédente acceptée (même véhicule) est refusée. En mode tout ou rien, aucun contrat n'est créé
+     * si une réservation est refusée.
+     * 
+     * @param bookings les réservations demandées
+     * @param allOrNothing true pour ne créer aucun contrat si une réservation est refusée
+     * @return le résultat de chaque réservation, dans l'ordre du lot
+     * @throws ContractConflictException si un contrat concurrent (autre instance) a été créé entre la vérification
+     *         et l'insertion : aucun contrat du lot n'est créé
+     */
+    public List<ContractBookingResult> createContracts(List<ContractBooking> bookings, boolean allOrNothing) {
+        ContractBookingResult[] results = new ContractBookingResult[bookings.size()];
+        
+        // Validation des champs, sans accès à la base
+        Map<Integer, ContractBooking> candidates = new LinkedHashMap<>();
+        for (int index = 0; index < bookings.size(); index++) {
+            ContractBooking booking = bookings.get(index);
+            try {
+                contractValidator.validateBasicFields(booking.clientId(), booking.vehicleId(), booking.startDate(), booking.endDate());
+                candidates.put(index, booking);
+            } catch (BusinessException e) {
+                results[index] = ContractBookingResult.rejected(index, e.getMessage());
+            }
+        }
+        
+        // Sérialise les réservations des véhicules du lot jusqu'à la fin de la transaction
+        vehicleLockManager.lockVehicles(candidates.values().stream().map(ContractBooking::vehicleId).toArray(Long[]::new));
+        
+        // Vérification ensembliste, puis règles appliquées dans l'ordre du lot
+        Set<Integer> accepted = new LinkedHashSet<>();
+        for (ContractBookingCheck check : contractBatchStore.check(candidates)) {
+            ContractBooking booking = candidates.get(check.index());
+            try {
+                contractValidator.validateBatchBooking(booking, check, accepted);
+                accepted.add(check.index());
+            } catch (BusinessException e) {
+                results[check.index()] = ContractBookingResult.rejected(check.index(), e.getMessage());
+            }
+        }
+        
+        if (allOrNothing && accepted.size() < bookings.size()) {
+            accepted.forEach(index -> results[index] = ContractBookingResult.aborted(index));
+            return Arrays.asList(results);
+        }
+        
+        // Insertion des contrats acceptés en une requête
+        List<ContractBooking> acceptedBookings = accepted.stream().map(candidates::get).toList();
+        List<Long> ids;
+        try {
+            ids = contractBatchStore.insertPending(acceptedBookings, LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            if (isExclusionViolation(e)) {
+                throw new ContractConflictException(
+                    "Un contrat concurrent chevauche une réservation du lot : aucun contrat n'a été créé, le lot peut être renvoyé.");
+            }
+            throw e;
+        }
+        
+        Map<Long, ContractEntity> created = contractRepository.findWithClientAndVehicleByIdIn(ids).stream()
+            .collect(Collectors.toMap(ContractEntity::getId, Function.identity()));
+        int position = 0;
+        for (Integer index : accepted) {
+            ContractEntity entity = created.get(ids.get(position++));
+            availabilityIndex.track(entity);
+            deadlineQueue.schedule(entity);
+            results[index] = ContractBookingResult.created(index, contractMapper.toDomainModel(entity));
+        }
+        return Arrays.asList(results);
+    }
+    
     /**
      * Modifie un contrat existant avec validation métier.
+     * Le contrat est lu en verrouillant sa ligne, puis l'ancien et le nouveau véhicule sont verrouillés
+     * avant la validation : ni le contrat ni les réservations de ces véhicules ne peuvent changer entre
+     * la validation et l'écriture.
      * 
      * @param contractId l'ID du contrat à modifier
      * @param clientId l'ID du client
@@ -211,26 +471,31 @@ public class ContractService {
      */
     public Contract updateContract(Long contractId, Long clientId, Long vehicleId, 
                                   LocalDateTime startDate, LocalDateTime endDate) {
-        // Récupération du contrat existant
-        ContractEntity entity = contractRepository.findById(contractId)
+        // Lecture du contrat existant, verrouillé jusqu'à la fin de la transaction (son véhicule ne peut plus changer)
+        ContractEntity entity = contractRepository.findForUpdateById(contractId)
             .orElseThrow(() -> new ResourceNotFoundException("Le contrat avec l'ID " + contractId + " n'existe pas"));
         
-        // Validation métier
-        contractValidator.validateForUpdate(contractId, clientId, vehicleId, startDate, endDate);
+        // Verrouille l'ancien et le nouveau véhicule jusqu'à la fin de la transaction
+        vehicleLockManager.lockVehicles(entity.getVehicle().getId(), vehicleId);
         
-        // Récupération des entités
-        ClientEntity client = clientRepository.findById(clientId).orElseThrow();
-        VehicleEntity vehicle = vehicleRepository.findById(vehicleId).orElseThrow();
+        // Validation métier (client, véhicule et conflits lus en une requête)
+        ContractValidationContext context = contractValidator.validateForUpdate(contractId, clientId, vehicleId, startDate, endDate);
         
         // Mise à jour des champs
-        entity.setClient(client);
-        entity.setVehicle(vehicle);
+        entity.setClient(context.client());
+        entity.setVehicle(context.vehicle());
+        if (!startDate.equals(entity.getStartDate())) {
+            // Nouvelle date de début : le contrat pourra de nouveau être signalé s'il est encore en attente
+            entity.setStartSignalledAt(null);
+        }
         entity.setStartDate(startDate);
         entity.setEndDate(endDate);
         entity.setUpdatedAt(LocalDateTime.now());
         
-        // Sauvegarde
-        ContractEntity updatedEntity = contractRepository.save(entity);
+        // Sauvegarde (la contrainte d'exclusion en base garantit l'absence de chevauchement)
+        ContractEntity updatedEntity = saveWithoutOverlap(entity);
+        availabilityIndex.track(updatedEntity);
+        deadlineQueue.schedule(updatedEntity);
         return contractMapper.toDomainModel(updatedEntity);
     }
     
@@ -244,7 +509,7 @@ public class ContractService {
      * @throws ValidationException si la transition n'est pas autorisée
      */
     public Contract updateContractStatus(Long contractId, ContractStatus newStatus) {
-        ContractEntity entity = contractRepository.findById(contractId)
+        ContractEntity entity = contractRepository.findWithClientAndVehicleById(contractId)
             .orElseThrow(() -> new ResourceNotFoundException("Le contrat avec l'ID " + contractId + " n'existe pas"));
         
         // Valider la transition via le validator
@@ -254,6 +519,8 @@ public class ContractService {
         entity.setUpdatedAt(LocalDateTime.now());
         
         ContractEntity updatedEntity = contractRepository.save(entity);
+        availabilityIndex.track(updatedEntity);
+        deadlineQueue.schedule(updatedEntity);
         return contractMapper.toDomainModel(updatedEntity);
     }
     
@@ -290,6 +557,82 @@ public class ContractService {
         return updateContractStatus(contractId, ContractStatus.OVERDUE);
     }
     
+    /**
+     * Marque en une seule requête les contrats en cours donnés dont la date de fin est dépassée
+     * comme en retard (ONGOING → OVERDUE).
+     * La transition est garantie par la clause WHERE de la requête : seuls les contrats ONGOING sont modifiés.
+     * Un événement de retard est enregistré pour chaque contrat modifié, dans la même transaction.
+     * 
+     * @param contractIds les IDs des contrats à traiter
+     * @param now la date et heure de référence
+     * @return les IDs des contrats passés en retard
+     */
+    public List<Long> markOverdueContracts(List<Long> contractIds, LocalDateTime now) {
+        if (contractIds.isEmpty()) {
+            return List.of();
+        }
+        List<Long> overdueContractIds = contractRepository.markOverdueOngoingContracts(contractIds, now);
+        overdueContractIds.forEach(eventPublisher::publishContractOverdueEvent);
+        return overdueContractIds;
+    }
+    
+    /**
+     * Signale en une seule requête les contrats donnés encore en attente (PENDING) à leur date de début.
+     * Le signalement est enregistré sur le contrat : un contrat déjà signalé ne l'est pas de nouveau.
+     * Un événement de date de début atteinte est enregistré pour chaque contrat signalé, dans la même transaction.
+     * 
+     * @param contractIds les IDs des contrats à traiter
+     * @param now la date et heure de référence
+     * @return les IDs des contrats signalés
+     */
+    public List<Long> signalStartDueContracts(List<Long> contractIds, LocalDateTime now) {
+        if (contractIds.isEmpty()) {
+            return List.of();
+        }
+        List<Long> signalledContractIds = contractRepository.markPendingContractsStartSignalled(contractIds, now);
+        signalledContractIds.forEach(eventPublisher::publishContractStartDueEvent);
+        return signalledContractIds;
+    }
+    
+    /**
+     * Change en une seule requête le statut de plusieurs contrats.
+     * La machine d'état est appliquée en SQL : seuls les contrats dont le statut courant autorise
+     * la transition sont modifiés, les autres sont ignorés (sans erreur).
+     * 
+     * @param contractIds les IDs des contrats à traiter
+     * @param newStatus le nouveau statut
+     * @return les IDs des contrats effectivement modifiés
+     * @throws ValidationException si aucun statut ne permet de passer au statut demandé
+     */
+    public List<Long> updateContractsStatus(Collection<Long> contractIds, ContractStatus newStatus) {
+        Set<ContractStatus> fromStatuses = contractValidator.allowedSourceStatuses(newStatus);
+        if (fromStatuses.isEmpty()) {
+            throw new ValidationException("Aucun contrat ne peut passer au statut " + newStatus);
+        }
+        if (contractIds.isEmpty()) {
+            return List.of();
+        }
+        return trackTransitions(contractRepository.transitionContracts(
+            contractIds, statusNames(fromStatuses), newStatus.name(), LocalDateTime.now()), newStatus);
+    }
+    
+    /**
+     * Change en une seule requête le statut de tous les contrats d'un véhicule ayant le statut donné
+     * (par exemple : annulation des contrats en attente d'un véhicule en panne).
+     * 
+     * @param vehicleId l'ID du véhicule
+     * @param currentStatus le statut des contrats à traiter
+     * @param newStatus le nouveau statut
+     * @return les IDs des contrats modifiés
+     * @throws ValidationException si la transition n'est pas autorisée
+     */
+    public List<Long> updateVehicleContractsStatus(Long vehicleId, ContractStatus currentStatus, ContractStatus newStatus) {
+        contractValidator.validateStatusTransition(currentStatus, newStatus);
+        
+        return trackTransitions(contractRepository.transitionVehicleContracts(
+            vehicleId, List.of(currentStatus.name()), newStatus.name(), LocalDateTime.now()), newStatus);
+    }
+    
     /**
      * Annule un contrat (passe le statut à CANCELLED).
      * 
@@ -312,5 +655,63 @@ public class ContractService {
             throw new ResourceNotFoundException("Le contrat avec l'ID " + contractId + " n'existe pas");
         }
         contractRepository.deleteById(contractId);
+        availabilityIndex.untrack(contractId);
+    }
+    
+    /**
+     * Répercute une transition ensembliste dans l'index des disponibilités : les contrats qui ne sont plus actifs
+     * en sont retirés. Les périodes ne changent pas, et les échéances des contrats passés en cours sont reprises
+     * au prochain rechargement des minuteries du cycle de vie.
+     * 
+     * @return les IDs des contrats modifiés, inchangés
+     */
+    private List<Long> trackTransitions(List<Long> contractIds, ContractStatus newStatus) {
+        if (newStatus == ContractStatus.COMPLETED || newStatus == ContractStatus.CANCELLED) {
+            contractIds.forEach(availabilityIndex::untrack);
+        }
+        return contractIds;
+    }
+    
+    private static List<String> statusNames(Set<ContractStatus> statuses) {
+        return statuses.stream().map(ContractStatus::name).toList();
+    }
+    
+    /**
+     * Sauvegarde un contrat et force l'écriture en base pour que la contrainte d'exclusion
+     * (vehicle_id, period) soit vérifiée immédiatement.
+     * Une violation de cette contrainte est traduite en ContractConflictException.
+     * 
+     * @param entity le contrat à sauvegarder
+     * @return le contrat sauvegardé
+     * @throws ContractConflictException si la période chevauche un autre contrat actif du véhicule
+     */
+    private ContractEntity saveWithoutOverlap(ContractEntity entity) {
+        try {
+            ContractEntity savedEntity = contractRepository.save(entity);
+            contractRepository.flush();
+            return savedEntity;
+        } catch (DataIntegrityViolationException e) {
+            if (isExclusionViolation(e)) {
+                throw ContractConflictException.overlappingPeriod(
+                    entity.getVehicle().getRegistrationPlate(),
+                    entity.getStartDate().toString(),
+                    entity.getEndDate().toString()
+                );
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Vérifie si l'exception provient d'une violation de contrainte d'exclusion PostgreSQL.
+     */
+    private boolean isExclusionViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && EXCLUSION_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
     }
 }
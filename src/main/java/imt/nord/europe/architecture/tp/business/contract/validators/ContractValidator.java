@@ -1,22 +1,23 @@
 package imt.nord.europe.architecture.tp.business.contract.validators;
 
+import imt.nord.europe.architecture.tp.business.contract.models.ContractBooking;
 import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
 import imt.nord.europe.architecture.tp.common.exceptions.ContractConflictException;
 import imt.nord.europe.architecture.tp.common.exceptions.ValidationException;
 import imt.nord.europe.architecture.tp.common.utils.ValidationUtils;
 import imt.nord.europe.architecture.tp.common.enums.VehicleStatus;
-import imt.nord.europe.architecture.tp.infrastructure.db.entity.ClientEntity;
-import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
-import imt.nord.europe.architecture.tp.infrastructure.db.repository.ClientRepository;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractBookingCheck;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractValidationContext;
 import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractRepository;
-import imt.nord.europe.architecture.tp.infrastructure.db.repository.VehicleRepository;
+import imt.nord.europe.architecture.tp.infrastructure.index.ContractAvailabilityIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Validateur métier pour les contrats (locations).
@@ -25,14 +26,20 @@ import java.util.Optional;
  * 2. Un véhicule ne peut être loué que par un seul client sur une période donnée
  * 3. Les véhicules en panne ne peuvent pas être loués
  * 4. Les dates de fin doivent être après les dates de début
+ *
+ * Les vérifications d'une réservation (client, véhicule, conflits) s'appuient sur un
+ * {@link ContractValidationContext} lu en une seule requête, retourné au service qui le réutilise
+ * pour enregistrer le contrat sans relire le client ni le véhicule.
+ * La recherche de conflit n'est pas faite en base lorsque l'index de disponibilité en mémoire répond seul
+ * pour le véhicule (une seule instance écrit les contrats), ni lorsque la contrainte d'exclusion PostgreSQL
+ * est en place : elle rejette alors l'écriture en conflit.
  */
 @Component
 @RequiredArgsConstructor
 public class ContractValidator {
     
     private final ContractRepository contractRepository;
-    private final ClientRepository clientRepository;
-    private final VehicleRepository vehicleRepository;
+    private final ContractAvailabilityIndex availabilityIndex;
     
     /**
      * Valide un contrat lors de sa création.
@@ -41,15 +48,14 @@ public class ContractValidator {
      * @param vehicleId L'ID du véhicule
      * @param startDate La date de début de location
      * @param endDate La date de fin de location
+     * @return le contexte de validation (client et véhicule à associer au contrat)
      * @throws ValidationException si les données sont invalides
      * @throws ContractConflictException si un conflit de réservation est détecté
      */
-    public void validateForCreation(Long clientId, Long vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
+    public ContractValidationContext validateForCreation(Long clientId, Long vehicleId,
+                                                         LocalDateTime startDate, LocalDateTime endDate) {
         validateBasicFields(clientId, vehicleId, startDate, endDate);
-        validateClientExists(clientId);
-        validateVehicleExists(vehicleId);
-        validateVehicleNotBrokenDown(vehicleId);
-        validateNoConflictingContracts(vehicleId, startDate, endDate, null);
+        return validateBooking(clientId, vehicleId, startDate, endDate, null);
     }
     
     /**
@@ -60,22 +66,27 @@ public class ContractValidator {
      * @param vehicleId L'ID du véhicule
      * @param startDate La date de début de location
      * @param endDate La date de fin de location
+     * @return le contexte de validation (client et véhicule à associer au contrat)
      * @throws ValidationException si les données sont invalides
      * @throws ContractConflictException si un conflit de réservation est détecté
      */
-    public void validateForUpdate(Long contractId, Long clientId, Long vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
+    public ContractValidationContext validateForUpdate(Long contractId, Long clientId, Long vehicleId,
+                                                       LocalDateTime startDate, LocalDateTime endDate) {
         ValidationUtils.notNull(contractId, "L'ID du contrat ne peut pas être null");
         validateBasicFields(clientId, vehicleId, startDate, endDate);
-        validateClientExists(clientId);
-        validateVehicleExists(vehicleId);
-        validateVehicleNotBrokenDown(vehicleId);
-        validateNoConflictingContracts(vehicleId, startDate, endDate, contractId);
+        return validateBooking(clientId, vehicleId, startDate, endDate, contractId);
     }
     
     /**
-     * Valide les champs basiques du contrat.
+     * Valide les champs basiques du contrat, sans accès à la base.
+     * 
+     * @param clientId L'ID du client
+     * @param vehicleId L'ID du véhicule
+     * @param startDate La date de début de location
+     * @param endDate La date de fin de location
+     * @throws ValidationException si les données sont invalides
      */
-    private void validateBasicFields(Long clientId, Long vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
+    public void validateBasicFields(Long clientId, Long vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
         ValidationUtils.notNull(clientId, "L'ID du client ne peut pas être null");
         ValidationUtils.notNull(vehicleId, "L'ID du véhicule ne peut pas être null");
         ValidationUtils.notNull(startDate, "La date de début ne peut pas être null");
@@ -94,74 +105,94 @@ public class ContractValidator {
     }
     
     /**
-     * Valide que le client existe.
+     * Charge le contexte de la réservation en une requête puis vérifie, dans l'ordre :
+     * - que le client existe ;
+     * - que le véhicule existe et n'est pas en panne ;
+     * - qu'aucun contrat PENDING, ONGOING ou OVERDUE du véhicule ne chevauche la période.
+     * Si l'index de disponibilité est fiable pour ce véhicule, il répond seul au conflit et seuls le client
+     * et le véhicule sont lus. Sinon, la base recherche les conflits, sauf si la contrainte d'exclusion est en place.
      * 
      * @param clientId L'ID du client
-     * @throws ValidationException si le client n'existe pas
-     */
-    private void validateClientExists(Long clientId) {
-        if (!clientRepository.existsById(clientId)) {
-            throw new ValidationException("Le client avec l'ID " + clientId + " n'existe pas");
-        }
-    }
-    
-    /**
-     * Valide que le véhicule existe.
-     * 
      * @param vehicleId L'ID du véhicule
-     * @throws ValidationException si le véhicule n'existe pas
+     * @param startDate La date de début demandée
+     * @param endDate La date de fin demandée
+     * @param excludeContractId L'ID du contrat à exclure (null si création)
+     * @return le contexte de validation
+     * @throws ValidationException si le client ou le véhicule n'existe pas
+     * @throws ContractConflictException si le véhicule est en panne ou déjà réservé sur la période
      */
-    private void validateVehicleExists(Long vehicleId) {
-        if (!vehicleRepository.existsById(vehicleId)) {
+    private ContractValidationContext validateBooking(Long clientId, Long vehicleId, LocalDateTime startDate,
+                                                      LocalDateTime endDate, Long excludeContractId) {
+        Optional<ContractValidationContext> loaded;
+        if (availabilityIndex.isReliable(vehicleId)) {
+            boolean conflict = availabilityIndex.hasConflict(vehicleId, startDate, endDate, excludeContractId);
+            loaded = contractRepository.findBookingParties(clientId, vehicleId)
+                .map(parties -> new ContractValidationContext(parties.client(), parties.vehicle(), conflict));
+        } else if (availabilityIndex.isOverlapConstraintEnforced()) {
+            loaded = contractRepository.findBookingParties(clientId, vehicleId);
+        } else {
+            loaded = contractRepository.findValidationContext(clientId, vehicleId, startDate, endDate, excludeContractId);
+        }
+        ContractValidationContext context = loaded
+            .orElseThrow(() -> new ValidationException("Le client avec l'ID " + clientId + " n'existe pas"));
+        
+        VehicleEntity vehicle = context.vehicle();
+        if (vehicle == null) {
             throw new ValidationException("Le véhicule avec l'ID " + vehicleId + " n'existe pas");
         }
-    }
-    
-    /**
-     * Valide que le véhicule n'est pas en panne.
-     * 
-     * @param vehicleId L'ID du véhicule
-     * @throws ContractConflictException si le véhicule est en panne
-     */
-    private void validateVehicleNotBrokenDown(Long vehicleId) {
-        Optional<VehicleEntity> vehicle = vehicleRepository.findById(vehicleId);
         
-        if (vehicle.isPresent() && VehicleStatus.BROKEN_DOWN.equals(vehicle.get().getStatus())) {
+        if (VehicleStatus.BROKEN_DOWN.equals(vehicle.getStatus())) {
             throw ContractConflictException.overlappingPeriod(
-                vehicle.get().getRegistrationPlate(),
+                vehicle.getRegistrationPlate(),
                 "N/A (véhicule en panne)",
                 "N/A"
             );
         }
+        
+        if (context.conflict()) {
+            throw ContractConflictException.overlappingPeriod(
+                vehicle.getRegistrationPlate(),
+                startDate.toString(),
+                endDate.toString()
+            );
+        }
+        return context;
     }
     
     /**
-     * Valide qu'il n'y a pas de conflit de réservation pour le véhicule sur la période demandée.
-     * Un conflit existe si un contrat avec un statut PENDING, ONGOING ou OVERDUE chevauche la période.
+     * Valide une réservation d'un lot à partir de sa vérification ensembliste, avec les mêmes règles
+     * que {@link #validateForCreation} : client existant, véhicule existant et non en panne, aucun contrat actif
+     * du véhicule qui chevauche la période. De plus, la réservation ne doit chevaucher aucune réservation
+     * déjà acceptée du lot sur le même véhicule.
      * 
-     * @param vehicleId L'ID du véhicule
-     * @param startDate La date de début demandée
-     * @param endDate La date de fin demandée
-     * @param excludeContractId L'ID du contrat à exclure (null si création)
-     * @throws ContractConflictException si un conflit est détecté
+     * @param booking La réservation
+     * @param check La vérification de la réservation, lue pour tout le lot
+     * @param acceptedIndexes Les positions des réservations du lot déjà acceptées
+     * @throws ValidationException si le client ou le véhicule n'existe pas
+     * @throws ContractConflictException si le véhicule est en panne ou déjà réservé sur la période
      */
-    private void validateNoConflictingContracts(Long vehicleId, LocalDateTime startDate, LocalDateTime endDate, Long excludeContractId) {
-        List<ContractEntity> conflictingContracts = contractRepository.findConflictingContracts(vehicleId, startDate, endDate);
+    public void validateBatchBooking(ContractBooking booking, ContractBookingCheck check, Set<Integer> acceptedIndexes) {
+        if (!check.clientExists()) {
+            throw new ValidationException("Le client avec l'ID " + booking.clientId() + " n'existe pas");
+        }
+        if (!check.vehicleExists()) {
+            throw new ValidationException("Le véhicule avec l'ID " + booking.vehicleId() + " n'existe pas");
+        }
         
-        for (ContractEntity contract : conflictingContracts) {
-            // Si on est en modification et c'est le même contrat, c'est OK
-            if (excludeContractId != null && contract.getId().equals(excludeContractId)) {
-                continue;
-            }
-            
-            Optional<VehicleEntity> vehicle = vehicleRepository.findById(vehicleId);
-            if (vehicle.isPresent()) {
-                throw ContractConflictException.overlappingPeriod(
-                    vehicle.get().getRegistrationPlate(),
-                    startDate.toString(),
-                    endDate.toString()
-                );
-            }
+        if (VehicleStatus.BROKEN_DOWN.equals(check.vehicleStatus())) {
+            throw ContractConflictException.overlappingPeriod(
+                check.registrationPlate(),
+                "N/A (véhicule en panne)",
+                "N/A"
+            );
+        }
+        
+        if (check.conflict() || check.overlappingIndexes().stream().anyMatch(acceptedIndexes::contains)) {
+            throw ContractConflictException.overlappingPeriod(
+                check.registrationPlate(),
+                booking.startDate().toString(),
+                booking.endDate().toString()
+            );
         }
     }
     
@@ -220,4 +251,21 @@ public class ContractValidator {
                     "Cet état est terminal.");
         }
     }
+    
+    /**
+     * Retourne les statuts à partir desquels un contrat peut passer au statut demandé,
+     * selon la machine d'état de {@link #validateStatusTransition(ContractStatus, ContractStatus)}.
+     * Utilisé par les transitions ensemblistes, qui vérifient le statut courant directement en SQL.
+     * 
+     * @param newStatus le nouveau statut demandé
+     * @return les statuts d'origine autorisés (vide si aucun)
+     */
+    public Set<ContractStatus> allowedSourceStatuses(ContractStatus newStatus) {
+        return switch (newStatus) {
+            case PENDING -> EnumSet.noneOf(ContractStatus.class);
+            case ONGOING -> EnumSet.of(ContractStatus.PENDING);
+            case COMPLETED, OVERDUE -> EnumSet.of(ContractStatus.ONGOING);
+            case CANCELLED -> EnumSet.of(ContractStatus.PENDING, ContractStatus.OVERDUE);
+        };
+    }
 }
@@ -0,0 +1,106 @@
+package imt.nord.europe.architecture.tp.business.vehicle.services;
+
+import imt.nord.europe.architecture.tp.business.vehicle.validators.VehicleValidator;
+import imt.nord.europe.architecture.tp.common.enums.VehicleStatus;
+import imt.nord.europe.architecture.tp.common.exceptions.VehicleNotAvailableException;
+import imt.nord.europe.architecture.tp.common.imports.ImportFormat;
+import imt.nord.europe.architecture.tp.common.imports.ImportReport;
+import imt.nord.europe.architecture.tp.common.utils.ValidationUtils;
+import imt.nord.europe.architecture.tp.infrastructure.db.BulkCopyLoader;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
+import imt.nord.europe.architecture.tp.infrastructure.imports.BulkImporter;
+import imt.nord.europe.architecture.tp.infrastructure.imports.ImportReader;
+import imt.nord.europe.architecture.tp.infrastructure.imports.ImportRow;
+import imt.nord.europe.architecture.tp.infrastructure.imports.ImportTarget;
+import imt.nord.europe.architecture.tp.infrastructure.index.UniqueKeyFilters;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Service d'import en masse des véhicules (reprise du parc d'une nouvelle agence).
+ *
+ * Chaque ligne est validée avec les règles de création d'un véhicule ({@link VehicleValidator}) ;
+ * l'unicité de l'immatriculation est vérifiée par la base à l'insertion, par lots (voir {@link BulkCopyLoader}).
+ * Les véhicules importés sont disponibles (statut AVAILABLE).
+ *
+ * Colonnes (CSV) ou champs (NDJSON) : registrationPlate, brand, model, motorization, color,
+ * acquisitionDate (AAAA-MM-JJ).
+ */
+@Service
+@RequiredArgsConstructor
+public class VehicleImportService implements ImportTarget<VehicleEntity> {
+
+    private final VehicleValidator vehicleValidator;
+    private final ImportReader importReader;
+    private final BulkImporter bulkImporter;
+    private final BulkCopyLoader bulkCopyLoader;
+    private final UniqueKeyFilters uniqueKeyFilters;
+
+    /**
+     * Importe les véhicules d'un fichier CSV ou NDJSON.
+     *
+     * @param input le contenu du fichier
+     * @param charset l'encodage du contenu (UTF-8 si null)
+     * @param format le format du contenu
+     * @return le rapport d'import (lignes importées et lignes rejetées avec leur motif)
+     */
+    public ImportReport importVehicles(InputStream input, Charset charset, ImportFormat format) {
+        return bulkImporter.run(importReader.read(input, charset, format), this);
+    }
+
+    @Override
+    public String name() {
+        return "vehicles";
+    }
+
+    @Override
+    public VehicleEntity parse(ImportRow row) {
+        String registrationPlate = row.text("registrationPlate", 20);
+        String brand = row.text("brand", 100);
+        String model = row.text("model", 100);
+        String motorization = row.text("motorization", 100);
+        String color = row.text("color", 50);
+        LocalDate acquisitionDate = row.date("acquisitionDate");
+
+        vehicleValidator.validateBasicFields(registrationPlate, brand, model, acquisitionDate);
+        ValidationUtils.notEmpty(motorization, "La motorisation du véhicule ne peut pas être vide");
+        ValidationUtils.notEmpty(color, "La couleur du véhicule ne peut pas être vide");
+
+        LocalDateTime now = LocalDateTime.now();
+        return VehicleEntity.builder()
+            .registrationPlate(registrationPlate)
+            .brand(brand)
+            .model(model)
+            .motorization(motorization)
+            .color(color)
+            .acquisitionDate(acquisitionDate)
+            .status(VehicleStatus.AVAILABLE)
+            .createdAt(now)
+            .updatedAt(now)
+            .build();
+    }
+
+    @Override
+    public List<String> uniqueKeys(VehicleEntity vehicle) {
+        return List.of(vehicle.getRegistrationPlate());
+    }
+
+    @Override
+    public Set<String> load(List<VehicleEntity> vehicles) {
+        Set<String> inserted = bulkCopyLoader.insertVehicles(vehicles);
+        inserted.forEach(uniqueKeyFilters::recordRegistrationPlate);
+        return inserted;
+    }
+
+    @Override
+    public String duplicateMessage(VehicleEntity vehicle) {
+        return VehicleNotAvailableException.duplicateRegistrationPlate(vehicle.getRegistrationPlate()).getMessage();
+    }
+}
@@ -4,17 +4,27 @@ import imt.nord.europe.architecture.tp.business.vehicle.models.Vehicle;
 import imt.nord.europe.architecture.tp.business.vehicle.validators.VehicleValidator;
 import imt.nord.europe.architecture.tp.common.enums.VehicleStatus;
 import imt.nord.europe.architecture.tp.common.exceptions.ResourceNotFoundException;
+import imt.nord.europe.architecture.tp.common.lookup.LookupResult;
+import imt.nord.europe.architecture.tp.common.exceptions.VehicleNotAvailableException;
+import imt.nord.europe.architecture.tp.common.pagination.CursorPage;
+import imt.nord.europe.architecture.tp.infrastructure.cache.VehicleCache;
+import imt.nord.europe.architecture.tp.infrastructure.db.ConstraintViolations;
+import imt.nord.europe.architecture.tp.infrastructure.db.EntityStreamReader;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.mapper.VehiclePersistenceMapper;
 import imt.nord.europe.architecture.tp.infrastructure.db.repository.VehicleRepository;
 import imt.nord.europe.architecture.tp.infrastructure.event.SpringEventPublisher;
+import imt.nord.europe.architecture.tp.infrastructure.index.UniqueKeyFilters;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -30,9 +40,12 @@ public class VehicleService {
     private final VehiclePersistenceMapper vehicleMapper;
     private final VehicleValidator vehicleValidator;
     private final SpringEventPublisher eventPublisher;
+    private final EntityStreamReader entityStreamReader;
+    private final VehicleCache vehicleCache;
+    private final UniqueKeyFilters uniqueKeyFilters;
     
     /**
-     * Récupère un véhicule par son ID.
+     * Récupère un véhicule par son ID (servi par le cache des véhicules).
      * 
      * @param vehicleId l'ID du véhicule
      * @return le véhicule correspondant
@@ -40,13 +53,23 @@ public class VehicleService {
      */
     @Transactional(readOnly = true)
     public Vehicle getVehicleById(Long vehicleId) {
-        return vehicleRepository.findById(vehicleId)
-            .map(vehicleMapper::toDomainModel)
+        return vehicleCache.findById(vehicleId)
             .orElseThrow(() -> new ResourceNotFoundException("Le véhicule avec l'ID " + vehicleId + " n'existe pas"));
     }
     
     /**
-     * Récupère un véhicule par son numéro d'immatriculation.
+     * Récupère plusieurs véhicules par leur ID (servis par le cache, les absents étant lus en une requête).
+     * 
+     * @param vehicleIds les IDs des véhicules (sans doublon)
+     * @return les véhicules trouvés dans l'ordre des IDs demandés, et les IDs inexistants
+     */
+    @Transactional(readOnly = true)
+    public LookupResult<Vehicle> getVehiclesByIds(List<Long> vehicleIds) {
+        return LookupResult.of(vehicleIds, vehicleCache.findAllById(vehicleIds));
+    }
+    
+    /**
+     * Récupère un véhicule par son numéro d'immatriculation (servi par le cache des véhicules).
      * 
      * @param registrationPlate le numéro d'immatriculation
      * @return le véhicule correspondant
@@ -54,8 +77,7 @@ public class VehicleService {
      */
     @Transactional(readOnly = true)
     public Vehicle getVehicleByRegistrationPlate(String registrationPlate) {
-        return vehicleRepository.findByRegistrationPlate(registrationPlate)
-            .map(vehicleMapper::toDomainModel)
+        return vehicleCache.findByRegistrationPlate(registrationPlate)
             .orElseThrow(() -> new ResourceNotFoundException("Le véhicule avec l'immatriculation '" + registrationPlate + "' n'existe pas"));
     }
     
@@ -141,6 +163,63 @@ public class VehicleService {
             .collect(Collectors.toList());
     }
     
+    /**
+     * Récupère une page de véhicules filtrés par statut et marque, par curseur sur l'ID.
+     * Seuls size + 1 véhicules sont lus, quelle que soit la taille de la table.
+     * 
+     * @param status le statut du véhicule (optionnel)
+     * @param brand la marque du véhicule (optionnel)
+     * @param afterId optionnel - le curseur renvoyé par la page précédente (null pour la première page)
+     * @param size le nombre maximal de véhicules de la page
+     * @return la page de véhicules, triés par ID croissant
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Vehicle> getVehiclesPage(VehicleStatus status, String brand, Long afterId, int size) {
+        return CursorPage.of(
+            vehicleRepository.findSliceByStatusAndBrand(status, brand, afterId == null ? 0L : afterId, PageRequest.ofSize(size)),
+            VehicleEntity::getId,
+            vehicleMapper::toDomainModel);
+    }
+    
+    /**
+     * Parcourt tous les véhicules par curseur JDBC, sans les charger tous en mémoire (export).
+     * Chaque véhicule est transmis au consommateur dès sa lecture.
+     * 
+     * @param consumer le consommateur des véhicules, appelé dans l'ordre des IDs
+     * @return le nombre de véhicules exportés
+     */
+    @Transactional(readOnly = true)
+    public long exportVehicles(Consumer<Vehicle> consumer) {
+        return entityStreamReader.forEach(vehicleRepository.streamAllForExport(),
+            entity -> consumer.accept(vehicleMapper.toDomainModel(entity)));
+    }
+    
+    /**
+     * Récupère une page de véhicules libres sur une période donnée, triés par ID.
+     * Un véhicule est libre s'il n'est pas en panne et n'a aucun contrat actif chevauchant la période.
+     * Les filtres marque et motorisation sont optionnels (null = pas de filtre).
+     * 
+     * @param from le début de la période
+     * @param to la fin de la période
+     * @param brand la marque du véhicule (optionnel)
+     * @param motorization la motorisation du véhicule (optionnel)
+     * @param afterId le curseur : ID du dernier véhicule de la page précédente (null pour la première page)
+     * @param size le nombre de véhicules par page
+     * @return la page des véhicules disponibles
+     * @throws ValidationException si la période est invalide
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Vehicle> getAvailableVehiclesPage(LocalDateTime from, LocalDateTime to, String brand,
+                                                        String motorization, Long afterId, int size) {
+        vehicleValidator.validateAvailabilityPeriod(from, to);
+        
+        return CursorPage.of(
+            vehicleRepository.findAvailableSliceBetween(from, to, brand, motorization,
+                afterId == null ? 0L : afterId, PageRequest.ofSize(size)),
+            VehicleEntity::getId,
+            vehicleMapper::toDomainModel);
+    }
+    
     /**
      * Crée un nouveau véhicule avec validation métier.
      * 
@@ -172,7 +251,8 @@ public class VehicleService {
             .build();
         
         // Sauvegarde
-        VehicleEntity savedEntity = vehicleRepository.save(entity);
+        VehicleEntity savedEntity = saveUnique(entity);
+        uniqueKeyFilters.recordRegistrationPlate(registrationPlate);
         return vehicleMapper.toDomainModel(savedEntity);
     }
     
@@ -209,7 +289,9 @@ public class VehicleService {
         entity.setUpdatedAt(LocalDateTime.now());
         
         // Sauvegarde
-        VehicleEntity updatedEntity = vehicleRepository.save(entity);
+        VehicleEntity updatedEntity = saveUnique(entity);
+        uniqueKeyFilters.recordRegistrationPlate(registrationPlate);
+        vehicleCache.evict(vehicleId);
         return vehicleMapper.toDomainModel(updatedEntity);
     }
     
@@ -229,6 +311,7 @@ public class VehicleService {
         entity.setUpdatedAt(LocalDateTime.now());
         
         VehicleEntity updatedEntity = vehicleRepository.save(entity);
+        vehicleCache.evict(vehicleId);
         return vehicleMapper.toDomainModel(updatedEntity);
     }
     
@@ -280,5 +363,28 @@ public class VehicleService {
             throw new ResourceNotFoundException("Le véhicule avec l'ID " + vehicleId + " n'existe pas");
         }
         vehicleRepository.deleteById(vehicleId);
+        vehicleCache.evict(vehicleId);
+    }
+    
+    /**
+     * Sauvegarde un véhicule et force l'écriture en base pour que la contrainte d'unicité de l'immatriculation
+     * soit vérifiée immédiatement. Un doublon que la validation n'a pas recherché en base
+     * (voir {@link UniqueKeyFilters}) est ainsi traduit en VehicleNotAvailableException.
+     * 
+     * @param entity le véhicule à sauvegarder
+     * @return le véhicule sauvegardé
+     * @throws VehicleNotAvailableException si l'immatriculation existe déjà
+     */
+    private VehicleEntity saveUnique(VehicleEntity entity) {
+        try {
+            VehicleEntity savedEntity = vehicleRepository.save(entity);
+            vehicleRepository.flush();
+            return savedEntity;
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isUniqueViolation(e, "registration_plate")) {
+                throw VehicleNotAvailableException.duplicateRegistrationPlate(entity.getRegistrationPlate());
+            }
+            throw e;
+        }
     }
 }
@@ -6,10 +6,12 @@ import imt.nord.europe.architecture.tp.common.utils.ValidationUtils;
 import imt.nord.europe.architecture.tp.common.enums.VehicleStatus;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.repository.VehicleRepository;
+import imt.nord.europe.architecture.tp.infrastructure.index.UniqueKeyFilters;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -17,12 +19,16 @@ import java.util.Optional;
  * Vérifie les règles de gestion suivantes :
  * 1. Un véhicule doit être unique par numéro d'immatriculation
  * 2. Un véhicule en panne ne peut pas être loué
+ *
+ * Une immatriculation absente des {@link UniqueKeyFilters} n'est pas recherchée en base :
+ * la contrainte unique de la table vehicles reste la garantie finale.
  */
 @Component
 @RequiredArgsConstructor
 public class VehicleValidator {
     
     private final VehicleRepository vehicleRepository;
+    private final UniqueKeyFilters uniqueKeyFilters;
     
     /**
      * Valide un véhicule lors de sa création.
@@ -79,9 +85,29 @@ public class VehicleValidator {
     }
     
     /**
-     * Valide les champs basiques du véhicule.
+     * Valide une période de recherche de disponibilité.
+     * 
+     * @param from Le début de la période
+     * @param to La fin de la période
+     * @throws ValidationException si la période est incomplète ou invalide
      */
-    private void validateBasicFields(String registrationPlate, String brand, String model, LocalDate acquisitionDate) {
+    public void validateAvailabilityPeriod(LocalDateTime from, LocalDateTime to) {
+        ValidationUtils.notNull(from, "La date de début de la période ne peut pas être null");
+        ValidationUtils.notNull(to, "La date de fin de la période ne peut pas être null");
+        ValidationUtils.isTrue(to.isAfter(from), "La date de fin de la période doit être après la date de début");
+    }
+    
+    /**
+     * Valide les champs basiques du véhicule, sans vérifier l'unicité de l'immatriculation.
+     * Utilisé seul par l'import en masse, où l'unicité est vérifiée par la base à l'insertion.
+     * 
+     * @param registrationPlate Le numéro d'immatriculation
+     * @param brand La marque du véhicule
+     * @param model Le modèle du véhicule
+     * @param acquisitionDate La date d'acquisition
+     * @throws ValidationException si les données sont invalides
+     */
+    public void validateBasicFields(String registrationPlate, String brand, String model, LocalDate acquisitionDate) {
         ValidationUtils.notEmpty(registrationPlate, "Le numéro d'immatriculation ne peut pas être vide");
         ValidationUtils.notEmpty(brand, "La marque du véhicule ne peut pas être vide");
         ValidationUtils.notEmpty(model, "Le modèle du véhicule ne peut pas être vide");
@@ -101,6 +127,10 @@ public class VehicleValidator {
      * @throws VehicleNotAvailableException si le numéro d'immatriculation existe déjà
      */
     private void validateRegistrationPlateUniqueness(String registrationPlate, Long excludeVehicleId) {
+        if (!uniqueKeyFilters.mightContainRegistrationPlate(registrationPlate)) {
+            return;
+        }
+        
         Optional<VehicleEntity> existingVehicle = vehicleRepository.findByRegistrationPlate(registrationPlate);
         
         if (existingVehicle.isPresent()) {
@@ -108,9 +138,7 @@ public class VehicleValidator {
             if (excludeVehicleId != null && existingVehicle.get().getId().equals(excludeVehicleId)) {
                 return;
             }
-            throw new VehicleNotAvailableException(
-                "Un véhicule avec le numéro d'immatriculation '" + registrationPlate + "' existe déjà"
-            );
+            throw VehicleNotAvailableException.duplicateRegistrationPlate(registrationPlate);
         }
     }
 }
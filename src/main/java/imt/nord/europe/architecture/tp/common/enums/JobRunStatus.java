@@ -0,0 +1,32 @@
+package imt.nord.europe.architecture.tp.common.enums;
+
+/**
+ * Énumération des statuts possibles d'une exécution de tâche planifiée.
+ */
+public enum JobRunStatus {
+    
+    /**
+     * En cours - L'exécution est en cours (ou a été interrompue brutalement)
+     */
+    RUNNING("En cours"),
+    
+    /**
+     * Terminée - L'exécution s'est terminée avec succès
+     */
+    COMPLETED("Terminée"),
+    
+    /**
+     * En échec - L'exécution s'est arrêtée sur une erreur et reprendra au dernier point de reprise
+     */
+    FAILED("En échec");
+    
+    private final String label;
+    
+    JobRunStatus(String label) {
+        this.label = label;
+    }
+    
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,32 @@
+package imt.nord.europe.architecture.tp.common.enums;
+
+/**
+ * Énumération des types d'événements métier enregistrés dans l'outbox.
+ */
+public enum OutboxEventType {
+    
+    /**
+     * Panne de véhicule - L'identifiant associé est celui du véhicule
+     */
+    VEHICLE_BREAKDOWN("Panne de véhicule"),
+    
+    /**
+     * Contrat en retard - L'identifiant associé est celui du contrat
+     */
+    CONTRACT_OVERDUE("Contrat en retard"),
+    
+    /**
+     * Début de contrat atteint - Le contrat est toujours en attente à sa date de début
+     */
+    CONTRACT_START_DUE("Début de contrat atteint");
+    
+    private final String label;
+    
+    OutboxEventType(String label) {
+        this.label = label;
+    }
+    
+    public String getLabel() {
+        return label;
+    }
+}
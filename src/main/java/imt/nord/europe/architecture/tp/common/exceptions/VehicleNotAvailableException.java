@@ -24,4 +24,10 @@ public class VehicleNotAvailableException extends BusinessException {
             String.format("Le véhicule '%s' est déjà loué pour la période demandée.", registrationPlate)
         );
     }
+    
+    public static VehicleNotAvailableException duplicateRegistrationPlate(String registrationPlate) {
+        return new VehicleNotAvailableException(
+            "Un véhicule avec le numéro d'immatriculation '" + registrationPlate + "' existe déjà"
+        );
+    }
 }
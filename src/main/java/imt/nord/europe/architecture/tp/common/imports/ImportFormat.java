@@ -0,0 +1,64 @@
+package imt.nord.europe.architecture.tp.common.imports;
+
+import imt.nord.europe.architecture.tp.common.exceptions.ValidationException;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Formats acceptés par l'import en masse.
+ *
+ * Les noms de colonnes (CSV) et de champs (NDJSON) sont ceux des DTO de création de l'API
+ * (registrationPlate, brand, ... pour les véhicules ; firstName, lastName, ... pour les clients).
+ */
+public enum ImportFormat {
+
+    /**
+     * CSV (RFC 4180) : une ligne d'en-tête, séparateur virgule, valeurs éventuellement entre guillemets.
+     */
+    CSV,
+
+    /**
+     * NDJSON : un objet JSON par ligne.
+     */
+    NDJSON;
+
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+
+    /**
+     * Détermine le format d'après le type de contenu d'une requête.
+     *
+     * @param mediaType le type de contenu (text/csv ou application/x-ndjson)
+     * @return le format correspondant
+     * @throws ValidationException si le type de contenu n'est pas supporté
+     */
+    public static ImportFormat fromMediaType(MediaType mediaType) {
+        if (MediaType.parseMediaType(CSV_MEDIA_TYPE).includes(mediaType)) {
+            return CSV;
+        }
+        if (MediaType.APPLICATION_NDJSON.includes(mediaType)) {
+            return NDJSON;
+        }
+        throw new ValidationException("Type de contenu non supporté pour l'import : " + mediaType
+            + " (attendu : " + CSV_MEDIA_TYPE + " ou " + MediaType.APPLICATION_NDJSON_VALUE + ")");
+    }
+
+    /**
+     * Détermine le format d'après l'extension d'un fichier.
+     *
+     * @param fileName le nom du fichier (.csv, .ndjson ou .jsonl)
+     * @return le format correspondant
+     * @throws ValidationException si l'extension n'est pas supportée
+     */
+    public static ImportFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new ValidationException("Extension de fichier non supportée pour l'import : " + fileName
+            + " (attendu : .csv, .ndjson ou .jsonl)");
+    }
+}
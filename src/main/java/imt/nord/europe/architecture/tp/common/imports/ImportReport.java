@@ -0,0 +1,23 @@
+package imt.nord.europe.architecture.tp.common.imports;
+
+import java.util.List;
+
+/**
+ * Rapport d'un import en masse.
+ *
+ * @param total le nombre de lignes lues (hors en-tête et lignes vides)
+ * @param imported le nombre de lignes insérées en base
+ * @param failed le nombre de lignes rejetées
+ * @param errors le détail des lignes rejetées, dans l'ordre du fichier (limité par tp.import.max-reported-errors)
+ */
+public record ImportReport(long total, long imported, long failed, List<RowError> errors) {
+
+    /**
+     * Ligne rejetée.
+     *
+     * @param line le numéro de la ligne dans le fichier (à partir de 1, en-tête compris)
+     * @param message la raison du rejet
+     */
+    public record RowError(long line, String message) {
+    }
+}
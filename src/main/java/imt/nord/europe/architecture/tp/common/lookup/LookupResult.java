@@ -0,0 +1,50 @@
+package imt.nord.europe.architecture.tp.common.lookup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Résultat d'une lecture par lot d'IDs (multi-get).
+ *
+ * Les éléments trouvés sont rendus dans l'ordre des IDs demandés ; les IDs sans élément sont listés à part,
+ * dans le même ordre, plutôt que de faire échouer toute la lecture.
+ *
+ * @param items les éléments trouvés, dans l'ordre des IDs demandés
+ * @param missingIds les IDs demandés qui n'existent pas
+ * @param <T> le type des éléments
+ */
+public record LookupResult<T>(List<T> items, List<Long> missingIds) {
+
+    /**
+     * Construit le résultat à partir des éléments lus en base, dans un ordre quelconque.
+     *
+     * @param ids les IDs demandés (sans doublon)
+     * @param found les éléments trouvés, par ID
+     * @return le résultat dans l'ordre des IDs demandés
+     */
+    public static <T> LookupResult<T> of(List<Long> ids, Map<Long, T> found) {
+        List<T> items = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : ids) {
+            T item = found.get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new LookupResult<>(items, missingIds);
+    }
+
+    /**
+     * Convertit les éléments trouvés en conservant leur ordre et les IDs manquants.
+     *
+     * @param mapper la conversion de chaque élément
+     * @return le résultat converti
+     */
+    public <R> LookupResult<R> map(Function<T, R> mapper) {
+        return new LookupResult<>(items.stream().map(mapper).toList(), missingIds);
+    }
+}
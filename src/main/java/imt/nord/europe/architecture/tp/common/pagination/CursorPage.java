@@ -0,0 +1,79 @@
+package imt.nord.europe.architecture.tp.common.pagination;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page d'une liste parcourue par curseur (pagination « keyset »).
+ *
+ * Les éléments sont triés par ID croissant ; le curseur de la page suivante est l'ID du dernier élément.
+ * La page suivante est lue avec la condition {@code id > curseur}, qui s'appuie sur l'index de la clé primaire :
+ * le coût d'une page ne dépend pas de sa position dans la liste, contrairement à OFFSET.
+ *
+ * @param items les éléments de la page
+ * @param nextCursor le curseur de la page suivante, null s'il s'agit de la dernière page
+ * @param <T> le type des éléments
+ */
+public record CursorPage<T>(List<T> items, Long nextCursor) {
+
+    /**
+     * Construit une page à partir d'une tranche lue en base.
+     *
+     * @param slice la tranche lue (triée par ID croissant)
+     * @param idOf l'accesseur de l'ID d'un élément lu
+     * @param mapper la conversion de chaque élément
+     * @return la page convertie
+     */
+    public static <E, T> CursorPage<T> of(Slice<E> slice, Function<E, Long> idOf, Function<E, T> mapper) {
+        List<E> content = slice.getContent();
+        Long nextCursor = slice.hasNext() && !content.isEmpty() ? idOf.apply(content.getLast()) : null;
+        return new CursorPage<>(content.stream().map(mapper).toList(), nextCursor);
+    }
+
+    /**
+     * Construit une page à partir de deux tranches lues avec le même curseur dans deux tables
+     * dont les IDs ne se recouvrent pas (contrats actifs et archivés) : les éléments sont fusionnés
+     * par ID croissant et seuls les size premiers sont conservés.
+     *
+     * @param first la première tranche (triée par ID croissant, au plus size éléments)
+     * @param second la seconde tranche (triée par ID croissant, au plus size éléments)
+     * @param size la taille de page
+     * @param idOf l'accesseur de l'ID d'un élément lu
+     * @param mapper la conversion de chaque élément
+     * @return la page convertie
+     */
+    public static <E, T> CursorPage<T> merge(Slice<E> first, Slice<E> second, int size,
+                                             Function<E, Long> idOf, Function<E, T> mapper) {
+        List<E> merged = new ArrayList<>(first.getContent());
+        merged.addAll(second.getContent());
+        merged.sort(Comparator.comparing(idOf));
+
+        boolean hasNext = merged.size() > size || first.hasNext() || second.hasNext();
+        List<E> content = merged.size() > size ? merged.subList(0, size) : merged;
+        Long nextCursor = hasNext && !content.isEmpty() ? idOf.apply(content.getLast()) : null;
+        return new CursorPage<>(content.stream().map(mapper).toList(), nextCursor);
+    }
+
+    /**
+     * Convertit les éléments de la page en conservant le curseur.
+     *
+     * @param mapper la conversion de chaque élément
+     * @return la page convertie
+     */
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor);
+    }
+
+    /**
+     * Indique s'il reste des éléments après cette page.
+     *
+     * @return true si une page suivante existe
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
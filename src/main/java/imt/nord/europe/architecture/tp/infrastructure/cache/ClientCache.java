@@ -0,0 +1,90 @@
+package imt.nord.europe.architecture.tp.infrastructure.cache;
+
+import imt.nord.europe.architecture.tp.business.client.models.Client;
+import imt.nord.europe.architecture.tp.infrastructure.config.CacheProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.mapper.ClientPersistenceMapper;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.ClientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cache des clients, par ID, par e-mail et par numéro de permis (voir {@link NaturalKeyCache}).
+ * Toute modification ou suppression d'un client doit appeler {@link #evict(Long)}.
+ */
+@Component
+public class ClientCache {
+
+    private static final String EMAIL = "email";
+    private static final String LICENSE_NUMBER = "licenseNumber";
+
+    private final NaturalKeyCache<Client> cache;
+
+    public ClientCache(ClientRepository clientRepository,
+                       ClientPersistenceMapper clientMapper,
+                       CacheProperties cacheProperties,
+                       MeterRegistry meterRegistry) {
+        this.cache = new NaturalKeyCache<>("clients", cacheProperties.getClients(), meterRegistry,
+            Client::getId,
+            id -> clientRepository.findById(id).map(clientMapper::toDomainModel),
+            ids -> clientRepository.findAllById(ids).stream().map(clientMapper::toDomainModel).toList(),
+            Map.of(
+                EMAIL, new NaturalKeyCache.NaturalKey<>(Client::getEmail,
+                    email -> clientRepository.findByEmail(email).map(clientMapper::toDomainModel)),
+                LICENSE_NUMBER, new NaturalKeyCache.NaturalKey<>(Client::getLicenseNumber,
+                    licenseNumber -> clientRepository.findByLicenseNumber(licenseNumber).map(clientMapper::toDomainModel))),
+            client -> client.toBuilder().build());
+    }
+
+    /**
+     * Retourne un client par son ID.
+     *
+     * @param clientId l'ID du client
+     * @return le client, ou vide s'il n'existe pas
+     */
+    public Optional<Client> findById(Long clientId) {
+        return cache.get(clientId);
+    }
+
+    /**
+     * Retourne plusieurs clients par leur ID ; ceux absents du cache sont lus en une requête.
+     *
+     * @param clientIds les IDs des clients
+     * @return les clients trouvés, par ID (les IDs inexistants sont absents)
+     */
+    public Map<Long, Client> findAllById(Collection<Long> clientIds) {
+        return cache.getAll(clientIds);
+    }
+
+    /**
+     * Retourne un client par son adresse e-mail.
+     *
+     * @param email l'adresse e-mail
+     * @return le client, ou vide s'il n'existe pas
+     */
+    public Optional<Client> findByEmail(String email) {
+        return cache.getByKey(EMAIL, email);
+    }
+
+    /**
+     * Retourne un client par son numéro de permis.
+     *
+     * @param licenseNumber le numéro de permis
+     * @return le client, ou vide s'il n'existe pas
+     */
+    public Optional<Client> findByLicenseNumber(String licenseNumber) {
+        return cache.getByKey(LICENSE_NUMBER, licenseNumber);
+    }
+
+    /**
+     * Retire un client modifié ou supprimé du cache.
+     *
+     * @param clientId l'ID du client
+     */
+    public void evict(Long clientId) {
+        cache.evict(clientId);
+    }
+}
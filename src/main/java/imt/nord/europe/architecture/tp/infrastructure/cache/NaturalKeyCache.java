@@ -0,0 +1,190 @@
+package imt.nord.europe.architecture.tp.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import imt.nord.europe.architecture.tp.infrastructure.config.CacheProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.routing.RoutingContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache en mémoire borné d'objets de référence, par ID et par clés naturelles (immatriculation, e-mail...).
+ *
+ * - le nombre d'objets est plafonné et chaque entrée expire après sa durée de vie ;
+ * - une clé naturelle mène à un ID : l'objet trouvé n'est servi que si sa clé correspond toujours,
+ *   sinon il est relu (une clé modifiée ou réattribuée n'est donc jamais servie à tort) ;
+ * - {@link #evict(Long)} retire un objet immédiatement puis à la fin de la transaction courante,
+ *   pour qu'une lecture concurrente de l'état précédent ne reste pas en cache après le commit ;
+ * - les objets servis sont des copies : un appelant qui modifie l'objet reçu n'altère pas le cache ;
+ * - une lecture par lot ({@link #getAll(Collection)}) charge tous les objets absents du cache en une requête.
+ *
+ * Les absences ne sont pas mises en cache, et les objets sont chargés depuis la base principale
+ * (un réplica en retard remettrait en cache l'état qui vient d'être invalidé).
+ * Métriques Micrometer (tag cache = nom du cache, et nom.keys pour les clés naturelles) :
+ * cache.gets (result = hit / miss), cache.size, cache.evictions.
+ *
+ * @param <T> le type des objets en cache
+ */
+public class NaturalKeyCache<T> {
+
+    /**
+     * Clé naturelle d'un objet : comment la lire sur l'objet et comment charger l'objet à partir d'elle.
+     *
+     * @param extractor lit la clé sur un objet
+     * @param loader charge l'objet correspondant à une clé
+     */
+    public record NaturalKey<T>(Function<T, String> extractor, Function<String, Optional<T>> loader) {
+    }
+
+    private final Cache<Long, T> byId;
+    private final Cache<String, Long> idsByKey;
+    private final Function<T, Long> idOf;
+    private final Map<String, NaturalKey<T>> naturalKeys;
+    private final UnaryOperator<T> copy;
+    private final Function<Long, T> loadById;
+    private final Function<Collection<Long>, List<T>> bulkLoader;
+
+    /**
+     * Nombre d'invalidations : un objet chargé par clé naturelle n'est mis en cache
+     * que si aucune invalidation n'a eu lieu pendant son chargement.
+     */
+    private long generation;
+
+    public NaturalKeyCache(String name, CacheProperties.Spec spec, MeterRegistry meterRegistry,
+                           Function<T, Long> idOf, Function<Long, Optional<T>> loader,
+                           Function<Collection<Long>, List<T>> bulkLoader,
+                           Map<String, NaturalKey<T>> naturalKeys, UnaryOperator<T> copy) {
+        this.byId = Caffeine.newBuilder()
+            .maximumSize(spec.getMaxSize())
+            .expireAfterWrite(spec.getTtl())
+            .recordStats()
+            .build();
+        this.idsByKey = Caffeine.newBuilder()
+            .maximumSize(spec.getMaxSize() * naturalKeys.size())
+            .expireAfterWrite(spec.getTtl())
+            .recordStats()
+            .build();
+        this.idOf = idOf;
+        this.naturalKeys = naturalKeys;
+        this.copy = copy;
+        this.loadById = id -> RoutingContext.usePrimary(() -> loader.apply(id)).map(this::indexKeys).orElse(null);
+        this.bulkLoader = bulkLoader;
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, name);
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByKey, name + ".keys");
+    }
+
+    /**
+     * Retourne l'objet d'un ID, chargé une seule fois en cas d'accès concurrents.
+     *
+     * @param id l'ID de l'objet
+     * @return une copie de l'objet, ou vide s'il n'existe pas
+     */
+    public Optional<T> get(Long id) {
+        return Optional.ofNullable(byId.get(id, loadById)).map(copy);
+    }
+
+    /**
+     * Retourne les objets de plusieurs IDs : ceux absents du cache sont chargés ensemble, en une requête.
+     *
+     * @param ids les IDs des objets
+     * @return une copie de chaque objet trouvé, par ID (les IDs inexistants sont absents)
+     */
+    public Map<Long, T> getAll(Collection<Long> ids) {
+        Map<Long, T> found = new HashMap<>(byId.getAllPresent(ids));
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            if (!found.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long loadedAt = currentGeneration();
+            for (T value : RoutingContext.usePrimary(() -> bulkLoader.apply(missing))) {
+                putIfUnchanged(value, loadedAt);
+                found.put(idOf.apply(value), value);
+            }
+        }
+        found.replaceAll((id, value) -> copy.apply(value));
+        return found;
+    }
+
+    /**
+     * Retourne l'objet correspondant à une clé naturelle.
+     *
+     * @param keyName le nom de la clé naturelle
+     * @param keyValue la valeur de la clé
+     * @return une copie de l'objet, ou vide s'il n'existe pas
+     */
+    public Optional<T> getByKey(String keyName, String keyValue) {
+        NaturalKey<T> naturalKey = naturalKeys.get(keyName);
+        Long id = idsByKey.getIfPresent(keyName + ':' + keyValue);
+        if (id != null) {
+            T cached = byId.getIfPresent(id);
+            if (cached != null && keyValue.equals(naturalKey.extractor().apply(cached))) {
+                return Optional.of(copy.apply(cached));
+            }
+        }
+
+        long loadedAt = currentGeneration();
+        Optional<T> loaded = RoutingContext.usePrimary(() -> naturalKey.loader().apply(keyValue));
+        loaded.ifPresent(value -> putIfUnchanged(value, loadedAt));
+        return loaded.map(copy);
+    }
+
+    /**
+     * Retire un objet du cache, immédiatement et à la fin de la transaction courante (commit ou rollback).
+     *
+     * @param id l'ID de l'objet modifié ou supprimé
+     */
+    public void evict(Long id) {
+        evictNow(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(id);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Long id) {
+        synchronized (this) {
+            generation++;
+        }
+        T previous = byId.asMap().remove(id);
+        if (previous != null) {
+            naturalKeys.forEach((keyName, naturalKey) ->
+                idsByKey.invalidate(keyName + ':' + naturalKey.extractor().apply(previous)));
+        }
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    private synchronized void putIfUnchanged(T value, long loadedAt) {
+        if (generation == loadedAt) {
+            byId.put(idOf.apply(value), indexKeys(value));
+        }
+    }
+
+    private T indexKeys(T value) {
+        Long id = idOf.apply(value);
+        naturalKeys.forEach((keyName, naturalKey) ->
+            idsByKey.put(keyName + ':' + naturalKey.extractor().apply(value), id));
+        return value;
+    }
+}
@@ -0,0 +1,76 @@
+package imt.nord.europe.architecture.tp.infrastructure.cache;
+
+import imt.nord.europe.architecture.tp.business.vehicle.models.Vehicle;
+import imt.nord.europe.architecture.tp.infrastructure.config.CacheProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.mapper.VehiclePersistenceMapper;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.VehicleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cache des véhicules, par ID et par immatriculation (voir {@link NaturalKeyCache}).
+ * Toute modification ou suppression d'un véhicule doit appeler {@link #evict(Long)}.
+ */
+@Component
+public class VehicleCache {
+
+    private static final String REGISTRATION_PLATE = "registrationPlate";
+
+    private final NaturalKeyCache<Vehicle> cache;
+
+    public VehicleCache(VehicleRepository vehicleRepository,
+                        VehiclePersistenceMapper vehicleMapper,
+                        CacheProperties cacheProperties,
+                        MeterRegistry meterRegistry) {
+        this.cache = new NaturalKeyCache<>("vehicles", cacheProperties.getVehicles(), meterRegistry,
+            Vehicle::getId,
+            id -> vehicleRepository.findById(id).map(vehicleMapper::toDomainModel),
+            ids -> vehicleRepository.findAllById(ids).stream().map(vehicleMapper::toDomainModel).toList(),
+            Map.of(REGISTRATION_PLATE, new NaturalKeyCache.NaturalKey<>(Vehicle::getRegistrationPlate,
+                plate -> vehicleRepository.findByRegistrationPlate(plate).map(vehicleMapper::toDomainModel))),
+            vehicle -> vehicle.toBuilder().build());
+    }
+
+    /**
+     * Retourne un véhicule par son ID.
+     *
+     * @param vehicleId l'ID du véhicule
+     * @return le véhicule, ou vide s'il n'existe pas
+     */
+    public Optional<Vehicle> findById(Long vehicleId) {
+        return cache.get(vehicleId);
+    }
+
+    /**
+     * Retourne plusieurs véhicules par leur ID ; ceux absents du cache sont lus en une requête.
+     *
+     * @param vehicleIds les IDs des véhicules
+     * @return les véhicules trouvés, par ID (les IDs inexistants sont absents)
+     */
+    public Map<Long, Vehicle> findAllById(Collection<Long> vehicleIds) {
+        return cache.getAll(vehicleIds);
+    }
+
+    /**
+     * Retourne un véhicule par son numéro d'immatriculation.
+     *
+     * @param registrationPlate le numéro d'immatriculation
+     * @return le véhicule, ou vide s'il n'existe pas
+     */
+    public Optional<Vehicle> findByRegistrationPlate(String registrationPlate) {
+        return cache.getByKey(REGISTRATION_PLATE, registrationPlate);
+    }
+
+    /**
+     * Retire un véhicule modifié ou supprimé du cache.
+     *
+     * @param vehicleId l'ID du véhicule
+     */
+    public void evict(Long vehicleId) {
+        cache.evict(vehicleId);
+    }
+}
@@ -0,0 +1,64 @@
+package imt.nord.europe.architecture.tp.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Paramètres de l'API REST (préfixe {@code tp.api}).
+ */
+@Data
+@ConfigurationProperties(prefix = "tp.api")
+public class ApiProperties {
+
+    /**
+     * Pagination des listes.
+     */
+    private Pagination pagination = new Pagination();
+
+    /**
+     * Recherches (ex. clients par fragment d'email).
+     */
+    private Search search = new Search();
+
+    /**
+     * Requêtes par lot (ex. création de contrats en masse).
+     */
+    private Batch batch = new Batch();
+
+    @Data
+    public static class Pagination {
+
+        /**
+         * Nombre d'éléments par page quand le client n'en demande pas.
+         */
+        private int defaultSize = 50;
+
+        /**
+         * Nombre maximal d'éléments par page : une taille demandée supérieure est ramenée à cette valeur.
+         */
+        private int maxSize = 500;
+    }
+
+    @Data
+    public static class Search {
+
+        /**
+         * Nombre de résultats quand le client n'en demande pas.
+         */
+        private int defaultLimit = 20;
+
+        /**
+         * Nombre maximal de résultats : une limite demandée supérieure est ramenée à cette valeur.
+         */
+        private int maxLimit = 100;
+    }
+
+    @Data
+    public static class Batch {
+
+        /**
+         * Nombre maximal d'éléments d'un lot : un lot plus grand est refusé.
+         */
+        private int maxSize = 500;
+    }
+}
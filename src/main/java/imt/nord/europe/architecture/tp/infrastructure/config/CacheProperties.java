@@ -0,0 +1,39 @@
+package imt.nord.europe.architecture.tp.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Paramètres des caches en mémoire des données de référence (préfixe {@code tp.cache}).
+ */
+@Data
+@ConfigurationProperties(prefix = "tp.cache")
+public class CacheProperties {
+
+    /**
+     * Cache des véhicules (par ID et par immatriculation).
+     */
+    private Spec vehicles = new Spec();
+
+    /**
+     * Cache des clients (par ID, e-mail et numéro de permis).
+     */
+    private Spec clients = new Spec();
+
+    @Data
+    public static class Spec {
+
+        /**
+         * Nombre maximal d'objets en cache (0 désactive le cache).
+         */
+        private long maxSize = 10_000;
+
+        /**
+         * Durée de vie d'une entrée après son chargement.
+         * Borne le délai avant qu'une modification faite par une autre instance soit visible.
+         */
+        private Duration ttl = Duration.ofMinutes(1);
+    }
+}
@@ -0,0 +1,148 @@
+package imt.nord.europe.architecture.tp.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Paramètres de configuration de la gestion des contrats (préfixe {@code tp.contracts}).
+ */
+@Data
+@ConfigurationProperties(prefix = "tp.contracts")
+public class ContractProperties {
+
+    /**
+     * Verrouillage par véhicule des créations et modifications de contrats.
+     */
+    private Locking locking = new Locking();
+
+    /**
+     * Traitement nocturne des contrats en retard.
+     */
+    private OverdueJob overdueJob = new OverdueJob();
+
+    /**
+     * Minuteries du cycle de vie des contrats (échéances de début et de fin).
+     */
+    private LifecycleTimers lifecycleTimers = new LifecycleTimers();
+
+    /**
+     * Coordination des tâches planifiées entre plusieurs instances.
+     */
+    private Cluster cluster = new Cluster();
+
+    /**
+     * Archivage des contrats terminés.
+     */
+    private Archive archive = new Archive();
+
+    /**
+     * Index en mémoire des périodes de réservation actives.
+     */
+    private AvailabilityIndex availabilityIndex = new AvailabilityIndex();
+
+    @Data
+    public static class Locking {
+
+        /**
+         * Nombre de verrous (stripes) partagés entre les véhicules.
+         */
+        private int stripes = 64;
+
+        /**
+         * Prend en plus un verrou consultatif PostgreSQL (pg_advisory_xact_lock)
+         * pour sérialiser les réservations d'un véhicule entre plusieurs instances.
+         */
+        private boolean advisoryLocks = false;
+    }
+
+    @Data
+    public static class OverdueJob {
+
+        /**
+         * Nombre de contrats traités par transaction.
+         */
+        private int chunkSize = 500;
+    }
+
+    @Data
+    public static class LifecycleTimers {
+
+        /**
+         * Déclenche les transitions à l'échéance, sans attendre le traitement nocturne.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Fenêtre des échéances gardées en mémoire ; les suivantes sont chargées au fil de l'eau.
+         */
+        private Duration horizon = Duration.ofHours(2);
+
+        /**
+         * Intervalle de vérification des échéances (précision des transitions).
+         */
+        private Duration tickInterval = Duration.ofSeconds(1);
+
+        /**
+         * Intervalle de rechargement complet de la fenêtre, pour prendre en compte
+         * les contrats modifiés par les autres instances.
+         */
+        private Duration refreshInterval = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class Cluster {
+
+        /**
+         * Durée d'un bail sur une tâche : sans renouvellement, un autre nœud peut le reprendre au-delà.
+         */
+        private Duration leaseTtl = Duration.ofSeconds(30);
+
+        /**
+         * Intervalle de renouvellement des baux détenus (doit rester nettement inférieur à leaseTtl).
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(10);
+
+        /**
+         * Nombre de partitions (hash de l'ID du véhicule) du traitement nocturne.
+         * Chaque partition a son propre bail et peut être traitée par un nœud différent.
+         */
+        private int partitions = 1;
+    }
+
+    @Data
+    public static class Archive {
+
+        /**
+         * Déplace périodiquement les contrats terminés vers la table contracts_archive.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Ancienneté (depuis la date de fin) au-delà de laquelle un contrat COMPLETED ou CANCELLED est archivé.
+         */
+        private Duration horizon = Duration.ofDays(90);
+
+        /**
+         * Nombre de contrats déplacés par transaction.
+         */
+        private int chunkSize = 1000;
+    }
+
+    @Data
+    public static class AvailabilityIndex {
+
+        /**
+         * Répond aux recherches de conflit depuis l'index, sans requête de conflit en base.
+         * À n'activer que si une seule instance écrit les contrats : l'index ne voit pas les écritures des autres nœuds.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Délai entre deux reconstructions complètes : rétablit les véhicules en repli sur la base
+         * et vérifie de nouveau la présence de la contrainte d'exclusion.
+         */
+        private Duration rebuildInterval = Duration.ofMinutes(10);
+    }
+}
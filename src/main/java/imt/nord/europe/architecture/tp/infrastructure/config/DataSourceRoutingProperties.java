@@ -0,0 +1,67 @@
+package imt.nord.europe.architecture.tp.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Paramètres du routage des transactions en lecture seule vers les réplicas PostgreSQL
+ * (préfixe {@code tp.datasource.routing}).
+ */
+@Data
+@ConfigurationProperties(prefix = "tp.datasource.routing")
+public class DataSourceRoutingProperties {
+
+    /**
+     * Active le routage : sans cela, toutes les requêtes vont à la base principale ({@code spring.datasource}).
+     */
+    private boolean enabled = false;
+
+    /**
+     * Réplicas en lecture, utilisés à tour de rôle.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Durée pendant laquelle un client qui vient d'écrire lit sur la base principale (lecture de ses écritures).
+     */
+    private Duration stickinessWindow = Duration.ofSeconds(5);
+
+    /**
+     * Retard de réplication au-delà duquel un réplica n'est plus utilisé.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Intervalle de vérification de l'état et du retard des réplicas.
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * Délai maximal de la requête de vérification d'un réplica.
+     */
+    private Duration healthCheckTimeout = Duration.ofSeconds(2);
+
+    @Data
+    public static class Replica {
+
+        /**
+         * Nom du réplica (nom du pool de connexions dans les métriques).
+         */
+        private String name;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        /**
+         * Nombre maximal de connexions du pool.
+         */
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,71 @@
+package imt.nord.europe.architecture.tp.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Paramètres de diffusion des événements métier (préfixe {@code tp.events}).
+ */
+@Data
+@ConfigurationProperties(prefix = "tp.events")
+public class EventProperties {
+
+    /**
+     * Diffuse les événements après le commit, sur des threads virtuels.
+     * À false, les événements sont diffusés immédiatement dans le thread appelant (utile pour les tests).
+     */
+    private boolean async = true;
+
+    /**
+     * Nombre maximal d'événements en attente ou en cours de traitement.
+     * Au-delà, l'émetteur attend qu'une place se libère (contre-pression).
+     */
+    private int maxPending = 1000;
+
+    /**
+     * Durée d'attente maximale des traitements en cours à l'arrêt de l'application.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Outbox transactionnelle des événements.
+     */
+    private Outbox outbox = new Outbox();
+
+    @Data
+    public static class Outbox {
+
+        /**
+         * Écrit les événements dans la table event_outbox, dans la transaction de l'émetteur.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Nombre d'événements réservés par requête.
+         */
+        private int batchSize = 100;
+
+        /**
+         * Intervalle d'interrogation de l'outbox par le relais.
+         */
+        private Duration pollInterval = Duration.ofMillis(500);
+
+        /**
+         * Durée pendant laquelle un lot réservé reste invisible pour les autres relais.
+         */
+        private Duration claimTimeout = Duration.ofMinutes(1);
+
+        /**
+         * Délai maximal avant une nouvelle tentative après un échec (le délai double à chaque échec).
+         */
+        private Duration maxRetryDelay = Duration.ofMinutes(10);
+
+        /**
+         * Nombre maximal de tentatives : au-delà, l'événement est mis de côté en échec (dead-letter)
+         * et n'est plus diffusé.
+         */
+        private int maxAttempts = 10;
+    }
+}
@@ -0,0 +1,34 @@
+package imt.nord.europe.architecture.tp.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Paramètres de l'import en masse des véhicules et des clients (préfixe {@code tp.import}).
+ */
+@Data
+@ConfigurationProperties(prefix = "tp.import")
+public class ImportProperties {
+
+    /**
+     * Nombre de lignes validées puis chargées ensemble, dans une même transaction.
+     * Un lot chargé reste en base même si un lot suivant échoue.
+     */
+    private int chunkSize = 5000;
+
+    /**
+     * Nombre maximal d'erreurs détaillées dans le rapport d'import (toutes les erreurs sont comptées).
+     */
+    private int maxReportedErrors = 1000;
+
+    /**
+     * Mode ligne de commande : fichier CSV (.csv) ou NDJSON (.ndjson, .jsonl) à importer au démarrage,
+     * après quoi l'application s'arrête. Vide : pas d'import au démarrage.
+     */
+    private String file;
+
+    /**
+     * Mode ligne de commande : nature des lignes du fichier (vehicles ou clients).
+     */
+    private String type;
+}
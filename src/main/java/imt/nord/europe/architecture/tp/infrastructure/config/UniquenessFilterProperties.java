@@ -0,0 +1,43 @@
+package imt.nord.europe.architecture.tp.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Paramètres des filtres de Bloom sur les clés uniques des clients et des véhicules
+ * (préfixe {@code tp.uniqueness-filter}).
+ */
+@Data
+@ConfigurationProperties(prefix = "tp.uniqueness-filter")
+public class UniquenessFilterProperties {
+
+    /**
+     * Active les filtres : une clé absente du filtre n'est pas recherchée en base lors de la validation.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Taux de faux positifs visé (clé signalée présente alors qu'elle ne l'est pas : une requête inutile).
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * Capacité minimale d'un filtre. À la reconstruction, la capacité vaut le double du nombre de lignes,
+     * pour laisser de la place aux créations avant saturation.
+     */
+    private long minCapacity = 100_000;
+
+    /**
+     * Délai entre deux reconstructions complètes : oublie les clés supprimées ou modifiées
+     * et intègre les clés créées par les autres instances.
+     */
+    private Duration rebuildInterval = Duration.ofHours(1);
+
+    /**
+     * Délai entre deux vérifications de l'âge et de la saturation des filtres.
+     * Un filtre saturé (plus de clés que sa capacité) est reconstruit sans attendre rebuildInterval.
+     */
+    private Duration checkInterval = Duration.ofMinutes(1);
+}
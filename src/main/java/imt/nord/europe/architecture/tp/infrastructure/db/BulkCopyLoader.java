@@ -0,0 +1,137 @@
+package imt.nord.europe.architecture.tp.infrastructure.db;
+
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ClientEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Insertion en masse des véhicules et des clients par COPY PostgreSQL.
+ *
+ * Les entités utilisent des IDs IDENTITY : Hibernate doit insérer les lignes une à une pour lire chaque ID,
+ * et hibernate.jdbc.batch_size est sans effet. Ici, un lot est :
+ * 1. copié (COPY ... FROM STDIN, format CSV) dans une table temporaire de la session,
+ *    vidée à la fin de la transaction ;
+ * 2. inséré en une requête dans la table cible (INSERT ... SELECT), les IDs étant attribués par la base ;
+ *    les lignes en conflit avec une contrainte unique sont ignorées (ON CONFLICT DO NOTHING).
+ *
+ * Les caches et les entités Hibernate ne sont pas concernés : les lignes insérées n'étaient pas en base.
+ */
+@Component
+@RequiredArgsConstructor
+public class BulkCopyLoader {
+
+    private static final String VEHICLE_COLUMNS =
+        "registration_plate, brand, model, motorization, color, acquisition_date, status, created_at, updated_at";
+
+    private static final String CLIENT_COLUMNS =
+        "first_name, last_name, date_of_birth, license_number, address, email, phone, created_at, updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insère des véhicules ; ceux dont l'immatriculation existe déjà sont ignorés.
+     *
+     * @param vehicles les véhicules à insérer (sans ID)
+     * @return les immatriculations des véhicules insérés
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Set<String> insertVehicles(List<VehicleEntity> vehicles) {
+        return copyAndInsert("vehicles", VEHICLE_COLUMNS, "registration_plate", vehicles, vehicle -> new Object[] {
+            vehicle.getRegistrationPlate(), vehicle.getBrand(), vehicle.getModel(), vehicle.getMotorization(),
+            vehicle.getColor(), vehicle.getAcquisitionDate(), vehicle.getStatus(), vehicle.getCreatedAt(),
+            vehicle.getUpdatedAt()
+        });
+    }
+
+    /**
+     * Insère des clients ; ceux en conflit avec un client existant (identité, numéro de permis ou email)
+     * sont ignorés.
+     *
+     * @param clients les clients à insérer (sans ID)
+     * @return les numéros de permis des clients insérés
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Set<String> insertClients(List<ClientEntity> clients) {
+        return copyAndInsert("clients", CLIENT_COLUMNS, "license_number", clients, client -> new Object[] {
+            client.getFirstName(), client.getLastName(), client.getDateOfBirth(), client.getLicenseNumber(),
+            client.getAddress(), client.getEmail(), client.getPhone(), client.getCreatedAt(), client.getUpdatedAt()
+        });
+    }
+
+    private <T> Set<String> copyAndInsert(String table, String columns, String returnedColumn,
+                                          List<T> rows, Function<T, Object[]> values) {
+        if (rows.isEmpty()) {
+            return Set.of();
+        }
+        String staging = table + "_import";
+        String csv = toCsv(rows, values);
+
+        return jdbcTemplate.execute((ConnectionCallback<Set<String>>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TEMP TABLE IF NOT EXISTS " + staging + " ON COMMIT DELETE ROWS AS "
+                    + "SELECT " + columns + " FROM " + table + " WITH NO DATA");
+            }
+            try {
+                connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY " + staging + " (" + columns + ") FROM STDIN WITH (FORMAT csv)", new StringReader(csv));
+            } catch (IOException e) {
+                throw new DataAccessResourceFailureException("Échec de l'envoi des lignes à importer", e);
+            }
+
+            Set<String> inserted = new HashSet<>(rows.size() * 2);
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("INSERT INTO " + table + " (" + columns + ") "
+                     + "SELECT " + columns + " FROM " + staging + " ON CONFLICT DO NOTHING RETURNING " + returnedColumn)) {
+                while (resultSet.next()) {
+                    inserted.add(resultSet.getString(1));
+                }
+            }
+            return inserted;
+        });
+    }
+
+    /**
+     * Écrit les lignes au format CSV de COPY : valeur absente vide, autres valeurs entre guillemets.
+     */
+    static <T> String toCsv(List<T> rows, Function<T, Object[]> values) {
+        StringBuilder csv = new StringBuilder(rows.size() * 128);
+        for (T row : rows) {
+            Object[] columns = values.apply(row);
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    csv.append(',');
+                }
+                Object value = columns[i];
+                if (value instanceof LocalDateTime dateTime) {
+                    value = dateTime.truncatedTo(ChronoUnit.MICROS);
+                }
+                if (value instanceof Enum<?> constant) {
+                    value = constant.name();
+                }
+                if (value != null) {
+                    csv.append('"').append(value.toString().replace("\"", "\"\"")).append('"');
+                }
+            }
+            csv.append('\n');
+        }
+        return csv.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package imt.nord.europe.architecture.tp.infrastructure.db;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Identifie la contrainte d'unicité à l'origine d'une erreur d'écriture.
+ *
+ * Les contraintes uniques de la base sont la source de vérité : les validateurs peuvent sauter la recherche
+ * préalable d'un doublon (filtres d'unicité), l'insertion est alors rejetée par la base et l'erreur
+ * est traduite par le service en exception métier.
+ */
+public final class ConstraintViolations {
+
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+
+    private ConstraintViolations() {
+    }
+
+    /**
+     * Vérifie si l'erreur provient de la violation d'une contrainte d'unicité portant sur une colonne
+     * ou sur une contrainte nommée.
+     *
+     * @param error l'erreur levée à l'écriture
+     * @param constraintOrColumn le nom de la contrainte ou de la colonne (sans tenir compte de la casse)
+     * @return true si l'erreur est une violation d'unicité qui mentionne ce nom
+     */
+    public static boolean isUniqueViolation(Throwable error, String constraintOrColumn) {
+        String name = constraintOrColumn.toLowerCase(Locale.ROOT);
+        boolean uniqueViolation = false;
+        boolean mentioned = false;
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && UNIQUE_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                uniqueViolation = true;
+            }
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(name)) {
+                mentioned = true;
+            }
+            if (cause.getMessage() != null && cause.getMessage().toLowerCase(Locale.ROOT).contains(name)) {
+                mentioned = true;
+            }
+        }
+        return uniqueViolation && mentioned;
+    }
+}
@@ -0,0 +1,134 @@
+package imt.nord.europe.architecture.tp.infrastructure.db;
+
+import imt.nord.europe.architecture.tp.business.contract.models.ContractBooking;
+import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
+import imt.nord.europe.architecture.tp.common.enums.VehicleStatus;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractBookingCheck;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Requêtes ensemblistes des réservations en lot.
+ *
+ * Quelle que soit la taille du lot :
+ * - une requête vérifie toutes les réservations (client, véhicule, conflits avec la base et entre elles) ;
+ * - une requête insère tous les contrats acceptés (INSERT ... SELECT), les IDs étant attribués par la base.
+ *
+ * Le lot est transmis à la base sous forme d'une liste VALUES (5 paramètres par réservation) :
+ * sa taille est plafonnée par tp.api.batch.max-size.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContractBatchStore {
+
+    private static final String BOOKING_ROW =
+        "(CAST(? AS INTEGER), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP))";
+
+    private static final String CHECK_SQL =
+        "WITH batch (idx, client_id, vehicle_id, start_date, end_date) AS (VALUES %s) " +
+        "SELECT b.idx, cl.id IS NOT NULL AS client_exists, v.id IS NOT NULL AS vehicle_exists, " +
+        "v.status AS vehicle_status, v.registration_plate, " +
+        "EXISTS (SELECT 1 FROM contracts c WHERE c.vehicle_id = b.vehicle_id " +
+        "AND c.status IN ('PENDING', 'ONGOING', 'OVERDUE') " +
+        "AND c.start_date < b.end_date AND c.end_date > b.start_date) AS conflict, " +
+        "ARRAY(SELECT o.idx FROM batch o WHERE o.vehicle_id = b.vehicle_id AND o.idx < b.idx " +
+        "AND o.start_date < b.end_date AND o.end_date > b.start_date ORDER BY o.idx) AS overlapping " +
+        "FROM batch b " +
+        "LEFT JOIN clients cl ON cl.id = b.client_id " +
+        "LEFT JOIN vehicles v ON v.id = b.vehicle_id " +
+        "ORDER BY b.idx";
+
+    /**
+     * Les IDs sont tirés de la séquence avant l'insertion, avec la position de chaque réservation :
+     * la CTE numbered (fonction volatile) n'est évaluée qu'une fois, et sert à l'insertion comme au résultat.
+     */
+    private static final String INSERT_SQL =
+        "WITH batch (idx, client_id, vehicle_id, start_date, end_date) AS (VALUES %s), " +
+        "numbered AS (SELECT b.*, nextval(pg_get_serial_sequence('contracts', 'id')) AS id FROM batch b), " +
+        "inserted AS (INSERT INTO contracts (id, client_id, vehicle_id, start_date, end_date, status, created_at, updated_at) " +
+        "SELECT n.id, n.client_id, n.vehicle_id, n.start_date, n.end_date, ?, ?, ? FROM numbered n RETURNING id) " +
+        "SELECT n.idx, n.id FROM numbered n JOIN inserted i ON i.id = n.id ORDER BY n.idx";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Vérifie des réservations en une requête.
+     *
+     * @param bookings les réservations, par position dans le lot
+     * @return la vérification de chaque réservation, par position croissante
+     */
+    public List<ContractBookingCheck> check(Map<Integer, ContractBooking> bookings) {
+        if (bookings.isEmpty()) {
+            return List.of();
+        }
+        List<Object> args = new ArrayList<>(bookings.size() * 5);
+        bookings.forEach((index, booking) -> {
+            args.add(index);
+            args.add(booking.clientId());
+            args.add(booking.vehicleId());
+            args.add(booking.startDate());
+            args.add(booking.endDate());
+        });
+        String sql = CHECK_SQL.formatted(String.join(", ", Collections.nCopies(bookings.size(), BOOKING_ROW)));
+        return jdbcTemplate.query(sql, (resultSet, rowNum) -> new ContractBookingCheck(
+            resultSet.getInt("idx"),
+            resultSet.getBoolean("client_exists"),
+            resultSet.getBoolean("vehicle_exists"),
+            resultSet.getString("vehicle_status") != null ? VehicleStatus.valueOf(resultSet.getString("vehicle_status")) : null,
+            resultSet.getString("registration_plate"),
+            resultSet.getBoolean("conflict"),
+            indexes(resultSet.getArray("overlapping"))
+        ), args.toArray());
+    }
+
+    /**
+     * Insère des contrats PENDING en une requête.
+     * Les réservations ne doivent pas se chevaucher sur un même véhicule (vérifiées par {@link #check(Map)}).
+     *
+     * @param bookings les réservations acceptées
+     * @param now la date de création des contrats
+     * @return les IDs des contrats créés, dans l'ordre des réservations
+     */
+    public List<Long> insertPending(List<ContractBooking> bookings, LocalDateTime now) {
+        if (bookings.isEmpty()) {
+            return List.of();
+        }
+        List<Object> args = new ArrayList<>(bookings.size() * 5 + 3);
+        for (int index = 0; index < bookings.size(); index++) {
+            ContractBooking booking = bookings.get(index);
+            args.addAll(Arrays.asList(index, booking.clientId(), booking.vehicleId(), booking.startDate(), booking.endDate()));
+        }
+        args.addAll(Arrays.asList(ContractStatus.PENDING.name(), now, now));
+        String sql = INSERT_SQL.formatted(String.join(", ", Collections.nCopies(bookings.size(), BOOKING_ROW)));
+
+        // Chaque ligne retournée porte la position de sa réservation dans le lot
+        Long[] ids = new Long[bookings.size()];
+        jdbcTemplate.query(sql, (RowCallbackHandler) resultSet ->
+            ids[resultSet.getInt("idx")] = resultSet.getLong("id"), args.toArray());
+
+        return Arrays.asList(ids);
+    }
+
+    private static List<Integer> indexes(Array array) throws SQLException {
+        if (array == null) {
+            return List.of();
+        }
+        Object[] values = (Object[]) array.getArray();
+        List<Integer> indexes = new ArrayList<>(values.length);
+        for (Object value : values) {
+            indexes.add(((Number) value).intValue());
+        }
+        return indexes;
+    }
+}
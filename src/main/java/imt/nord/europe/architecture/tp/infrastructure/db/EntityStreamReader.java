@@ -0,0 +1,111 @@
+package imt.nord.europe.architecture.tp.infrastructure.db;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parcourt un flux d'entités lu par curseur JDBC en gardant une mémoire constante.
+ *
+ * Hibernate conserve dans le contexte de persistance chaque entité lue, y compris par un Stream :
+ * sur des millions de lignes, la mémoire croîtrait avec la table. Le contexte est donc vidé
+ * régulièrement, les entités déjà traitées devenant détachées.
+ *
+ * À appeler dans une transaction en lecture seule : avec PostgreSQL, le curseur (fetch size)
+ * n'est utilisé que hors mode autocommit.
+ */
+@Component
+public class EntityStreamReader {
+
+    /**
+     * Nombre de lignes lues par aller-retour avec la base pour les requêtes d'export.
+     */
+    public static final String FETCH_SIZE = "1000";
+
+    /**
+     * Nombre d'entités traitées entre deux vidages du contexte de persistance.
+     */
+    static final int CLEAR_INTERVAL = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Applique une action à chaque entité du flux, puis ferme le flux (et le curseur).
+     *
+     * @param entities le flux d'entités
+     * @param action l'action appliquée à chaque entité
+     * @return le nombre d'entités traitées
+     */
+    public <E> long forEach(Stream<E> entities, Consumer<E> action) {
+        long count = 0;
+        try (entities) {
+            var iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                if (++count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Fusionne deux flux triés en un flux trié, sans les charger en mémoire (ex. contrats actifs et archivés,
+     * dont les IDs ne se recouvrent pas). Fermer le flux fusionné ferme les deux flux.
+     *
+     * @param first le premier flux, trié
+     * @param second le second flux, trié
+     * @param order l'ordre des deux flux
+     * @return le flux fusionné, trié
+     */
+    public static <E> Stream<E> mergeSorted(Stream<E> first, Stream<E> second, Comparator<? super E> order) {
+        Iterator<E> merged = new Iterator<>() {
+            private final Iterator<E> left = first.iterator();
+            private final Iterator<E> right = second.iterator();
+            private E nextLeft = advance(left);
+            private E nextRight = advance(right);
+
+            @Override
+            public boolean hasNext() {
+                return nextLeft != null || nextRight != null;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                E result;
+                if (nextRight == null || (nextLeft != null && order.compare(nextLeft, nextRight) <= 0)) {
+                    result = nextLeft;
+                    nextLeft = advance(left);
+                } else {
+                    result = nextRight;
+                    nextRight = advance(right);
+                }
+                return result;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+            .onClose(() -> {
+                try (first) {
+                    second.close();
+                }
+            });
+    }
+
+    private static <E> E advance(Iterator<E> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+}
@@ -14,13 +14,19 @@ import java.time.LocalDateTime;
  * Un client est une personne physique pouvant louer des véhicules.
  */
 @Entity
-@Table(name = "clients")
+@Table(name = "clients", uniqueConstraints = @UniqueConstraint(
+    name = ClientEntity.IDENTITY_CONSTRAINT, columnNames = {"first_name", "last_name", "date_of_birth"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class ClientEntity {
 
+    /**
+     * Contrainte d'unicité de l'identité composée (prénom, nom, date de naissance).
+     */
+    public static final String IDENTITY_CONSTRAINT = "uk_clients_identity";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id")
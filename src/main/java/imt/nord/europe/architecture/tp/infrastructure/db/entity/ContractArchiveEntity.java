@@ -0,0 +1,73 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.entity;
+
+import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entité JPA représentant un contrat archivé.
+ *
+ * Les contrats terminés (COMPLETED, CANCELLED) depuis plus de {@code tp.contracts.archive.horizon}
+ * sont déplacés de la table contracts vers la table contracts_archive, en conservant leur ID :
+ * la table des contrats ne contient plus que l'activité récente, que parcourent les recherches
+ * par statut, les conflits et les traitements planifiés. Les contrats archivés ne sont plus modifiés.
+ */
+@Entity
+@Table(name = "contracts_archive", indexes = {
+    @Index(name = "idx_contracts_archive_client", columnList = "client_id"),
+    @Index(name = "idx_contracts_archive_vehicle", columnList = "vehicle_id")
+})
+@NamedEntityGraph(name = ContractArchiveEntity.WITH_CLIENT_AND_VEHICLE, attributeNodes = {
+    @NamedAttributeNode("client"),
+    @NamedAttributeNode("vehicle")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContractArchiveEntity {
+
+    /**
+     * Plan de chargement du contrat archivé avec son client et son véhicule (jointures dans la même requête).
+     */
+    public static final String WITH_CLIENT_AND_VEHICLE = "ContractArchive.withClientAndVehicle";
+
+    /**
+     * ID d'origine du contrat (les IDs des deux tables ne se recouvrent pas).
+     */
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "client_id", nullable = false)
+    private ClientEntity client;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "vehicle_id", nullable = false)
+    private VehicleEntity vehicle;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDateTime startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDateTime endDate;
+
+    @Column(name = "status", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private ContractStatus status;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -14,13 +14,26 @@ import java.time.LocalDateTime;
  * Un contrat lie un client et un véhicule pour une période définie.
  */
 @Entity
-@Table(name = "contracts")
+@Table(name = "contracts", indexes = {
+    // Recherche des contrats d'un véhicule sur une période (conflits, disponibilité de la flotte)
+    @Index(name = "idx_contracts_vehicle_period", columnList = "vehicle_id, start_date, end_date")
+})
+@NamedEntityGraph(name = ContractEntity.WITH_CLIENT_AND_VEHICLE, attributeNodes = {
+    @NamedAttributeNode("client"),
+    @NamedAttributeNode("vehicle")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class ContractEntity {
 
+    /**
+     * Plan de chargement du contrat avec son client et son véhicule (jointures dans la même requête).
+     * À utiliser pour les lectures converties en modèle métier, qui utilisent les deux associations.
+     */
+    public static final String WITH_CLIENT_AND_VEHICLE = "Contract.withClientAndVehicle";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id")
@@ -50,6 +63,13 @@ public class ContractEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Date à laquelle le contrat, encore PENDING à sa date de début, a été signalé (null s'il ne l'a pas été).
+     * Un contrat n'est signalé qu'une fois, même après un redémarrage ou une reprise du bail des minuteries.
+     */
+    @Column(name = "start_signalled_at")
+    private LocalDateTime startSignalledAt;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
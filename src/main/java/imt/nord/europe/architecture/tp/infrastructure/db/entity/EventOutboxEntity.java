@@ -0,0 +1,62 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.entity;
+
+import imt.nord.europe.architecture.tp.common.enums.OutboxEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entité JPA représentant un événement métier en attente de diffusion (transactional outbox).
+ * L'événement est écrit dans la même transaction que le changement d'état qui le produit,
+ * puis diffusé aux handlers par le relais et supprimé une fois traité.
+ * Un événement qui échoue à chaque tentative est conservé avec sa date d'abandon (failedAt), pour analyse.
+ */
+@Entity
+@Table(name = "event_outbox", indexes = {
+    @Index(name = "idx_event_outbox_available_at", columnList = "available_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "event_type", nullable = false, length = 50)
+    @Enumerated(EnumType.STRING)
+    private OutboxEventType eventType;
+
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Date à partir de laquelle l'événement peut être pris par un relais
+     * (repoussée pendant son traitement, puis après chaque échec).
+     */
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    /**
+     * Date à laquelle l'événement a été abandonné après le nombre maximal de tentatives
+     * (null tant qu'il reste à diffuser).
+     */
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+}
@@ -0,0 +1,65 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.entity;
+
+import imt.nord.europe.architecture.tp.common.enums.JobRunStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entité JPA représentant une exécution de tâche planifiée.
+ * Sert à la fois d'historique (statistiques par exécution) et de point de reprise
+ * pour une exécution interrompue.
+ */
+@Entity
+@Table(name = "job_runs", indexes = {
+    @Index(name = "idx_job_runs_job_name", columnList = "job_name, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobRunEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Column(name = "status", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private JobRunStatus status;
+
+    @Column(name = "current_step", nullable = false, length = 50)
+    private String currentStep;
+
+    @Column(name = "reference_time", nullable = false)
+    private LocalDateTime referenceTime;
+
+    @Column(name = "last_processed_id", nullable = false)
+    private Long lastProcessedId;
+
+    @Column(name = "rows_scanned", nullable = false)
+    private Long rowsScanned;
+
+    @Column(name = "rows_updated", nullable = false)
+    private Long rowsUpdated;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+}
@@ -0,0 +1,36 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entité JPA représentant un bail (lease) sur une tâche planifiée.
+ * Le nœud propriétaire d'un bail non expiré est le seul à exécuter la tâche correspondante.
+ * Les dates sont fixées par l'horloge de la base, commune à tous les nœuds.
+ */
+@Entity
+@Table(name = "scheduler_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchedulerLeaseEntity {
+
+    @Id
+    @Column(name = "lease_name", length = 100)
+    private String leaseName;
+
+    @Column(name = "owner_id", nullable = false, length = 200)
+    private String ownerId;
+
+    @Column(name = "acquired_at", nullable = false)
+    private LocalDateTime acquiredAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -3,6 +3,7 @@ package imt.nord.europe.architecture.tp.infrastructure.db.mapper;
 import imt.nord.europe.architecture.tp.business.contract.models.Contract;
 import imt.nord.europe.architecture.tp.business.client.models.Client;
 import imt.nord.europe.architecture.tp.business.vehicle.models.Vehicle;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractArchiveEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -46,6 +47,29 @@ public class ContractPersistenceMapper {
             .build();
     }
     
+    /**
+     * Convertit un contrat archivé en modèle de domaine.
+     * 
+     * @param entity l'entité JPA du contrat archivé
+     * @return le modèle de domaine
+     */
+    public Contract toDomainModel(ContractArchiveEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+        
+        return Contract.builder()
+            .id(entity.getId())
+            .client(entity.getClient() != null ? clientMapper.toDomainModel(entity.getClient()) : null)
+            .vehicle(entity.getVehicle() != null ? vehicleMapper.toDomainModel(entity.getVehicle()) : null)
+            .startDate(entity.getStartDate())
+            .endDate(entity.getEndDate())
+            .status(entity.getStatus())
+            .createdAt(entity.getCreatedAt())
+            .updatedAt(entity.getUpdatedAt())
+            .build();
+    }
+    
     /**
      * Convertit un modèle de domaine en entité JPA.
      * Note : Les relations client et véhicule doivent déjà exister en base.
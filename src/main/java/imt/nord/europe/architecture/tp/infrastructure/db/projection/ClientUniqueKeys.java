@@ -0,0 +1,15 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Projection légère d'un client : ses clés uniques (numéro de permis et identité composée).
+ * Utilisée pour construire les filtres d'unicité sans charger les entités.
+ *
+ * @param licenseNumber le numéro de permis
+ * @param firstName le prénom
+ * @param lastName le nom
+ * @param dateOfBirth la date de naissance
+ */
+public record ClientUniqueKeys(String licenseNumber, String firstName, String lastName, LocalDate dateOfBirth) {
+}
@@ -0,0 +1,21 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.projection;
+
+import imt.nord.europe.architecture.tp.common.enums.VehicleStatus;
+
+import java.util.List;
+
+/**
+ * Données nécessaires à la validation d'une réservation d'un lot, lues pour tout le lot en une seule requête.
+ *
+ * @param index la position de la réservation dans le lot
+ * @param clientExists true si le client existe
+ * @param vehicleExists true si le véhicule existe
+ * @param vehicleStatus le statut du véhicule (null s'il n'existe pas)
+ * @param registrationPlate l'immatriculation du véhicule (null s'il n'existe pas)
+ * @param conflict true si un contrat PENDING, ONGOING ou OVERDUE du véhicule chevauche la période
+ * @param overlappingIndexes les positions des réservations précédentes du lot, sur le même véhicule,
+ *                           dont la période chevauche celle-ci
+ */
+public record ContractBookingCheck(int index, boolean clientExists, boolean vehicleExists, VehicleStatus vehicleStatus,
+                                   String registrationPlate, boolean conflict, List<Integer> overlappingIndexes) {
+}
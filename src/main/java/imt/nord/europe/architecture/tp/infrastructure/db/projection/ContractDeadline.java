@@ -0,0 +1,13 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection légère d'une échéance de contrat (date de début ou de fin).
+ * Utilisée pour charger les minuteries du cycle de vie sans lire les entités complètes.
+ *
+ * @param contractId l'ID du contrat
+ * @param deadline la date de l'échéance
+ */
+public record ContractDeadline(Long contractId, LocalDateTime deadline) {
+}
@@ -0,0 +1,85 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.projection;
+
+import imt.nord.europe.architecture.tp.business.client.models.Client;
+import imt.nord.europe.architecture.tp.business.vehicle.models.Vehicle;
+import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
+import imt.nord.europe.architecture.tp.common.enums.VehicleStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Vue en lecture seule d'un contrat, de son client et de son véhicule, pour les listes.
+ *
+ * Construite directement à partir d'une ligne de résultat (expression constructeur JPQL) :
+ * aucune entité n'est chargée, donc ni contexte de persistance ni copie pour la détection des modifications.
+ * Les champs sont à plat, dans l'ordre de la requête.
+ */
+public record ContractSummary(
+    Long id,
+    LocalDateTime startDate,
+    LocalDateTime endDate,
+    ContractStatus status,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt,
+    Long clientId,
+    String clientFirstName,
+    String clientLastName,
+    LocalDate clientDateOfBirth,
+    String clientLicenseNumber,
+    String clientAddress,
+    String clientEmail,
+    String clientPhone,
+    LocalDateTime clientCreatedAt,
+    LocalDateTime clientUpdatedAt,
+    Long vehicleId,
+    String vehicleRegistrationPlate,
+    String vehicleBrand,
+    String vehicleModel,
+    String vehicleMotorization,
+    String vehicleColor,
+    LocalDate vehicleAcquisitionDate,
+    VehicleStatus vehicleStatus,
+    LocalDateTime vehicleCreatedAt,
+    LocalDateTime vehicleUpdatedAt) {
+
+    /**
+     * Retourne le client du contrat, reconstruit à partir des colonnes de la ligne.
+     *
+     * @return le modèle métier du client
+     */
+    public Client client() {
+        return Client.builder()
+            .id(clientId)
+            .firstName(clientFirstName)
+            .lastName(clientLastName)
+            .dateOfBirth(clientDateOfBirth)
+            .licenseNumber(clientLicenseNumber)
+            .address(clientAddress)
+            .email(clientEmail)
+            .phone(clientPhone)
+            .createdAt(clientCreatedAt)
+            .updatedAt(clientUpdatedAt)
+            .build();
+    }
+
+    /**
+     * Retourne le véhicule du contrat, reconstruit à partir des colonnes de la ligne.
+     *
+     * @return le modèle métier du véhicule
+     */
+    public Vehicle vehicle() {
+        return Vehicle.builder()
+            .id(vehicleId)
+            .registrationPlate(vehicleRegistrationPlate)
+            .brand(vehicleBrand)
+            .model(vehicleModel)
+            .motorization(vehicleMotorization)
+            .color(vehicleColor)
+            .acquisitionDate(vehicleAcquisitionDate)
+            .status(vehicleStatus)
+            .createdAt(vehicleCreatedAt)
+            .updatedAt(vehicleUpdatedAt)
+            .build();
+    }
+}
@@ -0,0 +1,16 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.projection;
+
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ClientEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
+
+/**
+ * Données nécessaires à la validation d'une réservation, lues en une seule requête :
+ * le client, le véhicule et la présence d'un contrat actif qui chevauche la période demandée.
+ * Le client et le véhicule sont des entités gérées, réutilisées telles quelles comme associations du contrat.
+ *
+ * @param client le client
+ * @param vehicle le véhicule, null s'il n'existe pas
+ * @param conflict true si un contrat PENDING, ONGOING ou OVERDUE du véhicule chevauche la période
+ */
+public record ContractValidationContext(ClientEntity client, VehicleEntity vehicle, boolean conflict) {
+}
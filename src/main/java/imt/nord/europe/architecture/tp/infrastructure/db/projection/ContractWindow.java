@@ -0,0 +1,15 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection légère d'un contrat : la fenêtre de réservation d'un véhicule.
+ * Évite de charger l'entité complète (client, véhicule) lorsque seule la période est utile.
+ *
+ * @param contractId l'ID du contrat
+ * @param vehicleId l'ID du véhicule réservé
+ * @param startDate la date de début de location
+ * @param endDate la date de fin de location
+ */
+public record ContractWindow(Long contractId, Long vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
+}
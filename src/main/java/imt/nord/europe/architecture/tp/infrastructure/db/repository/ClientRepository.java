@@ -1,13 +1,21 @@
 package imt.nord.europe.architecture.tp.infrastructure.db.repository;
 
+import imt.nord.europe.architecture.tp.infrastructure.db.EntityStreamReader;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.ClientEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ClientUniqueKeys;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository pour l'accès aux données des clients.
@@ -39,6 +47,56 @@ public interface ClientRepository extends JpaRepository<ClientEntity, Long> {
      */
     List<ClientEntity> findByLastName(String lastName);
 
+    /**
+     * Lit une page de clients, filtrés ou non par nom, par curseur sur l'ID (pagination keyset).
+     *
+     * @param lastName optionnel - le nom du client
+     * @param afterId l'ID du dernier client de la page précédente (0 pour la première page)
+     * @param pageable la taille de page (sans tri : l'ordre est imposé par la requête)
+     * @return la tranche de clients triés par ID croissant
+     */
+    @Query("SELECT c FROM ClientEntity c WHERE " +
+           "(:lastName IS NULL OR c.lastName = :lastName) AND " +
+           "c.id > :afterId ORDER BY c.id")
+    Slice<ClientEntity> findSliceByLastName(@Param("lastName") String lastName,
+                                            @Param("afterId") Long afterId,
+                                            Pageable pageable);
+
+    /**
+     * Lit tous les clients par curseur JDBC (export).
+     * Les lignes sont lues par paquets (fetch size) et les entités chargées en lecture seule ;
+     * le flux doit être fermé, dans une transaction en lecture seule.
+     *
+     * @return le flux des clients triés par ID
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreamReader.FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM ClientEntity c ORDER BY c.id")
+    Stream<ClientEntity> streamAllForExport();
+
+    /**
+     * Lit les clés uniques de tous les clients par curseur JDBC, sans charger les entités.
+     * Utilisé pour construire les filtres d'unicité ; le flux doit être fermé, dans une transaction.
+     *
+     * @return le flux des clés uniques des clients
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreamReader.FETCH_SIZE))
+    @Query("SELECT new imt.nord.europe.architecture.tp.infrastructure.db.projection.ClientUniqueKeys(" +
+           "c.licenseNumber, c.firstName, c.lastName, c.dateOfBirth) FROM ClientEntity c")
+    Stream<ClientUniqueKeys> streamAllUniqueKeys();
+
+    /**
+     * Indique si la contrainte d'unicité de l'identité des clients (uk_clients_identity) existe en base.
+     * Elle n'est pas ajoutée au démarrage tant que des clients partagent une identité (voir clients-constraints.sql).
+     *
+     * @return true si la contrainte existe
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = '" + ClientEntity.IDENTITY_CONSTRAINT + "')",
+           nativeQuery = true)
+    boolean existsIdentityConstraint();
+
     /**
      * Recherche tous les clients par prénom et nom.
      *
@@ -49,13 +107,24 @@ public interface ClientRepository extends JpaRepository<ClientEntity, Long> {
     List<ClientEntity> findByFirstNameAndLastName(String firstName, String lastName);
 
     /**
-     * Recherche les clients par email contenant.
+     * Recherche les clients dont l'email contient un fragment, les plus proches en premier.
      *
-     * @param emailPart partie de l'email
-     * @return la liste des clients correspondants
+     * La recherche s'appuie sur l'index trigramme GiST idx_clients_email_trgm (pg_trgm, voir db/clients-search.sql) :
+     * - le filtre LIKE '%fragment%' ne lit que les emails qui contiennent les trigrammes du fragment ;
+     * - le tri par distance trigramme (opérateur <->) est fourni par l'index (recherche des plus proches voisins) :
+     *   la lecture s'arrête après {@code limit} résultats, même pour un fragment très courant.
+     * Un email égal au fragment a une distance nulle et sort donc en premier ; à distance égale, l'ID départage.
+     *
+     * @param pattern le motif LIKE, en minuscules ('%fragment%', caractères spéciaux échappés par '\')
+     * @param term le fragment recherché, en minuscules
+     * @param limit le nombre maximal de clients retournés
+     * @return les clients correspondants, classés par pertinence
      */
-    @Query("SELECT c FROM ClientEntity c WHERE LOWER(c.email) LIKE LOWER(CONCAT('%', :emailPart, '%'))")
-    List<ClientEntity> findByEmailContaining(@Param("emailPart") String emailPart);
+    @Query(value = "SELECT * FROM clients WHERE lower(email) LIKE :pattern ESCAPE '\\' " +
+                   "ORDER BY lower(email) <-> :term, id LIMIT :limit", nativeQuery = true)
+    List<ClientEntity> searchByEmail(@Param("pattern") String pattern,
+                                     @Param("term") String term,
+                                     @Param("limit") int limit);
 
     /**
      * Recherche un client par prénom, nom et date de naissance (identité composée).
@@ -0,0 +1,130 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.repository;
+
+import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
+import imt.nord.europe.architecture.tp.infrastructure.db.EntityStreamReader;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractArchiveEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Repository des contrats archivés (table contracts_archive).
+ */
+@Repository
+public interface ContractArchiveRepository extends JpaRepository<ContractArchiveEntity, Long> {
+
+    /**
+     * Recherche un contrat archivé par son ID, avec son client et son véhicule (une seule requête).
+     *
+     * @param id l'ID du contrat
+     * @return le contrat archivé trouvé
+     */
+    @EntityGraph(ContractArchiveEntity.WITH_CLIENT_AND_VEHICLE)
+    Optional<ContractArchiveEntity> findWithClientAndVehicleById(Long id);
+
+    /**
+     * Recherche des contrats archivés par ID, avec leur client et leur véhicule (une seule requête).
+     *
+     * @param ids les IDs des contrats
+     * @return les contrats archivés trouvés, dans un ordre quelconque
+     */
+    @EntityGraph(ContractArchiveEntity.WITH_CLIENT_AND_VEHICLE)
+    List<ContractArchiveEntity> findWithClientAndVehicleByIdIn(Collection<Long> ids);
+
+    /**
+     * Recherche tous les contrats archivés d'un client.
+     *
+     * @param clientId l'ID du client
+     * @return la liste des contrats archivés du client
+     */
+    @EntityGraph(ContractArchiveEntity.WITH_CLIENT_AND_VEHICLE)
+    List<ContractArchiveEntity> findByClientId(Long clientId);
+
+    /**
+     * Recherche tous les contrats archivés d'un véhicule.
+     *
+     * @param vehicleId l'ID du véhicule
+     * @return la liste des contrats archivés du véhicule
+     */
+    @EntityGraph(ContractArchiveEntity.WITH_CLIENT_AND_VEHICLE)
+    List<ContractArchiveEntity> findByVehicleId(Long vehicleId);
+
+    /**
+     * Lit tous les contrats archivés, avec leur client et leur véhicule, par curseur JDBC (export).
+     * Mêmes conditions d'utilisation que {@link ContractRepository#streamAllForExport()}.
+     *
+     * @return le flux des contrats archivés triés par ID
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreamReader.FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM ContractArchiveEntity c JOIN FETCH c.client JOIN FETCH c.vehicle ORDER BY c.id")
+    Stream<ContractArchiveEntity> streamAllForExport();
+
+    /**
+     * Lit une page de contrats archivés filtrés, par curseur sur l'ID (pagination keyset).
+     * Même projection et mêmes filtres que {@link ContractRepository#findSummarySliceByFilters}.
+     *
+     * @param clientId optionnel - l'ID du client
+     * @param vehicleId optionnel - l'ID du véhicule
+     * @param status optionnel - le statut du contrat
+     * @param afterId l'ID du dernier contrat de la page précédente (0 pour la première page)
+     * @param pageable la taille de page (sans tri : l'ordre est imposé par la requête)
+     * @return la tranche de contrats archivés triés par ID croissant
+     */
+    @Query("SELECT new imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractSummary(" +
+           "c.id, c.startDate, c.endDate, c.status, c.createdAt, c.updatedAt, " +
+           "cl.id, cl.firstName, cl.lastName, cl.dateOfBirth, cl.licenseNumber, cl.address, cl.email, cl.phone, " +
+           "cl.createdAt, cl.updatedAt, " +
+           "v.id, v.registrationPlate, v.brand, v.model, v.motorization, v.color, v.acquisitionDate, v.status, " +
+           "v.createdAt, v.updatedAt) " +
+           "FROM ContractArchiveEntity c JOIN c.client cl JOIN c.vehicle v WHERE " +
+           "(:clientId IS NULL OR cl.id = :clientId) AND " +
+           "(:vehicleId IS NULL OR v.id = :vehicleId) AND " +
+           "(:status IS NULL OR c.status = :status) AND " +
+           "c.id > :afterId ORDER BY c.id")
+    Slice<ContractSummary> findSummarySliceByFilters(@Param("clientId") Long clientId,
+                                                     @Param("vehicleId") Long vehicleId,
+                                                     @Param("status") ContractStatus status,
+                                                     @Param("afterId") Long afterId,
+                                                     Pageable pageable);
+
+    /**
+     * Déplace en une seule requête un lot de contrats terminés (COMPLETED, CANCELLED) avant une date
+     * de la table contracts vers la table contracts_archive : les lignes supprimées (DELETE ... RETURNING)
+     * sont insérées telles quelles dans l'archive. Les lignes déjà verrouillées par une autre transaction
+     * sont ignorées (SKIP LOCKED) et seront archivées au passage suivant.
+     *
+     * @param endedBefore les contrats terminés avant cette date sont archivés
+     * @param archivedAt la date d'archivage
+     * @param limit le nombre maximal de contrats déplacés
+     * @return les IDs des contrats archivés
+     */
+    @Query(value = "WITH moved AS (" +
+                   "DELETE FROM contracts WHERE id IN (" +
+                   "SELECT id FROM contracts WHERE status IN ('COMPLETED', 'CANCELLED') AND end_date < :endedBefore " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING id, client_id, vehicle_id, start_date, end_date, status, created_at, updated_at) " +
+                   "INSERT INTO contracts_archive " +
+                   "(id, client_id, vehicle_id, start_date, end_date, status, created_at, updated_at, archived_at) " +
+                   "SELECT id, client_id, vehicle_id, start_date, end_date, status, created_at, updated_at, :archivedAt " +
+                   "FROM moved RETURNING id", nativeQuery = true)
+    List<Long> archiveTerminalContracts(@Param("endedBefore") LocalDateTime endedBefore,
+                                        @Param("archivedAt") LocalDateTime archivedAt,
+                                        @Param("limit") int limit);
+}
@@ -1,20 +1,79 @@
 package imt.nord.europe.architecture.tp.infrastructure.db.repository;
 
 import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
+import imt.nord.europe.architecture.tp.infrastructure.db.EntityStreamReader;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractDeadline;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractSummary;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractValidationContext;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractWindow;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository pour l'accès aux données des contrats de location.
+ *
+ * Les lectures converties en modèle métier chargent le client et le véhicule dans la même requête
+ * (plan {@link ContractEntity#WITH_CLIENT_AND_VEHICLE}) ; les lectures internes (handlers, validation,
+ * tâches planifiées), qui n'utilisent que les IDs des associations, restent paresseuses.
+ * Les transitions de statut ensemblistes sont déclarées par {@link ContractTransitionRepository}.
  */
 @Repository
-public interface ContractRepository extends JpaRepository<ContractEntity, Long> {
+public interface ContractRepository extends JpaRepository<ContractEntity, Long>, ContractTransitionRepository {
+
+    /**
+     * Recherche un contrat par son ID, avec son client et son véhicule (une seule requête).
+     *
+     * @param id l'ID du contrat
+     * @return le contrat trouvé
+     */
+    @EntityGraph(ContractEntity.WITH_CLIENT_AND_VEHICLE)
+    Optional<ContractEntity> findWithClientAndVehicleById(Long id);
+
+    /**
+     * Recherche un contrat par son ID en verrouillant sa ligne jusqu'à la fin de la transaction (SELECT ... FOR UPDATE).
+     * Le contrat lu est à jour, et aucune autre transaction ne peut le modifier avant la fin de la transaction.
+     *
+     * @param id l'ID du contrat
+     * @return le contrat trouvé
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ContractEntity> findForUpdateById(Long id);
+
+    /**
+     * Recherche tous les contrats, avec leur client et leur véhicule (une seule requête).
+     *
+     * @return la liste de tous les contrats
+     */
+    @EntityGraph(ContractEntity.WITH_CLIENT_AND_VEHICLE)
+    @Query("SELECT c FROM ContractEntity c")
+    List<ContractEntity> findAllWithClientAndVehicle();
+
+    /**
+     * Recherche des contrats par ID, avec leur client et leur véhicule (une seule requête).
+     *
+     * @param ids les IDs des contrats
+     * @return les contrats trouvés, dans un ordre quelconque
+     */
+    @EntityGraph(ContractEntity.WITH_CLIENT_AND_VEHICLE)
+    List<ContractEntity> findWithClientAndVehicleByIdIn(Collection<Long> ids);
 
     /**
      * Recherche tous les contrats d'un client.
@@ -22,6 +81,7 @@ public interface ContractRepository extends JpaRepository<ContractEntity, Long>
      * @param clientId l'ID du client
      * @return la liste des contrats du client
      */
+    @EntityGraph(ContractEntity.WITH_CLIENT_AND_VEHICLE)
     List<ContractEntity> findByClientId(Long clientId);
 
     /**
@@ -30,6 +90,7 @@ public interface ContractRepository extends JpaRepository<ContractEntity, Long>
      * @param vehicleId l'ID du véhicule
      * @return la liste des contrats du véhicule
      */
+    @EntityGraph(ContractEntity.WITH_CLIENT_AND_VEHICLE)
     List<ContractEntity> findByVehicleId(Long vehicleId);
 
     /**
@@ -38,6 +99,7 @@ public interface ContractRepository extends JpaRepository<ContractEntity, Long>
      * @param status le statut du contrat
      * @return la liste des contrats avec ce statut
      */
+    @EntityGraph(ContractEntity.WITH_CLIENT_AND_VEHICLE)
     List<ContractEntity> findByStatus(ContractStatus status);
 
     /**
@@ -45,6 +107,7 @@ public interface ContractRepository extends JpaRepository<ContractEntity, Long>
      *
      * @return la liste des contrats en attente
      */
+    @EntityGraph(ContractEntity.WITH_CLIENT_AND_VEHICLE)
     @Query("SELECT c FROM ContractEntity c WHERE c.status = 'PENDING'")
     List<ContractEntity> findPendingContracts();
 
@@ -53,6 +116,7 @@ public interface ContractRepository extends JpaRepository<ContractEntity, Long>
      *
      * @return la liste des contrats en cours
      */
+    @EntityGraph(ContractEntity.WITH_CLIENT_AND_VEHICLE)
     @Query("SELECT c FROM ContractEntity c WHERE c.status = 'ONGOING' AND c.startDate <= CURRENT_TIMESTAMP AND c.endDate > CURRENT_TIMESTAMP")
     List<ContractEntity> findOngoingContracts();
 
@@ -61,6 +125,7 @@ public interface ContractRepository extends JpaRepository<ContractEntity, Long>
      *
      * @return la liste des contrats terminés
      */
+    @EntityGraph(ContractEntity.WITH_CLIENT_AND_VEHICLE)
     @Query("SELECT c FROM ContractEntity c WHERE c.status = 'COMPLETED'")
     List<ContractEntity> findCompletedContracts();
 
@@ -69,6 +134,7 @@ public interface ContractRepository extends JpaRepository<ContractEntity, Long>
      *
      * @return la liste des contrats en retard
      */
+    @EntityGraph(ContractEntity.WITH_CLIENT_AND_VEHICLE)
     @Query("SELECT c FROM ContractEntity c WHERE c.status = 'OVERDUE' OR (c.endDate < CURRENT_TIMESTAMP AND c.status IN ('ONGOING', 'PENDING'))")
     List<ContractEntity> findOverdueContracts();
 
@@ -77,6 +143,7 @@ public interface ContractRepository extends JpaRepository<ContractEntity, Long>
      *
      * @return la liste des contrats annulés
      */
+    @EntityGraph(ContractEntity.WITH_CLIENT_AND_VEHICLE)
     @Query("SELECT c FROM ContractEntity c WHERE c.status = 'CANCELLED'")
     List<ContractEntity> findCancelledContracts();
 
@@ -87,6 +154,7 @@ public interface ContractRepository extends JpaRepository<ContractEntity, Long>
      * @param status le statut du contrat
      * @return la liste des contrats correspondants
      */
+    @EntityGraph(ContractEntity.WITH_CLIENT_AND_VEHICLE)
     @Query("SELECT c FROM ContractEntity c WHERE c.client.id = :clientId AND c.status = :status")
     List<ContractEntity> findByClientIdAndStatus(@Param("clientId") Long clientId, @Param("status") ContractStatus status);
 
@@ -101,20 +169,56 @@ public interface ContractRepository extends JpaRepository<ContractEntity, Long>
     List<ContractEntity> findByVehicleIdAndStatus(@Param("vehicleId") Long vehicleId, @Param("status") ContractStatus status);
 
     /**
-     * Recherche les contrats qui se chevauchent pour un véhicule donné.
-     * Utile pour vérifier la disponibilité d'un véhicule.
+     * Recherche les contrats de plusieurs véhicules avec un statut spécifique.
      *
+     * @param vehicleIds les IDs des véhicules
+     * @param status le statut du contrat
+     * @return la liste des contrats correspondants
+     */
+    @Query("SELECT c FROM ContractEntity c WHERE c.vehicle.id IN :vehicleIds AND c.status = :status")
+    List<ContractEntity> findByVehicleIdInAndStatus(@Param("vehicleIds") Collection<Long> vehicleIds,
+                                                    @Param("status") ContractStatus status);
+
+    /**
+     * Charge en une seule requête le contexte de validation d'une réservation : le client, le véhicule
+     * et la présence d'un contrat actif du véhicule qui chevauche la période (hors contrat exclu).
+     * Aucune ligne n'est retournée si le client n'existe pas ; le véhicule est null s'il n'existe pas.
+     *
+     * @param clientId l'ID du client
      * @param vehicleId l'ID du véhicule
-     * @param startDate la date de début
-     * @param endDate la date de fin
-     * @return la liste des contrats en conflit
+     * @param startDate la date de début demandée
+     * @param endDate la date de fin demandée
+     * @param excludeContractId l'ID du contrat à ignorer dans la recherche de conflits (null si création)
+     * @return le contexte de validation
      */
-    @Query("SELECT c FROM ContractEntity c WHERE c.vehicle.id = :vehicleId " +
+    @Query("SELECT new imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractValidationContext(cl, v, " +
+           "CASE WHEN EXISTS (SELECT 1 FROM ContractEntity c WHERE c.vehicle.id = :vehicleId " +
            "AND c.status NOT IN ('CANCELLED', 'COMPLETED') " +
-           "AND c.startDate < :endDate AND c.endDate > :startDate")
-    List<ContractEntity> findConflictingContracts(@Param("vehicleId") Long vehicleId,
-                                                   @Param("startDate") LocalDateTime startDate,
-                                                   @Param("endDate") LocalDateTime endDate);
+           "AND c.startDate < :endDate AND c.endDate > :startDate " +
+           "AND (:excludeContractId IS NULL OR c.id <> :excludeContractId)) THEN true ELSE false END) " +
+           "FROM ClientEntity cl LEFT JOIN VehicleEntity v ON v.id = :vehicleId " +
+           "WHERE cl.id = :clientId")
+    Optional<ContractValidationContext> findValidationContext(@Param("clientId") Long clientId,
+                                                              @Param("vehicleId") Long vehicleId,
+                                                              @Param("startDate") LocalDateTime startDate,
+                                                              @Param("endDate") LocalDateTime endDate,
+                                                              @Param("excludeContractId") Long excludeContractId);
+
+    /**
+     * Charge en une seule requête le client et le véhicule d'une réservation, sans rechercher de conflit :
+     * variante de {@link #findValidationContext} lorsque l'index de disponibilité répond au conflit
+     * ou que la contrainte d'exclusion rejette les chevauchements.
+     * Aucune ligne n'est retournée si le client n'existe pas ; le véhicule est null s'il n'existe pas.
+     *
+     * @param clientId l'ID du client
+     * @param vehicleId l'ID du véhicule
+     * @return le contexte de validation, sans conflit
+     */
+    @Query("SELECT new imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractValidationContext(cl, v, false) " +
+           "FROM ClientEntity cl LEFT JOIN VehicleEntity v ON v.id = :vehicleId " +
+           "WHERE cl.id = :clientId")
+    Optional<ContractValidationContext> findBookingParties(@Param("clientId") Long clientId,
+                                                           @Param("vehicleId") Long vehicleId);
 
     /**
      * Recherche les contrats avec filtrage optionnel par clientId, vehicleId et/ou statut.
@@ -124,6 +228,7 @@ public interface ContractRepository extends JpaRepository<ContractEntity, Long>
      * @param status optionnel - le statut du contrat
      * @return la liste des contrats correspondants aux critères
      */
+    @EntityGraph(ContractEntity.WITH_CLIENT_AND_VEHICLE)
     @Query("SELECT c FROM ContractEntity c WHERE " +
            "(:clientId IS NULL OR c.client.id = :clientId) AND " +
            "(:vehicleId IS NULL OR c.vehicle.id = :vehicleId) AND " +
@@ -133,29 +238,163 @@ public interface ContractRepository extends JpaRepository<ContractEntity, Long>
                                                               @Param("status") imt.nord.europe.architecture.tp.common.enums.ContractStatus status);
 
     /**
-     * Recherche les contrats OVERDUE qui bloquent des contrats PENDING.
-     * Un contrat OVERDUE bloque un PENDING si :
-     * - Ils concernent le MÊME véhicule
-     * - La date de fin du OVERDUE dépasse la date de début du PENDING
-     * 
-     * @return la liste des contrats OVERDUE qui bloquent des contrats PENDING
+     * Lit une page de contrats filtrés, par curseur sur l'ID (pagination keyset).
+     * Les filtres sont optionnels (null = pas de filtre) ; la taille de page est celle du Pageable
+     * et une ligne de plus est lue pour savoir s'il reste des contrats.
+     *
+     * Les lignes sont projetées directement en {@link ContractSummary} (expression constructeur) :
+     * aucune entité n'est chargée dans le contexte de persistance.
+     *
+     * @param clientId optionnel - l'ID du client
+     * @param vehicleId optionnel - l'ID du véhicule
+     * @param status optionnel - le statut du contrat
+     * @param afterId l'ID du dernier contrat de la page précédente (0 pour la première page)
+     * @param pageable la taille de page (sans tri : l'ordre est imposé par la requête)
+     * @return la tranche de contrats triés par ID croissant
+     */
+    @Query("SELECT new imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractSummary(" +
+           "c.id, c.startDate, c.endDate, c.status, c.createdAt, c.updatedAt, " +
+           "cl.id, cl.firstName, cl.lastName, cl.dateOfBirth, cl.licenseNumber, cl.address, cl.email, cl.phone, " +
+           "cl.createdAt, cl.updatedAt, " +
+           "v.id, v.registrationPlate, v.brand, v.model, v.motorization, v.color, v.acquisitionDate, v.status, " +
+           "v.createdAt, v.updatedAt) " +
+           "FROM ContractEntity c JOIN c.client cl JOIN c.vehicle v WHERE " +
+           "(:clientId IS NULL OR cl.id = :clientId) AND " +
+           "(:vehicleId IS NULL OR v.id = :vehicleId) AND " +
+           "(:status IS NULL OR c.status = :status) AND " +
+           "c.id > :afterId ORDER BY c.id")
+    Slice<ContractSummary> findSummarySliceByFilters(@Param("clientId") Long clientId,
+                                                     @Param("vehicleId") Long vehicleId,
+                                                     @Param("status") ContractStatus status,
+                                                     @Param("afterId") Long afterId,
+                                                     Pageable pageable);
+
+    /**
+     * Lit tous les contrats, avec leur client et leur véhicule, par curseur JDBC (export).
+     * Les lignes sont lues par paquets (fetch size) et les entités chargées en lecture seule ;
+     * le flux doit être fermé, dans une transaction en lecture seule.
+     *
+     * @return le flux des contrats triés par ID
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreamReader.FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM ContractEntity c JOIN FETCH c.client JOIN FETCH c.vehicle ORDER BY c.id")
+    Stream<ContractEntity> streamAllForExport();
+
+    /**
+     * Récupère les fenêtres de réservation de tous les contrats actifs (PENDING, ONGOING, OVERDUE).
+     * Seules les colonnes utiles sont lues : aucune entité n'est chargée.
+     * Utilisé pour construire l'index de disponibilité au démarrage.
+     *
+     * @return la liste des fenêtres de réservation actives
      */
-    @Query("SELECT DISTINCT o FROM ContractEntity o " +
+    @Query("SELECT new imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractWindow(" +
+           "c.id, c.vehicle.id, c.startDate, c.endDate) FROM ContractEntity c " +
+           "WHERE c.status IN ('PENDING', 'ONGOING', 'OVERDUE')")
+    List<ContractWindow> findActiveContractWindows();
+
+    /**
+     * Indique si la contrainte d'exclusion des chevauchements (contracts_vehicle_period_excl) est en place.
+     * Elle n'est pas ajoutée au démarrage tant que des contrats actifs se chevauchent (voir contracts-constraints.sql).
+     *
+     * @return true si la contrainte existe
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'contracts_vehicle_period_excl')",
+           nativeQuery = true)
+    boolean existsOverlapConstraint();
+
+    /**
+     * Lit une page d'IDs de contrats ONGOING dont la date de fin est dépassée (pagination par clé),
+     * limitée à une partition de véhicules (ID du véhicule modulo le nombre de partitions).
+     *
+     * @param now la date et heure de référence
+     * @param afterId l'ID après lequel reprendre la lecture
+     * @param partition la partition à lire
+     * @param partitions le nombre total de partitions
+     * @param limit la taille de la page
+     * @return les IDs triés par ordre croissant
+     */
+    @Query("SELECT c.id FROM ContractEntity c " +
+           "WHERE c.status = 'ONGOING' AND c.endDate < :now AND c.id > :afterId " +
+           "AND MOD(c.vehicle.id, :partitions) = :partition " +
+           "ORDER BY c.id")
+    List<Long> findOverdueOngoingContractIds(@Param("now") LocalDateTime now,
+                                             @Param("afterId") Long afterId,
+                                             @Param("partition") int partition,
+                                             @Param("partitions") int partitions,
+                                             Limit limit);
+
+    /**
+     * Lit une page d'IDs de contrats OVERDUE qui bloquent des contrats PENDING (pagination par clé),
+     * limitée à une partition de véhicules (ID du véhicule modulo le nombre de partitions).
+     *
+     * @param afterId l'ID après lequel reprendre la lecture
+     * @param partition la partition à lire
+     * @param partitions le nombre total de partitions
+     * @param limit la taille de la page
+     * @return les IDs triés par ordre croissant
+     */
+    @Query("SELECT DISTINCT o.id FROM ContractEntity o " +
            "INNER JOIN ContractEntity p ON o.vehicle.id = p.vehicle.id " +
            "WHERE o.status = 'OVERDUE' " +
            "AND p.status = 'PENDING' " +
-           "AND o.endDate > p.startDate")
-    List<ContractEntity> findOverdueContractsThatBlockPendingContracts();
+           "AND o.endDate > p.startDate " +
+           "AND o.id > :afterId " +
+           "AND MOD(o.vehicle.id, :partitions) = :partition " +
+           "ORDER BY o.id")
+    List<Long> findOverdueContractIdsThatBlockPendingContracts(@Param("afterId") Long afterId,
+                                                               @Param("partition") int partition,
+                                                               @Param("partitions") int partitions,
+                                                               Limit limit);
 
     /**
-     * Recherche les contrats ONGOING dont la date de fin est dépassée.
-     * Utilisé pour identifier les contrats qui doivent passer en OVERDUE.
-     * 
-     * @param now la date et heure actuelle
-     * @return la liste des contrats ONGOING en retard
+     * Récupère les dates de fin des contrats ONGOING qui arrivent à échéance avant une date donnée
+     * (y compris celles déjà dépassées).
+     *
+     * @param until la borne supérieure (incluse)
+     * @return les échéances de fin
+     */
+    @Query("SELECT new imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractDeadline(c.id, c.endDate) " +
+           "FROM ContractEntity c WHERE c.status = 'ONGOING' AND c.endDate <= :until")
+    List<ContractDeadline> findOngoingContractEndDeadlines(@Param("until") LocalDateTime until);
+
+    /**
+     * Récupère les dates de fin des contrats ONGOING comprises dans un intervalle (avancée de la fenêtre).
+     *
+     * @param from la borne inférieure (exclue)
+     * @param until la borne supérieure (incluse)
+     * @return les échéances de fin
+     */
+    @Query("SELECT new imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractDeadline(c.id, c.endDate) " +
+           "FROM ContractEntity c WHERE c.status = 'ONGOING' AND c.endDate > :from AND c.endDate <= :until")
+    List<ContractDeadline> findOngoingContractEndDeadlines(@Param("from") LocalDateTime from,
+                                                           @Param("until") LocalDateTime until);
+
+    /**
+     * Récupère les dates de début des contrats PENDING pas encore signalés qui arrivent à échéance avant une date
+     * donnée (y compris celles déjà dépassées). Un contrat signalé n'est plus relu : le résultat reste borné
+     * aux contrats à signaler, même si les contrats en attente échus ne sont jamais traités.
+     *
+     * @param until la borne supérieure (incluse)
+     * @return les échéances de début
+     */
+    @Query("SELECT new imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractDeadline(c.id, c.startDate) " +
+           "FROM ContractEntity c WHERE c.status = 'PENDING' AND c.startSignalledAt IS NULL AND c.startDate <= :until")
+    List<ContractDeadline> findPendingContractStartDeadlines(@Param("until") LocalDateTime until);
+
+    /**
+     * Récupère les dates de début des contrats PENDING pas encore signalés comprises dans un intervalle
+     * (avancée de la fenêtre).
+     *
+     * @param from la borne inférieure (exclue)
+     * @param until la borne supérieure (incluse)
+     * @return les échéances de début
      */
-    @Query("SELECT c FROM ContractEntity c " +
-           "WHERE c.status = 'ONGOING' " +
-           "AND c.endDate < :now")
-    List<ContractEntity> findOverdueOngoingContracts(@Param("now") LocalDateTime now);
+    @Query("SELECT new imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractDeadline(c.id, c.startDate) " +
+           "FROM ContractEntity c WHERE c.status = 'PENDING' AND c.startSignalledAt IS NULL " +
+           "AND c.startDate > :from AND c.startDate <= :until")
+    List<ContractDeadline> findPendingContractStartDeadlines(@Param("from") LocalDateTime from,
+                                                             @Param("until") LocalDateTime until);
 }
@@ -0,0 +1,59 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Transitions de statut ensemblistes des contrats (fragment de {@link ContractRepository}).
+ *
+ * Chaque transition est une seule requête UPDATE ... RETURNING id : la machine d'état est vérifiée
+ * par la clause WHERE sur la colonne status, et les IDs modifiés sont renvoyés sans relire les contrats.
+ * Les modifications en attente du contexte de persistance sont écrites avant la requête, et le contexte
+ * est vidé après : une lecture suivante dans la même transaction voit le nouveau statut.
+ */
+public interface ContractTransitionRepository {
+
+    /**
+     * Passe les contrats donnés au statut OVERDUE, s'ils sont toujours ONGOING et que leur date de fin est dépassée.
+     *
+     * @param contractIds les IDs des contrats à traiter
+     * @param now la date et heure de référence
+     * @return les IDs des contrats passés en OVERDUE
+     */
+    List<Long> markOverdueOngoingContracts(List<Long> contractIds, LocalDateTime now);
+
+    /**
+     * Marque comme signalés les contrats donnés toujours PENDING dont la date de début est atteinte
+     * et qui n'ont pas encore été signalés.
+     *
+     * @param contractIds les IDs des contrats à traiter
+     * @param now la date et heure de référence
+     * @return les IDs des contrats marqués
+     */
+    List<Long> markPendingContractsStartSignalled(List<Long> contractIds, LocalDateTime now);
+
+    /**
+     * Change le statut des contrats donnés qui sont dans l'un des statuts d'origine autorisés.
+     *
+     * @param contractIds les IDs des contrats à traiter
+     * @param fromStatuses les statuts d'origine autorisés
+     * @param newStatus le nouveau statut
+     * @param now la date et heure de modification
+     * @return les IDs des contrats modifiés
+     */
+    List<Long> transitionContracts(Collection<Long> contractIds, Collection<String> fromStatuses,
+                                   String newStatus, LocalDateTime now);
+
+    /**
+     * Change le statut des contrats d'un véhicule qui sont dans l'un des statuts d'origine donnés.
+     *
+     * @param vehicleId l'ID du véhicule
+     * @param fromStatuses les statuts d'origine
+     * @param newStatus le nouveau statut
+     * @param now la date et heure de modification
+     * @return les IDs des contrats modifiés
+     */
+    List<Long> transitionVehicleContracts(Long vehicleId, Collection<String> fromStatuses,
+                                          String newStatus, LocalDateTime now);
+}
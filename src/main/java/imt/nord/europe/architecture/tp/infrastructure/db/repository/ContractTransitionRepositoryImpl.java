@@ -0,0 +1,84 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implémentation de {@link ContractTransitionRepository}, rattachée à {@link ContractRepository} par Spring Data.
+ *
+ * Spring Data refuse @Modifying sur une requête qui retourne des lignes (RETURNING) : l'équivalent de
+ * {@code @Modifying(flushAutomatically = true, clearAutomatically = true)} est donc fait ici. Sans le vidage,
+ * un contrat déjà chargé dans la transaction garderait son ancien statut.
+ */
+public class ContractTransitionRepositoryImpl implements ContractTransitionRepository {
+
+    private static final String MARK_OVERDUE_SQL =
+        "UPDATE contracts SET status = 'OVERDUE', updated_at = :now " +
+        "WHERE id IN (:contractIds) AND status = 'ONGOING' AND end_date < :now " +
+        "RETURNING id";
+
+    private static final String MARK_START_SIGNALLED_SQL =
+        "UPDATE contracts SET start_signalled_at = :now " +
+        "WHERE id IN (:contractIds) AND status = 'PENDING' AND start_date <= :now AND start_signalled_at IS NULL " +
+        "RETURNING id";
+
+    private static final String TRANSITION_SQL =
+        "UPDATE contracts SET status = :newStatus, updated_at = :now " +
+        "WHERE id IN (:contractIds) AND status IN (:fromStatuses) " +
+        "RETURNING id";
+
+    private static final String TRANSITION_VEHICLE_SQL =
+        "UPDATE contracts SET status = :newStatus, updated_at = :now " +
+        "WHERE vehicle_id = :vehicleId AND status IN (:fromStatuses) " +
+        "RETURNING id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> markOverdueOngoingContracts(List<Long> contractIds, LocalDateTime now) {
+        return execute(entityManager.createNativeQuery(MARK_OVERDUE_SQL, Long.class)
+            .setParameter("contractIds", contractIds)
+            .setParameter("now", now));
+    }
+
+    @Override
+    public List<Long> markPendingContractsStartSignalled(List<Long> contractIds, LocalDateTime now) {
+        return execute(entityManager.createNativeQuery(MARK_START_SIGNALLED_SQL, Long.class)
+            .setParameter("contractIds", contractIds)
+            .setParameter("now", now));
+    }
+
+    @Override
+    public List<Long> transitionContracts(Collection<Long> contractIds, Collection<String> fromStatuses,
+                                          String newStatus, LocalDateTime now) {
+        return execute(entityManager.createNativeQuery(TRANSITION_SQL, Long.class)
+            .setParameter("contractIds", contractIds)
+            .setParameter("fromStatuses", fromStatuses)
+            .setParameter("newStatus", newStatus)
+            .setParameter("now", now));
+    }
+
+    @Override
+    public List<Long> transitionVehicleContracts(Long vehicleId, Collection<String> fromStatuses,
+                                                 String newStatus, LocalDateTime now) {
+        return execute(entityManager.createNativeQuery(TRANSITION_VEHICLE_SQL, Long.class)
+            .setParameter("vehicleId", vehicleId)
+            .setParameter("fromStatuses", fromStatuses)
+            .setParameter("newStatus", newStatus)
+            .setParameter("now", now));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> execute(Query query) {
+        entityManager.flush();
+        List<Long> updatedIds = query.getResultList();
+        entityManager.clear();
+        return updatedIds;
+    }
+}
@@ -0,0 +1,61 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.repository;
+
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.EventOutboxEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository pour l'accès aux événements en attente de diffusion (outbox).
+ */
+@Repository
+public interface EventOutboxRepository extends JpaRepository<EventOutboxEntity, Long> {
+
+    /**
+     * Réserve un lot d'événements disponibles pour ce relais (les événements abandonnés sont ignorés).
+     * Les lignes déjà verrouillées par un autre relais sont ignorées (FOR UPDATE SKIP LOCKED) :
+     * plusieurs nœuds vident l'outbox en parallèle sans se bloquer.
+     * Les événements réservés restent invisibles jusqu'à claimedUntil ; si le relais s'arrête avant
+     * de les avoir traités, ils redeviennent disponibles (livraison au moins une fois).
+     *
+     * @param now la date et heure de référence
+     * @param claimedUntil la date jusqu'à laquelle les événements sont réservés
+     * @param batchSize la taille maximale du lot
+     * @return les événements réservés, triés par ID
+     */
+    @Query(value = "UPDATE event_outbox SET available_at = :claimedUntil, attempts = attempts + 1 " +
+                   "WHERE id IN (SELECT id FROM event_outbox WHERE available_at <= :now AND failed_at IS NULL " +
+                   "ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING *", nativeQuery = true)
+    List<EventOutboxEntity> claimBatch(@Param("now") LocalDateTime now,
+                                       @Param("claimedUntil") LocalDateTime claimedUntil,
+                                       @Param("batchSize") int batchSize);
+
+    /**
+     * Reporte un événement dont le traitement a échoué.
+     *
+     * @param id l'ID de l'événement
+     * @param retryAt la date de la prochaine tentative
+     * @param error le message d'erreur
+     */
+    @Modifying
+    @Query("UPDATE EventOutboxEntity e SET e.availableAt = :retryAt, e.lastError = :error WHERE e.id = :id")
+    void reschedule(@Param("id") Long id, @Param("retryAt") LocalDateTime retryAt, @Param("error") String error);
+
+    /**
+     * Abandonne un événement qui a atteint le nombre maximal de tentatives (dead-letter) :
+     * la ligne est conservée avec sa dernière erreur mais n'est plus réservée par les relais.
+     *
+     * @param id l'ID de l'événement
+     * @param failedAt la date d'abandon
+     * @param error le message d'erreur
+     */
+    @Modifying
+    @Query("UPDATE EventOutboxEntity e SET e.failedAt = :failedAt, e.lastError = :error WHERE e.id = :id")
+    void markFailed(@Param("id") Long id, @Param("failedAt") LocalDateTime failedAt, @Param("error") String error);
+}
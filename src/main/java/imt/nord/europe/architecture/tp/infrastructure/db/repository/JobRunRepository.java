@@ -0,0 +1,22 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.repository;
+
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.JobRunEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository pour l'accès à l'historique des exécutions de tâches planifiées.
+ */
+@Repository
+public interface JobRunRepository extends JpaRepository<JobRunEntity, Long> {
+
+    /**
+     * Recherche la dernière exécution d'une tâche.
+     *
+     * @param jobName le nom de la tâche
+     * @return la dernière exécution, si elle existe
+     */
+    Optional<JobRunEntity> findFirstByJobNameOrderByIdDesc(String jobName);
+}
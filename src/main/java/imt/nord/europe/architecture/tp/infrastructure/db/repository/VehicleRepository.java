@@ -1,14 +1,22 @@
 package imt.nord.europe.architecture.tp.infrastructure.db.repository;
 
 import imt.nord.europe.architecture.tp.common.enums.VehicleStatus;
+import imt.nord.europe.architecture.tp.infrastructure.db.EntityStreamReader;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository pour l'accès aux données des véhicules.
@@ -102,4 +110,74 @@ public interface VehicleRepository extends JpaRepository<VehicleEntity, Long> {
            "(:brand IS NULL OR v.brand ILIKE :brand)")
     List<VehicleEntity> findByStatusAndBrand(@Param("status") imt.nord.europe.architecture.tp.common.enums.VehicleStatus status, 
                                               @Param("brand") String brand);
+
+    /**
+     * Lit une page de véhicules filtrés par statut et marque, par curseur sur l'ID (pagination keyset).
+     *
+     * @param status optionnel - le statut du véhicule
+     * @param brand optionnel - la marque du véhicule
+     * @param afterId l'ID du dernier véhicule de la page précédente (0 pour la première page)
+     * @param pageable la taille de page (sans tri : l'ordre est imposé par la requête)
+     * @return la tranche de véhicules triés par ID croissant
+     */
+    @Query("SELECT v FROM VehicleEntity v WHERE " +
+           "(:status IS NULL OR v.status = :status) AND " +
+           "(:brand IS NULL OR v.brand ILIKE :brand) AND " +
+           "v.id > :afterId ORDER BY v.id")
+    Slice<VehicleEntity> findSliceByStatusAndBrand(@Param("status") VehicleStatus status,
+                                                   @Param("brand") String brand,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable pageable);
+
+    /**
+     * Lit tous les véhicules par curseur JDBC (export).
+     * Les lignes sont lues par paquets (fetch size) et les entités chargées en lecture seule ;
+     * le flux doit être fermé, dans une transaction en lecture seule.
+     *
+     * @return le flux des véhicules triés par ID
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreamReader.FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v FROM VehicleEntity v ORDER BY v.id")
+    Stream<VehicleEntity> streamAllForExport();
+
+    /**
+     * Lit les numéros d'immatriculation de tous les véhicules par curseur JDBC, sans charger les entités.
+     * Utilisé pour construire le filtre d'unicité ; le flux doit être fermé, dans une transaction.
+     *
+     * @return le flux des numéros d'immatriculation
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreamReader.FETCH_SIZE))
+    @Query("SELECT v.registrationPlate FROM VehicleEntity v")
+    Stream<String> streamAllRegistrationPlates();
+
+    /**
+     * Lit une page de véhicules libres sur une période, par curseur sur l'ID (pagination keyset),
+     * avec filtrage optionnel par marque et motorisation.
+     * Un véhicule est libre s'il n'est pas en panne et qu'aucun contrat actif (PENDING, ONGOING, OVERDUE)
+     * ne chevauche la période. Une seule requête (anti-jointure) est exécutée par page.
+     *
+     * @param from le début de la période
+     * @param to la fin de la période
+     * @param brand optionnel - la marque du véhicule
+     * @param motorization optionnel - la motorisation du véhicule
+     * @param afterId l'ID du dernier véhicule de la page précédente (0 pour la première page)
+     * @param pageable la taille de page (sans tri : l'ordre est imposé par la requête)
+     * @return la tranche de véhicules disponibles sur la période, triés par ID croissant
+     */
+    @Query("SELECT v FROM VehicleEntity v WHERE v.status <> 'BROKEN_DOWN' " +
+           "AND (:brand IS NULL OR v.brand ILIKE :brand) " +
+           "AND (:motorization IS NULL OR v.motorization ILIKE :motorization) " +
+           "AND NOT EXISTS (SELECT 1 FROM ContractEntity c WHERE c.vehicle.id = v.id " +
+           "AND c.status IN ('PENDING', 'ONGOING', 'OVERDUE') " +
+           "AND c.startDate < :to AND c.endDate > :from) " +
+           "AND v.id > :afterId ORDER BY v.id")
+    Slice<VehicleEntity> findAvailableSliceBetween(@Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to,
+                                                   @Param("brand") String brand,
+                                                   @Param("motorization") String motorization,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable pageable);
 }
@@ -0,0 +1,89 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import imt.nord.europe.architecture.tp.infrastructure.config.DataSourceRoutingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Routage lecture / écriture, actif avec {@code tp.datasource.routing.enabled=true}.
+ *
+ * La base principale reste configurée par {@code spring.datasource} (pool « primary ») ; chaque réplica
+ * a son propre pool, nommé d'après le réplica. Les métriques des pools (hikaricp.*) portent le tag pool.
+ *
+ * Le routage exige {@code spring.jpa.open-in-view=false} : sinon, la session Hibernate ouverte pour toute la
+ * requête HTTP garde la première connexion obtenue, et une écriture qui suit une lecture partirait sur le réplica.
+ * Le démarrage échoue si les deux sont actifs.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "tp.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfiguration {
+
+    public DataSourceRoutingConfiguration(@Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        if (openInView) {
+            throw new IllegalStateException("Le routage lecture / écriture (tp.datasource.routing.enabled=true) "
+                + "nécessite spring.jpa.open-in-view=false : la session ouverte pour toute la requête garderait "
+                + "la connexion du réplica pour les écritures suivantes");
+        }
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        dataSource.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(DataSourceProperties dataSourceProperties,
+                                                     DataSourceRoutingProperties routingProperties,
+                                                     MeterRegistry meterRegistry) {
+        int timeoutSeconds = (int) Math.max(1, routingProperties.getHealthCheckTimeout().toSeconds());
+        List<ReadReplica> replicas = routingProperties.getReplicas().stream()
+            .map(replica -> {
+                HikariDataSource dataSource = new HikariDataSource();
+                dataSource.setPoolName(replica.getName());
+                dataSource.setJdbcUrl(replica.getUrl());
+                dataSource.setUsername(replica.getUsername());
+                dataSource.setPassword(replica.getPassword());
+                dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+                dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+                dataSource.setReadOnly(true);
+                dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+                jdbcTemplate.setQueryTimeout(timeoutSeconds);
+                return new ReadReplica(replica.getName(), dataSource, jdbcTemplate);
+            })
+            .toList();
+        return new ReplicaHealthMonitor(replicas, routingProperties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 ReplicaHealthMonitor replicaHealthMonitor,
+                                 MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(
+            new ReadWriteRoutingDataSource(primaryDataSource, replicaHealthMonitor, meterRegistry));
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(DataSourceRoutingProperties routingProperties) {
+        return new ReadYourWritesFilter(routingProperties.getStickinessWindow());
+    }
+}
@@ -0,0 +1,63 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.routing;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Réplica en lecture : son pool de connexions et son dernier état connu (joignable, retard de réplication).
+ */
+public class ReadReplica {
+
+    /**
+     * Retard de réplication en secondes : nul si le réplica a rejoué tout ce qu'il a reçu
+     * (une base principale inactive ne fait donc pas croître le retard).
+     */
+    private static final String LAG_SQL =
+        "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+        "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final String name;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile boolean healthy;
+    private volatile double lagSeconds = Double.NaN;
+
+    ReadReplica(String name, DataSource dataSource, JdbcTemplate jdbcTemplate) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Mesure le retard de réplication.
+     *
+     * @return le retard en secondes
+     */
+    double measureLag() {
+        Double lag = jdbcTemplate.queryForObject(LAG_SQL, Double.class);
+        return lag == null ? 0 : lag;
+    }
+
+    void update(boolean healthy, double lagSeconds) {
+        this.healthy = healthy;
+        this.lagSeconds = lagSeconds;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+}
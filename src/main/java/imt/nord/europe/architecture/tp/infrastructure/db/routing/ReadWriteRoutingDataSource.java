@@ -0,0 +1,75 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Source de données qui envoie les transactions en lecture seule vers un réplica, et tout le reste
+ * (écritures, accès hors transaction) vers la base principale.
+ *
+ * Un accès hors transaction va à la base principale sans être compté comme une écriture : il ne rend pas
+ * les lectures suivantes de la requête (ou du client) collantes à la base principale.
+ *
+ * Une transaction en lecture seule va tout de même à la base principale :
+ * - si la lecture doit voir des écritures récentes (voir {@link RoutingContext}) ;
+ * - si aucun réplica n'est utilisable (injoignable ou en retard, voir {@link ReplicaHealthMonitor}).
+ *
+ * Le choix est fait à l'obtention de la connexion : la source doit être enveloppée dans un
+ * LazyConnectionDataSourceProxy, pour que le caractère lecture seule de la transaction soit connu à ce moment.
+ * Métrique : tp.datasource.routing (tags pool et reason = write / read / sticky / fallback / no-transaction).
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final ReplicaHealthMonitor replicaHealthMonitor;
+    private final MeterRegistry meterRegistry;
+
+    public ReadWriteRoutingDataSource(DataSource primary,
+                                      ReplicaHealthMonitor replicaHealthMonitor,
+                                      MeterRegistry meterRegistry) {
+        this.replicaHealthMonitor = replicaHealthMonitor;
+        this.meterRegistry = meterRegistry;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicaHealthMonitor.getReplicas().forEach(replica -> targets.put(replica.getName(), replica.getDataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return routed(PRIMARY, "no-transaction");
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            RoutingContext.recordWrite();
+            return routed(PRIMARY, "write");
+        }
+        if (RoutingContext.requiresPrimary(System.currentTimeMillis())) {
+            return routed(PRIMARY, "sticky");
+        }
+        ReadReplica replica = replicaHealthMonitor.nextUsable();
+        if (replica == null) {
+            return routed(PRIMARY, "fallback");
+        }
+        return routed(replica.getName(), "read");
+    }
+
+    private String routed(String pool, String reason) {
+        Counter.builder("tp.datasource.routing")
+            .description("Connexions obtenues, par pool et raison du choix")
+            .tag("pool", pool)
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+        return pool;
+    }
+}
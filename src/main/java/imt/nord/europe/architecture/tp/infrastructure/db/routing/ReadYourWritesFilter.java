@@ -0,0 +1,68 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.routing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Lecture de ses propres écritures : après une écriture, les lectures du même client vont à la base principale
+ * pendant une courte fenêtre, le temps que les réplicas rattrapent leur retard.
+ *
+ * La fin de la fenêtre est portée par un cookie posé sur la réponse de la requête qui a écrit :
+ * elle suit donc le client quelle que soit l'instance qui traite ses requêtes suivantes.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "tp-primary-until";
+
+    private final Duration stickinessWindow;
+
+    public ReadYourWritesFilter(Duration stickinessWindow) {
+        this.stickinessWindow = stickinessWindow;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RoutingContext.begin(primaryUntil(request), () -> markWrite(response));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RoutingContext.end();
+        }
+    }
+
+    private void markWrite(HttpServletResponse response) {
+        if (response.isCommitted()) {
+            return;
+        }
+        Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(System.currentTimeMillis() + stickinessWindow.toMillis()));
+        cookie.setMaxAge((int) Math.max(1, stickinessWindow.toSeconds()));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        response.addCookie(cookie);
+    }
+
+    private long primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
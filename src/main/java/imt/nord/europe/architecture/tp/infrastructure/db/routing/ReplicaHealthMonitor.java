@@ -0,0 +1,107 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.routing;
+
+import imt.nord.europe.architecture.tp.infrastructure.config.DataSourceRoutingProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Surveille les réplicas en lecture et choisit celui qui sert la prochaine transaction en lecture seule.
+ *
+ * Un réplica n'est utilisé que si sa dernière vérification a réussi et que son retard de réplication
+ * ne dépasse pas {@code tp.datasource.routing.max-lag} ; les réplicas utilisables servent à tour de rôle.
+ * Un réplica n'est utilisable qu'après une première vérification réussie.
+ *
+ * Métriques par réplica (tag pool) : tp.datasource.replica.lag (secondes) et tp.datasource.replica.healthy (0 / 1).
+ */
+@Slf4j
+public class ReplicaHealthMonitor {
+
+    private final List<ReadReplica> replicas;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile List<ReadReplica> usable = List.of();
+
+    public ReplicaHealthMonitor(List<ReadReplica> replicas,
+                                DataSourceRoutingProperties routingProperties,
+                                MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.maxLagSeconds = routingProperties.getMaxLag().toMillis() / 1000.0;
+        for (ReadReplica replica : this.replicas) {
+            Gauge.builder("tp.datasource.replica.lag", replica, ReadReplica::getLagSeconds)
+                .description("Retard de réplication du réplica")
+                .baseUnit("seconds")
+                .tag("pool", replica.getName())
+                .register(meterRegistry);
+            Gauge.builder("tp.datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                .description("Réplica utilisable pour les lectures (1) ou non (0)")
+                .tag("pool", replica.getName())
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Vérifie l'état et le retard de chaque réplica.
+     */
+    @Scheduled(fixedDelayString = "${tp.datasource.routing.health-check-interval:PT5S}")
+    public void check() {
+        for (ReadReplica replica : replicas) {
+            boolean wasHealthy = replica.isHealthy();
+            try {
+                double lag = replica.measureLag();
+                replica.update(lag <= maxLagSeconds, lag);
+                if (wasHealthy && !replica.isHealthy()) {
+                    log.warn("Réplica {} écarté : retard de réplication de {} s", replica.getName(), lag);
+                }
+            } catch (Exception e) {
+                replica.update(false, Double.NaN);
+                if (wasHealthy) {
+                    log.warn("Réplica {} injoignable, lectures redirigées vers la base principale", replica.getName(), e);
+                }
+            }
+            if (!wasHealthy && replica.isHealthy()) {
+                log.info("Réplica {} utilisable pour les lectures", replica.getName());
+            }
+        }
+        usable = replicas.stream().filter(ReadReplica::isHealthy).toList();
+    }
+
+    /**
+     * Retourne le prochain réplica utilisable, à tour de rôle.
+     *
+     * @return le réplica, ou null si aucun n'est utilisable
+     */
+    public ReadReplica nextUsable() {
+        List<ReadReplica> candidates = usable;
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    public List<ReadReplica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Ferme les pools de connexions des réplicas à l'arrêt de l'application.
+     */
+    @PreDestroy
+    public void close() {
+        for (ReadReplica replica : replicas) {
+            if (replica.getDataSource() instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Erreur à la fermeture du pool du réplica {}", replica.getName(), e);
+                }
+            }
+        }
+    }
+}
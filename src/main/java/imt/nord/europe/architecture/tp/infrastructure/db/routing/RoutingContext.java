@@ -0,0 +1,85 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.routing;
+
+import java.util.function.Supplier;
+
+/**
+ * État du routage lecture / écriture pour le thread courant.
+ *
+ * Une lecture doit aller à la base principale quand :
+ * - elle est exécutée via {@link #usePrimary(Supplier)} (ex. rechargement d'un cache après invalidation) ;
+ * - la requête HTTP en cours a déjà écrit, ou son client a écrit récemment (voir {@link ReadYourWritesFilter}).
+ */
+public final class RoutingContext {
+
+    private static final ThreadLocal<RoutingContext> REQUEST = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final long primaryUntil;
+    private final Runnable onFirstWrite;
+    private boolean wrote;
+
+    private RoutingContext(long primaryUntil, Runnable onFirstWrite) {
+        this.primaryUntil = primaryUntil;
+        this.onFirstWrite = onFirstWrite;
+    }
+
+    /**
+     * Exécute une opération dont les lectures doivent voir les dernières écritures validées (base principale).
+     *
+     * @param operation l'opération à exécuter
+     * @return le résultat de l'opération
+     */
+    public static <T> T usePrimary(Supplier<T> operation) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return operation.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            }
+        }
+    }
+
+    /**
+     * Ouvre le contexte d'une requête HTTP.
+     *
+     * @param primaryUntil instant (epoch ms) jusqu'auquel le client lit sur la base principale
+     * @param onFirstWrite appelé à la première écriture de la requête
+     */
+    static void begin(long primaryUntil, Runnable onFirstWrite) {
+        REQUEST.set(new RoutingContext(primaryUntil, onFirstWrite));
+    }
+
+    /**
+     * Ferme le contexte de la requête HTTP en cours.
+     */
+    static void end() {
+        REQUEST.remove();
+    }
+
+    /**
+     * Indique si une lecture du thread courant doit aller à la base principale.
+     *
+     * @param now l'instant courant (epoch ms)
+     * @return true si la lecture doit voir les dernières écritures
+     */
+    static boolean requiresPrimary(long now) {
+        if (FORCE_PRIMARY.get() != null) {
+            return true;
+        }
+        RoutingContext context = REQUEST.get();
+        return context != null && (context.wrote || context.primaryUntil > now);
+    }
+
+    /**
+     * Enregistre une transaction en écriture dans la requête HTTP en cours.
+     */
+    static void recordWrite() {
+        RoutingContext context = REQUEST.get();
+        if (context != null && !context.wrote) {
+            context.wrote = true;
+            context.onFirstWrite.run();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package imt.nord.europe.architecture.tp.infrastructure.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Événement regroupant plusieurs contrats en retard (sans doublon).
+ * Produit par le relais de l'outbox pour traiter en une fois les retards d'un même lot.
+ */
+public class ContractOverdueBatchEvent extends ApplicationEvent {
+    
+    private final List<Long> contractIds;
+    
+    public ContractOverdueBatchEvent(Object source, List<Long> contractIds) {
+        super(source);
+        this.contractIds = List.copyOf(contractIds);
+    }
+    
+    public List<Long> getContractIds() {
+        return contractIds;
+    }
+}
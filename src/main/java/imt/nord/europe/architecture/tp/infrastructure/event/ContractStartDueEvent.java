@@ -0,0 +1,21 @@
+package imt.nord.europe.architecture.tp.infrastructure.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Événement déclenché lorsqu'un contrat atteint sa date de début en étant toujours en attente (PENDING).
+ * Permet de signaler les contrats à valider avant la remise du véhicule.
+ */
+public class ContractStartDueEvent extends ApplicationEvent {
+    
+    private final Long contractId;
+    
+    public ContractStartDueEvent(Object source, Long contractId) {
+        super(source);
+        this.contractId = contractId;
+    }
+    
+    public Long getContractId() {
+        return contractId;
+    }
+}
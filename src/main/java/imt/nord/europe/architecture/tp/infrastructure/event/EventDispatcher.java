@@ -0,0 +1,195 @@
+package imt.nord.europe.architecture.tp.infrastructure.event;
+
+import imt.nord.europe.architecture.tp.infrastructure.config.EventProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Diffuse les événements métier vers les handlers Spring.
+ *
+ * En mode asynchrone (par défaut) :
+ * - un événement émis dans une transaction n'est diffusé qu'après son commit (jamais en cas de rollback) ;
+ * - chaque événement est traité sur un thread virtuel, dans sa propre transaction :
+ *   l'émetteur n'attend pas les handlers et leurs erreurs ne l'affectent pas ;
+ * - le nombre d'événements en attente est borné ({@code tp.events.max-pending}) : au-delà,
+ *   l'émetteur attend qu'une place se libère (contre-pression).
+ *
+ * En mode synchrone ({@code tp.events.async=false}), l'événement est diffusé immédiatement dans le thread appelant.
+ *
+ * Métriques par type d'événement : tp.events.pending (en attente ou en cours),
+ * tp.events.dispatch.latency (de l'émission à la fin du traitement), tp.events.failed et tp.events.throttled.
+ */
+@Component
+@Slf4j
+public class EventDispatcher {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final boolean async;
+    private final long shutdownTimeoutMs;
+    private final Semaphore capacity;
+    private final ExecutorService executor;
+
+    private final Map<Class<?>, AtomicInteger> pendingByType = new ConcurrentHashMap<>();
+
+    public EventDispatcher(ApplicationEventPublisher applicationEventPublisher,
+                           EventProperties eventProperties,
+                           MeterRegistry meterRegistry) {
+        if (eventProperties.getMaxPending() <= 0) {
+            throw new IllegalArgumentException("Le nombre maximal d'événements en attente doit être strictement positif");
+        }
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.async = eventProperties.isAsync();
+        this.shutdownTimeoutMs = eventProperties.getShutdownTimeout().toMillis();
+        this.capacity = new Semaphore(eventProperties.getMaxPending());
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("tp-event-", 0).factory());
+    }
+
+    /**
+     * Diffuse un événement : après le commit de la transaction courante s'il y en a une, sinon immédiatement.
+     *
+     * @param event l'événement à diffuser
+     */
+    public void dispatch(ApplicationEvent event) {
+        if (!async) {
+            applicationEventPublisher.publishEvent(event);
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(event);
+                }
+            });
+        } else {
+            submit(event);
+        }
+    }
+
+    /**
+     * Diffuse immédiatement un événement, sans attendre de commit, et permet de suivre la fin de son traitement.
+     * Utilisé par le relais de l'outbox, qui ne supprime un événement qu'une fois traité avec succès.
+     *
+     * @param event l'événement à diffuser
+     * @return un futur terminé à la fin du traitement, en erreur si un handler a échoué
+     */
+    public CompletableFuture<Void> dispatchNow(ApplicationEvent event) {
+        if (!async) {
+            try {
+                applicationEventPublisher.publishEvent(event);
+                return CompletableFuture.completedFuture(null);
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return submit(event);
+    }
+
+    /**
+     * Retourne le nombre d'événements d'un type en attente ou en cours de traitement.
+     *
+     * @param eventType le type d'événement
+     * @return le nombre d'événements en attente
+     */
+    public int pendingCount(Class<? extends ApplicationEvent> eventType) {
+        AtomicInteger pending = pendingByType.get(eventType);
+        return pending == null ? 0 : pending.get();
+    }
+
+    /**
+     * Attend la fin des traitements en cours à l'arrêt de l'application.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Arrêt avec des événements encore en cours de traitement");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<Void> submit(ApplicationEvent event) {
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        String type = event.getClass().getSimpleName();
+        long submittedAt = System.nanoTime();
+
+        if (!capacity.tryAcquire()) {
+            Counter.builder("tp.events.throttled")
+                .description("Émissions ayant attendu une place dans la file des événements")
+                .tag("type", type)
+                .register(meterRegistry)
+                .increment();
+            capacity.acquireUninterruptibly();
+        }
+
+        AtomicInteger pending = pending(event.getClass());
+        pending.incrementAndGet();
+
+        try {
+            executor.execute(() -> {
+                try {
+                    applicationEventPublisher.publishEvent(event);
+                    completion.complete(null);
+                } catch (Exception e) {
+                    completion.completeExceptionally(e);
+                    Counter.builder("tp.events.failed")
+                        .description("Événements dont le traitement a échoué")
+                        .tag("type", type)
+                        .register(meterRegistry)
+                        .increment();
+                    log.error("Erreur lors du traitement de l'événement {}", type, e);
+                } finally {
+                    pending.decrementAndGet();
+                    capacity.release();
+                    Timer.builder("tp.events.dispatch.latency")
+                        .description("Délai entre l'émission d'un événement et la fin de son traitement")
+                        .tag("type", type)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Exécuteur arrêté : l'événement est perdu, la place est rendue
+            pending.decrementAndGet();
+            capacity.release();
+            log.error("Impossible de diffuser l'événement {}", type, e);
+            completion.completeExceptionally(e);
+        }
+        return completion;
+    }
+
+    private AtomicInteger pending(Class<?> eventType) {
+        return pendingByType.computeIfAbsent(eventType, type -> {
+            AtomicInteger counter = new AtomicInteger();
+            Gauge.builder("tp.events.pending", counter, AtomicInteger::get)
+                .description("Événements en attente ou en cours de traitement")
+                .tag("type", type.getSimpleName())
+                .register(meterRegistry);
+            return counter;
+        });
+    }
+}
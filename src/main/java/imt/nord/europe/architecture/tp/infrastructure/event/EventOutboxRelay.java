@@ -0,0 +1,252 @@
+package imt.nord.europe.architecture.tp.infrastructure.event;
+
+import imt.nord.europe.architecture.tp.common.enums.OutboxEventType;
+import imt.nord.europe.architecture.tp.infrastructure.config.EventProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.EventOutboxEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.EventOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Relais de l'outbox : diffuse aux handlers les événements enregistrés dans la table event_outbox.
+ *
+ * À chaque passage, le relais réserve des lots d'événements (FOR UPDATE SKIP LOCKED), les regroupe
+ * (voir {@link #coalesce(List)}), les diffuse en parallèle via {@link EventDispatcher}, puis :
+ * - rediffuse un par un les retards d'un regroupement en échec, pour qu'un contrat fautif ne bloque pas les autres ;
+ * - supprime en une requête les événements traités avec succès ;
+ * - reporte les événements en échec, avec un délai qui double à chaque tentative ;
+ * - abandonne (dead-letter) les événements qui ont échoué maxAttempts fois : la ligne est gardée avec
+ *   sa dernière erreur et sa date d'abandon, et comptée dans la métrique tp.events.outbox.dead-lettered
+ *   (tag type : type d'événement de l'outbox). Les échecs de chaque tentative sont comptés par
+ *   {@link EventDispatcher} (tp.events.failed).
+ *
+ * Un événement n'est supprimé qu'une fois traité : en cas d'arrêt, il est rediffusé à expiration de sa réservation.
+ * La livraison est donc « au moins une fois » et les handlers doivent pouvoir recevoir deux fois le même événement
+ * (ils n'agissent que sur les contrats encore dans le statut attendu).
+ */
+@Component
+@Slf4j
+public class EventOutboxRelay {
+
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+
+    private final EventOutboxRepository eventOutboxRepository;
+    private final EventDispatcher eventDispatcher;
+    private final SpringEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration claimTimeout;
+    private final Duration maxRetryDelay;
+    private final int maxAttempts;
+    private final MeterRegistry meterRegistry;
+    private final Counter coalescedCounter;
+
+    public EventOutboxRelay(EventOutboxRepository eventOutboxRepository,
+                            EventDispatcher eventDispatcher,
+                            SpringEventPublisher eventPublisher,
+                            TransactionTemplate transactionTemplate,
+                            EventProperties eventProperties,
+                            MeterRegistry meterRegistry) {
+        this.eventOutboxRepository = eventOutboxRepository;
+        this.eventDispatcher = eventDispatcher;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = eventProperties.getOutbox().isEnabled();
+        this.batchSize = eventProperties.getOutbox().getBatchSize();
+        this.claimTimeout = eventProperties.getOutbox().getClaimTimeout();
+        this.maxRetryDelay = eventProperties.getOutbox().getMaxRetryDelay();
+        this.maxAttempts = eventProperties.getOutbox().getMaxAttempts();
+        this.meterRegistry = meterRegistry;
+        this.coalescedCounter = Counter.builder("tp.events.coalesced")
+            .description("Événements de l'outbox fusionnés avec un autre événement du même lot")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Vide l'outbox par lots tant que des événements sont disponibles.
+     */
+    @Scheduled(fixedDelayString = "${tp.events.outbox.poll-interval:PT0.5S}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+        } catch (Exception e) {
+            log.error("Erreur lors de la diffusion des événements de l'outbox", e);
+        }
+    }
+
+    /**
+     * Réserve, diffuse et acquitte un lot d'événements.
+     *
+     * @return le nombre d'événements réservés
+     */
+    int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EventOutboxEntity> batch = transactionTemplate.execute(
+            status -> eventOutboxRepository.claimBatch(now, now.plus(claimTimeout), batchSize));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<ApplicationEvent, List<EventOutboxEntity>> dispatches = coalesce(batch);
+        if (dispatches.size() < batch.size()) {
+            coalescedCounter.increment(batch.size() - dispatches.size());
+        }
+
+        Map<ApplicationEvent, Throwable> errors = dispatchAll(dispatches.keySet());
+
+        // Un regroupement de retards en échec est rediffusé contrat par contrat : seules les lignes fautives sont reportées
+        Map<ApplicationEvent, List<EventOutboxEntity>> retries = new LinkedHashMap<>();
+        for (ApplicationEvent event : List.copyOf(errors.keySet())) {
+            if (event instanceof ContractOverdueBatchEvent batchEvent && batchEvent.getContractIds().size() > 1) {
+                errors.remove(event);
+                Map<Long, List<EventOutboxEntity>> byContract = new LinkedHashMap<>();
+                dispatches.remove(event).forEach(entry ->
+                    byContract.computeIfAbsent(entry.getAggregateId(), id -> new ArrayList<>()).add(entry));
+                byContract.forEach((contractId, entries) ->
+                    retries.put(eventPublisher.createEvent(OutboxEventType.CONTRACT_OVERDUE, contractId), entries));
+            }
+        }
+        if (!retries.isEmpty()) {
+            log.warn("Regroupement de retards en échec, nouvelle diffusion de {} contrat(s) un par un", retries.size());
+            errors.putAll(dispatchAll(retries.keySet()));
+            dispatches.putAll(retries);
+        }
+
+        List<Long> processedIds = new ArrayList<>();
+        Map<EventOutboxEntity, Throwable> failures = new LinkedHashMap<>();
+        dispatches.forEach((event, entries) -> {
+            Throwable error = errors.get(event);
+            if (error == null) {
+                entries.forEach(entry -> processedIds.add(entry.getId()));
+            } else {
+                entries.forEach(entry -> failures.put(entry, error));
+            }
+        });
+
+        List<EventOutboxEntity> abandoned = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!processedIds.isEmpty()) {
+                eventOutboxRepository.deleteAllByIdInBatch(processedIds);
+            }
+            LocalDateTime failedAt = LocalDateTime.now();
+            failures.forEach((entry, error) -> {
+                if (entry.getAttempts() >= maxAttempts) {
+                    eventOutboxRepository.markFailed(entry.getId(), failedAt, errorMessage(error));
+                    abandoned.add(entry);
+                } else {
+                    eventOutboxRepository.reschedule(
+                        entry.getId(), failedAt.plus(retryDelay(entry.getAttempts())), errorMessage(error));
+                }
+            });
+        });
+
+        abandoned.forEach(entry -> {
+            log.error("Événement {} {} (outbox {}) abandonné après {} tentatives : {}",
+                entry.getEventType(), entry.getAggregateId(), entry.getId(), entry.getAttempts(),
+                errorMessage(failures.get(entry)));
+            Counter.builder("tp.events.outbox.dead-lettered")
+                .description("Événements de l'outbox abandonnés après le nombre maximal de tentatives")
+                .tag("type", entry.getEventType().name())
+                .register(meterRegistry)
+                .increment();
+        });
+        if (failures.size() > abandoned.size()) {
+            log.warn("{} événement(s) de l'outbox en échec, nouvelle tentative programmée",
+                failures.size() - abandoned.size());
+        }
+        return batch.size();
+    }
+
+    /**
+     * Regroupe les événements d'un lot avant diffusion :
+     * - les doublons (même type, même identifiant) ne sont diffusés qu'une fois ;
+     * - tous les retards de contrats du lot forment un seul {@link ContractOverdueBatchEvent}
+     *   (rediffusé contrat par contrat s'il échoue, voir {@link #relayBatch()}).
+     * Chaque événement diffusé est associé aux lignes de l'outbox qu'il acquitte.
+     *
+     * @param batch les événements réservés
+     * @return les événements à diffuser, avec les lignes correspondantes
+     */
+    Map<ApplicationEvent, List<EventOutboxEntity>> coalesce(List<EventOutboxEntity> batch) {
+        Map<OutboxEventType, Map<Long, List<EventOutboxEntity>>> byTypeAndAggregate = new LinkedHashMap<>();
+        for (EventOutboxEntity entry : batch) {
+            byTypeAndAggregate
+                .computeIfAbsent(entry.getEventType(), type -> new LinkedHashMap<>())
+                .computeIfAbsent(entry.getAggregateId(), id -> new ArrayList<>())
+                .add(entry);
+        }
+
+        Map<ApplicationEvent, List<EventOutboxEntity>> dispatches = new LinkedHashMap<>();
+        byTypeAndAggregate.forEach((type, byAggregate) -> {
+            if (type == OutboxEventType.CONTRACT_OVERDUE) {
+                List<EventOutboxEntity> entries = new ArrayList<>();
+                byAggregate.values().forEach(entries::addAll);
+                dispatches.put(new ContractOverdueBatchEvent(eventPublisher, new ArrayList<>(byAggregate.keySet())), entries);
+            } else {
+                byAggregate.forEach((aggregateId, entries) ->
+                    dispatches.put(eventPublisher.createEvent(type, aggregateId), entries));
+            }
+        });
+        return dispatches;
+    }
+
+    /**
+     * Diffuse des événements en parallèle et attend la fin de leur traitement.
+     *
+     * @param events les événements à diffuser
+     * @return l'erreur de chaque événement en échec
+     */
+    private Map<ApplicationEvent, Throwable> dispatchAll(Collection<ApplicationEvent> events) {
+        Map<ApplicationEvent, CompletableFuture<Void>> results = new LinkedHashMap<>();
+        events.forEach(event -> results.put(event, eventDispatcher.dispatchNow(event)));
+
+        Map<ApplicationEvent, Throwable> errors = new LinkedHashMap<>();
+        results.forEach((event, result) -> {
+            try {
+                result.join();
+            } catch (CompletionException e) {
+                errors.put(event, e.getCause() != null ? e.getCause() : e);
+            }
+        });
+        return errors;
+    }
+
+    /**
+     * Délai avant une nouvelle tentative : 1 s, 2 s, 4 s... plafonné à maxRetryDelay.
+     *
+     * @param attempts le nombre de tentatives déjà effectuées
+     * @return le délai avant la prochaine tentative
+     */
+    Duration retryDelay(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = Duration.ofSeconds(1L << exponent);
+        return delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay;
+    }
+
+    private String errorMessage(Throwable error) {
+        String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+        return message.length() > MAX_ERROR_MESSAGE_LENGTH ? message.substring(0, MAX_ERROR_MESSAGE_LENGTH) : message;
+    }
+}
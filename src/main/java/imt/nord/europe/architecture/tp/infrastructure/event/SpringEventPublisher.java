@@ -1,17 +1,30 @@
 package imt.nord.europe.architecture.tp.infrastructure.event;
 
+import imt.nord.europe.architecture.tp.common.enums.OutboxEventType;
+import imt.nord.europe.architecture.tp.infrastructure.config.EventProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.EventOutboxEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.EventOutboxRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEvent;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+
 /**
  * Publie les événements métier vers le contexte Spring pour que les handlers les reçoivent.
+ *
+ * Avec l'outbox activée ({@code tp.events.outbox.enabled}), l'événement est écrit dans la table event_outbox,
+ * dans la transaction de l'appelant : il n'existe que si le changement d'état est validé, et survit à un arrêt
+ * de l'application. {@link EventOutboxRelay} le diffuse ensuite aux handlers.
+ * Sinon, la diffusion (après commit, asynchrone) est assurée directement par {@link EventDispatcher}.
  */
 @Component
 @RequiredArgsConstructor
 public class SpringEventPublisher {
     
-    private final ApplicationEventPublisher applicationEventPublisher;
+    private final EventDispatcher eventDispatcher;
+    private final EventOutboxRepository eventOutboxRepository;
+    private final EventProperties eventProperties;
     
     /**
      * Publie un événement de rupture de véhicule.
@@ -19,7 +32,7 @@ public class SpringEventPublisher {
      * @param vehicleId l'ID du véhicule en panne
      */
     public void publishVehicleBreakdownEvent(Long vehicleId) {
-        applicationEventPublisher.publishEvent(new VehicleBreakdownEvent(this, vehicleId));
+        publish(OutboxEventType.VEHICLE_BREAKDOWN, vehicleId);
     }
     
     /**
@@ -28,6 +41,46 @@ public class SpringEventPublisher {
      * @param contractId l'ID du contrat
      */
     public void publishContractOverdueEvent(Long contractId) {
-        applicationEventPublisher.publishEvent(new ContractOverdueEvent(this, contractId));
+        publish(OutboxEventType.CONTRACT_OVERDUE, contractId);
+    }
+    
+    /**
+     * Publie un événement de contrat en attente dont la date de début est atteinte.
+     * 
+     * @param contractId l'ID du contrat
+     */
+    public void publishContractStartDueEvent(Long contractId) {
+        publish(OutboxEventType.CONTRACT_START_DUE, contractId);
+    }
+    
+    /**
+     * Construit l'événement Spring correspondant à un type d'événement et à son identifiant.
+     * 
+     * @param eventType le type d'événement
+     * @param aggregateId l'ID du véhicule ou du contrat concerné
+     * @return l'événement à diffuser aux handlers
+     */
+    ApplicationEvent createEvent(OutboxEventType eventType, Long aggregateId) {
+        return switch (eventType) {
+            case VEHICLE_BREAKDOWN -> new VehicleBreakdownEvent(this, aggregateId);
+            case CONTRACT_OVERDUE -> new ContractOverdueEvent(this, aggregateId);
+            case CONTRACT_START_DUE -> new ContractStartDueEvent(this, aggregateId);
+        };
+    }
+    
+    private void publish(OutboxEventType eventType, Long aggregateId) {
+        if (!eventProperties.getOutbox().isEnabled()) {
+            eventDispatcher.dispatch(createEvent(eventType, aggregateId));
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        eventOutboxRepository.save(EventOutboxEntity.builder()
+            .eventType(eventType)
+            .aggregateId(aggregateId)
+            .createdAt(now)
+            .availableAt(now)
+            .attempts(0)
+            .build());
     }
 }
@@ -4,6 +4,7 @@ import imt.nord.europe.architecture.tp.business.contract.services.ContractServic
 import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractRepository;
+import imt.nord.europe.architecture.tp.infrastructure.event.ContractOverdueBatchEvent;
 import imt.nord.europe.architecture.tp.infrastructure.event.ContractOverdueEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,6 +14,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Gère les événements de contrat en retard.
@@ -37,6 +42,13 @@ public class ContractOverdueEventHandler {
      * - Détecte les contrats suivants impactés
      * - Log les informations et impacts
      * 
+     * Le traitement s'applique quel que soit le statut du contrat : le scheduler publie aussi cet événement
+     * pour les contrats en retard qu'il vient d'annuler. Seuls les contrats encore en attente sont annulés,
+     * un événement rediffusé par l'outbox est donc sans effet supplémentaire.
+     * Les contrats en attente bloqués sont annulés ensemble, en une requête.
+     * Un contrat supprimé est ignoré ; les autres erreurs sont propagées pour que l'outbox programme
+     * une nouvelle tentative.
+     * 
      * @param event l'événement de contrat en retard
      */
     @EventListener
@@ -44,44 +56,99 @@ public class ContractOverdueEventHandler {
     public void onContractOverdue(ContractOverdueEvent event) {
         Long contractId = event.getContractId();
         
-        try {
-            ContractEntity overdueContract = contractRepository.findById(contractId)
-                .orElseThrow(() -> new IllegalArgumentException("Contrat non trouvé : " + contractId));
-            
-            // Calcul du retard
-            LocalDateTime endDate = overdueContract.getEndDate();
-            LocalDateTime now = LocalDateTime.now();
-            long daysOverdue = ChronoUnit.DAYS.between(endDate, now);
-            long hoursOverdue = ChronoUnit.HOURS.between(endDate, now);
-            
-            log.warn("⚠️ CONTRAT EN RETARD - ID: {} | Client: {} | Véhicule: {} | Retard: {} jours {} heures",
-                     contractId,
+        ContractEntity overdueContract = contractRepository.findById(contractId).orElse(null);
+        if (overdueContract == null) {
+            log.warn("Contrat {} non trouvé lors du traitement du retard, événement ignoré", contractId);
+            return;
+        }
+        
+        // Calcul du retard
+        LocalDateTime endDate = overdueContract.getEndDate();
+        LocalDateTime now = LocalDateTime.now();
+        long daysOverdue = ChronoUnit.DAYS.between(endDate, now);
+        long hoursOverdue = ChronoUnit.HOURS.between(endDate, now);
+        
+        log.warn("⚠️ CONTRAT EN RETARD - ID: {} | Client: {} | Véhicule: {} | Retard: {} jours {} heures",
+                 contractId,
+                 overdueContract.getClient().getId(),
+                 overdueContract.getVehicle().getId(),
+                 daysOverdue,
+                 hoursOverdue % 24);
+        
+        // Détails du contrat
+        log.info("   - Date de fin attendue: {}", endDate);
+        log.info("   - Date actuelle: {}", now);
+        log.info("   - Statut: {}", overdueContract.getStatus());
+        
+        log.debug("🔍 Vérification des impacts du retard du contrat {}...", overdueContract.getId());
+        
+        var pendingVehicleContracts = contractRepository.findByVehicleIdAndStatus(overdueContract.getVehicle().getId(), ContractStatus.PENDING);
+        
+        List<Long> blockedContractIds = new ArrayList<>();
+        for (ContractEntity pending : pendingVehicleContracts) {
+            if (overdueContract.getEndDate().isAfter(pending.getStartDate())) {
+                log.warn("   ❌ Le contrat {} du client {} est bloqué - chevauchement avec le retard",
+                        pending.getId(), pending.getClient().getId());
+                blockedContractIds.add(pending.getId());
+            }
+        }
+        if (!blockedContractIds.isEmpty()) {
+            contractService.updateContractsStatus(blockedContractIds, ContractStatus.CANCELLED);
+        }
+    }
+    
+    /**
+     * Écoute les événements ContractOverdueBatchEvent (retards regroupés par le relais de l'outbox).
+     * Effectue les mêmes actions que pour un retard isolé, mais en deux requêtes pour tout le lot :
+     * - les contrats en retard sont lus ensemble ;
+     * - les contrats en attente de tous les véhicules concernés sont lus ensemble.
+     * Les contrats en attente bloqués sont annulés ensemble, une seule fois même s'ils chevauchent plusieurs retards.
+     * Comme pour un retard isolé, le statut des contrats du lot n'est pas filtré et les erreurs sont propagées.
+     * 
+     * @param event l'événement regroupant les contrats en retard
+     */
+    @EventListener
+    @Transactional
+    public void onContractOverdueBatch(ContractOverdueBatchEvent event) {
+        List<ContractEntity> overdueContracts = contractRepository.findAllById(event.getContractIds());
+        if (overdueContracts.size() < event.getContractIds().size()) {
+            log.warn("{} contrat(s) non trouvé(s) lors du traitement des retards, ignoré(s)",
+                     event.getContractIds().size() - overdueContracts.size());
+        }
+        if (overdueContracts.isEmpty()) {
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        for (ContractEntity overdueContract : overdueContracts) {
+            log.warn("⚠️ CONTRAT EN RETARD - ID: {} | Client: {} | Véhicule: {} | Retard: {} heures",
+                     overdueContract.getId(),
                      overdueContract.getClient().getId(),
                      overdueContract.getVehicle().getId(),
-                     daysOverdue,
-                     hoursOverdue % 24);
-            
-            // Détails du contrat
-            log.info("   - Date de fin attendue: {}", endDate);
-            log.info("   - Date actuelle: {}", now);
-            log.info("   - Statut: {}", overdueContract.getStatus());
-            
-            log.debug("🔍 Vérification des impacts du retard du contrat {}...", overdueContract.getId());
-            
-            var pendingVehicleContracts = contractRepository.findByVehicleIdAndStatus(overdueContract.getVehicle().getId(), ContractStatus.PENDING);
-            
-            for (ContractEntity pending : pendingVehicleContracts) {
-                if (overdueContract.getEndDate().isAfter(pending.getStartDate())) {
-                    log.warn("   ❌ Le contrat {} du client {} est bloqué - chevauchement avec le retard",
-                            pending.getId(), pending.getClient().getId());
-                    contractService.cancelContract(pending.getId());
-                }
+                     ChronoUnit.HOURS.between(overdueContract.getEndDate(), now));
+        }
+        
+        // Date de fin la plus tardive parmi les retards de chaque véhicule
+        Map<Long, LocalDateTime> latestEndByVehicle = overdueContracts.stream()
+            .collect(Collectors.toMap(
+                contract -> contract.getVehicle().getId(),
+                ContractEntity::getEndDate,
+                (first, second) -> first.isAfter(second) ? first : second));
+        
+        var pendingVehicleContracts = contractRepository.findByVehicleIdInAndStatus(
+            latestEndByVehicle.keySet(), ContractStatus.PENDING);
+        
+        List<Long> blockedContractIds = new ArrayList<>();
+        for (ContractEntity pending : pendingVehicleContracts) {
+            LocalDateTime latestEnd = latestEndByVehicle.get(pending.getVehicle().getId());
+            if (latestEnd != null && latestEnd.isAfter(pending.getStartDate())) {
+                log.warn("   ❌ Le contrat {} du client {} est bloqué - chevauchement avec un retard",
+                        pending.getId(), pending.getClient().getId());
+                blockedContractIds.add(pending.getId());
             }
-            
-        } catch (IllegalArgumentException e) {
-            log.error("Erreur: contrat non trouvé lors du traitement du retard", e);
-        } catch (Exception e) {
-            log.error("Erreur lors de la gestion de l'événement de retard du contrat {}", contractId, e);
+        }
+        if (!blockedContractIds.isEmpty()) {
+            contractService.updateContractsStatus(blockedContractIds, ContractStatus.CANCELLED);
         }
     }
 }
@@ -0,0 +1,54 @@
+package imt.nord.europe.architecture.tp.infrastructure.event.handler;
+
+import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractRepository;
+import imt.nord.europe.architecture.tp.infrastructure.event.ContractStartDueEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Gère les événements de contrat en attente arrivé à sa date de début.
+ * Signale le contrat à valider lorsque le véhicule devrait être remis au client.
+ *
+ * L'annulation d'un contrat en attente dont le véhicule est retenu par un contrat en retard n'est pas faite ici :
+ * elle relève du traitement des retards ({@code ContractOverdueScheduler} et {@link ContractOverdueEventHandler}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ContractStartDueEventHandler {
+
+    private final ContractRepository contractRepository;
+
+    /**
+     * Écoute les événements ContractStartDueEvent et signale le contrat pour validation.
+     *
+     * Un contrat supprimé ou qui n'est plus en attente (validé, annulé) est ignoré : l'événement peut être
+     * rediffusé par l'outbox. Les autres erreurs sont propagées pour que l'outbox programme une nouvelle tentative.
+     *
+     * @param event l'événement de contrat arrivé à sa date de début
+     */
+    @EventListener
+    @Transactional(readOnly = true)
+    public void onContractStartDue(ContractStartDueEvent event) {
+        Long contractId = event.getContractId();
+
+        ContractEntity pendingContract = contractRepository.findById(contractId).orElse(null);
+        if (pendingContract == null) {
+            log.warn("Contrat {} non trouvé lors du traitement de sa date de début, événement ignoré", contractId);
+            return;
+        }
+        if (pendingContract.getStatus() != ContractStatus.PENDING) {
+            log.info("Le contrat {} n'est plus en attente (statut {}), événement ignoré", contractId, pendingContract.getStatus());
+            return;
+        }
+
+        log.warn("⏰ CONTRAT À VALIDER - ID: {} | Client: {} | Véhicule: {} | Début prévu: {}",
+                 contractId, pendingContract.getClient().getId(), pendingContract.getVehicle().getId(),
+                 pendingContract.getStartDate());
+    }
+}
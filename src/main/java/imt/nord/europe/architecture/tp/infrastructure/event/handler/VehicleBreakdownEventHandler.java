@@ -2,8 +2,6 @@ package imt.nord.europe.architecture.tp.infrastructure.event.handler;
 
 import imt.nord.europe.architecture.tp.business.contract.services.ContractService;
 import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
-import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
-import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractRepository;
 import imt.nord.europe.architecture.tp.infrastructure.event.VehicleBreakdownEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,7 +20,6 @@ import java.util.List;
 @Slf4j
 public class VehicleBreakdownEventHandler {
     
-    private final ContractRepository contractRepository;
     private final ContractService contractService;
     
     /**
@@ -37,19 +34,13 @@ public class VehicleBreakdownEventHandler {
         
         log.info("Traitement de la rupture du véhicule {}", vehicleId);
         
-        // Récupérer tous les contrats en attente pour ce véhicule
-        var pendingContracts = contractRepository.findByVehicleIdAndStatus(vehicleId, ContractStatus.PENDING);
+        // Annuler en une requête tous les contrats en attente du véhicule
+        List<Long> cancelledContractIds = contractService.updateVehicleContractsStatus(
+            vehicleId, ContractStatus.PENDING, ContractStatus.CANCELLED);
         
-        // Annuler tous les contrats en attente
-        for (var contract : pendingContracts) {
-            log.info("Annulation du contrat {} en attente pour le véhicule en panne {}", 
-                     contract.getId(), vehicleId);
-            contractService.cancelContract(contract.getId());
-        }
-        
-        if (!pendingContracts.isEmpty()) {
-            log.warn("{} contrat(s) annulé(s) suite à la panne du véhicule {}", 
-                     pendingContracts.size(), vehicleId);
+        if (!cancelledContractIds.isEmpty()) {
+            log.warn("{} contrat(s) annulé(s) suite à la panne du véhicule {} : {}", 
+                     cancelledContractIds.size(), vehicleId, cancelledContractIds);
         }
     }
 }
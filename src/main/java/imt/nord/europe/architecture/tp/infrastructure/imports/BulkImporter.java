@@ -0,0 +1,179 @@
+package imt.nord.europe.architecture.tp.infrastructure.imports;
+
+import imt.nord.europe.architecture.tp.common.exceptions.BusinessException;
+import imt.nord.europe.architecture.tp.common.imports.ImportReport;
+import imt.nord.europe.architecture.tp.infrastructure.config.ImportProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Import en masse par lots.
+ *
+ * Les lignes sont lues au fil de l'eau et traitées par lots de {@code tp.import.chunk-size} :
+ * 1. conversion et validation des lignes du lot en parallèle (règles des validateurs, sans accès à la base) ;
+ * 2. rejet des doublons à l'intérieur du fichier, dans l'ordre des lignes ;
+ * 3. chargement du lot dans sa propre transaction ; les lignes en conflit avec la base (contrainte unique)
+ *    sont ignorées à l'insertion puis rejetées dans le rapport.
+ *
+ * Un lot chargé reste en base même si un lot suivant échoue : le rapport indique les lignes rejetées,
+ * qui peuvent être corrigées et importées à nouveau.
+ *
+ * Métrique : tp.import.rows (tags import et result = imported | rejected).
+ */
+@Component
+@Slf4j
+public class BulkImporter {
+
+    private static final String IN_FILE_DUPLICATE = "Doublon d'une ligne précédente du fichier";
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public BulkImporter(TransactionTemplate transactionTemplate, ImportProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getChunkSize() <= 0) {
+            throw new IllegalArgumentException("La taille des lots d'import doit être strictement positive");
+        }
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = properties.getChunkSize();
+        this.maxReportedErrors = properties.getMaxReportedErrors();
+    }
+
+    /**
+     * Ligne convertie : l'élément à insérer, ou la raison de son rejet.
+     */
+    private record Parsed<T>(long line, T item, String error) {
+    }
+
+    /**
+     * Compteurs de l'import en cours.
+     */
+    private final class Progress {
+
+        private long total;
+        private long imported;
+        private long failed;
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+
+        void reject(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportReport.RowError(line, message));
+            }
+        }
+
+        ImportReport toReport() {
+            return new ImportReport(total, imported, failed, List.copyOf(errors));
+        }
+    }
+
+    /**
+     * Importe toutes les lignes d'un fichier.
+     *
+     * @param rows les lignes du fichier, lues au fil de l'itération
+     * @param target la nature des lignes
+     * @return le rapport d'import
+     */
+    public <T> ImportReport run(Iterator<ImportRow> rows, ImportTarget<T> target) {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+        // Clés des lignes acceptées, pour rejeter les doublons du fichier d'un lot à l'autre
+        Set<String> seenKeys = new HashSet<>();
+
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, target, seenKeys, progress);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, target, seenKeys, progress);
+        }
+
+        ImportReport report = progress.toReport();
+        count(target.name(), "imported", report.imported());
+        count(target.name(), "rejected", report.failed());
+        log.info("Import {} terminé en {} ms : {} ligne(s), {} importée(s), {} rejetée(s)",
+                 target.name(), (System.nanoTime() - start) / 1_000_000,
+                 report.total(), report.imported(), report.failed());
+        return report;
+    }
+
+    private <T> void importChunk(List<ImportRow> chunk, ImportTarget<T> target, Set<String> seenKeys, Progress progress) {
+        List<Parsed<T>> parsed = chunk.parallelStream()
+            .map(row -> parse(row, target))
+            .toList();
+
+        List<Parsed<T>> valid = new ArrayList<>(parsed.size());
+        for (Parsed<T> row : parsed) {
+            progress.total++;
+            if (row.error() != null) {
+                progress.reject(row.line(), row.error());
+                continue;
+            }
+            List<String> keys = target.uniqueKeys(row.item());
+            if (keys.stream().anyMatch(seenKeys::contains)) {
+                progress.reject(row.line(), IN_FILE_DUPLICATE);
+                continue;
+            }
+            seenKeys.addAll(keys);
+            valid.add(row);
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        Set<String> inserted;
+        try {
+            inserted = transactionTemplate.execute(status -> target.load(valid.stream().map(Parsed::item).toList()));
+        } catch (DataAccessException e) {
+            log.error("Échec du chargement d'un lot de {} ligne(s) {} (lignes {} à {})",
+                      valid.size(), target.name(), valid.getFirst().line(), valid.getLast().line(), e);
+            String message = "Échec du chargement du lot : " + e.getMostSpecificCause().getMessage();
+            valid.forEach(row -> progress.reject(row.line(), message));
+            return;
+        }
+
+        for (Parsed<T> row : valid) {
+            if (inserted != null && inserted.contains(target.uniqueKeys(row.item()).getFirst())) {
+                progress.imported++;
+            } else {
+                progress.reject(row.line(), target.duplicateMessage(row.item()));
+            }
+        }
+    }
+
+    private <T> Parsed<T> parse(ImportRow row, ImportTarget<T> target) {
+        if (row.error() != null) {
+            return new Parsed<>(row.line(), null, row.error());
+        }
+        try {
+            return new Parsed<>(row.line(), target.parse(row), null);
+        } catch (BusinessException e) {
+            return new Parsed<>(row.line(), null, e.getMessage());
+        }
+    }
+
+    private void count(String name, String result, long rows) {
+        Counter.builder("tp.import.rows")
+            .description("Lignes des imports en masse : insérées (imported) ou rejetées (rejected)")
+            .tag("import", name)
+            .tag("result", result)
+            .register(meterRegistry)
+            .increment(rows);
+    }
+}
@@ -0,0 +1,251 @@
+package imt.nord.europe.architecture.tp.infrastructure.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import imt.nord.europe.architecture.tp.common.imports.ImportFormat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Lecture des fichiers d'import (CSV ou NDJSON) ligne à ligne.
+ *
+ * Les lignes sont lues au fur et à mesure de l'itération : la mémoire utilisée ne dépend pas
+ * de la taille du fichier. Les lignes vides sont ignorées (mais comptées dans la numérotation) ;
+ * une ligne illisible est renvoyée en erreur sans interrompre la lecture.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImportReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Lit les lignes d'un fichier d'import.
+     *
+     * @param input le contenu du fichier
+     * @param charset l'encodage du contenu (UTF-8 si null)
+     * @param format le format du contenu
+     * @return les lignes, lues au fil de l'itération
+     */
+    public Iterator<ImportRow> read(InputStream input, Charset charset, ImportFormat format) {
+        BufferedReader reader = new BufferedReader(
+            new InputStreamReader(input, charset != null ? charset : StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowSource source = switch (format) {
+            case CSV -> new CsvRowSource(reader);
+            case NDJSON -> new NdjsonRowSource(reader);
+        };
+        return new RowIterator(source);
+    }
+
+    /**
+     * Source de lignes : renvoie la ligne suivante, ou null en fin de fichier.
+     */
+    private interface RowSource {
+        ImportRow next() throws IOException;
+    }
+
+    private static final class RowIterator implements Iterator<ImportRow> {
+
+        private final RowSource source;
+        private ImportRow next;
+        private boolean done;
+
+        RowIterator(RowSource source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                try {
+                    next = source.next();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                done = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public ImportRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ImportRow row = next;
+            next = null;
+            return row;
+        }
+    }
+
+    private final class NdjsonRowSource implements RowSource {
+
+        private final BufferedReader reader;
+        private long line;
+
+        NdjsonRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                return ImportRow.malformed(line, "JSON invalide : " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                return ImportRow.malformed(line, "La ligne doit être un objet JSON");
+            }
+            Map<String, String> fields = new HashMap<>();
+            node.properties().forEach(field ->
+                fields.put(field.getKey(), field.getValue().isNull() ? null : field.getValue().asText()));
+            return ImportRow.of(line, fields);
+        }
+    }
+
+    private static final class CsvRowSource implements RowSource {
+
+        private final CsvRecordReader reader;
+        private List<String> header;
+
+        CsvRowSource(BufferedReader reader) {
+            this.reader = new CsvRecordReader(reader);
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            if (header == null) {
+                header = nonBlankRecord();
+                if (header == null) {
+                    return null;
+                }
+                header = header.stream().map(name -> name.replace("\uFEFF", "").strip()).toList();
+            }
+
+            List<String> values = nonBlankRecord();
+            if (values == null) {
+                return null;
+            }
+            if (values.size() != header.size()) {
+                return ImportRow.malformed(reader.recordLine(),
+                    values.size() + " colonne(s) au lieu de " + header.size() + " (en-tête)");
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                fields.put(header.get(i), values.get(i));
+            }
+            return ImportRow.of(reader.recordLine(), fields);
+        }
+
+        private List<String> nonBlankRecord() throws IOException {
+            List<String> values;
+            do {
+                values = reader.next();
+            } while (values != null && values.size() == 1 && values.getFirst().isBlank());
+            return values;
+        }
+    }
+
+    /**
+     * Lecteur d'enregistrements CSV (RFC 4180) : une valeur entre guillemets peut contenir
+     * des virgules, des sauts de ligne et des guillemets doublés.
+     */
+    static final class CsvRecordReader {
+
+        private final Reader reader;
+        private long line = 1;
+        private long recordLine;
+
+        CsvRecordReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * @return le numéro de ligne du début du dernier enregistrement lu
+         */
+        long recordLine() {
+            return recordLine;
+        }
+
+        /**
+         * @return les valeurs de l'enregistrement suivant, ou null en fin de fichier
+         */
+        List<String> next() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            recordLine = line;
+
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        // Guillemet non refermé : la valeur s'arrête en fin de fichier
+                        values.add(value.toString());
+                        return values;
+                    }
+                    if (c == '"') {
+                        int following = reader.read();
+                        if (following != '"') {
+                            quoted = false;
+                            c = following;
+                            continue;
+                        }
+                        value.append('"');
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        value.append((char) c);
+                    }
+                } else if (c == '"' && value.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    values.add(value.toString());
+                    return values;
+                } else if (c != '\r') {
+                    value.append((char) c);
+                }
+                c = reader.read();
+            }
+        }
+    }
+}
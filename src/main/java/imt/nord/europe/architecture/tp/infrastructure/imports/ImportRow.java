@@ -0,0 +1,78 @@
+package imt.nord.europe.architecture.tp.infrastructure.imports;
+
+import imt.nord.europe.architecture.tp.common.exceptions.ValidationException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * Ligne lue dans un fichier d'import.
+ *
+ * @param line le numéro de la ligne dans le fichier (à partir de 1, en-tête compris)
+ * @param fields les valeurs de la ligne, par nom de colonne
+ * @param error la raison pour laquelle la ligne n'a pas pu être lue (null si la ligne est bien formée)
+ */
+public record ImportRow(long line, Map<String, String> fields, String error) {
+
+    /**
+     * Ligne bien formée.
+     *
+     * @param line le numéro de la ligne
+     * @param fields les valeurs de la ligne, par nom de colonne
+     * @return la ligne
+     */
+    public static ImportRow of(long line, Map<String, String> fields) {
+        return new ImportRow(line, fields, null);
+    }
+
+    /**
+     * Ligne illisible (JSON invalide, nombre de colonnes incorrect...).
+     *
+     * @param line le numéro de la ligne
+     * @param error la raison du rejet
+     * @return la ligne, rejetée sans validation
+     */
+    public static ImportRow malformed(long line, String error) {
+        return new ImportRow(line, Map.of(), error);
+    }
+
+    /**
+     * Lit une valeur texte.
+     *
+     * @param field le nom de la colonne
+     * @param maxLength la longueur maximale (celle de la colonne en base)
+     * @return la valeur sans les espaces de début et de fin, null si elle est absente ou vide
+     * @throws ValidationException si la valeur dépasse la longueur maximale
+     */
+    public String text(String field, int maxLength) {
+        String value = fields.get(field);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.strip();
+        if (trimmed.length() > maxLength) {
+            throw new ValidationException("La valeur de " + field + " dépasse " + maxLength + " caractères");
+        }
+        return trimmed;
+    }
+
+    /**
+     * Lit une date au format ISO-8601 (AAAA-MM-JJ).
+     *
+     * @param field le nom de la colonne
+     * @return la date, null si elle est absente ou vide
+     * @throws ValidationException si la valeur n'est pas une date valide
+     */
+    public LocalDate date(String field) {
+        String value = fields.get(field);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.strip());
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("La valeur de " + field + " n'est pas une date AAAA-MM-JJ : '" + value + "'");
+        }
+    }
+}
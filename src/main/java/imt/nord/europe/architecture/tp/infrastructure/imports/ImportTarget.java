@@ -0,0 +1,53 @@
+package imt.nord.europe.architecture.tp.infrastructure.imports;
+
+import imt.nord.europe.architecture.tp.common.exceptions.BusinessException;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Nature des lignes d'un import en masse : conversion, validation et chargement en base.
+ *
+ * @param <T> le type des éléments importés
+ */
+public interface ImportTarget<T> {
+
+    /**
+     * @return le nom de l'import, pour les logs et les métriques (ex : vehicles)
+     */
+    String name();
+
+    /**
+     * Convertit et valide une ligne. Appelé en parallèle sur les lignes d'un lot :
+     * ne doit pas accéder à la base.
+     *
+     * @param row la ligne lue
+     * @return l'élément à insérer
+     * @throws BusinessException si la ligne est invalide (la ligne est rejetée avec ce message)
+     */
+    T parse(ImportRow row);
+
+    /**
+     * Clés uniques d'un élément, pour rejeter les doublons à l'intérieur du fichier.
+     * La première clé identifie l'élément dans le résultat de {@link #load(List)}.
+     *
+     * @param item l'élément
+     * @return les clés uniques de l'élément (non vide)
+     */
+    List<String> uniqueKeys(T item);
+
+    /**
+     * Insère un lot d'éléments, dans la transaction du lot. Les éléments en conflit avec une ligne
+     * existante (contrainte unique) sont ignorés.
+     *
+     * @param items les éléments à insérer
+     * @return la première clé unique de chaque élément inséré
+     */
+    Set<String> load(List<T> items);
+
+    /**
+     * @param item un élément non inséré car en conflit avec une ligne existante
+     * @return le message de rejet de la ligne
+     */
+    String duplicateMessage(T item);
+}
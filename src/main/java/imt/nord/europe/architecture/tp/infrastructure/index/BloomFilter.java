@@ -0,0 +1,123 @@
+package imt.nord.europe.architecture.tp.infrastructure.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtre de Bloom sur des chaînes, utilisable par plusieurs threads sans verrou.
+ *
+ * {@link #mightContain(String)} ne se trompe que dans un sens :
+ * - false : la clé n'a jamais été ajoutée (aucun faux négatif) ;
+ * - true : la clé a probablement été ajoutée (faux positifs au taux choisi tant que la capacité n'est pas dépassée).
+ *
+ * Les k positions d'une clé sont dérivées de deux empreintes 64 bits (h1 + i * h2, méthode de Kirsch-Mitzenmacher).
+ * Une clé ne peut pas être retirée : le filtre est reconstruit pour oublier les clés supprimées.
+ */
+public final class BloomFilter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long capacity;
+    private final AtomicLong insertions = new AtomicLong();
+
+    /**
+     * Dimensionne le filtre pour une capacité et un taux de faux positifs.
+     *
+     * @param capacity le nombre de clés attendues
+     * @param falsePositiveRate le taux de faux positifs visé à pleine capacité (entre 0 et 1, exclus)
+     */
+    public BloomFilter(long capacity, double falsePositiveRate) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacité du filtre doit être strictement positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Le taux de faux positifs doit être compris entre 0 et 1");
+        }
+        long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray(Math.toIntExact((Math.max(bits, Long.SIZE) + Long.SIZE - 1) / Long.SIZE));
+        this.bitCount = (long) words.length() * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        this.capacity = capacity;
+    }
+
+    /**
+     * Ajoute une clé au filtre.
+     *
+     * @param key la clé
+     */
+    public void put(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+            } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * Indique si une clé a pu être ajoutée au filtre.
+     *
+     * @param key la clé
+     * @return false si la clé n'a certainement jamais été ajoutée
+     */
+    public boolean mightContain(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indique si le nombre d'ajouts a dépassé la capacité : le taux de faux positifs n'est plus garanti.
+     *
+     * @return true si le filtre doit être reconstruit plus grand
+     */
+    public boolean isSaturated() {
+        return insertions.get() > capacity;
+    }
+
+    /**
+     * @return le nombre de clés attendues
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Empreinte FNV-1a 64 bits des octets UTF-8 de la clé, brassée pour répartir les bits de poids faible.
+     */
+    private static long hash(String key) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Finaliseur de SplitMix64 : brasse les bits d'une empreinte (sert aussi à dériver la seconde empreinte).
+     */
+    private static long mix(long value) {
+        long z = value + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
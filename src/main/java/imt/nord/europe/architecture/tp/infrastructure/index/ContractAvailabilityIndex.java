@@ -0,0 +1,273 @@
+package imt.nord.europe.architecture.tp.infrastructure.index;
+
+import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
+import imt.nord.europe.architecture.tp.infrastructure.config.ContractProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractWindow;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Index en mémoire des périodes de réservation actives (PENDING, ONGOING, OVERDUE) par véhicule.
+ *
+ * Pour chaque véhicule, les fenêtres sont triées par date de début. Comme la règle métier interdit
+ * deux contrats actifs qui se chevauchent sur un même véhicule, les fenêtres d'un véhicule sont disjointes :
+ * un chevauchement se détecte alors en O(log n) en regardant la fenêtre qui commence juste avant la fin demandée.
+ *
+ * L'index ne voit que les écritures de son instance : il n'est activé ({@code tp.contracts.availability-index.enabled})
+ * que lorsqu'une seule instance écrit les contrats. Il répond alors seul aux recherches de conflit, sans requête
+ * de conflit en base, que la contrainte d'exclusion contracts_vehicle_period_excl soit en place ou non.
+ *
+ * La base de données reste la source de vérité :
+ * - tant que l'index n'est pas chargé (ou s'il est désactivé), ou si un véhicule présente des données incohérentes,
+ *   {@link #isReliable(Long)} retourne false et l'appelant doit interroger la base ;
+ * - les mises à jour ne sont appliquées qu'après le commit de la transaction en cours ;
+ * - l'index est reconstruit périodiquement ({@code tp.contracts.availability-index.rebuild-interval}) :
+ *   les véhicules en repli sur la base sont rétablis et la présence de la contrainte est vérifiée de nouveau.
+ *
+ * La présence de la contrainte d'exclusion est suivie même lorsque l'index est désactivé
+ * (voir {@link #isOverlapConstraintEnforced()}).
+ */
+@Component
+@Slf4j
+public class ContractAvailabilityIndex {
+
+    private static final Set<ContractStatus> ACTIVE_STATUSES =
+        EnumSet.of(ContractStatus.PENDING, ContractStatus.ONGOING, ContractStatus.OVERDUE);
+
+    private final ContractRepository contractRepository;
+    private final boolean enabled;
+
+    private final Map<Long, NavigableMap<LocalDateTime, ContractWindow>> windowsByVehicle = new ConcurrentHashMap<>();
+    private final Map<Long, ContractWindow> windowsByContract = new ConcurrentHashMap<>();
+    private final Set<Long> unreliableVehicles = ConcurrentHashMap.newKeySet();
+    /** Contrats écrits pendant une reconstruction : leur état suivi est plus récent que la lecture de la table. */
+    private final Set<Long> trackedDuringRebuild = new HashSet<>();
+    private final Object rebuildLock = new Object();
+    private volatile boolean loaded = false;
+    private volatile boolean rebuilding = false;
+    private volatile Boolean overlapConstraint;
+
+    public ContractAvailabilityIndex(ContractRepository contractRepository, ContractProperties contractProperties) {
+        this.contractRepository = contractRepository;
+        this.enabled = contractProperties.getAvailabilityIndex().isEnabled();
+    }
+
+    /**
+     * Construit l'index à partir de la table des contrats et vérifie la présence de la contrainte d'exclusion.
+     * Appelé au démarrage de l'application, puis périodiquement.
+     *
+     * Pendant la reconstruction, l'index n'est pas fiable (les appelants interrogent la base). Les écritures
+     * validées pendant la lecture de la table sont appliquées à l'index au fil de l'eau et prévalent sur
+     * les fenêtres lues, qui peuvent être antérieures.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            boolean constraint = contractRepository.existsOverlapConstraint();
+            if (!constraint && !Boolean.FALSE.equals(overlapConstraint)) {
+                log.warn("Contrainte d'exclusion des chevauchements absente : les conflits ne sont vérifiés qu'avant l'écriture");
+            }
+            overlapConstraint = constraint;
+            if (!enabled) {
+                return;
+            }
+
+            synchronized (this) {
+                loaded = false;
+                rebuilding = true;
+                trackedDuringRebuild.clear();
+                windowsByVehicle.clear();
+                windowsByContract.clear();
+                unreliableVehicles.clear();
+            }
+
+            // Lecture hors du verrou de l'index : les écritures validées entre-temps restent suivies
+            List<ContractWindow> windows;
+            try {
+                windows = contractRepository.findActiveContractWindows();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    rebuilding = false;
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                windows.stream()
+                    .filter(window -> !trackedDuringRebuild.contains(window.contractId()))
+                    .forEach(this::add);
+                trackedDuringRebuild.clear();
+                rebuilding = false;
+                loaded = true;
+            }
+            log.info("Index de disponibilité construit : {} contrat(s) actif(s), {} véhicule(s) en repli sur la base",
+                     windows.size(), unreliableVehicles.size());
+        }
+    }
+
+    /**
+     * Reconstruit périodiquement l'index : les véhicules marqués incohérents sont de nouveau servis par l'index
+     * si leurs données le permettent, et la présence de la contrainte d'exclusion est vérifiée de nouveau.
+     */
+    @Scheduled(fixedDelayString = "${tp.contracts.availability-index.rebuild-interval:PT10M}",
+               initialDelayString = "${tp.contracts.availability-index.rebuild-interval:PT10M}")
+    public void refresh() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Erreur lors de la reconstruction de l'index de disponibilité (nouvelle tentative au prochain passage)", e);
+        }
+    }
+
+    /**
+     * Indique si l'index peut répondre seul pour ce véhicule, sans recherche de conflit en base.
+     *
+     * @param vehicleId l'ID du véhicule
+     * @return true si l'index est activé, chargé et cohérent pour ce véhicule
+     */
+    public boolean isReliable(Long vehicleId) {
+        return loaded && !unreliableVehicles.contains(vehicleId);
+    }
+
+    /**
+     * Indique si la contrainte d'exclusion des chevauchements est en place en base : une réservation
+     * qui chevauche un contrat actif est alors rejetée à l'écriture, même sans vérification préalable.
+     *
+     * @return true si la contrainte d'exclusion existait lors de la dernière vérification
+     */
+    public boolean isOverlapConstraintEnforced() {
+        return Boolean.TRUE.equals(overlapConstraint);
+    }
+
+    /**
+     * Vérifie si une période chevauche une réservation active du véhicule.
+     *
+     * @param vehicleId l'ID du véhicule
+     * @param startDate la date de début demandée
+     * @param endDate la date de fin demandée
+     * @param excludeContractId l'ID du contrat à ignorer (null si création)
+     * @return true si un contrat actif chevauche la période
+     */
+    public boolean hasConflict(Long vehicleId, LocalDateTime startDate, LocalDateTime endDate, Long excludeContractId) {
+        NavigableMap<LocalDateTime, ContractWindow> windows = windowsByVehicle.get(vehicleId);
+        if (windows == null) {
+            return false;
+        }
+
+        // Les fenêtres étant disjointes, seule la dernière qui commence avant endDate peut chevaucher la période
+        Map.Entry<LocalDateTime, ContractWindow> candidate = windows.lowerEntry(endDate);
+        while (candidate != null) {
+            ContractWindow window = candidate.getValue();
+            if (!window.contractId().equals(excludeContractId)) {
+                return window.endDate().isAfter(startDate);
+            }
+            candidate = windows.lowerEntry(candidate.getKey());
+        }
+        return false;
+    }
+
+    /**
+     * Répercute l'état d'un contrat sauvegardé dans l'index (après commit).
+     * Un contrat dont le statut n'est plus actif est retiré de l'index.
+     *
+     * @param entity le contrat sauvegardé
+     */
+    public void track(ContractEntity entity) {
+        if (!enabled) {
+            return;
+        }
+        ContractWindow window = new ContractWindow(
+            entity.getId(), entity.getVehicle().getId(), entity.getStartDate(), entity.getEndDate());
+        boolean active = ACTIVE_STATUSES.contains(entity.getStatus());
+
+        afterCommit(() -> apply(window.contractId(), active ? window : null));
+    }
+
+    /**
+     * Retire un contrat de l'index (après commit).
+     *
+     * @param contractId l'ID du contrat
+     */
+    public void untrack(Long contractId) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> apply(contractId, null));
+    }
+
+    /**
+     * Remplace la fenêtre d'un contrat (null pour la retirer).
+     */
+    private synchronized void apply(Long contractId, ContractWindow window) {
+        if (rebuilding) {
+            trackedDuringRebuild.add(contractId);
+        }
+        remove(contractId);
+        if (window != null) {
+            add(window);
+        }
+    }
+
+    private void add(ContractWindow window) {
+        NavigableMap<LocalDateTime, ContractWindow> windows =
+            windowsByVehicle.computeIfAbsent(window.vehicleId(), id -> new ConcurrentSkipListMap<>());
+
+        if (overlapsExisting(windows, window)) {
+            // Données historiques incohérentes : ce véhicule sera vérifié en base
+            unreliableVehicles.add(window.vehicleId());
+            log.warn("Chevauchement détecté dans l'index pour le véhicule {} (contrat {}), repli sur la base",
+                     window.vehicleId(), window.contractId());
+        }
+
+        windows.put(window.startDate(), window);
+        windowsByContract.put(window.contractId(), window);
+    }
+
+    private void remove(Long contractId) {
+        ContractWindow window = windowsByContract.remove(contractId);
+        if (window == null) {
+            return;
+        }
+        NavigableMap<LocalDateTime, ContractWindow> windows = windowsByVehicle.get(window.vehicleId());
+        if (windows != null) {
+            windows.remove(window.startDate(), window);
+        }
+    }
+
+    private boolean overlapsExisting(NavigableMap<LocalDateTime, ContractWindow> windows, ContractWindow window) {
+        Map.Entry<LocalDateTime, ContractWindow> previous = windows.floorEntry(window.startDate());
+        Map.Entry<LocalDateTime, ContractWindow> next = windows.higherEntry(window.startDate());
+        return (previous != null && previous.getValue().endDate().isAfter(window.startDate()))
+            || (next != null && next.getKey().isBefore(window.endDate()));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
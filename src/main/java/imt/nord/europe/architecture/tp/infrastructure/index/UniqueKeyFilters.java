@@ -0,0 +1,253 @@
+package imt.nord.europe.architecture.tp.infrastructure.index;
+
+import imt.nord.europe.architecture.tp.infrastructure.config.UniquenessFilterProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ClientEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ClientUniqueKeys;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.ClientRepository;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.VehicleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Filtres de Bloom sur les clés uniques des clients (numéro de permis, identité composée)
+ * et des véhicules (immatriculation).
+ *
+ * Lors d'une validation, l'immense majorité des clés recherchées n'existe pas : une clé absente du filtre
+ * n'existe certainement pas en base et la requête de recherche du doublon est sautée.
+ * Une clé présente dans le filtre (doublon réel ou faux positif) est vérifiée en base comme avant.
+ *
+ * Les contraintes uniques de la base restent la source de vérité :
+ * - tant que les filtres ne sont pas chargés (ou s'ils sont désactivés), toutes les clés sont vérifiées en base ;
+ * - tant que la contrainte uk_clients_identity n'est pas présente (voir db/clients-constraints.sql),
+ *   les identités sont toujours vérifiées en base : rien d'autre n'empêcherait un doublon ;
+ * - une clé créée par une autre instance depuis la dernière reconstruction peut être absente du filtre :
+ *   le doublon est alors rejeté par la contrainte unique à l'insertion.
+ *
+ * Les clés sont ajoutées dès l'écriture, sans attendre le commit : une clé annulée par un rollback n'est
+ * qu'un faux positif. Un filtre ne peut pas oublier une clé : il est reconstruit périodiquement
+ * ({@code tp.uniqueness-filter.rebuild-interval}) ou dès qu'il est saturé.
+ *
+ * Métrique : tp.uniqueness.filter.checks (tags key et result = skipped | queried).
+ */
+@Component
+@Slf4j
+public class UniqueKeyFilters {
+
+    static final String LICENSE_NUMBER = "license-number";
+    static final String IDENTITY = "identity";
+    static final String REGISTRATION_PLATE = "registration-plate";
+
+    private static final char SEPARATOR = '\u001F';
+
+    /**
+     * Filtres construits ensemble, à une date donnée.
+     */
+    private record Filters(BloomFilter licenseNumbers, BloomFilter identities, BloomFilter registrationPlates,
+                           LocalDateTime builtAt) {
+
+        boolean isSaturated() {
+            return licenseNumbers.isSaturated() || identities.isSaturated() || registrationPlates.isSaturated();
+        }
+    }
+
+    private final ClientRepository clientRepository;
+    private final VehicleRepository vehicleRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final long minCapacity;
+    private final Duration rebuildInterval;
+
+    /** Filtres interrogés, null tant qu'ils ne sont pas chargés. */
+    private volatile Filters current;
+    /** Filtres en cours de reconstruction : ils reçoivent aussi les clés écrites pendant leur chargement. */
+    private volatile Filters building;
+    /** Présence de la contrainte uk_clients_identity, relue à chaque construction. */
+    private volatile boolean identityConstraint;
+
+    public UniqueKeyFilters(ClientRepository clientRepository,
+                            VehicleRepository vehicleRepository,
+                            TransactionTemplate transactionTemplate,
+                            UniquenessFilterProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.clientRepository = clientRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        this.enabled = properties.isEnabled();
+        this.falsePositiveRate = properties.getFalsePositiveRate();
+        this.minCapacity = properties.getMinCapacity();
+        this.rebuildInterval = properties.getRebuildInterval();
+    }
+
+    /**
+     * Construit les filtres à partir des tables des clients et des véhicules.
+     * Appelé au démarrage de l'application, puis par {@link #refresh()}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        Filters next;
+        try {
+            next = readOnlyTransaction.execute(status -> {
+                identityConstraint = clientRepository.existsIdentityConstraint();
+                long clientCount = clientRepository.count();
+                long vehicleCount = vehicleRepository.count();
+                Filters filters = new Filters(
+                    new BloomFilter(capacity(clientCount), falsePositiveRate),
+                    new BloomFilter(capacity(clientCount), falsePositiveRate),
+                    new BloomFilter(capacity(vehicleCount), falsePositiveRate),
+                    LocalDateTime.now());
+                building = filters;
+
+                try (Stream<ClientUniqueKeys> keys = clientRepository.streamAllUniqueKeys()) {
+                    keys.forEach(key -> {
+                        filters.licenseNumbers().put(key.licenseNumber());
+                        filters.identities().put(identityKey(key.firstName(), key.lastName(), key.dateOfBirth()));
+                    });
+                }
+                try (Stream<String> plates = vehicleRepository.streamAllRegistrationPlates()) {
+                    plates.forEach(filters.registrationPlates()::put);
+                }
+                return filters;
+            });
+            // Publiés avant de quitter building : aucune clé écrite entre-temps n'est perdue
+            current = next;
+        } finally {
+            building = null;
+        }
+        log.info("Filtres d'unicité construits : capacité {} client(s), {} véhicule(s)",
+                 next.licenseNumbers().capacity(), next.registrationPlates().capacity());
+        if (!identityConstraint) {
+            log.warn("Contrainte {} absente : les identités des clients sont toujours vérifiées en base",
+                     ClientEntity.IDENTITY_CONSTRAINT);
+        }
+    }
+
+    /**
+     * Reconstruit les filtres s'ils ne sont pas chargés, s'ils sont saturés ou trop anciens.
+     */
+    @Scheduled(fixedDelayString = "${tp.uniqueness-filter.check-interval:PT1M}",
+               initialDelayString = "${tp.uniqueness-filter.check-interval:PT1M}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        Filters filters = current;
+        if (filters != null && !filters.isSaturated()
+                && filters.builtAt().plus(rebuildInterval).isAfter(LocalDateTime.now())) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Erreur lors de la reconstruction des filtres d'unicité (nouvelle tentative au prochain passage)", e);
+        }
+    }
+
+    /**
+     * Indique si un numéro de permis peut déjà exister en base.
+     *
+     * @param licenseNumber le numéro de permis
+     * @return false si aucun client n'a ce numéro de permis (la recherche en base peut être sautée)
+     */
+    public boolean mightContainLicenseNumber(String licenseNumber) {
+        Filters filters = current;
+        return check(LICENSE_NUMBER, filters == null || filters.licenseNumbers().mightContain(licenseNumber));
+    }
+
+    /**
+     * Indique si une identité (prénom, nom, date de naissance) peut déjà exister en base.
+     *
+     * @param firstName le prénom
+     * @param lastName le nom
+     * @param dateOfBirth la date de naissance
+     * @return false si aucun client n'a cette identité et que la contrainte d'unicité la protège
+     *         (la recherche en base peut être sautée)
+     */
+    public boolean mightContainIdentity(String firstName, String lastName, LocalDate dateOfBirth) {
+        Filters filters = current;
+        return check(IDENTITY, filters == null || !identityConstraint
+            || filters.identities().mightContain(identityKey(firstName, lastName, dateOfBirth)));
+    }
+
+    /**
+     * Indique si un numéro d'immatriculation peut déjà exister en base.
+     *
+     * @param registrationPlate le numéro d'immatriculation
+     * @return false si aucun véhicule n'a cette immatriculation (la recherche en base peut être sautée)
+     */
+    public boolean mightContainRegistrationPlate(String registrationPlate) {
+        Filters filters = current;
+        return check(REGISTRATION_PLATE, filters == null || filters.registrationPlates().mightContain(registrationPlate));
+    }
+
+    /**
+     * Ajoute les clés d'un client créé ou modifié.
+     *
+     * @param licenseNumber le numéro de permis
+     * @param firstName le prénom
+     * @param lastName le nom
+     * @param dateOfBirth la date de naissance
+     */
+    public void recordClient(String licenseNumber, String firstName, String lastName, LocalDate dateOfBirth) {
+        String identity = identityKey(firstName, lastName, dateOfBirth);
+        for (Filters filters : targets()) {
+            if (filters != null) {
+                filters.licenseNumbers().put(licenseNumber);
+                filters.identities().put(identity);
+            }
+        }
+    }
+
+    /**
+     * Ajoute l'immatriculation d'un véhicule créé ou modifié.
+     *
+     * @param registrationPlate le numéro d'immatriculation
+     */
+    public void recordRegistrationPlate(String registrationPlate) {
+        for (Filters filters : targets()) {
+            if (filters != null) {
+                filters.registrationPlates().put(registrationPlate);
+            }
+        }
+    }
+
+    private Filters[] targets() {
+        return new Filters[] {current, building};
+    }
+
+    private boolean check(String key, boolean mightContain) {
+        Counter.builder("tp.uniqueness.filter.checks")
+            .description("Vérifications d'unicité : recherche en base sautée (skipped) ou effectuée (queried)")
+            .tag("key", key)
+            .tag("result", mightContain ? "queried" : "skipped")
+            .register(meterRegistry)
+            .increment();
+        return mightContain;
+    }
+
+    private long capacity(long rows) {
+        return Math.max(minCapacity, 2 * rows);
+    }
+
+    private static String identityKey(String firstName, String lastName, LocalDate dateOfBirth) {
+        return firstName + SEPARATOR + lastName + SEPARATOR + dateOfBirth;
+    }
+}
@@ -0,0 +1,173 @@
+package imt.nord.europe.architecture.tp.infrastructure.lock;
+
+import imt.nord.europe.architecture.tp.infrastructure.config.ContractProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Baux (leases) sur les tâches planifiées, stockés dans la table scheduler_leases.
+ *
+ * Lorsque plusieurs instances tournent derrière le répartiteur de charge, chaque tâche planifiée
+ * n'est exécutée que par le nœud qui détient son bail :
+ * - l'acquisition est une seule requête atomique (INSERT ... ON CONFLICT DO UPDATE) qui ne réussit
+ *   que si le bail est libre, expiré ou déjà détenu par ce nœud ;
+ * - les baux détenus sont renouvelés périodiquement (heartbeat) ;
+ * - un nœud arrêté ou bloqué perd son bail à expiration, et un autre nœud peut le reprendre.
+ *
+ * Les dates d'expiration sont calculées par la base (now()), pour ne pas dépendre de l'horloge des nœuds.
+ */
+@Component
+@Slf4j
+public class SchedulerLeaseManager {
+
+    private static final String ACQUIRE_SQL =
+        "INSERT INTO scheduler_leases (lease_name, owner_id, acquired_at, expires_at) " +
+        "VALUES (?, ?, now(), now() + make_interval(secs => ?)) " +
+        "ON CONFLICT (lease_name) DO UPDATE SET " +
+        "owner_id = EXCLUDED.owner_id, " +
+        "acquired_at = CASE WHEN scheduler_leases.owner_id = EXCLUDED.owner_id " +
+        "THEN scheduler_leases.acquired_at ELSE EXCLUDED.acquired_at END, " +
+        "expires_at = EXCLUDED.expires_at " +
+        "WHERE scheduler_leases.owner_id = EXCLUDED.owner_id OR scheduler_leases.expires_at < now()";
+
+    private static final String RENEW_SQL =
+        "UPDATE scheduler_leases SET expires_at = now() + make_interval(secs => ?) " +
+        "WHERE lease_name = ? AND owner_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String ownerId;
+    private final Duration leaseTtl;
+    private final Duration heartbeatInterval;
+
+    /**
+     * Baux détenus par ce nœud : nom → instant (System.nanoTime) jusqu'auquel le bail est valide localement.
+     */
+    private final Map<String, Long> heldLeases = new ConcurrentHashMap<>();
+
+    /**
+     * Dernière tentative d'acquisition échouée par bail, pour ne pas solliciter la base à chaque appel.
+     */
+    private final Map<String, Long> lastFailedAttempts = new ConcurrentHashMap<>();
+
+    public SchedulerLeaseManager(JdbcTemplate jdbcTemplate, ContractProperties contractProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ownerId = hostName() + ":" + UUID.randomUUID();
+        this.leaseTtl = contractProperties.getCluster().getLeaseTtl();
+        this.heartbeatInterval = contractProperties.getCluster().getHeartbeatInterval();
+        if (!heartbeatInterval.minus(leaseTtl).isNegative()) {
+            throw new IllegalArgumentException("L'intervalle de heartbeat doit être inférieur à la durée du bail");
+        }
+    }
+
+    /**
+     * Tente d'obtenir (ou de conserver) le bail d'une tâche.
+     * Un bail déjà détenu et encore valide est confirmé sans requête ; après un échec,
+     * une nouvelle tentative n'interroge la base qu'une fois par intervalle de heartbeat.
+     *
+     * @param leaseName le nom du bail
+     * @return true si ce nœud détient le bail
+     */
+    public boolean tryAcquire(String leaseName) {
+        long now = System.nanoTime();
+
+        if (isHeld(leaseName, now)) {
+            return true;
+        }
+
+        Long lastFailure = lastFailedAttempts.get(leaseName);
+        if (lastFailure != null && now - lastFailure < heartbeatInterval.toNanos()) {
+            return false;
+        }
+
+        try {
+            int updated = jdbcTemplate.update(ACQUIRE_SQL, leaseName, ownerId, ttlSeconds());
+            if (updated > 0) {
+                heldLeases.put(leaseName, now + leaseTtl.toNanos());
+                lastFailedAttempts.remove(leaseName);
+                log.info("Bail {} obtenu par le nœud {}", leaseName, ownerId);
+                return true;
+            }
+        } catch (Exception e) {
+            log.error("Erreur lors de l'acquisition du bail {}", leaseName, e);
+        }
+
+        heldLeases.remove(leaseName);
+        lastFailedAttempts.put(leaseName, now);
+        return false;
+    }
+
+    /**
+     * Cesse de renouveler un bail. Le bail n'est pas libéré immédiatement : il expire au terme de sa durée,
+     * ce qui évite qu'un nœud dont le déclenchement est légèrement décalé relance aussitôt la même tâche.
+     *
+     * @param leaseName le nom du bail
+     */
+    public void release(String leaseName) {
+        heldLeases.remove(leaseName);
+    }
+
+    /**
+     * Renouvelle les baux détenus par ce nœud.
+     * Un bail qui n'a pas pu être renouvelé (repris par un autre nœud) est abandonné.
+     */
+    @Scheduled(fixedDelayString = "${tp.contracts.cluster.heartbeat-interval:PT10S}")
+    public void heartbeat() {
+        for (String leaseName : heldLeases.keySet()) {
+            long now = System.nanoTime();
+            try {
+                int updated = jdbcTemplate.update(RENEW_SQL, ttlSeconds(), leaseName, ownerId);
+                if (updated > 0) {
+                    heldLeases.replace(leaseName, now + leaseTtl.toNanos());
+                } else {
+                    heldLeases.remove(leaseName);
+                    log.warn("Bail {} perdu par le nœud {}", leaseName, ownerId);
+                }
+            } catch (Exception e) {
+                // Le bail reste valide localement jusqu'à son expiration, puis est considéré comme perdu
+                log.error("Erreur lors du renouvellement du bail {}", leaseName, e);
+            }
+        }
+    }
+
+    /**
+     * Retourne l'identifiant de ce nœud dans la table des baux.
+     *
+     * @return l'identifiant du nœud
+     */
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    private boolean isHeld(String leaseName, long now) {
+        Long validUntil = heldLeases.get(leaseName);
+        if (validUntil == null) {
+            return false;
+        }
+        if (now - validUntil >= 0) {
+            heldLeases.remove(leaseName, validUntil);
+            return false;
+        }
+        return true;
+    }
+
+    private double ttlSeconds() {
+        return leaseTtl.toMillis() / 1000.0;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package imt.nord.europe.architecture.tp.infrastructure.lock;
+
+import imt.nord.europe.architecture.tp.infrastructure.config.ContractProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Verrous par véhicule pour la création et la modification des contrats.
+ *
+ * Les véhicules sont répartis sur un nombre fixe de verrous (lock striping) :
+ * - deux réservations sur des véhicules différents avancent en parallèle (sauf collision de stripe) ;
+ * - deux réservations sur un même véhicule sont sérialisées.
+ *
+ * Un verrou est pris pour la durée de la transaction courante et libéré à sa fin (commit ou rollback),
+ * afin que la réservation suivante voie l'écriture de la précédente.
+ * En option, un verrou consultatif PostgreSQL transactionnel étend la sérialisation à plusieurs instances.
+ */
+@Component
+@Slf4j
+public class VehicleLockManager {
+
+    /**
+     * Espace de clés des verrous consultatifs PostgreSQL réservé aux véhicules.
+     */
+    static final int ADVISORY_LOCK_NAMESPACE = 1001;
+
+    private final ReentrantLock[] stripes;
+    private final Counter[] contentionCounters;
+    private final Timer waitTimer;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean advisoryLocks;
+
+    public VehicleLockManager(ContractProperties contractProperties, MeterRegistry meterRegistry, JdbcTemplate jdbcTemplate) {
+        int stripeCount = contractProperties.getLocking().getStripes();
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Le nombre de stripes doit être strictement positif");
+        }
+
+        this.stripes = new ReentrantLock[stripeCount];
+        this.contentionCounters = new Counter[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+            contentionCounters[i] = Counter.builder("tp.contracts.vehicle.lock.contended")
+                .description("Acquisitions du verrou ayant dû attendre un autre thread")
+                .tag("stripe", String.valueOf(i))
+                .register(meterRegistry);
+        }
+        this.waitTimer = Timer.builder("tp.contracts.vehicle.lock.wait")
+            .description("Temps d'attente pour obtenir le verrou d'un véhicule")
+            .register(meterRegistry);
+        this.jdbcTemplate = jdbcTemplate;
+        this.advisoryLocks = contractProperties.getLocking().isAdvisoryLocks();
+    }
+
+    /**
+     * Verrouille les véhicules donnés jusqu'à la fin de la transaction courante.
+     * Les stripes sont prises dans un ordre fixe pour éviter les interblocages
+     * lorsqu'un contrat change de véhicule.
+     *
+     * @param vehicleIds les IDs des véhicules (les valeurs null sont ignorées)
+     * @throws IllegalStateException si aucune transaction n'est active
+     */
+    public void lockVehicles(Long... vehicleIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Le verrouillage d'un véhicule nécessite une transaction active");
+        }
+
+        Long[] sortedIds = Arrays.stream(vehicleIds)
+            .filter(Objects::nonNull)
+            .distinct()
+            .sorted()
+            .toArray(Long[]::new);
+
+        int[] stripeIndexes = Arrays.stream(sortedIds)
+            .mapToInt(this::stripeIndex)
+            .distinct()
+            .sorted()
+            .toArray();
+
+        for (int stripeIndex : stripeIndexes) {
+            acquire(stripeIndex);
+        }
+
+        if (advisoryLocks) {
+            for (Long vehicleId : sortedIds) {
+                jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + ADVISORY_LOCK_NAMESPACE + ", " + advisoryKey(vehicleId) + ")");
+            }
+        }
+    }
+
+    /**
+     * Retourne l'index de la stripe associée à un véhicule.
+     *
+     * @param vehicleId l'ID du véhicule
+     * @return l'index de stripe
+     */
+    int stripeIndex(Long vehicleId) {
+        return Math.floorMod(Long.hashCode(vehicleId), stripes.length);
+    }
+
+    private void acquire(int stripeIndex) {
+        ReentrantLock lock = stripes[stripeIndex];
+
+        if (!lock.tryLock()) {
+            contentionCounters[stripeIndex].increment();
+            long start = System.nanoTime();
+            lock.lock();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private int advisoryKey(Long vehicleId) {
+        return Long.hashCode(vehicleId);
+    }
+}
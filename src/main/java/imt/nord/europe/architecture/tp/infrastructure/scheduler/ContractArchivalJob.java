@@ -0,0 +1,101 @@
+package imt.nord.europe.architecture.tp.infrastructure.scheduler;
+
+import imt.nord.europe.architecture.tp.infrastructure.config.ContractProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractArchiveRepository;
+import imt.nord.europe.architecture.tp.infrastructure.lock.SchedulerLeaseManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Tâche planifiée qui archive les contrats terminés : les contrats COMPLETED ou CANCELLED dont la date de fin
+ * est plus ancienne que {@code tp.contracts.archive.horizon} sont déplacés vers la table contracts_archive.
+ *
+ * Les contrats sont déplacés par lots, chacun en une requête et dans sa propre transaction ;
+ * un contrat déplacé n'est plus dans la table contracts, une exécution interrompue reprend donc
+ * naturellement au passage suivant. Avec plusieurs instances, seul le détenteur du bail archive.
+ *
+ * Métrique : tp.contracts.archived (contrats déplacés).
+ */
+@Component
+@Slf4j
+public class ContractArchivalJob {
+
+    static final String JOB_NAME = "contract-archive";
+
+    private final ContractArchiveRepository contractArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ContractProperties contractProperties;
+    private final SchedulerLeaseManager leaseManager;
+    private final Counter archivedCounter;
+
+    public ContractArchivalJob(ContractArchiveRepository contractArchiveRepository,
+                               TransactionTemplate transactionTemplate,
+                               ContractProperties contractProperties,
+                               SchedulerLeaseManager leaseManager,
+                               MeterRegistry meterRegistry) {
+        this.contractArchiveRepository = contractArchiveRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.contractProperties = contractProperties;
+        this.leaseManager = leaseManager;
+        this.archivedCounter = Counter.builder("tp.contracts.archived")
+            .description("Contrats terminés déplacés vers la table d'archive")
+            .register(meterRegistry);
+    }
+
+    /**
+     * S'exécute tous les jours (par défaut à 00:30, après le traitement des contrats en retard).
+     */
+    @Scheduled(cron = "${tp.contracts.archive.cron:0 30 0 * * *}")
+    public void archiveContracts() {
+        if (!contractProperties.getArchive().isEnabled()) {
+            return;
+        }
+        if (!leaseManager.tryAcquire(JOB_NAME)) {
+            log.info("Tâche {} exécutée par un autre nœud", JOB_NAME);
+            return;
+        }
+        try {
+            long archived = archive(LocalDateTime.now());
+            log.info("{} contrat(s) terminé(s) archivé(s)", archived);
+        } catch (Exception e) {
+            log.error("Erreur lors de l'archivage des contrats (reprise au prochain passage)", e);
+        } finally {
+            leaseManager.release(JOB_NAME);
+        }
+    }
+
+    /**
+     * Archive par lots les contrats terminés avant l'horizon, jusqu'à épuisement.
+     * S'interrompt si le bail de la tâche a été perdu.
+     *
+     * @param now la date de référence
+     * @return le nombre de contrats archivés
+     */
+    long archive(LocalDateTime now) {
+        ContractProperties.Archive archive = contractProperties.getArchive();
+        LocalDateTime endedBefore = now.minus(archive.getHorizon());
+        int chunkSize = archive.getChunkSize();
+        long total = 0;
+        int moved;
+
+        do {
+            if (!leaseManager.tryAcquire(JOB_NAME)) {
+                throw new IllegalStateException("Bail perdu sur la tâche " + JOB_NAME);
+            }
+            List<Long> ids = transactionTemplate.execute(
+                status -> contractArchiveRepository.archiveTerminalContracts(endedBefore, now, chunkSize));
+            moved = ids != null ? ids.size() : 0;
+            archivedCounter.increment(moved);
+            total += moved;
+        } while (moved == chunkSize);
+
+        return total;
+    }
+}
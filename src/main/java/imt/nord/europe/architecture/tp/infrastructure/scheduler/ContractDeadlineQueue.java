@@ -0,0 +1,157 @@
+package imt.nord.europe.architecture.tp.infrastructure.scheduler;
+
+import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
+import imt.nord.europe.architecture.tp.infrastructure.config.ContractProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+
+/**
+ * File des échéances de contrats gardées en mémoire, triée par date de déclenchement.
+ *
+ * Alimentée par {@link ContractLifecycleTimers} (chargement de la fenêtre) et par le service des contrats
+ * (contrats sauvegardés, via {@link #schedule(ContractEntity)}). Séparée des minuteries pour que celles-ci
+ * puissent appliquer les transitions par le service des contrats, sans dépendance circulaire.
+ */
+@Component
+public class ContractDeadlineQueue {
+
+    /**
+     * Type d'échéance d'un contrat.
+     */
+    enum DeadlineType {
+        START,
+        END
+    }
+
+    /**
+     * Échéance planifiée d'un contrat.
+     */
+    record Deadline(LocalDateTime fireAt, Long contractId, DeadlineType type) {
+    }
+
+    private final boolean enabled;
+
+    private final PriorityBlockingQueue<Deadline> deadlines = new PriorityBlockingQueue<>(
+        64, Comparator.comparing(Deadline::fireAt).thenComparing(Deadline::contractId));
+    private volatile LocalDateTime loadedUntil;
+
+    public ContractDeadlineQueue(ContractProperties contractProperties, MeterRegistry meterRegistry) {
+        this.enabled = contractProperties.getLifecycleTimers().isEnabled();
+
+        Gauge.builder("tp.contracts.lifecycle.timers.scheduled", deadlines, PriorityBlockingQueue::size)
+            .description("Échéances de contrats en attente de déclenchement")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Planifie les échéances d'un contrat sauvegardé (après commit).
+     * Seules les échéances déjà couvertes par la fenêtre chargée sont ajoutées ;
+     * les suivantes seront lues lors de l'avancée de la fenêtre.
+     *
+     * @param entity le contrat sauvegardé
+     */
+    public void schedule(ContractEntity entity) {
+        if (!enabled) {
+            return;
+        }
+
+        Deadline deadline;
+        if (entity.getStatus() == ContractStatus.ONGOING) {
+            deadline = new Deadline(entity.getEndDate(), entity.getId(), DeadlineType.END);
+        } else if (entity.getStatus() == ContractStatus.PENDING) {
+            deadline = new Deadline(entity.getStartDate(), entity.getId(), DeadlineType.START);
+        } else {
+            return;
+        }
+
+        afterCommit(() -> {
+            LocalDateTime until = loadedUntil;
+            if (until != null && !deadline.fireAt().isAfter(until)) {
+                deadlines.add(deadline);
+            }
+        });
+    }
+
+    /**
+     * Vide la file et fixe la fin de la fenêtre chargée (null : aucune fenêtre chargée).
+     *
+     * @param until la nouvelle fin de fenêtre
+     */
+    void reset(LocalDateTime until) {
+        deadlines.clear();
+        loadedUntil = until;
+    }
+
+    /**
+     * Déplace la fin de la fenêtre chargée, avant la lecture des échéances de la nouvelle tranche.
+     *
+     * @param until la nouvelle fin de fenêtre
+     */
+    void extendTo(LocalDateTime until) {
+        loadedUntil = until;
+    }
+
+    /**
+     * Retourne la fin de la fenêtre chargée.
+     *
+     * @return la fin de fenêtre, null si aucune fenêtre n'est chargée
+     */
+    LocalDateTime loadedUntil() {
+        return loadedUntil;
+    }
+
+    void add(Deadline deadline) {
+        deadlines.add(deadline);
+    }
+
+    void addAll(Collection<Deadline> toAdd) {
+        deadlines.addAll(toAdd);
+    }
+
+    /**
+     * Retire de la file toutes les échéances dépassées à une date donnée.
+     *
+     * @param now la date et heure de référence
+     * @return les échéances dépassées, par date croissante
+     */
+    List<Deadline> pollDue(LocalDateTime now) {
+        List<Deadline> due = new ArrayList<>();
+        Deadline next;
+        while ((next = deadlines.peek()) != null && next.fireAt().isBefore(now)) {
+            Deadline deadline = deadlines.poll();
+            if (deadline == null) {
+                break;
+            }
+            due.add(deadline);
+        }
+        return due;
+    }
+
+    int size() {
+        return deadlines.size();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,193 @@
+package imt.nord.europe.architecture.tp.infrastructure.scheduler;
+
+import imt.nord.europe.architecture.tp.business.contract.services.ContractService;
+import imt.nord.europe.architecture.tp.infrastructure.config.ContractProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractDeadline;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractRepository;
+import imt.nord.europe.architecture.tp.infrastructure.lock.SchedulerLeaseManager;
+import imt.nord.europe.architecture.tp.infrastructure.scheduler.ContractDeadlineQueue.Deadline;
+import imt.nord.europe.architecture.tp.infrastructure.scheduler.ContractDeadlineQueue.DeadlineType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minuteries du cycle de vie des contrats.
+ *
+ * Les échéances proches (dans la fenêtre {@code tp.contracts.lifecycle-timers.horizon}) sont gardées
+ * dans la {@link ContractDeadlineQueue}, triée par date. Une vérification toutes les secondes déclenche,
+ * par le {@link ContractService} :
+ * - le passage ONGOING → OVERDUE dès la date de fin dépassée ;
+ * - le signalement des contrats encore PENDING à leur date de début (traité par {@code ContractStartDueEventHandler}).
+ *
+ * Les transitions sont gardées par la requête elle-même (statut et date vérifiés en base) :
+ * une échéance obsolète (contrat modifié, annulé...) est donc sans effet.
+ * Le traitement nocturne {@link ContractOverdueScheduler} reste en place comme balayage de réconciliation.
+ *
+ * Un contrat resté PENDING après sa date de début n'est signalé qu'une fois : le signalement est enregistré
+ * sur le contrat (start_signalled_at) et les contrats signalés ne sont plus chargés, y compris après un redémarrage
+ * ou une reprise du bail. Une transition en échec remet ses échéances dans la file pour le passage suivant.
+ *
+ * Avec plusieurs instances, seul le nœud qui détient le bail {@value #LEASE_NAME} déclenche les échéances.
+ * Il recharge la fenêtre en prenant le bail, puis périodiquement pour voir les contrats modifiés par les autres nœuds.
+ */
+@Component
+@Slf4j
+public class ContractLifecycleTimers {
+
+    static final String LEASE_NAME = "contract-lifecycle-timers";
+
+    private final ContractRepository contractRepository;
+    private final ContractService contractService;
+    private final ContractDeadlineQueue deadlineQueue;
+    private final SchedulerLeaseManager leaseManager;
+    private final boolean enabled;
+    private final Duration horizon;
+    private final Duration refreshInterval;
+
+    private volatile LocalDateTime loadedAt;
+
+    public ContractLifecycleTimers(ContractRepository contractRepository,
+                                   ContractService contractService,
+                                   ContractDeadlineQueue deadlineQueue,
+                                   SchedulerLeaseManager leaseManager,
+                                   ContractProperties contractProperties) {
+        this.contractRepository = contractRepository;
+        this.contractService = contractService;
+        this.deadlineQueue = deadlineQueue;
+        this.leaseManager = leaseManager;
+        this.enabled = contractProperties.getLifecycleTimers().isEnabled();
+        this.horizon = contractProperties.getLifecycleTimers().getHorizon();
+        this.refreshInterval = contractProperties.getLifecycleTimers().getRefreshInterval();
+    }
+
+    /**
+     * (Re)charge les échéances de la fenêtre courante.
+     * Les contrats ONGOING déjà échus sont inclus et passent en retard au premier déclenchement.
+     * Les contrats PENDING dont la date de début est dépassée et qui n'ont pas encore été signalés sont inclus aussi.
+     */
+    void load() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(horizon);
+        deadlineQueue.reset(until);
+        loadedAt = now;
+
+        contractRepository.findOngoingContractEndDeadlines(until)
+            .forEach(deadline -> add(deadline, DeadlineType.END));
+        contractRepository.findPendingContractStartDeadlines(until)
+            .forEach(deadline -> add(deadline, DeadlineType.START));
+
+        log.debug("Minuteries du cycle de vie chargées : {} échéance(s) jusqu'à {}", deadlineQueue.size(), until);
+    }
+
+    /**
+     * Vérifie chaque seconde les échéances atteintes, sur le nœud qui détient le bail.
+     */
+    @Scheduled(fixedDelayString = "${tp.contracts.lifecycle-timers.tick-interval:PT1S}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        if (!leaseManager.tryAcquire(LEASE_NAME)) {
+            // Un autre nœud déclenche les échéances : la fenêtre sera rechargée en cas de reprise du bail
+            deadlineQueue.reset(null);
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (deadlineQueue.loadedUntil() == null || !now.isBefore(loadedAt.plus(refreshInterval))) {
+                load();
+            }
+            fireDue(now);
+            extendWindow(now);
+        } catch (Exception e) {
+            log.error("Erreur lors du déclenchement des échéances de contrats", e);
+        }
+    }
+
+    /**
+     * Déclenche toutes les échéances dépassées à une date donnée, regroupées par type.
+     * Chaque groupe est traité dans sa propre transaction ; en cas d'échec, ses échéances sont remises
+     * dans la file et retentées au passage suivant.
+     *
+     * @param now la date et heure de référence
+     */
+    void fireDue(LocalDateTime now) {
+        List<Deadline> ended = new ArrayList<>();
+        List<Deadline> started = new ArrayList<>();
+        for (Deadline deadline : deadlineQueue.pollDue(now)) {
+            if (deadline.type() == DeadlineType.END) {
+                ended.add(deadline);
+            } else {
+                started.add(deadline);
+            }
+        }
+
+        if (!ended.isEmpty()) {
+            try {
+                for (Long contractId : contractService.markOverdueContracts(contractIds(ended), now)) {
+                    log.warn("Contrat {} passé au statut OVERDUE à échéance", contractId);
+                }
+            } catch (RuntimeException e) {
+                deadlineQueue.addAll(ended);
+                log.error("Erreur lors du passage en retard de {} contrat(s), nouvelle tentative au prochain passage",
+                          ended.size(), e);
+            }
+        }
+
+        if (!started.isEmpty()) {
+            try {
+                for (Long contractId : contractService.signalStartDueContracts(contractIds(started), now)) {
+                    log.warn("Le contrat {} a atteint sa date de début sans avoir été validé", contractId);
+                }
+            } catch (RuntimeException e) {
+                deadlineQueue.addAll(started);
+                log.error("Erreur lors du signalement de {} contrat(s) en attente, nouvelle tentative au prochain passage",
+                          started.size(), e);
+            }
+        }
+    }
+
+    /**
+     * Avance la fenêtre des échéances chargées lorsque la moitié en a été consommée.
+     * La borne est déplacée avant la lecture : un contrat validé pendant la lecture est soit lu,
+     * soit planifié par {@link ContractDeadlineQueue#schedule} (au pire deux fois, sans effet).
+     *
+     * @param now la date et heure de référence
+     */
+    void extendWindow(LocalDateTime now) {
+        LocalDateTime from = deadlineQueue.loadedUntil();
+        if (now.plus(horizon.dividedBy(2)).isBefore(from)) {
+            return;
+        }
+        LocalDateTime until = now.plus(horizon);
+        deadlineQueue.extendTo(until);
+
+        contractRepository.findOngoingContractEndDeadlines(from, until)
+            .forEach(deadline -> add(deadline, DeadlineType.END));
+        contractRepository.findPendingContractStartDeadlines(from, until)
+            .forEach(deadline -> add(deadline, DeadlineType.START));
+    }
+
+    /**
+     * Retourne le nombre d'échéances en attente de déclenchement.
+     *
+     * @return le nombre d'échéances planifiées
+     */
+    int scheduledCount() {
+        return deadlineQueue.size();
+    }
+
+    private void add(ContractDeadline deadline, DeadlineType type) {
+        deadlineQueue.add(new Deadline(deadline.deadline(), deadline.contractId(), type));
+    }
+
+    private static List<Long> contractIds(List<Deadline> deadlines) {
+        return deadlines.stream().map(Deadline::contractId).toList();
+    }
+}
@@ -2,104 +2,204 @@ package imt.nord.europe.architecture.tp.infrastructure.scheduler;
 
 import imt.nord.europe.architecture.tp.business.contract.services.ContractService;
 import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
-import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
+import imt.nord.europe.architecture.tp.infrastructure.config.ContractProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.JobRunEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractRepository;
 import imt.nord.europe.architecture.tp.infrastructure.event.SpringEventPublisher;
+import imt.nord.europe.architecture.tp.infrastructure.lock.SchedulerLeaseManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Scheduler qui exécute quotidiennement les tâches de mise à jour des contrats.
+ * Les transitions à échéance sont déclenchées au fil de l'eau par {@link ContractLifecycleTimers} :
+ * ce traitement sert de balayage de réconciliation (redémarrage, échéance manquée...).
  * - Vérifie les contrats en retard (endDate dépassée mais statut ONGOING)
  * - Annule les contrats en conflit (pour éviter les chevauchements)
+ *
+ * Le traitement est découpé en lots (pagination par clé sur l'ID), chacun dans sa propre transaction.
+ * La progression est enregistrée dans la table job_runs avec chaque lot : une exécution interrompue
+ * reprend au dernier lot validé lors du passage suivant.
+ *
+ * Avec plusieurs instances, chaque partition (ID du véhicule modulo {@code tp.contracts.cluster.partitions})
+ * n'est traitée que par le nœud qui en détient le bail ({@link SchedulerLeaseManager}).
  */
 @Component
-@EnableScheduling
 @RequiredArgsConstructor
 @Slf4j
 public class ContractOverdueScheduler {
-    
+
+    static final String JOB_NAME = "contract-overdue";
+    static final String STEP_MARK_OVERDUE = "MARK_OVERDUE";
+    static final String STEP_CANCEL_BLOCKING = "CANCEL_BLOCKING";
+
+    /**
+     * Une partition terminée par un autre nœud depuis moins longtemps n'est pas relancée
+     * (déclenchements décalés entre les nœuds).
+     */
+    static final Duration RECENT_RUN_WINDOW = Duration.ofHours(1);
+
     private final ContractRepository contractRepository;
     private final ContractService contractService;
     private final SpringEventPublisher eventPublisher;
-    
+    private final JobRunTracker jobRunTracker;
+    private final TransactionTemplate transactionTemplate;
+    private final ContractProperties contractProperties;
+    private final SchedulerLeaseManager leaseManager;
+
     /**
      * S'exécute tous les jours à minuit (00:00).
      * Traite les contrats en retard et annule ceux qui empêchent d'autres contrats de démarrer.
+     * Les partitions sont parcourues à partir d'un décalage propre au nœud : lorsque plusieurs nœuds
+     * démarrent en même temps, chacun commence par une partition différente.
      */
     @Scheduled(cron = "0 0 0 * * *") // Minuit tous les jours
-    @Transactional
     public void updateOverdueContracts() {
-        log.info("=== Début du traitement quotidien des contrats en retard ===");
-        
+        LocalDateTime triggeredAt = LocalDateTime.now();
+        int partitions = contractProperties.getCluster().getPartitions();
+        int offset = Math.floorMod(leaseManager.getOwnerId().hashCode(), partitions);
+
+        for (int i = 0; i < partitions; i++) {
+            int partition = (offset + i) % partitions;
+            String jobName = jobName(partition, partitions);
+
+            if (!leaseManager.tryAcquire(jobName)) {
+                log.info("Tâche {} exécutée par un autre nœud", jobName);
+                continue;
+            }
+            try {
+                if (jobRunTracker.completedSince(jobName, triggeredAt.minus(RECENT_RUN_WINDOW))) {
+                    log.info("Tâche {} déjà terminée par un autre nœud", jobName);
+                    continue;
+                }
+                runPartition(jobName, partition, partitions);
+            } finally {
+                leaseManager.release(jobName);
+            }
+        }
+    }
+
+    /**
+     * Exécute (ou reprend) le traitement d'une partition.
+     *
+     * @param jobName le nom de la tâche (et de son bail)
+     * @param partition la partition à traiter
+     * @param partitions le nombre total de partitions
+     */
+    private void runPartition(String jobName, int partition, int partitions) {
+        log.info("=== Début du traitement quotidien des contrats en retard ({}) ===", jobName);
+
+        JobRunEntity run = jobRunTracker.startOrResume(jobName, STEP_MARK_OVERDUE);
+
         try {
-            updateContractsInRetard();
-            
-            cancelConflictingContracts();
+            if (STEP_MARK_OVERDUE.equals(run.getCurrentStep())) {
+                updateContractsInRetard(run, partition, partitions);
+                jobRunTracker.moveToStep(run, STEP_CANCEL_BLOCKING);
+            }
 
-            log.info("=== Fin du traitement quotidien des contrats en retard ===");
+            cancelConflictingContracts(run, partition, partitions);
+
+            jobRunTracker.complete(run);
+            log.info("=== Fin du traitement quotidien des contrats en retard ({}) : {} lu(s), {} modifié(s) en {} ms ===",
+                     jobName, run.getRowsScanned(), run.getRowsUpdated(), run.getDurationMs());
         } catch (Exception e) {
-            log.error("Erreur lors du traitement des contrats en retard", e);
+            jobRunTracker.fail(run, e);
+            log.error("Erreur lors du traitement des contrats en retard (reprise au prochain passage)", e);
         }
     }
-    
+
+    /**
+     * Retourne le nom de la tâche d'une partition (le nom historique lorsqu'il n'y a qu'une partition).
+     */
+    static String jobName(int partition, int partitions) {
+        return partitions == 1 ? JOB_NAME : JOB_NAME + "-p" + partition;
+    }
+
     /**
      * Étape 1 : Identifie et marque les contrats en retard.
      * Un contrat est en retard si :
      * - Son statut est ONGOING
      * - Sa date de fin (endDate) est dépassée
+     * Chaque lot est appliqué en une requête ensembliste (UPDATE ... RETURNING id) ;
+     * le service enregistre un événement pour chaque contrat modifié.
      */
-    private void updateContractsInRetard() {
-        LocalDateTime now = LocalDateTime.now();
-        
-        // Récupérer directement les contrats ONGOING avec endDate dépassée via une requête SQL optimisée
-        List<ContractEntity> overdueContracts = contractRepository.findOverdueOngoingContracts(now);
-        
-        if (!overdueContracts.isEmpty()) {
-            log.warn("Traitement de {} contrat(s) en retard", overdueContracts.size());
-            
-            for (ContractEntity contract : overdueContracts) {
-                log.info("Passage du contrat {} au statut OVERDUE (endDate: {})", 
-                         contract.getId(), contract.getEndDate());
-                
-                // Mettre à jour le statut à OVERDUE
-                contractService.markAsOverdue(contract.getId());
-                
-                // Publier l'événement
-                eventPublisher.publishContractOverdueEvent(contract.getId());
+    private void updateContractsInRetard(JobRunEntity run, int partition, int partitions) {
+        processInChunks(run, ids -> {
+            List<Long> overdueContractIds = contractService.markOverdueContracts(ids, run.getReferenceTime());
+
+            if (!overdueContractIds.isEmpty()) {
+                log.warn("{} contrat(s) passé(s) au statut OVERDUE", overdueContractIds.size());
             }
-        } else {
-            log.debug("Aucun contrat en retard détecté");
-        }
+            return overdueContractIds.size();
+        }, (afterId, limit) -> contractRepository.findOverdueOngoingContractIds(
+            run.getReferenceTime(), afterId, partition, partitions, limit));
     }
-    
+
     /**
      * Étape 2 : Identifie et annule les contrats en retard qui empêchent le démarrage d'autres contrats.
-     * Utilise une requête SQL optimisée pour récupérer directement les contrats OVERDUE qui bloquent des PENDING.
+     * Utilise une requête SQL optimisée pour récupérer directement les contrats OVERDUE qui bloquent des PENDING ;
+     * chaque lot est annulé en une requête ensembliste, comme pour les retards.
      */
-    private void cancelConflictingContracts() {
-        // Récupérer directement les contrats OVERDUE qui bloquent des contrats PENDING
-        List<ContractEntity> conflictingContracts = contractRepository.findOverdueContractsThatBlockPendingContracts();
-        
-        if (!conflictingContracts.isEmpty()) {
-            log.warn("Traitement de {} contrat(s) OVERDUE bloquant des contrats PENDING", conflictingContracts.size());
-            
-            for (ContractEntity overdue : conflictingContracts) {
-                log.warn("Annulation du contrat {} en retard qui empêche des contrats PENDING de démarrer sur le véhicule {}",
-                         overdue.getId(), overdue.getVehicle().getId());
-                
-                contractService.cancelContract(overdue.getId());
-                eventPublisher.publishContractOverdueEvent(overdue.getId());
+    private void cancelConflictingContracts(JobRunEntity run, int partition, int partitions) {
+        processInChunks(run, ids -> {
+            log.warn("Traitement de {} contrat(s) OVERDUE bloquant des contrats PENDING", ids.size());
+
+            List<Long> cancelledContractIds = contractService.updateContractsStatus(ids, ContractStatus.CANCELLED);
+            for (Long contractId : cancelledContractIds) {
+                log.warn("Annulation du contrat {} en retard qui empêche des contrats PENDING de démarrer", contractId);
+                eventPublisher.publishContractOverdueEvent(contractId);
             }
-        } else {
-            log.debug("Aucun contrat OVERDUE bloquant détecté");
-        }
+            return cancelledContractIds.size();
+        }, (afterId, limit) -> contractRepository.findOverdueContractIdsThatBlockPendingContracts(
+            afterId, partition, partitions, limit));
+    }
+
+    /**
+     * Parcourt les IDs par lots à partir du point de reprise de l'exécution.
+     * Chaque lot (lecture, traitement, point de reprise) est validé dans sa propre transaction.
+     * Le traitement s'interrompt si le bail de la tâche a été perdu : le nœud qui le reprend
+     * poursuivra à partir du dernier point de reprise.
+     *
+     * @param run l'exécution en cours
+     * @param processor le traitement d'un lot, qui retourne le nombre de contrats modifiés
+     * @param reader la lecture d'une page d'IDs après un ID donné
+     */
+    private void processInChunks(JobRunEntity run, Function<List<Long>, Integer> processor, ChunkReader reader) {
+        int chunkSize = contractProperties.getOverdueJob().getChunkSize();
+        int read;
+
+        do {
+            if (!leaseManager.tryAcquire(run.getJobName())) {
+                throw new IllegalStateException("Bail perdu sur la tâche " + run.getJobName());
+            }
+            Integer chunkRead = transactionTemplate.execute(status -> {
+                List<Long> ids = reader.read(run.getLastProcessedId(), Limit.of(chunkSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+
+                int updated = processor.apply(ids);
+                jobRunTracker.checkpoint(run, ids.get(ids.size() - 1), ids.size(), updated);
+                return ids.size();
+            });
+            read = chunkRead != null ? chunkRead : 0;
+        } while (read == chunkSize);
+    }
+
+    /**
+     * Lecture d'une page d'IDs triés, après un ID donné.
+     */
+    @FunctionalInterface
+    interface ChunkReader {
+        List<Long> read(Long afterId, Limit limit);
     }
 }
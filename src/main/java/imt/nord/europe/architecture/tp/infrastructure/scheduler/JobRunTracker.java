@@ -0,0 +1,137 @@
+package imt.nord.europe.architecture.tp.infrastructure.scheduler;
+
+import imt.nord.europe.architecture.tp.common.enums.JobRunStatus;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.JobRunEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.JobRunRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Gère le cycle de vie des exécutions de tâches planifiées (table job_runs) :
+ * démarrage ou reprise, points de reprise par lot, fin et échec.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JobRunTracker {
+
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+
+    private final JobRunRepository jobRunRepository;
+
+    /**
+     * Démarre une nouvelle exécution, ou reprend la dernière si elle ne s'est pas terminée.
+     * Une exécution reprise conserve son étape, son point de reprise et sa date de référence.
+     *
+     * @param jobName le nom de la tâche
+     * @param firstStep la première étape de la tâche
+     * @return l'exécution en cours
+     */
+    public JobRunEntity startOrResume(String jobName, String firstStep) {
+        Optional<JobRunEntity> lastRun = jobRunRepository.findFirstByJobNameOrderByIdDesc(jobName);
+
+        if (lastRun.isPresent() && lastRun.get().getStatus() != JobRunStatus.COMPLETED) {
+            JobRunEntity run = lastRun.get();
+            log.warn("Reprise de l'exécution {} de la tâche {} à l'étape {} après l'ID {}",
+                     run.getId(), jobName, run.getCurrentStep(), run.getLastProcessedId());
+            run.setStatus(JobRunStatus.RUNNING);
+            run.setErrorMessage(null);
+            return jobRunRepository.save(run);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        JobRunEntity run = JobRunEntity.builder()
+            .jobName(jobName)
+            .status(JobRunStatus.RUNNING)
+            .currentStep(firstStep)
+            .referenceTime(now)
+            .lastProcessedId(0L)
+            .rowsScanned(0L)
+            .rowsUpdated(0L)
+            .startedAt(now)
+            .build();
+        return jobRunRepository.save(run);
+    }
+
+    /**
+     * Indique si la dernière exécution d'une tâche s'est terminée avec succès après avoir démarré depuis une date donnée.
+     * Permet de ne pas relancer une tâche déjà traitée par un autre nœud pour le même déclenchement.
+     *
+     * @param jobName le nom de la tâche
+     * @param since la date à partir de laquelle une exécution est considérée comme récente
+     * @return true si une exécution récente est terminée
+     */
+    public boolean completedSince(String jobName, LocalDateTime since) {
+        return jobRunRepository.findFirstByJobNameOrderByIdDesc(jobName)
+            .filter(run -> run.getStatus() == JobRunStatus.COMPLETED)
+            .filter(run -> !run.getStartedAt().isBefore(since))
+            .isPresent();
+    }
+
+    /**
+     * Enregistre la progression d'un lot. Doit être appelé dans la transaction du lot
+     * pour que le point de reprise soit validé en même temps que les modifications.
+     *
+     * @param run l'exécution en cours
+     * @param lastProcessedId l'ID du dernier élément traité dans le lot
+     * @param scanned le nombre d'éléments lus
+     * @param updated le nombre d'éléments modifiés
+     */
+    public void checkpoint(JobRunEntity run, Long lastProcessedId, int scanned, int updated) {
+        run.setLastProcessedId(lastProcessedId);
+        run.setRowsScanned(run.getRowsScanned() + scanned);
+        run.setRowsUpdated(run.getRowsUpdated() + updated);
+        jobRunRepository.save(run);
+    }
+
+    /**
+     * Passe à l'étape suivante de la tâche (le point de reprise repart de zéro).
+     *
+     * @param run l'exécution en cours
+     * @param step la nouvelle étape
+     */
+    public void moveToStep(JobRunEntity run, String step) {
+        run.setCurrentStep(step);
+        run.setLastProcessedId(0L);
+        jobRunRepository.save(run);
+    }
+
+    /**
+     * Marque l'exécution comme terminée et calcule sa durée.
+     *
+     * @param run l'exécution en cours
+     */
+    public void complete(JobRunEntity run) {
+        LocalDateTime now = LocalDateTime.now();
+        run.setStatus(JobRunStatus.COMPLETED);
+        run.setFinishedAt(now);
+        run.setDurationMs(Duration.between(run.getStartedAt(), now).toMillis());
+        jobRunRepository.save(run);
+    }
+
+    /**
+     * Marque l'exécution comme en échec. L'état est relu en base pour ne conserver
+     * que la progression effectivement validée (le lot en erreur a été annulé).
+     *
+     * @param run l'exécution en cours
+     * @param error l'erreur rencontrée
+     */
+    public void fail(JobRunEntity run, Exception error) {
+        JobRunEntity persisted = jobRunRepository.findById(run.getId()).orElse(run);
+        LocalDateTime now = LocalDateTime.now();
+        persisted.setStatus(JobRunStatus.FAILED);
+        persisted.setFinishedAt(now);
+        persisted.setDurationMs(Duration.between(persisted.getStartedAt(), now).toMillis());
+
+        String message = String.valueOf(error.getMessage());
+        persisted.setErrorMessage(message.length() > MAX_ERROR_MESSAGE_LENGTH
+            ? message.substring(0, MAX_ERROR_MESSAGE_LENGTH)
+            : message);
+        jobRunRepository.save(persisted);
+    }
+}
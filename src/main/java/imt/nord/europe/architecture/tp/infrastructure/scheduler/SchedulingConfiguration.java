@@ -0,0 +1,19 @@
+package imt.nord.europe.architecture.tp.infrastructure.scheduler;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active les tâches planifiées (@Scheduled) : scheduler des contrats, archivage, minuteries du cycle de vie,
+ * relais de l'outbox, baux des partitions, index et filtres, surveillance des réplicas.
+ *
+ * Désactivées en mode import ({@code tp.import.file} renseigné) : l'application ne fait qu'importer
+ * un fichier puis s'arrête, sans déclencher de transitions ni diffuser d'événements pendant l'import.
+ * Les événements enregistrés dans l'outbox restent en base et sont diffusés par les instances du service.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnExpression("'${tp.import.file:}'.isEmpty()")
+public class SchedulingConfiguration {
+}
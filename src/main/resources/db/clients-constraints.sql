@@ -0,0 +1,37 @@
+-- ============================================
+-- Unicité de l'identité des clients
+-- ============================================
+-- Exécuté après la génération du schéma par Hibernate, comme contracts-constraints.sql.
+
+-- Deux clients ne peuvent pas avoir la même identité (prénom, nom, date de naissance).
+-- La contrainte n'est pas créée de façon fiable par Hibernate (ddl-auto=update) et PostgreSQL ne permet pas
+-- d'ajouter une contrainte unique NOT VALID : sur une base existante qui contient déjà des doublons,
+-- la contrainte n'est pas ajoutée (le démarrage n'échoue pas) et les doublons sont signalés (WARNING dans
+-- les logs PostgreSQL). Une fois résolus (fusion ou correction des clients de chaque groupe), la contrainte
+-- est ajoutée au démarrage suivant. Requête de diagnostic :
+--   SELECT first_name, last_name, date_of_birth, array_agg(id ORDER BY id) FROM clients
+--    GROUP BY first_name, last_name, date_of_birth HAVING count(*) > 1;
+DO $$
+DECLARE
+    duplicate_count BIGINT;
+    duplicate_sample TEXT;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_clients_identity') THEN
+        SELECT count(*), string_agg(ids, ', ')
+          INTO duplicate_count, duplicate_sample
+          FROM (SELECT string_agg(id::text, '/' ORDER BY id) AS ids
+                  FROM clients
+                 GROUP BY first_name, last_name, date_of_birth
+                HAVING count(*) > 1
+                 ORDER BY min(id)) duplicates;
+
+        IF duplicate_count > 0 THEN
+            RAISE WARNING 'uk_clients_identity non ajoutée : % identité(s) partagée(s) par plusieurs clients (%)',
+                duplicate_count, left(duplicate_sample, 1000);
+        ELSE
+            ALTER TABLE clients
+                ADD CONSTRAINT uk_clients_identity UNIQUE (first_name, last_name, date_of_birth);
+        END IF;
+    END IF;
+END
+$$@@
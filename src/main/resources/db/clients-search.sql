@@ -0,0 +1,10 @@
+-- ============================================
+-- Recherche des clients par fragment d'email
+-- ============================================
+-- Exécuté après la génération du schéma par Hibernate, comme contracts-constraints.sql.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm@@
+
+-- Index trigramme sur l'email en minuscules : filtre LIKE '%fragment%' et tri par distance (<->)
+CREATE INDEX IF NOT EXISTS idx_clients_email_trgm
+    ON clients USING gist (lower(email) gist_trgm_ops)@@
@@ -0,0 +1,57 @@
+-- ============================================
+-- Protection contre les doubles réservations
+-- ============================================
+-- Exécuté après la génération du schéma par Hibernate (spring.jpa.defer-datasource-initialization).
+-- Les instructions sont séparées par "@@" car le bloc DO contient des points-virgules.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist@@
+
+-- Période de location calculée par la base : [start_date, end_date)
+ALTER TABLE contracts
+    ADD COLUMN IF NOT EXISTS period tsrange
+    GENERATED ALWAYS AS (tsrange(start_date, end_date, '[)')) STORED@@
+
+-- Deux contrats actifs d'un même véhicule ne peuvent pas se chevaucher.
+-- PostgreSQL ne permet pas d'ajouter une contrainte d'exclusion NOT VALID : sur une base existante qui contient
+-- déjà des chevauchements, la contrainte n'est pas ajoutée (le démarrage n'échoue pas) et les chevauchements
+-- sont signalés (WARNING dans les logs PostgreSQL). Une fois résolus (annulation d'un des contrats de chaque paire),
+-- la contrainte est ajoutée au démarrage suivant. Requête de diagnostic :
+--   SELECT a.id, b.id, a.vehicle_id FROM contracts a JOIN contracts b
+--     ON a.vehicle_id = b.vehicle_id AND a.id < b.id AND a.period && b.period
+--    WHERE a.status IN ('PENDING', 'ONGOING', 'OVERDUE') AND b.status IN ('PENDING', 'ONGOING', 'OVERDUE');
+DO $$
+DECLARE
+    overlap_count BIGINT;
+    overlap_sample TEXT;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'contracts_vehicle_period_excl') THEN
+        SELECT count(*), string_agg(pair, ', ')
+          INTO overlap_count, overlap_sample
+          FROM (SELECT a.id || '/' || b.id AS pair
+                  FROM contracts a
+                  JOIN contracts b ON a.vehicle_id = b.vehicle_id AND a.id < b.id AND a.period && b.period
+                 WHERE a.status IN ('PENDING', 'ONGOING', 'OVERDUE')
+                   AND b.status IN ('PENDING', 'ONGOING', 'OVERDUE')
+                 ORDER BY a.id, b.id) overlaps;
+
+        IF overlap_count > 0 THEN
+            RAISE WARNING 'contracts_vehicle_period_excl non ajoutée : % paire(s) de contrats actifs se chevauchent (%)',
+                overlap_count, left(overlap_sample, 1000);
+        ELSE
+            ALTER TABLE contracts
+                ADD CONSTRAINT contracts_vehicle_period_excl
+                EXCLUDE USING gist (vehicle_id WITH =, period WITH &&)
+                WHERE (status IN ('PENDING', 'ONGOING', 'OVERDUE'));
+        END IF;
+    END IF;
+END
+$$@@
+
+
+-- ============================================
+-- Archivage des contrats terminés
+-- ============================================
+-- Sélection des contrats à archiver sans parcourir les contrats actifs
+CREATE INDEX IF NOT EXISTS idx_contracts_terminal_end_date
+    ON contracts (end_date)
+    WHERE status IN ('COMPLETED', 'CANCELLED')@@
@@ -1,9 +1,14 @@
 package imt.nord.europe.architecture.tp;
 
+import imt.nord.europe.architecture.tp.infrastructure.db.PostgresTestConfiguration;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
 
-@SpringBootTest
+@SpringBootTest(properties = "tp.events.async=false")
+@Import(PostgresTestConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
 class TpApplicationTests {
 
 	@Test
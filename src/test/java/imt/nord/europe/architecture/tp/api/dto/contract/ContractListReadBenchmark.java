@@ -0,0 +1,216 @@
+package imt.nord.europe.architecture.tp.api.dto.contract;
+
+import com.zaxxer.hikari.HikariDataSource;
+import imt.nord.europe.architecture.tp.api.dto.client.ClientDtoMapper;
+import imt.nord.europe.architecture.tp.api.dto.contract.response.ContractResponseDto;
+import imt.nord.europe.architecture.tp.api.dto.vehicle.VehicleDtoMapper;
+import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
+import imt.nord.europe.architecture.tp.common.enums.VehicleStatus;
+import imt.nord.europe.architecture.tp.infrastructure.db.PostgresTestConfiguration;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ClientEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.mapper.ClientPersistenceMapper;
+import imt.nord.europe.architecture.tp.infrastructure.db.mapper.ContractPersistenceMapper;
+import imt.nord.europe.architecture.tp.infrastructure.db.mapper.VehiclePersistenceMapper;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractSummary;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractRepository;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.jpa.SpecHints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de la lecture d'une page de contrats jusqu'aux DTOs de réponse, à travers Hibernate
+ * et sur une base PostgreSQL (Testcontainers) :
+ * - entityDomainDto : chemin historique, requête d'entités avec le graphe client + véhicule
+ *   → entités gérées → modèles métier → DTOs ;
+ * - projectionDto : requête de projection {@link ContractSummary} (expression constructeur JPQL) → DTOs.
+ *
+ * Les deux chemins exécutent les requêtes JPQL déclarées sur {@link ContractRepository}, dans une transaction
+ * en lecture seule comme le service. Docker doit être disponible.
+ *
+ * Lancement, avec le profileur GC ({@link #main(String[])} l'active ; équivalent de {@code -prof gc}) :
+ * <pre>
+ * mvn -B test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/test.classpath
+ * java -cp target/classes:target/test-classes:$(cat target/test.classpath) \
+ *     imt.nord.europe.architecture.tp.api.dto.contract.ContractListReadBenchmark
+ * </pre>
+ * Résultats à relever pour chaque pageSize : la latence (Score, µs/op) de entityDomainDto (avant)
+ * et de projectionDto (après), et les octets alloués par opération (gc.alloc.rate.norm, B/op).
+ *
+ * Résultats : pas encore mesurés. L'environnement où ce benchmark a été écrit n'a ni Docker ni accès
+ * au dépôt Maven ; les chiffres sont à reporter ici après une première exécution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContractListReadBenchmark {
+
+    private static final int CONTRACT_COUNT = 1000;
+
+    private static final String ENTITY_QUERY = queryOf("findByClientIdAndVehicleIdAndStatus",
+        Long.class, Long.class, ContractStatus.class);
+    private static final String PROJECTION_QUERY = queryOf("findSummarySliceByFilters",
+        Long.class, Long.class, ContractStatus.class, Long.class, Pageable.class);
+
+    @Param({"50", "500"})
+    private int pageSize;
+
+    private final ContractPersistenceMapper contractPersistenceMapper =
+        new ContractPersistenceMapper(new ClientPersistenceMapper(), new VehiclePersistenceMapper());
+    private final ContractDtoMapper contractDtoMapper =
+        new ContractDtoMapper(new ClientDtoMapper(), new VehicleDtoMapper());
+
+    private PostgreSQLContainer<?> postgres;
+    private HikariDataSource dataSource;
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>(PostgresTestConfiguration.IMAGE);
+        postgres.start();
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl());
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+
+        Configuration configuration = new Configuration()
+            .addAnnotatedClass(ClientEntity.class)
+            .addAnnotatedClass(VehicleEntity.class)
+            .addAnnotatedClass(ContractEntity.class)
+            .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        configuration.getProperties().put(AvailableSettings.DATASOURCE, dataSource);
+        sessionFactory = configuration.buildSessionFactory();
+
+        sessionFactory.inTransaction(this::seed);
+    }
+
+    private void seed(Session session) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= CONTRACT_COUNT; i++) {
+            ClientEntity client = ClientEntity.builder()
+                .firstName("Jean").lastName("Dupont" + i).dateOfBirth(LocalDate.of(1990, 1, 1))
+                .licenseNumber("LIC-" + i).address("1 rue de la Paix")
+                .email("client" + i + "@example.com").phone("0600000000")
+                .build();
+            VehicleEntity vehicle = VehicleEntity.builder()
+                .registrationPlate("AB-" + i + "-CD").brand("Peugeot").model("208")
+                .motorization("1.2 essence").color("Bleu").acquisitionDate(LocalDate.of(2022, 1, 1))
+                .status(VehicleStatus.AVAILABLE)
+                .build();
+            session.persist(client);
+            session.persist(vehicle);
+            session.persist(ContractEntity.builder()
+                .client(client).vehicle(vehicle)
+                .startDate(now.plusDays(1)).endDate(now.plusDays(3))
+                .status(ContractStatus.PENDING)
+                .build());
+            if (i % 100 == 0) {
+                session.flush();
+                session.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+        dataSource.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public List<ContractResponseDto> entityDomainDto() {
+        return sessionFactory.fromTransaction(session -> {
+            readOnly(session);
+            List<ContractEntity> contracts = session.createQuery(ENTITY_QUERY, ContractEntity.class)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, session.getEntityGraph(ContractEntity.WITH_CLIENT_AND_VEHICLE))
+                .setParameter("clientId", null)
+                .setParameter("vehicleId", null)
+                .setParameter("status", null)
+                .setMaxResults(pageSize)
+                .getResultList();
+            List<ContractResponseDto> page = new ArrayList<>(contracts.size());
+            for (ContractEntity contract : contracts) {
+                page.add(contractDtoMapper.toResponseDto(contractPersistenceMapper.toDomainModel(contract)));
+            }
+            return page;
+        });
+    }
+
+    @Benchmark
+    public List<ContractResponseDto> projectionDto() {
+        return sessionFactory.fromTransaction(session -> {
+            readOnly(session);
+            List<ContractSummary> summaries = session.createQuery(PROJECTION_QUERY, ContractSummary.class)
+                .setParameter("clientId", null)
+                .setParameter("vehicleId", null)
+                .setParameter("status", null)
+                .setParameter("afterId", 0L)
+                .setMaxResults(pageSize)
+                .getResultList();
+            List<ContractResponseDto> page = new ArrayList<>(summaries.size());
+            for (ContractSummary summary : summaries) {
+                page.add(contractDtoMapper.toResponseDto(summary));
+            }
+            return page;
+        });
+    }
+
+    /**
+     * Applique à la session ce que fait une transaction Spring en lecture seule :
+     * entités chargées sans copie d'état et pas de flush.
+     */
+    private static void readOnly(Session session) {
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+    }
+
+    private static String queryOf(String methodName, Class<?>... parameterTypes) {
+        try {
+            return ContractRepository.class.getMethod(methodName, parameterTypes).getAnnotation(Query.class).value();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Requête introuvable sur ContractRepository : " + methodName, e);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ContractListReadBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -4,9 +4,14 @@ import imt.nord.europe.architecture.tp.business.client.models.Client;
 import imt.nord.europe.architecture.tp.business.client.validators.ClientValidator;
 import imt.nord.europe.architecture.tp.common.exceptions.DuplicateClientException;
 import imt.nord.europe.architecture.tp.common.exceptions.ResourceNotFoundException;
+import imt.nord.europe.architecture.tp.common.exceptions.ValidationException;
+import imt.nord.europe.architecture.tp.common.pagination.CursorPage;
+import imt.nord.europe.architecture.tp.infrastructure.cache.ClientCache;
+import imt.nord.europe.architecture.tp.infrastructure.db.EntityStreamReader;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.ClientEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.mapper.ClientPersistenceMapper;
 import imt.nord.europe.architecture.tp.infrastructure.db.repository.ClientRepository;
+import imt.nord.europe.architecture.tp.infrastructure.index.UniqueKeyFilters;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,6 +19,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -41,13 +51,23 @@ class ClientServiceTest {
     @Mock
     private ClientValidator clientValidator;
 
+    @Mock
+    private EntityStreamReader entityStreamReader;
+
+    @Mock
+    private ClientCache clientCache;
+
+    @Mock
+    private UniqueKeyFilters uniqueKeyFilters;
+
     private ClientEntity testClientEntity;
     private Client testClient;
     private LocalDate validBirthDate;
 
     @BeforeEach
     void setUp() {
-        clientService = new ClientService(clientRepository, clientMapper, clientValidator);
+        clientService = new ClientService(clientRepository, clientMapper, clientValidator, entityStreamReader, clientCache,
+            uniqueKeyFilters);
 
         validBirthDate = LocalDate.now().minusYears(30);
 
@@ -88,6 +108,20 @@ class ClientServiceTest {
         assertEquals("Dupont", result.getLastName());
         verify(clientValidator).validateForCreation("Jean", "Dupont", validBirthDate, "1234567890");
         verify(clientRepository).save(any(ClientEntity.class));
+        verify(uniqueKeyFilters).recordClient("1234567890", "Jean", "Dupont", validBirthDate);
+    }
+
+    @Test
+    @DisplayName("Un doublon rejeté par la contrainte unique de la base devient DuplicateClientException")
+    void testCreateClient_UniqueViolationMapsToDuplicate() {
+        when(clientRepository.save(any(ClientEntity.class))).thenThrow(new DataIntegrityViolationException(
+            "duplicate key value violates unique constraint \"uk_clients_identity\"",
+            new SQLException("duplicate key value violates unique constraint \"uk_clients_identity\"", "23505")));
+
+        assertThrows(DuplicateClientException.class,
+            () -> clientService.createClient("Jean", "Dupont", validBirthDate, "1234567890", "123 Rue de la Paix", "jean@example.com", "0123456789"));
+
+        verify(uniqueKeyFilters, never()).recordClient(any(), any(), any(), any());
     }
 
     @Test
@@ -107,23 +141,32 @@ class ClientServiceTest {
     // ============================================
 
     @Test
-    @DisplayName("Récupération d'un client par ID")
+    @DisplayName("Récupération d'un client par ID via le cache")
     void testGetClientById_Success() {
-        when(clientRepository.findById(1L)).thenReturn(Optional.of(testClientEntity));
-        when(clientMapper.toDomainModel(testClientEntity)).thenReturn(testClient);
+        when(clientCache.findById(1L)).thenReturn(Optional.of(testClient));
 
         Client result = clientService.getClientById(1L);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertEquals("Jean", result.getFirstName());
-        verify(clientRepository).findById(1L);
+        verify(clientRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Récupération d'un client par numéro de permis via le cache")
+    void testGetClientByLicenseNumber_Success() {
+        when(clientCache.findByLicenseNumber("1234567890")).thenReturn(Optional.of(testClient));
+
+        Client result = clientService.getClientByLicenseNumber("1234567890");
+
+        assertEquals(1L, result.getId());
     }
 
     @Test
     @DisplayName("Récupération échoue si le client n'existe pas")
     void testGetClientById_NotFound() {
-        when(clientRepository.findById(1L)).thenReturn(Optional.empty());
+        when(clientCache.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class,
             () -> clientService.getClientById(1L));
@@ -163,6 +206,38 @@ class ClientServiceTest {
         assertTrue(results.isEmpty());
     }
 
+    @Test
+    @DisplayName("Page de clients : curseur de la page suivante")
+    void testGetClientsPage_HasNext() {
+        when(clientRepository.findSliceByLastName("Dupont", 0L, PageRequest.ofSize(1)))
+            .thenReturn(new SliceImpl<>(List.of(testClientEntity), PageRequest.ofSize(1), true));
+        when(clientMapper.toDomainModel(testClientEntity)).thenReturn(testClient);
+
+        CursorPage<Client> page = clientService.getClientsPage("Dupont", null, 1);
+
+        assertEquals(1, page.items().size());
+        assertEquals(1L, page.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Recherche par fragment d'email : fragment en minuscules, caractères LIKE échappés")
+    void testSearchClientsByEmail_Success() {
+        when(clientRepository.searchByEmail("%\\_dupont\\%%", "_dupont%", 20)).thenReturn(List.of(testClientEntity));
+        when(clientMapper.toDomainModel(testClientEntity)).thenReturn(testClient);
+
+        List<Client> results = clientService.searchClientsByEmail("  _DuPont%  ", 20);
+
+        assertEquals(List.of(testClient), results);
+    }
+
+    @Test
+    @DisplayName("Recherche par fragment d'email refusée sous 3 caractères")
+    void testSearchClientsByEmail_TooShort() {
+        assertThrows(ValidationException.class, () -> clientService.searchClientsByEmail(" ab ", 20));
+
+        verifyNoInteractions(clientRepository);
+    }
+
     // ============================================
     // Tests de modification
     // ============================================
@@ -182,6 +257,7 @@ class ClientServiceTest {
         assertEquals(1L, result.getId());
         verify(clientValidator).validateForUpdate(1L, "Jean", "Dupont", validBirthDate, "1234567890");
         verify(clientRepository).save(any(ClientEntity.class));
+        verify(clientCache).evict(1L);
     }
 
     @Test
@@ -207,6 +283,7 @@ class ClientServiceTest {
             () -> clientService.updateClient(1L, "Jean", "Dupont", validBirthDate, "1234567890", "123 Rue de la Paix", "jean@example.com", "0123456789"));
 
         verify(clientRepository, never()).save(any());
+        verify(clientCache, never()).evict(anyLong());
     }
 
     // ============================================
@@ -221,6 +298,7 @@ class ClientServiceTest {
         assertDoesNotThrow(() -> clientService.deleteClient(1L));
 
         verify(clientRepository).deleteById(1L);
+        verify(clientCache).evict(1L);
     }
 
     @Test
@@ -1,7 +1,10 @@
 package imt.nord.europe.architecture.tp.business.client.validators;
 
+import imt.nord.europe.architecture.tp.common.exceptions.DuplicateClientException;
 import imt.nord.europe.architecture.tp.common.exceptions.ValidationException;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ClientEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.repository.ClientRepository;
+import imt.nord.europe.architecture.tp.infrastructure.index.UniqueKeyFilters;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,8 +13,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 /**
  * Tests pour le validateur de clients.
@@ -26,13 +32,16 @@ class ClientValidatorTest {
     @Mock
     private ClientRepository clientRepository;
 
+    @Mock
+    private UniqueKeyFilters uniqueKeyFilters;
+
     private LocalDate validBirthDate;
     private LocalDate futureBirthDate;
     private LocalDate tooYoungBirthDate;
 
     @BeforeEach
     void setUp() {
-        clientValidator = new ClientValidator(clientRepository);
+        clientValidator = new ClientValidator(clientRepository, uniqueKeyFilters);
         
         validBirthDate = LocalDate.now().minusYears(30);
         futureBirthDate = LocalDate.now().plusDays(1);
@@ -187,4 +196,49 @@ class ClientValidatorTest {
                 "1234567890"
             ));
     }
+
+    // ============================================
+    // Tests d'unicité (filtres d'unicité)
+    // ============================================
+
+    @Test
+    @DisplayName("Clés absentes des filtres : aucune recherche de doublon en base")
+    void testValidateForCreation_FiltersSkipQueries() {
+        assertDoesNotThrow(() -> clientValidator.validateForCreation("Jean", "Dupont", validBirthDate, "1234567890"));
+
+        verify(uniqueKeyFilters).mightContainIdentity("Jean", "Dupont", validBirthDate);
+        verify(uniqueKeyFilters).mightContainLicenseNumber("1234567890");
+        verifyNoInteractions(clientRepository);
+    }
+
+    @Test
+    @DisplayName("Numéro de permis présent dans le filtre : doublon confirmé en base")
+    void testValidateForCreation_DuplicateLicenseNumber() {
+        when(uniqueKeyFilters.mightContainLicenseNumber("1234567890")).thenReturn(true);
+        when(clientRepository.findByLicenseNumber("1234567890"))
+            .thenReturn(Optional.of(ClientEntity.builder().id(2L).licenseNumber("1234567890").build()));
+
+        assertThrows(DuplicateClientException.class,
+            () -> clientValidator.validateForCreation("Jean", "Dupont", validBirthDate, "1234567890"));
+    }
+
+    @Test
+    @DisplayName("Faux positif du filtre : la recherche en base lève le doute")
+    void testValidateForCreation_FalsePositive() {
+        when(uniqueKeyFilters.mightContainIdentity(any(), any(), any())).thenReturn(true);
+        when(clientRepository.findByFirstNameAndLastNameAndDateOfBirth("Jean", "Dupont", validBirthDate))
+            .thenReturn(Optional.empty());
+
+        assertDoesNotThrow(() -> clientValidator.validateForCreation("Jean", "Dupont", validBirthDate, "1234567890"));
+    }
+
+    @Test
+    @DisplayName("Modification : le client lui-même n'est pas un doublon")
+    void testValidateForUpdate_SameClient() {
+        when(uniqueKeyFilters.mightContainIdentity(any(), any(), any())).thenReturn(true);
+        when(clientRepository.findByFirstNameAndLastNameAndDateOfBirth("Jean", "Dupont", validBirthDate))
+            .thenReturn(Optional.of(ClientEntity.builder().id(1L).build()));
+
+        assertDoesNotThrow(() -> clientValidator.validateForUpdate(1L, "Jean", "Dupont", validBirthDate, "1234567890"));
+    }
 }
@@ -0,0 +1,169 @@
+package imt.nord.europe.architecture.tp.business.contract.services;
+
+import imt.nord.europe.architecture.tp.business.contract.models.Contract;
+import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
+import imt.nord.europe.architecture.tp.common.enums.VehicleStatus;
+import imt.nord.europe.architecture.tp.infrastructure.db.PostgresTestConfiguration;
+import imt.nord.europe.architecture.tp.infrastructure.db.StatementBudget;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ClientEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.ClientRepository;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractRepository;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.VehicleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration du nombre de requêtes des lectures de contrats.
+ * Chaque lecture convertie en modèle métier doit charger client et véhicule dans la même requête (pas de N+1).
+ * La création d'un contrat se limite à une lecture (contexte de validation) et une insertion.
+ * Exécutés sur PostgreSQL (Testcontainers) ; ignorés si Docker n'est pas disponible.
+ */
+@SpringBootTest(properties = {"tp.events.async=false", StatementBudget.PROPERTY})
+@Import(PostgresTestConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("ContractService - budget de requêtes")
+class ContractServiceStatementBudgetTest {
+
+    private static final int CONTRACT_COUNT = 3;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    private final List<ContractEntity> contracts = new ArrayList<>();
+    private final List<Long> createdContractIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < CONTRACT_COUNT; i++) {
+            String suffix = UUID.randomUUID().toString().substring(0, 8);
+            ClientEntity client = clientRepository.save(ClientEntity.builder()
+                .firstName("Jean")
+                .lastName("Budget-" + suffix)
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .licenseNumber("LIC-" + suffix)
+                .address("1 rue du Test")
+                .email("budget-" + suffix + "@example.com")
+                .createdAt(now)
+                .build());
+            VehicleEntity vehicle = vehicleRepository.save(VehicleEntity.builder()
+                .registrationPlate("BG-" + suffix)
+                .brand("Peugeot")
+                .model("208")
+                .motorization("1.2 essence")
+                .color("Bleu")
+                .acquisitionDate(LocalDate.of(2022, 1, 1))
+                .status(VehicleStatus.AVAILABLE)
+                .createdAt(now)
+                .build());
+            contracts.add(contractRepository.save(ContractEntity.builder()
+                .client(client)
+                .vehicle(vehicle)
+                .startDate(now.plusDays(1))
+                .endDate(now.plusDays(3))
+                .status(ContractStatus.PENDING)
+                .createdAt(now)
+                .build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        contractRepository.deleteAllByIdInBatch(createdContractIds);
+        createdContractIds.clear();
+        contractRepository.deleteAllInBatch(contracts);
+        vehicleRepository.deleteAllInBatch(contracts.stream().map(ContractEntity::getVehicle).toList());
+        clientRepository.deleteAllInBatch(contracts.stream().map(ContractEntity::getClient).toList());
+        contracts.clear();
+    }
+
+    @Test
+    @DisplayName("Liste filtrée : une seule requête quel que soit le nombre de contrats")
+    void testGetContractsByFilters() {
+        List<Contract> results = StatementBudget.assertAtMost(1,
+            () -> contractService.getContractsByFilters(null, null, ContractStatus.PENDING));
+
+        assertTrue(results.size() >= CONTRACT_COUNT);
+        results.forEach(contract -> assertNotNull(contract.getVehicle().getRegistrationPlate()));
+    }
+
+    @Test
+    @DisplayName("Contrats en attente : une seule requête")
+    void testGetPendingContracts() {
+        assertTrue(StatementBudget.assertAtMost(1, contractService::getPendingContracts).size() >= CONTRACT_COUNT);
+    }
+
+    @Test
+    @DisplayName("Tous les contrats : une seule requête")
+    void testGetAllContracts() {
+        assertTrue(StatementBudget.assertAtMost(1, contractService::getAllContracts).size() >= CONTRACT_COUNT);
+    }
+
+    @Test
+    @DisplayName("Page de contrats : une seule requête")
+    void testGetContractsPage() {
+        var page = StatementBudget.assertAtMost(1,
+            () -> contractService.getContractsPage(null, null, null, null, CONTRACT_COUNT, false));
+
+        assertEquals(CONTRACT_COUNT, page.items().size());
+    }
+
+    @Test
+    @DisplayName("Page de contrats avec l'historique : une requête par table")
+    void testGetContractsPage_WithArchived() {
+        Long clientId = contracts.getFirst().getClient().getId();
+
+        var page = StatementBudget.assertAtMost(2,
+            () -> contractService.getContractsPage(clientId, null, null, null, CONTRACT_COUNT, true));
+
+        assertEquals(contracts.getFirst().getId(), page.items().getFirst().id());
+    }
+
+    @Test
+    @DisplayName("Contrat par ID : une seule requête")
+    void testGetContractById() {
+        Long contractId = contracts.getFirst().getId();
+
+        Contract contract = StatementBudget.assertAtMost(1, () -> contractService.getContractById(contractId));
+
+        assertEquals(contracts.getFirst().getClient().getEmail(), contract.getClient().getEmail());
+    }
+
+    @Test
+    @DisplayName("Création d'un contrat : une lecture et une insertion")
+    void testCreateContract() {
+        ContractEntity existing = contracts.getFirst();
+        LocalDateTime startDate = LocalDateTime.now().plusDays(400);
+
+        Contract contract = StatementBudget.assertAtMost(2, () -> contractService.createContract(
+            existing.getClient().getId(), existing.getVehicle().getId(), startDate, startDate.plusDays(2)));
+        createdContractIds.add(contract.getId());
+
+        assertEquals(existing.getVehicle().getRegistrationPlate(), contract.getVehicle().getRegistrationPlate());
+    }
+}
@@ -1,27 +1,51 @@
 package imt.nord.europe.architecture.tp.business.contract.services;
 
 import imt.nord.europe.architecture.tp.business.contract.models.Contract;
+import imt.nord.europe.architecture.tp.business.contract.models.ContractBooking;
+import imt.nord.europe.architecture.tp.business.contract.models.ContractBookingResult;
 import imt.nord.europe.architecture.tp.business.contract.validators.ContractValidator;
 import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
+import imt.nord.europe.architecture.tp.common.enums.VehicleStatus;
+import imt.nord.europe.architecture.tp.common.exceptions.ContractConflictException;
 import imt.nord.europe.architecture.tp.common.exceptions.ResourceNotFoundException;
+import imt.nord.europe.architecture.tp.common.lookup.LookupResult;
+import imt.nord.europe.architecture.tp.common.pagination.CursorPage;
 import imt.nord.europe.architecture.tp.common.exceptions.ValidationException;
+import imt.nord.europe.architecture.tp.infrastructure.db.ContractBatchStore;
+import imt.nord.europe.architecture.tp.infrastructure.db.EntityStreamReader;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.ClientEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractArchiveEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.mapper.ContractPersistenceMapper;
-import imt.nord.europe.architecture.tp.infrastructure.db.repository.ClientRepository;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractBookingCheck;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractSummary;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractValidationContext;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractArchiveRepository;
 import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractRepository;
-import imt.nord.europe.architecture.tp.infrastructure.db.repository.VehicleRepository;
+import imt.nord.europe.architecture.tp.infrastructure.event.SpringEventPublisher;
+import imt.nord.europe.architecture.tp.infrastructure.index.ContractAvailabilityIndex;
+import imt.nord.europe.architecture.tp.infrastructure.lock.VehicleLockManager;
+import imt.nord.europe.architecture.tp.infrastructure.scheduler.ContractDeadlineQueue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -41,16 +65,28 @@ class ContractServiceTest {
     private ContractRepository contractRepository;
 
     @Mock
-    private ClientRepository clientRepository;
+    private ContractPersistenceMapper contractMapper;
 
     @Mock
-    private VehicleRepository vehicleRepository;
+    private ContractValidator contractValidator;
 
     @Mock
-    private ContractPersistenceMapper contractMapper;
+    private ContractAvailabilityIndex availabilityIndex;
 
     @Mock
-    private ContractValidator contractValidator;
+    private VehicleLockManager vehicleLockManager;
+
+    @Mock
+    private ContractDeadlineQueue deadlineQueue;
+
+    @Mock
+    private SpringEventPublisher eventPublisher;
+
+    @Mock
+    private ContractArchiveRepository contractArchiveRepository;
+
+    @Mock
+    private ContractBatchStore contractBatchStore;
 
     private ClientEntity testClient;
     private VehicleEntity testVehicle;
@@ -64,10 +100,15 @@ class ContractServiceTest {
     void setUp() {
         contractService = new ContractService(
             contractRepository,
-            clientRepository,
-            vehicleRepository,
             contractMapper,
-            contractValidator
+            contractValidator,
+            availabilityIndex,
+            vehicleLockManager,
+            deadlineQueue,
+            eventPublisher,
+            new EntityStreamReader(),
+            contractArchiveRepository,
+            contractBatchStore
         );
 
         now = LocalDateTime.now();
@@ -112,9 +153,8 @@ class ContractServiceTest {
     @Test
     @DisplayName("Création valide d'un contrat")
     void testCreateContract_Success() {
-        doNothing().when(contractValidator).validateForCreation(anyLong(), anyLong(), any(), any());
-        when(clientRepository.findById(1L)).thenReturn(Optional.of(testClient));
-        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
+        when(contractValidator.validateForCreation(anyLong(), anyLong(), any(), any()))
+            .thenReturn(new ContractValidationContext(testClient, testVehicle, false));
         when(contractRepository.save(any(ContractEntity.class))).thenReturn(testContractEntity);
         when(contractMapper.toDomainModel(testContractEntity)).thenReturn(testContract);
 
@@ -125,6 +165,22 @@ class ContractServiceTest {
         assertEquals(ContractStatus.PENDING, result.getStatus());
         verify(contractValidator).validateForCreation(1L, 1L, future1, future2);
         verify(contractRepository).save(any(ContractEntity.class));
+        verify(deadlineQueue).schedule(testContractEntity);
+    }
+
+    @Test
+    @DisplayName("La création verrouille le véhicule avant la validation")
+    void testCreateContract_LocksVehicleBeforeValidation() {
+        when(contractValidator.validateForCreation(anyLong(), anyLong(), any(), any()))
+            .thenReturn(new ContractValidationContext(testClient, testVehicle, false));
+        when(contractRepository.save(any(ContractEntity.class))).thenReturn(testContractEntity);
+        when(contractMapper.toDomainModel(testContractEntity)).thenReturn(testContract);
+
+        contractService.createContract(1L, 1L, future1, future2);
+
+        var inOrder = inOrder(vehicleLockManager, contractValidator);
+        inOrder.verify(vehicleLockManager).lockVehicles(1L);
+        inOrder.verify(contractValidator).validateForCreation(1L, 1L, future1, future2);
     }
 
     @Test
@@ -139,6 +195,105 @@ class ContractServiceTest {
         verify(contractRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Une violation de la contrainte d'exclusion devient un conflit de réservation")
+    void testCreateContract_ExclusionViolationMapsToConflict() {
+        when(contractValidator.validateForCreation(anyLong(), anyLong(), any(), any()))
+            .thenReturn(new ContractValidationContext(testClient, testVehicle, false));
+        when(contractRepository.save(any(ContractEntity.class))).thenThrow(new DataIntegrityViolationException(
+            "conflicting key value violates exclusion constraint",
+            new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+
+        assertThrows(ContractConflictException.class,
+            () -> contractService.createContract(1L, 1L, future1, future2));
+
+        verify(availabilityIndex, never()).track(any());
+        verify(deadlineQueue, never()).schedule(any());
+    }
+
+    @Test
+    @DisplayName("Les autres violations d'intégrité ne sont pas masquées")
+    void testCreateContract_OtherIntegrityViolationPropagates() {
+        when(contractValidator.validateForCreation(anyLong(), anyLong(), any(), any()))
+            .thenReturn(new ContractValidationContext(testClient, testVehicle, false));
+        when(contractRepository.save(any(ContractEntity.class))).thenThrow(new DataIntegrityViolationException(
+            "null value in column", new SQLException("null value in column", "23502")));
+
+        assertThrows(DataIntegrityViolationException.class,
+            () -> contractService.createContract(1L, 1L, future1, future2));
+    }
+
+    // ============================================
+    // Tests de création en lot
+    // ============================================
+
+    @Test
+    @DisplayName("Un lot est vérifié en une requête et ses contrats acceptés insérés en une requête")
+    void testCreateContracts_MixedResults() {
+        ContractBooking valid = new ContractBooking(1L, 1L, future1, future2);
+        ContractBooking invalidFields = new ContractBooking(1L, 1L, future2, future1);
+        ContractBooking conflicting = new ContractBooking(1L, 2L, future1, future2);
+        lenient().doThrow(new ValidationException("La date de fin doit être après la date de début"))
+            .when(contractValidator).validateBasicFields(1L, 1L, future2, future1);
+        when(contractBatchStore.check(anyMap())).thenReturn(List.of(check(0), check(2)));
+        lenient().doThrow(ContractConflictException.overlappingPeriod("EF-456-GH", "début", "fin"))
+            .when(contractValidator).validateBatchBooking(eq(conflicting), any(), any());
+        when(contractBatchStore.insertPending(eq(List.of(valid)), any())).thenReturn(List.of(1L));
+        when(contractRepository.findWithClientAndVehicleByIdIn(List.of(1L))).thenReturn(List.of(testContractEntity));
+        when(contractMapper.toDomainModel(testContractEntity)).thenReturn(testContract);
+
+        List<ContractBookingResult> results = contractService.createContracts(List.of(valid, invalidFields, conflicting), false);
+
+        assertEquals(List.of(ContractBookingResult.Status.CREATED, ContractBookingResult.Status.REJECTED,
+            ContractBookingResult.Status.REJECTED), results.stream().map(ContractBookingResult::status).toList());
+        assertEquals(testContract, results.get(0).contract());
+        assertEquals("La date de fin doit être après la date de début", results.get(1).error());
+        assertEquals(2, results.get(2).index());
+        verify(vehicleLockManager).lockVehicles(1L, 2L);
+        verify(contractBatchStore, times(1)).check(anyMap());
+        verify(contractBatchStore, times(1)).insertPending(anyList(), any());
+        verify(contractRepository, never()).save(any());
+        verify(availabilityIndex).track(testContractEntity);
+        verify(deadlineQueue).schedule(testContractEntity);
+    }
+
+    @Test
+    @DisplayName("En mode tout ou rien, une réservation refusée annule tout le lot")
+    void testCreateContracts_AllOrNothingAborts() {
+        ContractBooking valid = new ContractBooking(1L, 1L, future1, future2);
+        ContractBooking overlapping = new ContractBooking(1L, 1L, future1.plusDays(1), future2);
+        when(contractBatchStore.check(anyMap())).thenReturn(List.of(check(0), check(1)));
+        lenient().doThrow(ContractConflictException.overlappingPeriod("AB-123-CD", "début", "fin"))
+            .when(contractValidator).validateBatchBooking(eq(overlapping), any(), any());
+
+        List<ContractBookingResult> results = contractService.createContracts(List.of(valid, overlapping), true);
+
+        assertEquals(ContractBookingResult.Status.ABORTED, results.get(0).status());
+        assertNull(results.get(0).contract());
+        assertEquals(ContractBookingResult.Status.REJECTED, results.get(1).status());
+        verify(contractBatchStore, never()).insertPending(anyList(), any());
+        verify(availabilityIndex, never()).track(any());
+    }
+
+    @Test
+    @DisplayName("Un contrat concurrent créé entre la vérification et l'insertion fait échouer tout le lot")
+    void testCreateContracts_ExclusionViolationMapsToConflict() {
+        ContractBooking valid = new ContractBooking(1L, 1L, future1, future2);
+        when(contractBatchStore.check(anyMap())).thenReturn(List.of(check(0)));
+        when(contractBatchStore.insertPending(anyList(), any())).thenThrow(new DataIntegrityViolationException(
+            "conflicting key value violates exclusion constraint",
+            new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+
+        assertThrows(ContractConflictException.class, () -> contractService.createContracts(List.of(valid), false));
+
+        verify(contractRepository, never()).findWithClientAndVehicleByIdIn(any());
+        verify(deadlineQueue, never()).schedule(any());
+    }
+
+    private static ContractBookingCheck check(int index) {
+        return new ContractBookingCheck(index, true, true, VehicleStatus.AVAILABLE, "AB-123-CD", false, List.of());
+    }
+
     // ============================================
     // Tests de récupération
     // ============================================
@@ -146,29 +301,75 @@ class ContractServiceTest {
     @Test
     @DisplayName("Récupération d'un contrat par ID")
     void testGetContractById_Success() {
-        when(contractRepository.findById(1L)).thenReturn(Optional.of(testContractEntity));
+        when(contractRepository.findWithClientAndVehicleById(1L)).thenReturn(Optional.of(testContractEntity));
         when(contractMapper.toDomainModel(testContractEntity)).thenReturn(testContract);
 
         Contract result = contractService.getContractById(1L);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
-        verify(contractRepository).findById(1L);
+        verify(contractRepository).findWithClientAndVehicleById(1L);
     }
 
     @Test
     @DisplayName("Récupération échoue si le contrat n'existe pas")
     void testGetContractById_NotFound() {
-        when(contractRepository.findById(1L)).thenReturn(Optional.empty());
+        when(contractRepository.findWithClientAndVehicleById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class,
             () -> contractService.getContractById(1L));
+        verifyNoInteractions(contractArchiveRepository);
+    }
+
+    @Test
+    @DisplayName("Avec l'historique, un contrat absent des contrats actifs est cherché parmi les contrats archivés")
+    void testGetContractById_Archived() {
+        ContractArchiveEntity archived = ContractArchiveEntity.builder().id(1L).status(ContractStatus.COMPLETED).build();
+        when(contractRepository.findWithClientAndVehicleById(1L)).thenReturn(Optional.empty());
+        when(contractArchiveRepository.findWithClientAndVehicleById(1L)).thenReturn(Optional.of(archived));
+        when(contractMapper.toDomainModel(archived)).thenReturn(testContract);
+
+        assertEquals(testContract, contractService.getContractById(1L, true));
+    }
+
+    @Test
+    @DisplayName("Une lecture par lot rend les contrats dans l'ordre demandé et liste les IDs inexistants")
+    void testGetContractsByIds_OrderAndMissing() {
+        ContractEntity other = ContractEntity.builder().id(3L).client(testClient).vehicle(testVehicle).build();
+        Contract otherContract = Contract.builder().id(3L).build();
+        when(contractRepository.findWithClientAndVehicleByIdIn(List.of(3L, 2L, 1L)))
+            .thenReturn(List.of(testContractEntity, other));
+        when(contractMapper.toDomainModel(testContractEntity)).thenReturn(testContract);
+        when(contractMapper.toDomainModel(other)).thenReturn(otherContract);
+
+        LookupResult<Contract> result = contractService.getContractsByIds(List.of(3L, 2L, 1L), false);
+
+        assertEquals(List.of(otherContract, testContract), result.items());
+        assertEquals(List.of(2L), result.missingIds());
+        verify(contractRepository, times(1)).findWithClientAndVehicleByIdIn(any());
+        verifyNoInteractions(contractArchiveRepository);
+    }
+
+    @Test
+    @DisplayName("Avec l'historique, une lecture par lot cherche les IDs non trouvés parmi les contrats archivés")
+    void testGetContractsByIds_Archived() {
+        ContractArchiveEntity archived = ContractArchiveEntity.builder().id(2L).status(ContractStatus.COMPLETED).build();
+        Contract archivedContract = Contract.builder().id(2L).status(ContractStatus.COMPLETED).build();
+        when(contractRepository.findWithClientAndVehicleByIdIn(List.of(1L, 2L))).thenReturn(List.of(testContractEntity));
+        when(contractMapper.toDomainModel(testContractEntity)).thenReturn(testContract);
+        when(contractArchiveRepository.findWithClientAndVehicleByIdIn(List.of(2L))).thenReturn(List.of(archived));
+        when(contractMapper.toDomainModel(archived)).thenReturn(archivedContract);
+
+        LookupResult<Contract> result = contractService.getContractsByIds(List.of(1L, 2L), true);
+
+        assertEquals(List.of(testContract, archivedContract), result.items());
+        assertTrue(result.missingIds().isEmpty());
     }
 
     @Test
     @DisplayName("Récupération de tous les contrats")
     void testGetAllContracts_Success() {
-        when(contractRepository.findAll()).thenReturn(List.of(testContractEntity));
+        when(contractRepository.findAllWithClientAndVehicle()).thenReturn(List.of(testContractEntity));
         when(contractMapper.toDomainModel(testContractEntity)).thenReturn(testContract);
 
         List<Contract> results = contractService.getAllContracts();
@@ -188,6 +389,21 @@ class ContractServiceTest {
         assertEquals(1, results.size());
     }
 
+    @Test
+    @DisplayName("Avec l'historique, les contrats d'un client incluent ses contrats archivés")
+    void testGetContractsByClientId_WithHistory() {
+        ContractArchiveEntity archived = ContractArchiveEntity.builder().id(2L).status(ContractStatus.COMPLETED).build();
+        Contract archivedContract = Contract.builder().id(2L).build();
+        when(contractRepository.findByClientId(1L)).thenReturn(List.of(testContractEntity));
+        when(contractArchiveRepository.findByClientId(1L)).thenReturn(List.of(archived));
+        when(contractMapper.toDomainModel(testContractEntity)).thenReturn(testContract);
+        when(contractMapper.toDomainModel(archived)).thenReturn(archivedContract);
+
+        List<Contract> results = contractService.getContractsByClientId(1L, true);
+
+        assertEquals(List.of(testContract, archivedContract), results);
+    }
+
     @Test
     @DisplayName("Récupération des contrats d'un véhicule")
     void testGetContractsByVehicleId_Success() {
@@ -211,6 +427,98 @@ class ContractServiceTest {
         assertEquals(1, results.size());
     }
 
+    @Test
+    @DisplayName("Page de contrats : lignes projetées, curseur de la page suivante = ID du dernier contrat lu")
+    void testGetContractsPage_HasNext() {
+        ContractSummary summary = new ContractSummary(
+            1L, testContract.getStartDate(), testContract.getEndDate(), ContractStatus.PENDING, null, null,
+            1L, "Jean", "Dupont", null, null, null, null, null, null, null,
+            1L, "AB-123-CD", "Peugeot", "208", null, null, null, VehicleStatus.AVAILABLE, null, null);
+        when(contractRepository.findSummarySliceByFilters(1L, null, ContractStatus.PENDING, 0L, PageRequest.ofSize(1)))
+            .thenReturn(new SliceImpl<>(List.of(summary), PageRequest.ofSize(1), true));
+
+        CursorPage<ContractSummary> page = contractService.getContractsPage(1L, null, ContractStatus.PENDING, null, 1, false);
+
+        assertEquals(List.of(summary), page.items());
+        assertEquals(1L, page.nextCursor());
+        verify(contractRepository, never()).findAll();
+        verifyNoInteractions(contractMapper);
+    }
+
+    @Test
+    @DisplayName("Export : chaque contrat lu par curseur est transmis puis le flux est fermé")
+    void testExportContracts_StreamsAndCloses() {
+        boolean[] closed = {false};
+        when(contractRepository.streamAllForExport())
+            .thenReturn(Stream.of(testContractEntity).onClose(() -> closed[0] = true));
+        when(contractMapper.toDomainModel(testContractEntity)).thenReturn(testContract);
+        List<Contract> exported = new ArrayList<>();
+
+        long count = contractService.exportContracts(exported::add);
+
+        assertEquals(1, count);
+        assertEquals(List.of(testContract), exported);
+        assertTrue(closed[0]);
+        verify(contractRepository, never()).findAll();
+        verifyNoInteractions(contractArchiveRepository);
+    }
+
+    @Test
+    @DisplayName("Export avec l'historique : contrats actifs et archivés fusionnés par ID, les deux flux sont fermés")
+    void testExportContracts_WithHistory_MergedById() {
+        boolean[] closed = {false, false};
+        ContractEntity third = ContractEntity.builder().id(3L).client(testClient).vehicle(testVehicle).build();
+        Contract thirdContract = Contract.builder().id(3L).build();
+        ContractArchiveEntity archived = ContractArchiveEntity.builder().id(2L).status(ContractStatus.COMPLETED).build();
+        Contract archivedContract = Contract.builder().id(2L).build();
+        when(contractRepository.streamAllForExport())
+            .thenReturn(Stream.of(testContractEntity, third).onClose(() -> closed[0] = true));
+        when(contractArchiveRepository.streamAllForExport())
+            .thenReturn(Stream.of(archived).onClose(() -> closed[1] = true));
+        when(contractMapper.toDomainModel(testContractEntity)).thenReturn(testContract);
+        when(contractMapper.toDomainModel(third)).thenReturn(thirdContract);
+        when(contractMapper.toDomainModel(archived)).thenReturn(archivedContract);
+        List<Contract> exported = new ArrayList<>();
+
+        long count = contractService.exportContracts(exported::add, true);
+
+        assertEquals(3, count);
+        assertEquals(List.of(testContract, archivedContract, thirdContract), exported);
+        assertTrue(closed[0]);
+        assertTrue(closed[1]);
+    }
+
+    @Test
+    @DisplayName("Dernière page de contrats : pas de curseur suivant")
+    void testGetContractsPage_LastPage() {
+        when(contractRepository.findSummarySliceByFilters(null, null, null, 1L, PageRequest.ofSize(50)))
+            .thenReturn(new SliceImpl<>(List.of(), PageRequest.ofSize(50), false));
+
+        CursorPage<ContractSummary> page = contractService.getContractsPage(null, null, null, 1L, 50, false);
+
+        assertTrue(page.items().isEmpty());
+        assertFalse(page.hasNext());
+        verifyNoInteractions(contractArchiveRepository);
+    }
+
+    @Test
+    @DisplayName("Page avec l'historique : contrats actifs et archivés fusionnés par ID, curseur continu")
+    void testGetContractsPage_WithArchived() {
+        ContractSummary active3 = summary(3L, ContractStatus.ONGOING);
+        ContractSummary active5 = summary(5L, ContractStatus.PENDING);
+        ContractSummary archived2 = summary(2L, ContractStatus.COMPLETED);
+        ContractSummary archived4 = summary(4L, ContractStatus.CANCELLED);
+        when(contractRepository.findSummarySliceByFilters(null, null, null, 1L, PageRequest.ofSize(3)))
+            .thenReturn(new SliceImpl<>(List.of(active3, active5), PageRequest.ofSize(3), false));
+        when(contractArchiveRepository.findSummarySliceByFilters(null, null, null, 1L, PageRequest.ofSize(3)))
+            .thenReturn(new SliceImpl<>(List.of(archived2, archived4), PageRequest.ofSize(3), false));
+
+        CursorPage<ContractSummary> page = contractService.getContractsPage(null, null, null, 1L, 3, true);
+
+        assertEquals(List.of(archived2, active3, archived4), page.items());
+        assertEquals(4L, page.nextCursor());
+    }
+
     // ============================================
     // Tests de modification
     // ============================================
@@ -218,27 +526,32 @@ class ContractServiceTest {
     @Test
     @DisplayName("Modification valide d'un contrat")
     void testUpdateContract_Success() {
-        when(contractRepository.findById(1L)).thenReturn(Optional.of(testContractEntity));
-        doNothing().when(contractValidator).validateForUpdate(anyLong(), anyLong(), anyLong(), any(), any());
-        when(clientRepository.findById(1L)).thenReturn(Optional.of(testClient));
-        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
+        when(contractRepository.findForUpdateById(1L)).thenReturn(Optional.of(testContractEntity));
+        when(contractValidator.validateForUpdate(anyLong(), anyLong(), anyLong(), any(), any()))
+            .thenReturn(new ContractValidationContext(testClient, testVehicle, false));
         when(contractRepository.save(any(ContractEntity.class))).thenReturn(testContractEntity);
         when(contractMapper.toDomainModel(testContractEntity)).thenReturn(testContract);
 
         Contract result = contractService.updateContract(1L, 1L, 1L, future1, future2);
 
         assertNotNull(result);
-        verify(contractValidator).validateForUpdate(1L, 1L, 1L, future1, future2);
-        verify(contractRepository).save(any(ContractEntity.class));
+        // Contrat verrouillé à la lecture, puis véhicules verrouillés avant la validation
+        InOrder inOrder = inOrder(contractRepository, vehicleLockManager, contractValidator);
+        inOrder.verify(contractRepository).findForUpdateById(1L);
+        inOrder.verify(vehicleLockManager).lockVehicles(1L, 1L);
+        inOrder.verify(contractValidator).validateForUpdate(1L, 1L, 1L, future1, future2);
+        inOrder.verify(contractRepository).save(any(ContractEntity.class));
+        verify(contractRepository, never()).findById(anyLong());
     }
 
     @Test
     @DisplayName("Modification échoue si le contrat n'existe pas")
     void testUpdateContract_NotFound() {
-        when(contractRepository.findById(1L)).thenReturn(Optional.empty());
+        when(contractRepository.findForUpdateById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class,
             () -> contractService.updateContract(1L, 1L, 1L, future1, future2));
+        verifyNoInteractions(vehicleLockManager);
     }
 
     // ============================================
@@ -257,7 +570,7 @@ class ContractServiceTest {
             .status(ContractStatus.PENDING)
             .build();
         
-        when(contractRepository.findById(1L)).thenReturn(Optional.of(pendingContract));
+        when(contractRepository.findWithClientAndVehicleById(1L)).thenReturn(Optional.of(pendingContract));
         doNothing().when(contractValidator).validateStatusTransition(ContractStatus.PENDING, ContractStatus.ONGOING);
 
         ContractEntity ongoingContract = ContractEntity.builder()
@@ -298,7 +611,7 @@ class ContractServiceTest {
             .status(ContractStatus.ONGOING)
             .build();
         
-        when(contractRepository.findById(1L)).thenReturn(Optional.of(ongoingContract));
+        when(contractRepository.findWithClientAndVehicleById(1L)).thenReturn(Optional.of(ongoingContract));
         doNothing().when(contractValidator).validateStatusTransition(ContractStatus.ONGOING, ContractStatus.COMPLETED);
 
         ContractEntity completedContract = ContractEntity.builder()
@@ -338,7 +651,7 @@ class ContractServiceTest {
             .status(ContractStatus.PENDING)
             .build();
         
-        when(contractRepository.findById(1L)).thenReturn(Optional.of(pendingContract));
+        when(contractRepository.findWithClientAndVehicleById(1L)).thenReturn(Optional.of(pendingContract));
         doNothing().when(contractValidator).validateStatusTransition(ContractStatus.PENDING, ContractStatus.CANCELLED);
 
         ContractEntity cancelledContract = ContractEntity.builder()
@@ -378,7 +691,7 @@ class ContractServiceTest {
             .status(ContractStatus.COMPLETED)
             .build();
         
-        when(contractRepository.findById(1L)).thenReturn(Optional.of(completedContract));
+        when(contractRepository.findWithClientAndVehicleById(1L)).thenReturn(Optional.of(completedContract));
         doThrow(new ValidationException("État terminal"))
             .when(contractValidator).validateStatusTransition(ContractStatus.COMPLETED, ContractStatus.CANCELLED);
 
@@ -388,6 +701,98 @@ class ContractServiceTest {
         verify(contractRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Passage ensembliste des contrats échus en OVERDUE")
+    void testMarkOverdueContracts_Success() {
+        when(contractRepository.markOverdueOngoingContracts(List.of(1L, 2L, 3L), now)).thenReturn(List.of(1L, 2L));
+
+        List<Long> result = contractService.markOverdueContracts(List.of(1L, 2L, 3L), now);
+
+        assertEquals(List.of(1L, 2L), result);
+        verify(contractRepository, never()).findById(anyLong());
+        verify(contractRepository, never()).save(any());
+        verify(eventPublisher).publishContractOverdueEvent(1L);
+        verify(eventPublisher).publishContractOverdueEvent(2L);
+        verify(eventPublisher, never()).publishContractOverdueEvent(3L);
+    }
+
+    @Test
+    @DisplayName("Passage en OVERDUE sans contrat : aucune requête")
+    void testMarkOverdueContracts_Empty() {
+        assertTrue(contractService.markOverdueContracts(List.of(), now).isEmpty());
+
+        verify(contractRepository, never()).markOverdueOngoingContracts(any(), any());
+    }
+
+    @Test
+    @DisplayName("Signalement des contrats en attente à leur date de début : une requête, un événement par contrat signalé")
+    void testSignalStartDueContracts() {
+        when(contractRepository.markPendingContractsStartSignalled(List.of(4L, 5L), now)).thenReturn(List.of(5L));
+
+        List<Long> result = contractService.signalStartDueContracts(List.of(4L, 5L), now);
+
+        assertEquals(List.of(5L), result);
+        verify(eventPublisher).publishContractStartDueEvent(5L);
+        verify(eventPublisher, never()).publishContractStartDueEvent(4L);
+    }
+
+    @Test
+    @DisplayName("Transition ensembliste : statuts d'origine vérifiés en SQL et contrats annulés retirés de l'index")
+    void testUpdateContractsStatus_Success() {
+        when(contractValidator.allowedSourceStatuses(ContractStatus.CANCELLED))
+            .thenReturn(EnumSet.of(ContractStatus.PENDING, ContractStatus.OVERDUE));
+        when(contractRepository.transitionContracts(eq(List.of(1L, 2L, 3L)), argThat(statuses ->
+                statuses.size() == 2 && statuses.containsAll(List.of("PENDING", "OVERDUE"))),
+                eq("CANCELLED"), any(LocalDateTime.class)))
+            .thenReturn(List.of(1L, 3L));
+
+        List<Long> result = contractService.updateContractsStatus(List.of(1L, 2L, 3L), ContractStatus.CANCELLED);
+
+        assertEquals(List.of(1L, 3L), result);
+        verify(contractRepository, never()).findById(anyLong());
+        verify(contractRepository, never()).save(any());
+        verify(availabilityIndex).untrack(1L);
+        verify(availabilityIndex).untrack(3L);
+        verify(availabilityIndex, never()).untrack(2L);
+    }
+
+    @Test
+    @DisplayName("Transition ensembliste vers un statut inaccessible : rejetée sans requête")
+    void testUpdateContractsStatus_NoAllowedSource() {
+        when(contractValidator.allowedSourceStatuses(ContractStatus.PENDING)).thenReturn(EnumSet.noneOf(ContractStatus.class));
+
+        assertThrows(ValidationException.class,
+            () -> contractService.updateContractsStatus(List.of(1L), ContractStatus.PENDING));
+
+        verify(contractRepository, never()).transitionContracts(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Annulation des contrats en attente d'un véhicule en une requête")
+    void testUpdateVehicleContractsStatus_Success() {
+        when(contractRepository.transitionVehicleContracts(eq(1L), eq(List.of("PENDING")), eq("CANCELLED"), any(LocalDateTime.class)))
+            .thenReturn(List.of(4L, 5L));
+
+        List<Long> result = contractService.updateVehicleContractsStatus(1L, ContractStatus.PENDING, ContractStatus.CANCELLED);
+
+        assertEquals(List.of(4L, 5L), result);
+        verify(contractValidator).validateStatusTransition(ContractStatus.PENDING, ContractStatus.CANCELLED);
+        verify(availabilityIndex).untrack(4L);
+        verify(availabilityIndex).untrack(5L);
+    }
+
+    @Test
+    @DisplayName("Transition par véhicule invalide : rejetée sans requête")
+    void testUpdateVehicleContractsStatus_InvalidTransition() {
+        doThrow(new ValidationException("État terminal"))
+            .when(contractValidator).validateStatusTransition(ContractStatus.COMPLETED, ContractStatus.CANCELLED);
+
+        assertThrows(ValidationException.class,
+            () -> contractService.updateVehicleContractsStatus(1L, ContractStatus.COMPLETED, ContractStatus.CANCELLED));
+
+        verify(contractRepository, never()).transitionVehicleContracts(any(), any(), any(), any());
+    }
+
     // ============================================
     // Tests de suppression
     // ============================================
@@ -412,4 +817,11 @@ class ContractServiceTest {
 
         verify(contractRepository, never()).deleteById(anyLong());
     }
+
+    private ContractSummary summary(Long id, ContractStatus status) {
+        return new ContractSummary(
+            id, testContract.getStartDate(), testContract.getEndDate(), status, null, null,
+            1L, "Jean", "Dupont", null, null, null, null, null, null, null,
+            1L, "AB-123-CD", "Peugeot", "208", null, null, null, VehicleStatus.AVAILABLE, null, null);
+    }
 }
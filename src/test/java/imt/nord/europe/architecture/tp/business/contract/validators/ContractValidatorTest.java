@@ -1,15 +1,16 @@
 package imt.nord.europe.architecture.tp.business.contract.validators;
 
+import imt.nord.europe.architecture.tp.business.contract.models.ContractBooking;
 import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
 import imt.nord.europe.architecture.tp.common.enums.VehicleStatus;
 import imt.nord.europe.architecture.tp.common.exceptions.ContractConflictException;
 import imt.nord.europe.architecture.tp.common.exceptions.ValidationException;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.ClientEntity;
-import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
-import imt.nord.europe.architecture.tp.infrastructure.db.repository.ClientRepository;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractBookingCheck;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractValidationContext;
 import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractRepository;
-import imt.nord.europe.architecture.tp.infrastructure.db.repository.VehicleRepository;
+import imt.nord.europe.architecture.tp.infrastructure.index.ContractAvailabilityIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,12 +19,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 /**
@@ -40,10 +41,7 @@ class ContractValidatorTest {
     private ContractRepository contractRepository;
 
     @Mock
-    private ClientRepository clientRepository;
-
-    @Mock
-    private VehicleRepository vehicleRepository;
+    private ContractAvailabilityIndex availabilityIndex;
 
     private ClientEntity testClient;
     private VehicleEntity testVehicle;
@@ -53,7 +51,7 @@ class ContractValidatorTest {
 
     @BeforeEach
     void setUp() {
-        contractValidator = new ContractValidator(contractRepository, clientRepository, vehicleRepository);
+        contractValidator = new ContractValidator(contractRepository, availabilityIndex);
         
         now = LocalDateTime.now();
         future1 = now.plusDays(1);
@@ -78,18 +76,54 @@ class ContractValidatorTest {
     // ============================================
 
     @Test
-    @DisplayName("Création valide avec tous les paramètres corrects")
+    @DisplayName("Création valide : le contexte lu en une requête est retourné")
     void testValidateForCreation_Success() {
-        when(clientRepository.existsById(1L)).thenReturn(true);
-        when(vehicleRepository.existsById(1L)).thenReturn(true);
-        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
-        when(contractRepository.findConflictingContracts(1L, future1, future2)).thenReturn(new ArrayList<>());
+        ContractValidationContext context = new ContractValidationContext(testClient, testVehicle, false);
+        when(contractRepository.findValidationContext(1L, 1L, future1, future2, null))
+            .thenReturn(Optional.of(context));
 
-        assertDoesNotThrow(() -> contractValidator.validateForCreation(1L, 1L, future1, future2));
+        assertSame(context, contractValidator.validateForCreation(1L, 1L, future1, future2));
         
-        verify(clientRepository).existsById(1L);
-        verify(vehicleRepository).findById(1L);
-        verify(contractRepository).findConflictingContracts(1L, future1, future2);
+        verify(contractRepository).findValidationContext(1L, 1L, future1, future2, null);
+        verifyNoMoreInteractions(contractRepository);
+    }
+
+    @Test
+    @DisplayName("Création sans chevauchement dans l'index : la base ne recherche pas de conflit")
+    void testValidateForCreation_IndexedFree() {
+        ContractValidationContext context = new ContractValidationContext(testClient, testVehicle, false);
+        when(availabilityIndex.isReliable(1L)).thenReturn(true);
+        when(availabilityIndex.hasConflict(1L, future1, future2, null)).thenReturn(false);
+        when(contractRepository.findBookingParties(1L, 1L)).thenReturn(Optional.of(context));
+
+        assertEquals(context, contractValidator.validateForCreation(1L, 1L, future1, future2));
+        verify(contractRepository, never()).findValidationContext(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Création en conflit selon l'index : rejetée sans recherche de conflit en base")
+    void testValidateForCreation_IndexedConflict() {
+        when(availabilityIndex.isReliable(1L)).thenReturn(true);
+        when(availabilityIndex.hasConflict(1L, future1, future2, null)).thenReturn(true);
+        when(contractRepository.findBookingParties(1L, 1L))
+            .thenReturn(Optional.of(new ContractValidationContext(testClient, testVehicle, false)));
+
+        assertThrows(ContractConflictException.class,
+            () -> contractValidator.validateForCreation(1L, 1L, future1, future2));
+        verify(contractRepository, never()).findValidationContext(any(), any(), any(), any(), any());
+        verify(availabilityIndex, never()).isOverlapConstraintEnforced();
+    }
+
+    @Test
+    @DisplayName("Création hors index avec la contrainte d'exclusion : la base ne recherche pas de conflit")
+    void testValidateForCreation_OverlapConstraintFastPath() {
+        ContractValidationContext context = new ContractValidationContext(testClient, testVehicle, false);
+        when(availabilityIndex.isReliable(1L)).thenReturn(false);
+        when(availabilityIndex.isOverlapConstraintEnforced()).thenReturn(true);
+        when(contractRepository.findBookingParties(1L, 1L)).thenReturn(Optional.of(context));
+
+        assertSame(context, contractValidator.validateForCreation(1L, 1L, future1, future2));
+        verify(contractRepository, never()).findValidationContext(any(), any(), any(), any(), any());
     }
 
     @Test
@@ -142,40 +176,45 @@ class ContractValidatorTest {
             "La date de début ne peut pas être dans le passé");
     }
 
+    @Test
+    @DisplayName("Les champs invalides sont rejetés sans requête")
+    void testValidateForCreation_InvalidFieldsSkipQuery() {
+        assertThrows(ValidationException.class,
+            () -> contractValidator.validateForCreation(1L, 1L, future1, future1));
+
+        verifyNoInteractions(contractRepository);
+    }
+
     @Test
     @DisplayName("Création échoue si le client n'existe pas")
     void testValidateForCreation_ClientNotFound() {
-        when(clientRepository.existsById(1L)).thenReturn(false);
+        when(contractRepository.findValidationContext(1L, 1L, future1, future2, null))
+            .thenReturn(Optional.empty());
 
-        assertThrows(ValidationException.class,
-            () -> contractValidator.validateForCreation(1L, 1L, future1, future2),
-            "Le client avec l'ID 1 n'existe pas");
+        ValidationException exception = assertThrows(ValidationException.class,
+            () -> contractValidator.validateForCreation(1L, 1L, future1, future2));
+
+        assertTrue(exception.getMessage().contains("client avec l'ID 1"));
     }
 
     @Test
     @DisplayName("Création échoue si le véhicule n'existe pas")
     void testValidateForCreation_VehicleNotFound() {
-        when(clientRepository.existsById(1L)).thenReturn(true);
-        when(vehicleRepository.existsById(1L)).thenReturn(false);
+        when(contractRepository.findValidationContext(1L, 1L, future1, future2, null))
+            .thenReturn(Optional.of(new ContractValidationContext(testClient, null, false)));
 
-        assertThrows(ValidationException.class,
-            () -> contractValidator.validateForCreation(1L, 1L, future1, future2),
-            "Le véhicule avec l'ID 1 n'existe pas");
+        ValidationException exception = assertThrows(ValidationException.class,
+            () -> contractValidator.validateForCreation(1L, 1L, future1, future2));
+
+        assertTrue(exception.getMessage().contains("véhicule avec l'ID 1"));
     }
 
     @Test
     @DisplayName("Création échoue si le véhicule est en panne")
     void testValidateForCreation_VehicleBrokenDown() {
-        VehicleEntity brokenDownVehicle = VehicleEntity.builder()
-            .id(1L)
-            .registrationPlate("AB-123-CD")
-            .brand("Peugeot")
-            .status(VehicleStatus.BROKEN_DOWN)
-            .build();
-        
-        when(clientRepository.existsById(1L)).thenReturn(true);
-        when(vehicleRepository.existsById(1L)).thenReturn(true);
-        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(brokenDownVehicle));
+        testVehicle.setStatus(VehicleStatus.BROKEN_DOWN);
+        when(contractRepository.findValidationContext(1L, 1L, future1, future2, null))
+            .thenReturn(Optional.of(new ContractValidationContext(testClient, testVehicle, false)));
 
         assertThrows(ContractConflictException.class,
             () -> contractValidator.validateForCreation(1L, 1L, future1, future2));
@@ -184,25 +223,119 @@ class ContractValidatorTest {
     @Test
     @DisplayName("Création échoue en cas de conflit de réservation")
     void testValidateForCreation_ConflictingContract() {
-        ContractEntity conflictingContract = ContractEntity.builder()
-            .id(99L)
-            .status(ContractStatus.ONGOING)
-            .startDate(future1.minusHours(1))
-            .endDate(future1.plusHours(1))
-            .build();
-        
-        when(clientRepository.existsById(1L)).thenReturn(true);
-        when(vehicleRepository.existsById(1L)).thenReturn(true);
-        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
-        when(contractRepository.findConflictingContracts(1L, future1, future2))
-            .thenReturn(List.of(conflictingContract));
+        when(contractRepository.findValidationContext(1L, 1L, future1, future2, null))
+            .thenReturn(Optional.of(new ContractValidationContext(testClient, testVehicle, true)));
         
         assertThrows(ContractConflictException.class,
             () -> contractValidator.validateForCreation(1L, 1L, future1, future2));
     }
 
+    // ============================================
+    // Tests de validation pour la création en lot
+    // ============================================
+
+    @Test
+    @DisplayName("Réservation en lot valide")
+    void testValidateBatchBooking_Success() {
+        ContractBooking booking = new ContractBooking(1L, 1L, future1, future2);
+
+        assertDoesNotThrow(() -> contractValidator.validateBatchBooking(booking, batchCheck(false, List.of()), Set.of()));
+        verifyNoInteractions(contractRepository);
+    }
+
+    @Test
+    @DisplayName("Réservation en lot avec client ou véhicule inexistant")
+    void testValidateBatchBooking_MissingClientOrVehicle() {
+        ContractBooking booking = new ContractBooking(99L, 98L, future1, future2);
+
+        ValidationException missingClient = assertThrows(ValidationException.class,
+            () -> contractValidator.validateBatchBooking(booking,
+                new ContractBookingCheck(0, false, true, VehicleStatus.AVAILABLE, "AB-123-CD", false, List.of()), Set.of()));
+        ValidationException missingVehicle = assertThrows(ValidationException.class,
+            () -> contractValidator.validateBatchBooking(booking,
+                new ContractBookingCheck(0, true, false, null, null, false, List.of()), Set.of()));
+
+        assertTrue(missingClient.getMessage().contains("99"));
+        assertTrue(missingVehicle.getMessage().contains("98"));
+    }
+
+    @Test
+    @DisplayName("Réservation en lot d'un véhicule en panne ou en conflit avec un contrat actif")
+    void testValidateBatchBooking_BrokenDownOrConflict() {
+        ContractBooking booking = new ContractBooking(1L, 1L, future1, future2);
+
+        assertThrows(ContractConflictException.class, () -> contractValidator.validateBatchBooking(booking,
+            new ContractBookingCheck(0, true, true, VehicleStatus.BROKEN_DOWN, "AB-123-CD", false, List.of()), Set.of()));
+        assertThrows(ContractConflictException.class,
+            () -> contractValidator.validateBatchBooking(booking, batchCheck(true, List.of()), Set.of()));
+    }
+
+    @Test
+    @DisplayName("Réservation en lot chevauchant une réservation précédente du lot, seulement si celle-ci est acceptée")
+    void testValidateBatchBooking_OverlapWithinBatch() {
+        ContractBooking booking = new ContractBooking(1L, 1L, future1, future2);
+        ContractBookingCheck check = batchCheck(false, List.of(0, 2));
+
+        assertThrows(ContractConflictException.class,
+            () -> contractValidator.validateBatchBooking(booking, check, Set.of(1, 2)));
+        assertDoesNotThrow(() -> contractValidator.validateBatchBooking(booking, check, Set.of(1)));
+    }
+
+    private ContractBookingCheck batchCheck(boolean conflict, List<Integer> overlappingIndexes) {
+        return new ContractBookingCheck(3, true, true, VehicleStatus.AVAILABLE, "AB-123-CD", conflict, overlappingIndexes);
+    }
+
+    // ============================================
+    // Tests de validation pour la modification
+    // ============================================
+
+    @Test
+    @DisplayName("Modification : le contrat modifié est exclu de la recherche de conflits")
+    void testValidateForUpdate_ExcludesContract() {
+        ContractValidationContext context = new ContractValidationContext(testClient, testVehicle, false);
+        when(contractRepository.findValidationContext(1L, 1L, future1, future2, 42L))
+            .thenReturn(Optional.of(context));
+
+        assertSame(context, contractValidator.validateForUpdate(42L, 1L, 1L, future1, future2));
+    }
+
+    @Test
+    @DisplayName("Modification échoue avec contractId null")
+    void testValidateForUpdate_NullContractId() {
+        assertThrows(ValidationException.class,
+            () -> contractValidator.validateForUpdate(null, 1L, 1L, future1, future2));
+
+        verifyNoInteractions(contractRepository);
+    }
+
     // ============================================
     // Tests de transitions de statut (machine d'état)
+    @Test
+    @DisplayName("Statuts d'origine autorisés par la machine d'état")
+    void testAllowedSourceStatuses() {
+        assertEquals(EnumSet.of(ContractStatus.PENDING, ContractStatus.OVERDUE),
+            contractValidator.allowedSourceStatuses(ContractStatus.CANCELLED));
+        assertEquals(EnumSet.of(ContractStatus.PENDING),
+            contractValidator.allowedSourceStatuses(ContractStatus.ONGOING));
+        assertTrue(contractValidator.allowedSourceStatuses(ContractStatus.PENDING).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Les statuts d'origine autorisés correspondent aux transitions validées une à une")
+    void testAllowedSourceStatuses_MatchesStatusTransitions() {
+        for (ContractStatus newStatus : ContractStatus.values()) {
+            Set<ContractStatus> sources = contractValidator.allowedSourceStatuses(newStatus);
+            for (ContractStatus currentStatus : ContractStatus.values()) {
+                if (sources.contains(currentStatus)) {
+                    assertDoesNotThrow(() -> contractValidator.validateStatusTransition(currentStatus, newStatus));
+                } else {
+                    assertThrows(ValidationException.class,
+                        () -> contractValidator.validateStatusTransition(currentStatus, newStatus));
+                }
+            }
+        }
+    }
+
     // ============================================
 
     @Test
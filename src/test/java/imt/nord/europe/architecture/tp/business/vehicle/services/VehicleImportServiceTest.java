@@ -0,0 +1,153 @@
+package imt.nord.europe.architecture.tp.business.vehicle.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import imt.nord.europe.architecture.tp.business.vehicle.validators.VehicleValidator;
+import imt.nord.europe.architecture.tp.common.enums.VehicleStatus;
+import imt.nord.europe.architecture.tp.common.imports.ImportFormat;
+import imt.nord.europe.architecture.tp.common.imports.ImportReport;
+import imt.nord.europe.architecture.tp.infrastructure.config.ImportProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.BulkCopyLoader;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.VehicleRepository;
+import imt.nord.europe.architecture.tp.infrastructure.imports.BulkImporter;
+import imt.nord.europe.architecture.tp.infrastructure.imports.ImportReader;
+import imt.nord.europe.architecture.tp.infrastructure.index.UniqueKeyFilters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour VehicleImportService.
+ * Vérifie la validation des lignes avec les règles de création, le chargement et le rapport d'import.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VehicleImportService")
+class VehicleImportServiceTest {
+
+    private static final String HEADER = "registrationPlate,brand,model,motorization,color,acquisitionDate\n";
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @Mock
+    private UniqueKeyFilters uniqueKeyFilters;
+
+    @Mock
+    private BulkCopyLoader bulkCopyLoader;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private VehicleImportService vehicleImportService;
+
+    @BeforeEach
+    void setUp() {
+        vehicleImportService = new VehicleImportService(
+            new VehicleValidator(vehicleRepository, uniqueKeyFilters),
+            new ImportReader(new ObjectMapper()),
+            new BulkImporter(new TransactionTemplate(transactionManager), new ImportProperties(), new SimpleMeterRegistry()),
+            bulkCopyLoader,
+            uniqueKeyFilters);
+    }
+
+    @Test
+    @DisplayName("Les lignes valides sont chargées en un lot de véhicules disponibles")
+    void testImportVehicles_Success() {
+        when(bulkCopyLoader.insertVehicles(anyList())).thenAnswer(invocation -> plates(invocation.getArgument(0)));
+
+        ImportReport report = importCsv(HEADER
+            + "AB-123-CD,Peugeot,208,Essence,Rouge,2024-01-15\n"
+            + " EF-456-GH ,Renault,Clio,Diesel,Bleu,2023-06-01\n");
+
+        assertEquals(new ImportReport(2, 2, 0, List.of()), report);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<VehicleEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(bulkCopyLoader).insertVehicles(captor.capture());
+        VehicleEntity first = captor.getValue().getFirst();
+        assertEquals("AB-123-CD", first.getRegistrationPlate());
+        assertEquals(LocalDate.of(2024, 1, 15), first.getAcquisitionDate());
+        assertEquals(VehicleStatus.AVAILABLE, first.getStatus());
+        assertNotNull(first.getCreatedAt());
+        assertEquals("EF-456-GH", captor.getValue().get(1).getRegistrationPlate());
+        verify(uniqueKeyFilters).recordRegistrationPlate("AB-123-CD");
+        verify(uniqueKeyFilters).recordRegistrationPlate("EF-456-GH");
+        // L'unicité est vérifiée par la base, pas ligne par ligne
+        verifyNoInteractions(vehicleRepository);
+    }
+
+    @Test
+    @DisplayName("Les lignes qui ne respectent pas les règles de création sont rejetées avec leur motif")
+    void testImportVehicles_InvalidRows() {
+        when(bulkCopyLoader.insertVehicles(anyList())).thenAnswer(invocation -> plates(invocation.getArgument(0)));
+        String future = LocalDate.now().plusDays(1).toString();
+
+        ImportReport report = importCsv(HEADER
+            + ",Peugeot,208,Essence,Rouge,2024-01-15\n"
+            + "AB-123-CD,Peugeot,208,Essence,Rouge," + future + "\n"
+            + "EF-456-GH,Peugeot,208,,Rouge,2024-01-15\n"
+            + "IJ-789-KL,Peugeot,208,Essence,Rouge,15/01/2024\n"
+            + "MN-012-OP-TOO-LONG-PLATE,Peugeot,208,Essence,Rouge,2024-01-15\n"
+            + "QR-345-ST,Peugeot,208,Essence,Rouge,2024-01-15\n");
+
+        assertEquals(6, report.total());
+        assertEquals(1, report.imported());
+        assertEquals(List.of(
+            new ImportReport.RowError(2, "Le numéro d'immatriculation ne peut pas être vide"),
+            new ImportReport.RowError(3, "La date d'acquisition ne peut pas être dans le futur"),
+            new ImportReport.RowError(4, "La motorisation du véhicule ne peut pas être vide"),
+            new ImportReport.RowError(5, "La valeur de acquisitionDate n'est pas une date AAAA-MM-JJ : '15/01/2024'"),
+            new ImportReport.RowError(6, "La valeur de registrationPlate dépasse 20 caractères")), report.errors());
+    }
+
+    @Test
+    @DisplayName("Une immatriculation déjà en base est rejetée et n'est pas ajoutée aux filtres d'unicité")
+    void testImportVehicles_ExistingPlate() {
+        when(bulkCopyLoader.insertVehicles(anyList())).thenReturn(new HashSet<>(Set.of("EF-456-GH")));
+
+        ImportReport report = importNdjson(
+            "{\"registrationPlate\":\"AB-123-CD\",\"brand\":\"Peugeot\",\"model\":\"208\",\"motorization\":\"Essence\","
+                + "\"color\":\"Rouge\",\"acquisitionDate\":\"2024-01-15\"}\n"
+            + "{\"registrationPlate\":\"EF-456-GH\",\"brand\":\"Renault\",\"model\":\"Clio\",\"motorization\":\"Diesel\","
+                + "\"color\":\"Bleu\",\"acquisitionDate\":\"2023-06-01\"}\n");
+
+        assertEquals(1, report.imported());
+        assertEquals(List.of(new ImportReport.RowError(1,
+            "Un véhicule avec le numéro d'immatriculation 'AB-123-CD' existe déjà")), report.errors());
+        verify(uniqueKeyFilters, never()).recordRegistrationPlate("AB-123-CD");
+        verify(uniqueKeyFilters).recordRegistrationPlate("EF-456-GH");
+    }
+
+    private ImportReport importCsv(String content) {
+        return vehicleImportService.importVehicles(
+            new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), null, ImportFormat.CSV);
+    }
+
+    private ImportReport importNdjson(String content) {
+        return vehicleImportService.importVehicles(
+            new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8, ImportFormat.NDJSON);
+    }
+
+    private static Set<String> plates(List<VehicleEntity> vehicles) {
+        Set<String> plates = new HashSet<>();
+        vehicles.forEach(vehicle -> plates.add(vehicle.getRegistrationPlate()));
+        return plates;
+    }
+}
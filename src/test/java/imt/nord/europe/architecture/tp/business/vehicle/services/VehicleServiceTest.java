@@ -4,11 +4,16 @@ import imt.nord.europe.architecture.tp.business.vehicle.models.Vehicle;
 import imt.nord.europe.architecture.tp.business.vehicle.validators.VehicleValidator;
 import imt.nord.europe.architecture.tp.common.enums.VehicleStatus;
 import imt.nord.europe.architecture.tp.common.exceptions.ResourceNotFoundException;
+import imt.nord.europe.architecture.tp.common.pagination.CursorPage;
 import imt.nord.europe.architecture.tp.common.exceptions.ValidationException;
+import imt.nord.europe.architecture.tp.common.exceptions.VehicleNotAvailableException;
+import imt.nord.europe.architecture.tp.infrastructure.cache.VehicleCache;
+import imt.nord.europe.architecture.tp.infrastructure.db.EntityStreamReader;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.mapper.VehiclePersistenceMapper;
 import imt.nord.europe.architecture.tp.infrastructure.db.repository.VehicleRepository;
 import imt.nord.europe.architecture.tp.infrastructure.event.SpringEventPublisher;
+import imt.nord.europe.architecture.tp.infrastructure.index.UniqueKeyFilters;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,6 +22,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,13 +57,23 @@ class VehicleServiceTest {
     @Mock
     private SpringEventPublisher eventPublisher;
 
+    @Mock
+    private EntityStreamReader entityStreamReader;
+
+    @Mock
+    private VehicleCache vehicleCache;
+
+    @Mock
+    private UniqueKeyFilters uniqueKeyFilters;
+
     private VehicleEntity testVehicleEntity;
     private Vehicle testVehicle;
     private LocalDate validAcquisitionDate;
 
     @BeforeEach
     void setUp() {
-        vehicleService = new VehicleService(vehicleRepository, vehicleMapper, vehicleValidator, eventPublisher);
+        vehicleService = new VehicleService(vehicleRepository, vehicleMapper, vehicleValidator, eventPublisher, entityStreamReader, vehicleCache,
+            uniqueKeyFilters);
 
         validAcquisitionDate = LocalDate.now().minusYears(2);
 
@@ -101,6 +122,19 @@ class VehicleServiceTest {
         verify(vehicleValidator).validateForCreation(
             "AB-123-CD", "Peugeot", "3008", validAcquisitionDate);
         verify(vehicleRepository).save(any(VehicleEntity.class));
+        verify(uniqueKeyFilters).recordRegistrationPlate("AB-123-CD");
+    }
+
+    @Test
+    @DisplayName("Une immatriculation rejetée par la contrainte unique de la base devient VehicleNotAvailableException")
+    void testCreateVehicle_UniqueViolationMapsToDuplicate() {
+        when(vehicleRepository.save(any(VehicleEntity.class))).thenThrow(new DataIntegrityViolationException(
+            "duplicate key value violates unique constraint",
+            new SQLException("Key (registration_plate)=(AB-123-CD) already exists.", "23505")));
+
+        assertThrows(VehicleNotAvailableException.class,
+            () -> vehicleService.createVehicle(
+                "AB-123-CD", "Peugeot", "3008", "1.5 BlueHDi", "Noir", validAcquisitionDate));
     }
 
     @Test
@@ -121,23 +155,33 @@ class VehicleServiceTest {
     // ============================================
 
     @Test
-    @DisplayName("Récupération d'un véhicule par ID")
+    @DisplayName("Récupération d'un véhicule par ID via le cache")
     void testGetVehicleById_Success() {
-        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicleEntity));
-        when(vehicleMapper.toDomainModel(testVehicleEntity)).thenReturn(testVehicle);
+        when(vehicleCache.findById(1L)).thenReturn(Optional.of(testVehicle));
 
         Vehicle result = vehicleService.getVehicleById(1L);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertEquals("AB-123-CD", result.getRegistrationPlate());
-        verify(vehicleRepository).findById(1L);
+        verify(vehicleRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Récupération d'un véhicule par immatriculation via le cache")
+    void testGetVehicleByRegistrationPlate_Success() {
+        when(vehicleCache.findByRegistrationPlate("AB-123-CD")).thenReturn(Optional.of(testVehicle));
+
+        Vehicle result = vehicleService.getVehicleByRegistrationPlate("AB-123-CD");
+
+        assertEquals(1L, result.getId());
+        verify(vehicleRepository, never()).findByRegistrationPlate(anyString());
     }
 
     @Test
     @DisplayName("Récupération échoue si le véhicule n'existe pas")
     void testGetVehicleById_NotFound() {
-        when(vehicleRepository.findById(1L)).thenReturn(Optional.empty());
+        when(vehicleCache.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class,
             () -> vehicleService.getVehicleById(1L));
@@ -180,6 +224,19 @@ class VehicleServiceTest {
         assertEquals(1, results.size());
     }
 
+    @Test
+    @DisplayName("Page de véhicules lue après le curseur")
+    void testGetVehiclesPage_Success() {
+        when(vehicleRepository.findSliceByStatusAndBrand(VehicleStatus.AVAILABLE, null, 0L, PageRequest.ofSize(20)))
+            .thenReturn(new SliceImpl<>(List.of(testVehicleEntity), PageRequest.ofSize(20), false));
+        when(vehicleMapper.toDomainModel(testVehicleEntity)).thenReturn(testVehicle);
+
+        CursorPage<Vehicle> page = vehicleService.getVehiclesPage(VehicleStatus.AVAILABLE, null, null, 20);
+
+        assertEquals(List.of(testVehicle), page.items());
+        assertNull(page.nextCursor());
+    }
+
     // ============================================
     // Tests de modification
     // ============================================
@@ -199,6 +256,7 @@ class VehicleServiceTest {
         assertNotNull(result);
         assertEquals(1L, result.getId());
         verify(vehicleRepository).save(any(VehicleEntity.class));
+        verify(vehicleCache).evict(1L);
     }
 
     @Test
@@ -228,6 +286,7 @@ class VehicleServiceTest {
 
         assertNotNull(result);
         verify(eventPublisher).publishVehicleBreakdownEvent(any());
+        verify(vehicleCache).evict(1L);
     }
 
     @Test
@@ -244,6 +303,40 @@ class VehicleServiceTest {
         assertEquals(VehicleStatus.AVAILABLE, testVehicleEntity.getStatus());
     }
 
+    // ============================================
+    // Tests de disponibilité sur une période
+    // ============================================
+
+    @Test
+    @DisplayName("Recherche d'une page de véhicules libres sur une période, avec le curseur de la page suivante")
+    void testGetAvailableVehiclesPage_Success() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        LocalDateTime to = from.plusDays(3);
+        when(vehicleRepository.findAvailableSliceBetween(from, to, "Peugeot", null, 0L, PageRequest.ofSize(1)))
+            .thenReturn(new SliceImpl<>(List.of(testVehicleEntity), PageRequest.ofSize(1), true));
+        when(vehicleMapper.toDomainModel(testVehicleEntity)).thenReturn(testVehicle);
+
+        CursorPage<Vehicle> page = vehicleService.getAvailableVehiclesPage(from, to, "Peugeot", null, null, 1);
+
+        assertEquals(List.of(testVehicle), page.items());
+        assertEquals(testVehicleEntity.getId(), page.nextCursor());
+        verify(vehicleValidator).validateAvailabilityPeriod(from, to);
+    }
+
+    @Test
+    @DisplayName("Recherche de disponibilité échoue si la période est invalide")
+    void testGetAvailableVehiclesPage_InvalidPeriod() {
+        LocalDateTime from = LocalDateTime.now().plusDays(3);
+        LocalDateTime to = from.minusDays(1);
+        doThrow(new ValidationException("Période invalide"))
+            .when(vehicleValidator).validateAvailabilityPeriod(from, to);
+
+        assertThrows(ValidationException.class,
+            () -> vehicleService.getAvailableVehiclesPage(from, to, null, null, null, 20));
+
+        verify(vehicleRepository, never()).findAvailableSliceBetween(any(), any(), any(), any(), any(), any());
+    }
+
     // ============================================
     // Tests de suppression
     // ============================================
@@ -256,6 +349,7 @@ class VehicleServiceTest {
         assertDoesNotThrow(() -> vehicleService.deleteVehicle(1L));
 
         verify(vehicleRepository).deleteById(1L);
+        verify(vehicleCache).evict(1L);
     }
 
     @Test
@@ -2,8 +2,10 @@ package imt.nord.europe.architecture.tp.business.vehicle.validators;
 
 import imt.nord.europe.architecture.tp.common.enums.VehicleStatus;
 import imt.nord.europe.architecture.tp.common.exceptions.ValidationException;
+import imt.nord.europe.architecture.tp.common.exceptions.VehicleNotAvailableException;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.repository.VehicleRepository;
+import imt.nord.europe.architecture.tp.infrastructure.index.UniqueKeyFilters;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,6 +14,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,12 +33,15 @@ class VehicleValidatorTest {
     @Mock
     private VehicleRepository vehicleRepository;
 
+    @Mock
+    private UniqueKeyFilters uniqueKeyFilters;
+
     private LocalDate validAcquisitionDate;
     private LocalDate futureAcquisitionDate;
 
     @BeforeEach
     void setUp() {
-        vehicleValidator = new VehicleValidator(vehicleRepository);
+        vehicleValidator = new VehicleValidator(vehicleRepository, uniqueKeyFilters);
         
         validAcquisitionDate = LocalDate.now().minusYears(2);
         futureAcquisitionDate = LocalDate.now().plusDays(1);
@@ -171,4 +177,55 @@ class VehicleValidatorTest {
                 futureAcquisitionDate
             ));
     }
+
+    // ============================================
+    // Tests de validation de la période de disponibilité
+    // ============================================
+
+    @Test
+    @DisplayName("Période de disponibilité valide")
+    void testValidateAvailabilityPeriod_Success() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+
+        assertDoesNotThrow(() -> vehicleValidator.validateAvailabilityPeriod(from, from.plusDays(3)));
+    }
+
+    @Test
+    @DisplayName("Période de disponibilité incomplète invalide")
+    void testValidateAvailabilityPeriod_NullBound() {
+        assertThrows(ValidationException.class,
+            () -> vehicleValidator.validateAvailabilityPeriod(null, LocalDateTime.now()));
+    }
+
+    @Test
+    @DisplayName("Période de disponibilité inversée invalide")
+    void testValidateAvailabilityPeriod_EndBeforeStart() {
+        LocalDateTime from = LocalDateTime.now().plusDays(3);
+
+        assertThrows(ValidationException.class,
+            () -> vehicleValidator.validateAvailabilityPeriod(from, from.minusDays(1)));
+    }
+
+    // ============================================
+    // Tests d'unicité de l'immatriculation (filtre d'unicité)
+    // ============================================
+
+    @Test
+    @DisplayName("Immatriculation absente du filtre : aucune recherche en base")
+    void testValidateForCreation_FilterSkipsQuery() {
+        assertDoesNotThrow(() -> vehicleValidator.validateForCreation("AB-123-CD", "Peugeot", "208", validAcquisitionDate));
+
+        verify(vehicleRepository, never()).findByRegistrationPlate(any());
+    }
+
+    @Test
+    @DisplayName("Immatriculation présente dans le filtre : doublon confirmé en base")
+    void testValidateForCreation_DuplicateRegistrationPlate() {
+        when(uniqueKeyFilters.mightContainRegistrationPlate("AB-123-CD")).thenReturn(true);
+        when(vehicleRepository.findByRegistrationPlate("AB-123-CD"))
+            .thenReturn(Optional.of(VehicleEntity.builder().id(2L).registrationPlate("AB-123-CD").build()));
+
+        assertThrows(VehicleNotAvailableException.class,
+            () -> vehicleValidator.validateForCreation("AB-123-CD", "Peugeot", "208", validAcquisitionDate));
+    }
 }
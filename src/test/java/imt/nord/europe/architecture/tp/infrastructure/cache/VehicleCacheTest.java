@@ -0,0 +1,203 @@
+package imt.nord.europe.architecture.tp.infrastructure.cache;
+
+import imt.nord.europe.architecture.tp.business.vehicle.models.Vehicle;
+import imt.nord.europe.architecture.tp.common.enums.VehicleStatus;
+import imt.nord.europe.architecture.tp.infrastructure.config.CacheProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.mapper.VehiclePersistenceMapper;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.VehicleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour VehicleCache (et NaturalKeyCache).
+ * Vérifie les accès par ID et par immatriculation, les copies, l'invalidation et les métriques.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VehicleCache")
+class VehicleCacheTest {
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private VehicleCache vehicleCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        vehicleCache = new VehicleCache(vehicleRepository, new VehiclePersistenceMapper(),
+            new CacheProperties(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Un véhicule lu par ID n'est chargé qu'une fois, puis servi par le cache")
+    void testFindById_LoadedOnce() {
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(vehicle(1L, "AB-123-CD")));
+
+        assertEquals("AB-123-CD", vehicleCache.findById(1L).orElseThrow().getRegistrationPlate());
+        assertEquals("AB-123-CD", vehicleCache.findById(1L).orElseThrow().getRegistrationPlate());
+
+        verify(vehicleRepository, times(1)).findById(1L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "vehicles").tag("result", "hit")
+            .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "vehicles").tag("result", "miss")
+            .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Un véhicule lu par ID est aussi servi par immatriculation, sans requête")
+    void testFindByRegistrationPlate_AfterIdLookup() {
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(vehicle(1L, "AB-123-CD")));
+        vehicleCache.findById(1L);
+
+        assertEquals(1L, vehicleCache.findByRegistrationPlate("AB-123-CD").orElseThrow().getId());
+
+        verify(vehicleRepository, never()).findByRegistrationPlate(any());
+    }
+
+    @Test
+    @DisplayName("Un véhicule lu par immatriculation est ensuite servi par ID")
+    void testFindById_AfterPlateLookup() {
+        when(vehicleRepository.findByRegistrationPlate("AB-123-CD")).thenReturn(Optional.of(vehicle(1L, "AB-123-CD")));
+        vehicleCache.findByRegistrationPlate("AB-123-CD");
+
+        assertTrue(vehicleCache.findById(1L).isPresent());
+        assertTrue(vehicleCache.findByRegistrationPlate("AB-123-CD").isPresent());
+
+        verify(vehicleRepository, never()).findById(any());
+        verify(vehicleRepository, times(1)).findByRegistrationPlate("AB-123-CD");
+    }
+
+    @Test
+    @DisplayName("Les véhicules servis sont des copies : les modifier n'altère pas le cache")
+    void testFindById_ReturnsCopies() {
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(vehicle(1L, "AB-123-CD")));
+
+        Vehicle first = vehicleCache.findById(1L).orElseThrow();
+        first.setStatus(VehicleStatus.BROKEN_DOWN);
+
+        assertEquals(VehicleStatus.AVAILABLE, vehicleCache.findById(1L).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Les véhicules inexistants ne sont pas mis en cache")
+    void testFindById_AbsenceNotCached() {
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertTrue(vehicleCache.findById(1L).isEmpty());
+        assertTrue(vehicleCache.findById(1L).isEmpty());
+
+        verify(vehicleRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Une lecture par lot ne charge que les véhicules absents du cache, en une requête")
+    void testFindAllById_LoadsMissingAtOnce() {
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(vehicle(1L, "AB-123-CD")));
+        when(vehicleRepository.findAllById(List.of(2L, 3L))).thenReturn(List.of(vehicle(2L, "EF-456-GH")));
+        vehicleCache.findById(1L);
+
+        Map<Long, Vehicle> vehicles = vehicleCache.findAllById(List.of(1L, 2L, 3L));
+
+        assertEquals(Set.of(1L, 2L), vehicles.keySet());
+        assertEquals("EF-456-GH", vehicles.get(2L).getRegistrationPlate());
+        // Les véhicules chargés par lot sont ensuite servis par le cache, par ID et par immatriculation
+        assertTrue(vehicleCache.findById(2L).isPresent());
+        assertTrue(vehicleCache.findByRegistrationPlate("EF-456-GH").isPresent());
+        verify(vehicleRepository, times(1)).findAllById(any());
+        verify(vehicleRepository, never()).findById(2L);
+        verify(vehicleRepository, never()).findByRegistrationPlate(any());
+    }
+
+    @Test
+    @DisplayName("Une lecture par lot entièrement servie par le cache ne fait aucune requête")
+    void testFindAllById_AllCached() {
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(vehicle(1L, "AB-123-CD")));
+        vehicleCache.findById(1L);
+
+        Vehicle vehicle = vehicleCache.findAllById(List.of(1L)).get(1L);
+        vehicle.setStatus(VehicleStatus.BROKEN_DOWN);
+
+        assertEquals(VehicleStatus.AVAILABLE, vehicleCache.findById(1L).orElseThrow().getStatus());
+        verify(vehicleRepository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Après invalidation, l'ancienne immatriculation n'est plus servie et le véhicule est relu")
+    void testEvict_PlateChanged() {
+        when(vehicleRepository.findById(1L))
+            .thenReturn(Optional.of(vehicle(1L, "AB-123-CD")))
+            .thenReturn(Optional.of(vehicle(1L, "EF-456-GH")));
+        when(vehicleRepository.findByRegistrationPlate("AB-123-CD")).thenReturn(Optional.empty());
+        vehicleCache.findById(1L);
+
+        vehicleCache.evict(1L);
+
+        assertTrue(vehicleCache.findByRegistrationPlate("AB-123-CD").isEmpty());
+        assertEquals("EF-456-GH", vehicleCache.findById(1L).orElseThrow().getRegistrationPlate());
+    }
+
+    @Test
+    @DisplayName("Une immatriculation réattribuée à un autre véhicule n'est pas servie à tort")
+    void testFindByRegistrationPlate_KeyNoLongerMatches() {
+        when(vehicleRepository.findByRegistrationPlate("AB-123-CD"))
+            .thenReturn(Optional.of(vehicle(1L, "AB-123-CD")))
+            .thenReturn(Optional.of(vehicle(2L, "AB-123-CD")));
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(vehicle(1L, "EF-456-GH")));
+        vehicleCache.findByRegistrationPlate("AB-123-CD");
+        vehicleCache.evict(1L);
+        vehicleCache.findById(1L);
+
+        assertEquals(2L, vehicleCache.findByRegistrationPlate("AB-123-CD").orElseThrow().getId());
+    }
+
+    @Test
+    @DisplayName("L'invalidation est répétée à la fin de la transaction")
+    void testEvict_RepeatedAfterCompletion() {
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(vehicle(1L, "AB-123-CD")));
+        TransactionSynchronizationManager.initSynchronization();
+
+        vehicleCache.evict(1L);
+        // Lecture concurrente de l'état précédent avant le commit
+        vehicleCache.findById(1L);
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        vehicleCache.findById(1L);
+
+        verify(vehicleRepository, times(2)).findById(1L);
+    }
+
+    private VehicleEntity vehicle(Long id, String registrationPlate) {
+        return VehicleEntity.builder()
+            .id(id)
+            .registrationPlate(registrationPlate)
+            .brand("Peugeot")
+            .model("208")
+            .status(VehicleStatus.AVAILABLE)
+            .build();
+    }
+}
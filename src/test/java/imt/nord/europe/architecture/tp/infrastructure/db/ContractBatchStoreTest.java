@@ -0,0 +1,147 @@
+package imt.nord.europe.architecture.tp.infrastructure.db;
+
+import imt.nord.europe.architecture.tp.business.contract.models.ContractBooking;
+import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
+import imt.nord.europe.architecture.tp.common.enums.VehicleStatus;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ClientEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractBookingCheck;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.ClientRepository;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractRepository;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration des requêtes ensemblistes des réservations en lot, sur PostgreSQL (Testcontainers).
+ * Vérifie la vérification d'un lot en une requête et l'attribution des IDs par position lors de l'insertion.
+ * Chaque test est annulé à sa fin (rollback) ; ignorés si Docker n'est pas disponible.
+ */
+@SpringBootTest(properties = "tp.events.async=false")
+@Import(PostgresTestConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional
+@DisplayName("ContractBatchStore")
+class ContractBatchStoreTest {
+
+    @Autowired
+    private ContractBatchStore contractBatchStore;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    private ClientEntity client;
+    private VehicleEntity freeVehicle;
+    private VehicleEntity bookedVehicle;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        start = LocalDateTime.now().plusDays(10).withNano(0);
+        client = clientRepository.save(client());
+        freeVehicle = vehicleRepository.save(vehicle());
+        bookedVehicle = vehicleRepository.save(vehicle());
+        contractRepository.saveAndFlush(ContractEntity.builder()
+            .client(client)
+            .vehicle(bookedVehicle)
+            .startDate(start)
+            .endDate(start.plusDays(3))
+            .status(ContractStatus.PENDING)
+            .createdAt(LocalDateTime.now())
+            .build());
+    }
+
+    @Test
+    @DisplayName("Vérifie un lot en une requête : client, véhicule, conflits en base et dans le lot")
+    void testCheck() {
+        Map<Integer, ContractBooking> bookings = new LinkedHashMap<>();
+        bookings.put(0, new ContractBooking(client.getId(), freeVehicle.getId(), start, start.plusDays(2)));
+        bookings.put(1, new ContractBooking(client.getId(), bookedVehicle.getId(), start.plusDays(1), start.plusDays(4)));
+        bookings.put(2, new ContractBooking(-1L, freeVehicle.getId(), start.plusDays(20), start.plusDays(21)));
+        bookings.put(3, new ContractBooking(client.getId(), freeVehicle.getId(), start.plusDays(1), start.plusDays(5)));
+
+        List<ContractBookingCheck> checks = contractBatchStore.check(bookings);
+
+        assertEquals(List.of(0, 1, 2, 3), checks.stream().map(ContractBookingCheck::index).toList());
+
+        ContractBookingCheck free = checks.get(0);
+        assertTrue(free.clientExists());
+        assertTrue(free.vehicleExists());
+        assertEquals(VehicleStatus.AVAILABLE, free.vehicleStatus());
+        assertEquals(freeVehicle.getRegistrationPlate(), free.registrationPlate());
+        assertFalse(free.conflict());
+        assertTrue(free.overlappingIndexes().isEmpty());
+
+        assertTrue(checks.get(1).conflict());
+        assertFalse(checks.get(2).clientExists());
+        assertEquals(List.of(0), checks.get(3).overlappingIndexes());
+    }
+
+    @Test
+    @DisplayName("Insère un lot en une requête et retourne les IDs dans l'ordre des réservations")
+    void testInsertPending_IdsByPosition() {
+        List<ContractBooking> bookings = List.of(
+            new ContractBooking(client.getId(), freeVehicle.getId(), start, start.plusDays(1)),
+            new ContractBooking(client.getId(), bookedVehicle.getId(), start.plusDays(5), start.plusDays(6)),
+            new ContractBooking(client.getId(), freeVehicle.getId(), start.plusDays(2), start.plusDays(3))
+        );
+
+        List<Long> ids = contractBatchStore.insertPending(bookings, LocalDateTime.now());
+
+        assertEquals(bookings.size(), ids.size());
+        for (int index = 0; index < bookings.size(); index++) {
+            ContractEntity created = contractRepository.findById(ids.get(index)).orElseThrow();
+            assertEquals(bookings.get(index).vehicleId(), created.getVehicle().getId());
+            assertEquals(bookings.get(index).startDate(), created.getStartDate());
+            assertEquals(ContractStatus.PENDING, created.getStatus());
+        }
+    }
+
+    private ClientEntity client() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return ClientEntity.builder()
+            .firstName("Jean")
+            .lastName("Lot-" + suffix)
+            .dateOfBirth(LocalDate.of(1990, 1, 1))
+            .licenseNumber("LIC-" + suffix)
+            .address("1 rue du Test")
+            .email("lot-" + suffix + "@example.com")
+            .createdAt(LocalDateTime.now())
+            .build();
+    }
+
+    private VehicleEntity vehicle() {
+        return VehicleEntity.builder()
+            .registrationPlate("LT-" + UUID.randomUUID().toString().substring(0, 8))
+            .brand("Peugeot")
+            .model("208")
+            .motorization("1.2 essence")
+            .color("Bleu")
+            .acquisitionDate(LocalDate.of(2022, 1, 1))
+            .status(VehicleStatus.AVAILABLE)
+            .createdAt(LocalDateTime.now())
+            .build();
+    }
+}
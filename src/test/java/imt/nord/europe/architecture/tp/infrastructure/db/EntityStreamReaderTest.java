@@ -0,0 +1,57 @@
+package imt.nord.europe.architecture.tp.infrastructure.db;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour EntityStreamReader.
+ * Vérifie le vidage périodique du contexte de persistance et la fermeture du flux.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EntityStreamReader")
+class EntityStreamReaderTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private EntityStreamReader reader;
+
+    @Test
+    @DisplayName("Vide le contexte de persistance à chaque paquet d'entités")
+    void testForEach_ClearsPeriodically() {
+        AtomicLong sum = new AtomicLong();
+
+        long count = reader.forEach(LongStream.rangeClosed(1, 2500).boxed(), sum::addAndGet);
+
+        assertEquals(2500, count);
+        assertEquals(2500L * 2501 / 2, sum.get());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    @DisplayName("Ferme le flux, y compris en cas d'erreur du consommateur")
+    void testForEach_ClosesStream() {
+        AtomicBoolean closed = new AtomicBoolean();
+
+        assertThrows(IllegalStateException.class, () -> reader.forEach(
+            LongStream.rangeClosed(1, 10).boxed().onClose(() -> closed.set(true)),
+            id -> {
+                throw new IllegalStateException("Client déconnecté");
+            }));
+
+        assertTrue(closed.get());
+    }
+}
@@ -0,0 +1,25 @@
+package imt.nord.europe.architecture.tp.infrastructure.db;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Base PostgreSQL des tests d'intégration, démarrée dans un conteneur (Testcontainers).
+ *
+ * La connexion remplace spring.datasource.* ; le schéma est créé par Hibernate puis complété par les scripts
+ * db/*.sql, comme en production. Les classes qui l'importent portent aussi
+ * {@code @Testcontainers(disabledWithoutDocker = true)} : sans Docker, elles sont ignorées au lieu d'échouer.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class PostgresTestConfiguration {
+
+    public static final String IMAGE = "postgres:16-alpine";
+
+    @Bean
+    @ServiceConnection
+    PostgreSQLContainer<?> postgresContainer() {
+        return new PostgreSQLContainer<>(IMAGE);
+    }
+}
@@ -0,0 +1,57 @@
+package imt.nord.europe.architecture.tp.infrastructure.db;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Garde-fou de test : fait échouer un test quand une opération exécute plus de requêtes SQL que son budget.
+ *
+ * À enregistrer comme inspecteur de requêtes Hibernate :
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector=<cette classe>}.
+ * Seules les requêtes du thread du test sont comptées (pas celles des tâches planifiées en arrière-plan).
+ */
+public class StatementBudget implements StatementInspector {
+
+    public static final String PROPERTY =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "imt.nord.europe.architecture.tp.infrastructure.db.StatementBudget";
+
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = RECORDED.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Exécute une opération et vérifie qu'elle reste dans son budget de requêtes.
+     *
+     * @param budget le nombre maximal de requêtes SQL
+     * @param operation l'opération à exécuter
+     * @return le résultat de l'opération
+     */
+    public static <T> T assertAtMost(int budget, Supplier<T> operation) {
+        List<String> statements = new ArrayList<>();
+        RECORDED.set(statements);
+        T result;
+        try {
+            result = operation.get();
+        } finally {
+            RECORDED.remove();
+        }
+        if (statements.size() > budget) {
+            fail(statements.size() + " requête(s) exécutée(s) pour un budget de " + budget + " :\n"
+                + String.join("\n", statements));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,93 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour ContractTransitionRepositoryImpl.
+ * Vérifie que le contexte de persistance est écrit avant chaque transition et vidé après,
+ * pour qu'une lecture suivante dans la même transaction voie le nouveau statut.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ContractTransitionRepositoryImpl")
+class ContractTransitionRepositoryImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Query query;
+
+    @InjectMocks
+    private ContractTransitionRepositoryImpl repository;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.of(2030, 1, 1, 10, 0);
+        when(entityManager.createNativeQuery(anyString(), eq(Long.class))).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+    }
+
+    @Test
+    @DisplayName("Transition de contrats : flush, requête puis vidage du contexte")
+    void testTransitionContracts_FlushesThenClears() {
+        when(query.getResultList()).thenReturn(List.of(1L, 2L));
+
+        List<Long> result = repository.transitionContracts(List.of(1L, 2L, 3L), List.of("PENDING"), "CANCELLED", now);
+
+        assertEquals(List.of(1L, 2L), result);
+        InOrder inOrder = inOrder(entityManager, query);
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(query).getResultList();
+        inOrder.verify(entityManager).clear();
+    }
+
+    @Test
+    @DisplayName("Passage en retard : flush, requête puis vidage du contexte")
+    void testMarkOverdueOngoingContracts_FlushesThenClears() {
+        when(query.getResultList()).thenReturn(List.of(1L));
+
+        List<Long> result = repository.markOverdueOngoingContracts(List.of(1L), now);
+
+        assertEquals(List.of(1L), result);
+        verify(query).setParameter("contractIds", List.of(1L));
+        InOrder inOrder = inOrder(entityManager, query);
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(query).getResultList();
+        inOrder.verify(entityManager).clear();
+    }
+
+    @Test
+    @DisplayName("Transition des contrats d'un véhicule : flush, requête puis vidage du contexte")
+    void testTransitionVehicleContracts_FlushesThenClears() {
+        when(query.getResultList()).thenReturn(List.of());
+
+        List<Long> result = repository.transitionVehicleContracts(1L, List.of("PENDING"), "CANCELLED", now);
+
+        assertTrue(result.isEmpty());
+        verify(query).setParameter("vehicleId", 1L);
+        InOrder inOrder = inOrder(entityManager, query);
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(query).getResultList();
+        inOrder.verify(entityManager).clear();
+    }
+}
@@ -0,0 +1,282 @@
+package imt.nord.europe.architecture.tp.infrastructure.db.routing;
+
+import imt.nord.europe.architecture.tp.infrastructure.config.DataSourceRoutingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.servlet.http.Cookie;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour le routage lecture / écriture.
+ * Vérifie le choix du pool selon la transaction, la lecture de ses écritures et le repli sur la base principale.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReadWriteRoutingDataSource")
+class ReadWriteRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private JdbcTemplate replica1Jdbc;
+
+    @Mock
+    private JdbcTemplate replica2Jdbc;
+
+    @Mock
+    private DataSource replica1;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaHealthMonitor monitor;
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        List<ReadReplica> replicas = List.of(
+            new ReadReplica("replica-1", replica1, replica1Jdbc),
+            new ReadReplica("replica-2", mock(DataSource.class), replica2Jdbc));
+        monitor = new ReplicaHealthMonitor(replicas, new DataSourceRoutingProperties(), meterRegistry);
+        routingDataSource = new ReadWriteRoutingDataSource(primary, monitor, meterRegistry);
+        // Transaction simulée pour le thread ; le caractère lecture seule est fixé par chaque test
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        RoutingContext.end();
+    }
+
+    // ==================== Choix du pool ====================
+
+    @Test
+    @DisplayName("Une transaction en écriture va à la base principale")
+    void testWrite_Primary() {
+        replicasLagging(0, 0);
+
+        assertEquals("primary", routingDataSource.determineCurrentLookupKey());
+        assertEquals(1.0, routed("primary", "write"));
+    }
+
+    @Test
+    @DisplayName("Un accès hors transaction va à la base principale sans rendre la requête collante")
+    void testNoTransaction_PrimaryWithoutStickiness() {
+        replicasLagging(0, 0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RoutingContext.begin(0, () -> response.addCookie(new Cookie(ReadYourWritesFilter.COOKIE_NAME, "1")));
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+
+        assertEquals("primary", routingDataSource.determineCurrentLookupKey());
+        assertEquals(1.0, routed("primary", "no-transaction"));
+        assertNull(response.getCookie(ReadYourWritesFilter.COOKIE_NAME));
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("replica-1", routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    @DisplayName("Les transactions en lecture seule vont aux réplicas, à tour de rôle")
+    void testReadOnly_RoundRobin() {
+        replicasLagging(0, 0);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        List<Object> keys = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            keys.add(routingDataSource.determineCurrentLookupKey());
+        }
+
+        assertEquals(List.of("replica-1", "replica-2", "replica-1", "replica-2"), keys);
+        assertEquals(2.0, routed("replica-1", "read"));
+    }
+
+    @Test
+    @DisplayName("Un réplica trop en retard n'est plus utilisé")
+    void testReadOnly_LaggingReplicaSkipped() {
+        replicasLagging(60, 0);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("replica-2", routingDataSource.determineCurrentLookupKey());
+        assertEquals("replica-2", routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    @DisplayName("Sans réplica utilisable, les lectures vont à la base principale")
+    void testReadOnly_FallbackToPrimary() {
+        when(replica1Jdbc.queryForObject(anyString(), eq(Double.class))).thenThrow(new IllegalStateException("down"));
+        when(replica2Jdbc.queryForObject(anyString(), eq(Double.class))).thenReturn(60.0);
+        monitor.check();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("primary", routingDataSource.determineCurrentLookupKey());
+        assertEquals(1.0, routed("primary", "fallback"));
+        assertEquals(0.0, meterRegistry.get("tp.datasource.replica.healthy").tag("pool", "replica-1").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Avant la première vérification, aucun réplica n'est utilisé")
+    void testReadOnly_NotCheckedYet() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("primary", routingDataSource.determineCurrentLookupKey());
+    }
+
+    // ==================== Lecture de ses écritures ====================
+
+    @Test
+    @DisplayName("Après une écriture dans la requête, ses lectures vont à la base principale")
+    void testReadAfterWriteInSameRequest_Primary() {
+        replicasLagging(0, 0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RoutingContext.begin(0, () -> response.addCookie(new Cookie("written", "1")));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("replica-1", routingDataSource.determineCurrentLookupKey());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        routingDataSource.determineCurrentLookupKey();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("primary", routingDataSource.determineCurrentLookupKey());
+        assertEquals(1.0, routed("primary", "sticky"));
+    }
+
+    @Test
+    @DisplayName("Une requête qui écrit pose le cookie, et les requêtes suivantes du client lisent sur la base principale")
+    void testFilter_CookieStickiness() throws Exception {
+        replicasLagging(0, 0);
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/contracts"), writeResponse,
+            (request, response) -> routingDataSource.determineCurrentLookupKey());
+
+        Cookie cookie = writeResponse.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(cookie);
+        assertEquals(5, cookie.getMaxAge());
+
+        List<Object> keys = new ArrayList<>();
+        MockHttpServletRequest readRequest = new MockHttpServletRequest("GET", "/api/v1/contracts/1");
+        readRequest.setCookies(cookie);
+        filter.doFilter(readRequest, new MockHttpServletResponse(), (request, response) -> {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            keys.add(routingDataSource.determineCurrentLookupKey());
+        });
+
+        assertEquals(List.of("primary"), keys);
+    }
+
+    @Test
+    @DisplayName("Une requête en lecture seule ne pose pas de cookie, et un cookie expiré est ignoré")
+    void testFilter_NoWriteNoCookie() throws Exception {
+        replicasLagging(0, 0);
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/contracts/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(System.currentTimeMillis() - 1)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<Object> keys = new ArrayList<>();
+
+        filter.doFilter(request, response, (req, res) -> {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            keys.add(routingDataSource.determineCurrentLookupKey());
+        });
+
+        assertEquals(List.of("replica-1"), keys);
+        assertNull(response.getCookie(ReadYourWritesFilter.COOKIE_NAME));
+    }
+
+    @Test
+    @DisplayName("usePrimary force la base principale pour les lectures de l'opération seulement")
+    void testUsePrimary() {
+        replicasLagging(0, 0);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("primary", RoutingContext.usePrimary(routingDataSource::determineCurrentLookupKey));
+        assertEquals("replica-1", routingDataSource.determineCurrentLookupKey());
+    }
+
+    // ==================== Transactions successives d'une requête ====================
+
+    @Test
+    @DisplayName("Dans une même requête, une lecture puis une écriture obtiennent chacune la connexion de leur pool")
+    void testReadThenWriteInSameRequest_EachTransactionRouted() throws Exception {
+        replicasLagging(0, 0);
+        Connection replicaConnection = mock(Connection.class);
+        Connection primaryConnection = mock(Connection.class);
+        when(replica1.getConnection()).thenReturn(replicaConnection);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        // Propriétés par défaut fixées : pas de connexion de découverte hors transaction
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        TransactionTemplate readTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readTransaction.setReadOnly(true);
+        TransactionTemplate writeTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        RoutingContext.begin(0, () -> { });
+
+        Connection read = readTransaction.execute(status -> targetConnection(dataSource));
+        Connection write = writeTransaction.execute(status -> targetConnection(dataSource));
+
+        assertSame(replicaConnection, read);
+        assertSame(primaryConnection, write);
+        assertEquals(1.0, routed("replica-1", "read"));
+        assertEquals(1.0, routed("primary", "write"));
+    }
+
+    @Test
+    @DisplayName("Le démarrage échoue si le routage est activé avec open-in-view")
+    void testConfiguration_RejectsOpenInView() {
+        new ApplicationContextRunner()
+            .withUserConfiguration(DataSourceRoutingConfiguration.class)
+            .withPropertyValues("tp.datasource.routing.enabled=true")
+            .run(context -> {
+                assertNotNull(context.getStartupFailure());
+                Throwable cause = NestedExceptionUtils.getMostSpecificCause(context.getStartupFailure());
+                assertInstanceOf(IllegalStateException.class, cause);
+                assertTrue(cause.getMessage().contains("spring.jpa.open-in-view=false"));
+            });
+    }
+
+    private Connection targetConnection(DataSource dataSource) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        return ((ConnectionProxy) connection).getTargetConnection();
+    }
+
+    private void replicasLagging(double lag1, double lag2) {
+        lenient().when(replica1Jdbc.queryForObject(anyString(), eq(Double.class))).thenReturn(lag1);
+        lenient().when(replica2Jdbc.queryForObject(anyString(), eq(Double.class))).thenReturn(lag2);
+        monitor.check();
+    }
+
+    private double routed(String pool, String reason) {
+        return meterRegistry.get("tp.datasource.routing").tag("pool", pool).tag("reason", reason).counter().count();
+    }
+}
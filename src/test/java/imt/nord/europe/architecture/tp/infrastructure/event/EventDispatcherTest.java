@@ -0,0 +1,174 @@
+package imt.nord.europe.architecture.tp.infrastructure.event;
+
+import imt.nord.europe.architecture.tp.infrastructure.config.EventProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour EventDispatcher.
+ * Vérifie la diffusion après commit, l'isolation des erreurs, la contre-pression et les métriques.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EventDispatcher")
+class EventDispatcherTest {
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private EventProperties eventProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private EventDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        eventProperties = new EventProperties();
+        eventProperties.setMaxPending(2);
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new EventDispatcher(applicationEventPublisher, eventProperties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Le mode synchrone publie immédiatement dans le thread appelant")
+    void testDispatch_SynchronousMode() {
+        eventProperties.setAsync(false);
+        EventDispatcher syncDispatcher = new EventDispatcher(applicationEventPublisher, eventProperties, meterRegistry);
+        VehicleBreakdownEvent event = new VehicleBreakdownEvent(this, 1L);
+
+        syncDispatcher.dispatch(event);
+
+        verify(applicationEventPublisher).publishEvent(event);
+        syncDispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Un événement émis dans une transaction n'est diffusé qu'après le commit")
+    void testDispatch_AfterCommit() {
+        VehicleBreakdownEvent event = new VehicleBreakdownEvent(this, 1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        dispatcher.dispatch(event);
+        verify(applicationEventPublisher, after(100).never()).publishEvent(any(ApplicationEvent.class));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        verify(applicationEventPublisher, timeout(1000)).publishEvent(event);
+    }
+
+    @Test
+    @DisplayName("Un événement émis dans une transaction annulée n'est pas diffusé")
+    void testDispatch_NotOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        dispatcher.dispatch(new VehicleBreakdownEvent(this, 1L));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        verify(applicationEventPublisher, after(100).never()).publishEvent(any(ApplicationEvent.class));
+    }
+
+    @Test
+    @DisplayName("L'émetteur n'attend pas le traitement et ses erreurs ne remontent pas")
+    void testDispatch_AsyncAndIsolated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            throw new IllegalStateException("Erreur handler");
+        }).when(applicationEventPublisher).publishEvent(any(ApplicationEvent.class));
+
+        assertDoesNotThrow(() -> dispatcher.dispatch(new ContractOverdueEvent(this, 1L)));
+        assertEquals(1, dispatcher.pendingCount(ContractOverdueEvent.class));
+
+        release.countDown();
+        waitUntilIdle(ContractOverdueEvent.class);
+
+        assertEquals(1.0, meterRegistry.get("tp.events.failed").tag("type", "ContractOverdueEvent").counter().count());
+        assertEquals(1L, meterRegistry.get("tp.events.dispatch.latency").tag("type", "ContractOverdueEvent").timer().count());
+    }
+
+    @Test
+    @DisplayName("Au-delà de la capacité, l'émetteur attend qu'une place se libère")
+    void testDispatch_Backpressure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(applicationEventPublisher).publishEvent(any(ApplicationEvent.class));
+
+        dispatcher.dispatch(new ContractOverdueEvent(this, 1L));
+        dispatcher.dispatch(new ContractOverdueEvent(this, 2L));
+
+        ExecutorService emitter = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> third = emitter.submit(() -> dispatcher.dispatch(new ContractOverdueEvent(this, 3L)));
+            assertThrows(TimeoutException.class, () -> third.get(200, TimeUnit.MILLISECONDS));
+
+            release.countDown();
+            third.get(1, TimeUnit.SECONDS);
+        } finally {
+            emitter.shutdownNow();
+        }
+
+        waitUntilIdle(ContractOverdueEvent.class);
+        verify(applicationEventPublisher, times(3)).publishEvent(any(ApplicationEvent.class));
+        assertEquals(1.0, meterRegistry.get("tp.events.throttled").tag("type", "ContractOverdueEvent").counter().count());
+    }
+
+    @Test
+    @DisplayName("Expose la file d'attente par type d'événement")
+    void testDispatch_PendingGaugePerType() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(applicationEventPublisher).publishEvent(any(ApplicationEvent.class));
+
+        dispatcher.dispatch(new VehicleBreakdownEvent(this, 1L));
+
+        assertEquals(1.0, meterRegistry.get("tp.events.pending").tag("type", "VehicleBreakdownEvent").gauge().value());
+        assertEquals(0, dispatcher.pendingCount(ContractOverdueEvent.class));
+
+        release.countDown();
+        waitUntilIdle(VehicleBreakdownEvent.class);
+        assertEquals(0.0, meterRegistry.get("tp.events.pending").tag("type", "VehicleBreakdownEvent").gauge().value());
+    }
+
+    private void waitUntilIdle(Class<? extends ApplicationEvent> eventType) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (dispatcher.pendingCount(eventType) > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        // Le timer de latence est enregistré juste après la décrémentation
+        Thread.sleep(20);
+    }
+}
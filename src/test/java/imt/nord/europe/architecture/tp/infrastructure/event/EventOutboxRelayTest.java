@@ -0,0 +1,229 @@
+package imt.nord.europe.architecture.tp.infrastructure.event;
+
+import imt.nord.europe.architecture.tp.common.enums.OutboxEventType;
+import imt.nord.europe.architecture.tp.infrastructure.config.EventProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.EventOutboxEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.EventOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour EventOutboxRelay.
+ * Vérifie la diffusion par lots, le regroupement des événements, l'acquittement des événements traités,
+ * la rediffusion un par un des retards d'un regroupement en échec, le report des échecs
+ * et l'abandon des événements qui ont atteint le nombre maximal de tentatives.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EventOutboxRelay")
+class EventOutboxRelayTest {
+
+    @Mock
+    private EventOutboxRepository eventOutboxRepository;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EventOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        EventProperties eventProperties = new EventProperties();
+        eventProperties.setAsync(false);
+        eventProperties.getOutbox().setBatchSize(2);
+        eventProperties.getOutbox().setMaxAttempts(3);
+        meterRegistry = new SimpleMeterRegistry();
+
+        EventDispatcher dispatcher = new EventDispatcher(applicationEventPublisher, eventProperties, new SimpleMeterRegistry());
+        SpringEventPublisher publisher = new SpringEventPublisher(dispatcher, eventOutboxRepository, eventProperties);
+        relay = new EventOutboxRelay(
+            eventOutboxRepository,
+            dispatcher,
+            publisher,
+            new TransactionTemplate(transactionManager),
+            eventProperties,
+            meterRegistry
+        );
+    }
+
+    @Test
+    @DisplayName("Diffuse les lots jusqu'à vider l'outbox puis supprime les événements traités")
+    void testRelay_DrainsBatches() {
+        when(eventOutboxRepository.claimBatch(any(), any(), eq(2)))
+            .thenReturn(List.of(entry(1L, OutboxEventType.VEHICLE_BREAKDOWN, 10L), entry(2L, OutboxEventType.CONTRACT_OVERDUE, 20L)))
+            .thenReturn(List.of(entry(3L, OutboxEventType.CONTRACT_START_DUE, 30L)));
+
+        relay.relay();
+
+        ArgumentCaptor<ApplicationEvent> captor = ArgumentCaptor.forClass(ApplicationEvent.class);
+        verify(applicationEventPublisher, times(3)).publishEvent(captor.capture());
+        assertInstanceOf(VehicleBreakdownEvent.class, captor.getAllValues().get(0));
+        assertEquals(10L, ((VehicleBreakdownEvent) captor.getAllValues().get(0)).getVehicleId());
+        assertInstanceOf(ContractOverdueBatchEvent.class, captor.getAllValues().get(1));
+        assertInstanceOf(ContractStartDueEvent.class, captor.getAllValues().get(2));
+
+        verify(eventOutboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(eventOutboxRepository).deleteAllByIdInBatch(List.of(3L));
+        verify(eventOutboxRepository, times(2)).claimBatch(any(), any(), eq(2));
+    }
+
+    @Test
+    @DisplayName("Un événement en échec est reporté et n'est pas supprimé")
+    void testRelay_ReschedulesFailures() {
+        when(eventOutboxRepository.claimBatch(any(), any(), eq(2)))
+            .thenReturn(List.of(entry(1L, OutboxEventType.VEHICLE_BREAKDOWN, 10L), entry(2L, OutboxEventType.VEHICLE_BREAKDOWN, 11L)))
+            .thenReturn(List.of());
+        doAnswer(invocation -> {
+            VehicleBreakdownEvent event = invocation.getArgument(0);
+            if (event.getVehicleId() == 11L) {
+                throw new IllegalStateException("Base indisponible");
+            }
+            return null;
+        }).when(applicationEventPublisher).publishEvent(any(ApplicationEvent.class));
+
+        LocalDateTime before = LocalDateTime.now();
+        relay.relay();
+
+        verify(eventOutboxRepository).deleteAllByIdInBatch(List.of(1L));
+        ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(eventOutboxRepository).reschedule(eq(2L), retryAt.capture(), contains("Base indisponible"));
+        assertFalse(retryAt.getValue().isBefore(before.plusSeconds(1)));
+    }
+
+    @Test
+    @DisplayName("Un événement en échec à sa dernière tentative est abandonné et compté")
+    void testRelay_DeadLettersAfterMaxAttempts() {
+        EventOutboxEntity lastAttempt = entry(1L, OutboxEventType.VEHICLE_BREAKDOWN, 10L);
+        lastAttempt.setAttempts(3);
+        when(eventOutboxRepository.claimBatch(any(), any(), eq(2)))
+            .thenReturn(List.of(lastAttempt, entry(2L, OutboxEventType.VEHICLE_BREAKDOWN, 11L)))
+            .thenReturn(List.of());
+        doThrow(new IllegalStateException("Base indisponible"))
+            .when(applicationEventPublisher).publishEvent(any(ApplicationEvent.class));
+
+        relay.relay();
+
+        verify(eventOutboxRepository).markFailed(eq(1L), any(), contains("Base indisponible"));
+        verify(eventOutboxRepository, never()).reschedule(eq(1L), any(), any());
+        verify(eventOutboxRepository).reschedule(eq(2L), any(), contains("Base indisponible"));
+        verify(eventOutboxRepository, never()).markFailed(eq(2L), any(), any());
+        assertEquals(1.0, meterRegistry.get("tp.events.outbox.dead-lettered")
+            .tag("type", "VEHICLE_BREAKDOWN").counter().count());
+    }
+
+    @Test
+    @DisplayName("Regroupe les retards d'un lot et ne diffuse qu'une fois les doublons")
+    void testRelay_CoalescesBatch() {
+        when(eventOutboxRepository.claimBatch(any(), any(), eq(2))).thenReturn(List.of(
+            entry(1L, OutboxEventType.CONTRACT_OVERDUE, 20L),
+            entry(2L, OutboxEventType.VEHICLE_BREAKDOWN, 10L),
+            entry(3L, OutboxEventType.CONTRACT_OVERDUE, 21L),
+            entry(4L, OutboxEventType.CONTRACT_OVERDUE, 20L),
+            entry(5L, OutboxEventType.VEHICLE_BREAKDOWN, 10L)));
+
+        assertEquals(5, relay.relayBatch());
+
+        ArgumentCaptor<ApplicationEvent> captor = ArgumentCaptor.forClass(ApplicationEvent.class);
+        verify(applicationEventPublisher, times(2)).publishEvent(captor.capture());
+        ContractOverdueBatchEvent overdue = assertInstanceOf(ContractOverdueBatchEvent.class, captor.getAllValues().get(0));
+        assertEquals(List.of(20L, 21L), overdue.getContractIds());
+        assertEquals(10L, assertInstanceOf(VehicleBreakdownEvent.class, captor.getAllValues().get(1)).getVehicleId());
+        verify(eventOutboxRepository).deleteAllByIdInBatch(List.of(1L, 4L, 3L, 2L, 5L));
+    }
+
+    @Test
+    @DisplayName("Un regroupement en échec est rediffusé contrat par contrat et reporte les lignes toujours en échec")
+    void testRelay_ReschedulesCoalescedEntries() {
+        when(eventOutboxRepository.claimBatch(any(), any(), eq(2)))
+            .thenReturn(List.of(entry(1L, OutboxEventType.CONTRACT_OVERDUE, 20L), entry(2L, OutboxEventType.CONTRACT_OVERDUE, 21L)))
+            .thenReturn(List.of());
+        doThrow(new IllegalStateException("Base indisponible"))
+            .when(applicationEventPublisher).publishEvent(any(ApplicationEvent.class));
+
+        relay.relay();
+
+        verify(applicationEventPublisher, times(1)).publishEvent(any(ContractOverdueBatchEvent.class));
+        verify(applicationEventPublisher, times(2)).publishEvent(any(ContractOverdueEvent.class));
+        verify(eventOutboxRepository).reschedule(eq(1L), any(), contains("Base indisponible"));
+        verify(eventOutboxRepository).reschedule(eq(2L), any(), contains("Base indisponible"));
+        verify(eventOutboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    @DisplayName("Un contrat fautif d'un regroupement n'empêche pas l'acquittement des autres")
+    void testRelay_IsolatesFailingContractOfBatch() {
+        when(eventOutboxRepository.claimBatch(any(), any(), eq(2)))
+            .thenReturn(List.of(entry(1L, OutboxEventType.CONTRACT_OVERDUE, 20L), entry(2L, OutboxEventType.CONTRACT_OVERDUE, 21L)))
+            .thenReturn(List.of());
+        doAnswer(invocation -> {
+            Object event = invocation.getArgument(0);
+            if (event instanceof ContractOverdueBatchEvent
+                || event instanceof ContractOverdueEvent overdue && overdue.getContractId() == 21L) {
+                throw new IllegalStateException("Contrat 21 invalide");
+            }
+            return null;
+        }).when(applicationEventPublisher).publishEvent(any(ApplicationEvent.class));
+
+        relay.relay();
+
+        ArgumentCaptor<ApplicationEvent> captor = ArgumentCaptor.forClass(ApplicationEvent.class);
+        verify(applicationEventPublisher, times(3)).publishEvent(captor.capture());
+        assertEquals(List.of(20L, 21L),
+            assertInstanceOf(ContractOverdueBatchEvent.class, captor.getAllValues().get(0)).getContractIds());
+        verify(eventOutboxRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(eventOutboxRepository).reschedule(eq(2L), any(), contains("Contrat 21 invalide"));
+        verify(eventOutboxRepository, never()).reschedule(eq(1L), any(), any());
+    }
+
+    @Test
+    @DisplayName("Ne fait rien quand l'outbox est vide")
+    void testRelay_Empty() {
+        when(eventOutboxRepository.claimBatch(any(), any(), eq(2))).thenReturn(List.of());
+
+        relay.relay();
+
+        verifyNoInteractions(applicationEventPublisher);
+        verify(eventOutboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    @DisplayName("Le délai entre deux tentatives double et reste plafonné")
+    void testRetryDelay() {
+        assertEquals(Duration.ofSeconds(1), relay.retryDelay(1));
+        assertEquals(Duration.ofSeconds(2), relay.retryDelay(2));
+        assertEquals(Duration.ofSeconds(8), relay.retryDelay(4));
+        assertEquals(Duration.ofMinutes(10), relay.retryDelay(50));
+    }
+
+    private EventOutboxEntity entry(Long id, OutboxEventType type, Long aggregateId) {
+        return EventOutboxEntity.builder()
+            .id(id)
+            .eventType(type)
+            .aggregateId(aggregateId)
+            .createdAt(LocalDateTime.now())
+            .availableAt(LocalDateTime.now())
+            .attempts(1)
+            .build();
+    }
+}
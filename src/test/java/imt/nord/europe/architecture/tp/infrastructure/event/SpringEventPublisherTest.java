@@ -1,10 +1,15 @@
 package imt.nord.europe.architecture.tp.infrastructure.event;
 
+import imt.nord.europe.architecture.tp.common.enums.OutboxEventType;
+import imt.nord.europe.architecture.tp.infrastructure.config.EventProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.EventOutboxEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.EventOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
@@ -23,9 +28,23 @@ class SpringEventPublisherTest {
     @Mock
     private ApplicationEventPublisher applicationEventPublisher;
 
-    @InjectMocks
+    @Mock
+    private EventOutboxRepository eventOutboxRepository;
+
     private SpringEventPublisher springEventPublisher;
 
+    @BeforeEach
+    void setUp() {
+        // Mode synchrone sans outbox : les événements sont publiés immédiatement
+        EventProperties eventProperties = new EventProperties();
+        eventProperties.setAsync(false);
+        eventProperties.getOutbox().setEnabled(false);
+        springEventPublisher = new SpringEventPublisher(
+            new EventDispatcher(applicationEventPublisher, eventProperties, new SimpleMeterRegistry()),
+            eventOutboxRepository,
+            eventProperties);
+    }
+
     @Test
     @DisplayName("Publie un événement VehicleBreakdownEvent avec le bon ID")
     void testPublishVehicleBreakdownEvent() {
@@ -108,4 +127,27 @@ class SpringEventPublisherTest {
         assertNotNull(event);
         assertNull(event.getContractId());
     }
+
+    @Test
+    @DisplayName("Avec l'outbox, l'événement est enregistré au lieu d'être publié")
+    void testPublish_WritesToOutbox() {
+        // Arrange
+        EventProperties eventProperties = new EventProperties();
+        SpringEventPublisher outboxPublisher = new SpringEventPublisher(
+            new EventDispatcher(applicationEventPublisher, eventProperties, new SimpleMeterRegistry()),
+            eventOutboxRepository,
+            eventProperties);
+        ArgumentCaptor<EventOutboxEntity> captor = ArgumentCaptor.forClass(EventOutboxEntity.class);
+
+        // Act
+        outboxPublisher.publishVehicleBreakdownEvent(4L);
+
+        // Assert
+        verify(eventOutboxRepository).save(captor.capture());
+        assertEquals(OutboxEventType.VEHICLE_BREAKDOWN, captor.getValue().getEventType());
+        assertEquals(4L, captor.getValue().getAggregateId());
+        assertEquals(0, captor.getValue().getAttempts());
+        assertNotNull(captor.getValue().getAvailableAt());
+        verifyNoInteractions(applicationEventPublisher);
+    }
 }
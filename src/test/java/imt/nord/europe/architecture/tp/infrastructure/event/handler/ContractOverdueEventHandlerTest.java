@@ -6,6 +6,7 @@ import imt.nord.europe.architecture.tp.infrastructure.db.entity.ClientEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
 import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractRepository;
+import imt.nord.europe.architecture.tp.infrastructure.event.ContractOverdueBatchEvent;
 import imt.nord.europe.architecture.tp.infrastructure.event.ContractOverdueEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,13 +15,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -124,21 +129,51 @@ class ContractOverdueEventHandlerTest {
         handler.onContractOverdue(event);
 
         // Assert
-        verify(contractService, times(1)).cancelContract(pendingContract.getId());
+        verify(contractService, times(1)).updateContractsStatus(List.of(pendingContract.getId()), ContractStatus.CANCELLED);
     }
 
     @Test
-    @DisplayName("Lève une exception si le contrat n'existe pas")
+    @DisplayName("Ignore un contrat qui n'existe plus")
     void testOnContractOverdue_ContractNotFound() {
         // Arrange
         when(contractRepository.findById(contractId)).thenReturn(Optional.empty());
 
-        // Act - L'handler log l'erreur sans relancer l'exception
+        // Act - Rien à faire : l'événement est acquitté sans nouvelle tentative
         handler.onContractOverdue(event);
 
-        // Assert - Aucun appel à cancelContract ne devrait être fait
+        // Assert - Aucune annulation ne devrait être faite
         verify(contractRepository, times(1)).findById(contractId);
-        verify(contractService, never()).cancelContract(any());
+        verify(contractService, never()).updateContractsStatus(any(), any());
+    }
+
+    @Test
+    @DisplayName("Annule les contrats en attente bloqués par un retard déjà annulé par le scheduler")
+    void testOnContractOverdue_CancelledOverdueContract() {
+        // Arrange - l'étape 2 du scheduler annule le contrat en retard avant de publier l'événement
+        overdueContract.setStatus(ContractStatus.CANCELLED);
+        when(contractRepository.findById(contractId)).thenReturn(Optional.of(overdueContract));
+        when(contractRepository.findByVehicleIdAndStatus(testVehicle.getId(), ContractStatus.PENDING))
+            .thenReturn(List.of(pendingContract));
+
+        // Act
+        handler.onContractOverdue(event);
+
+        // Assert
+        verify(contractService, times(1)).updateContractsStatus(List.of(pendingContract.getId()), ContractStatus.CANCELLED);
+    }
+
+    @Test
+    @DisplayName("Propage l'échec d'une annulation pour que l'outbox programme une nouvelle tentative")
+    void testOnContractOverdue_FailurePropagates() {
+        // Arrange
+        when(contractRepository.findById(contractId)).thenReturn(Optional.of(overdueContract));
+        when(contractRepository.findByVehicleIdAndStatus(testVehicle.getId(), ContractStatus.PENDING))
+            .thenReturn(List.of(pendingContract));
+        doThrow(new DataAccessResourceFailureException("connexion perdue"))
+            .when(contractService).updateContractsStatus(List.of(pendingContract.getId()), ContractStatus.CANCELLED);
+
+        // Act & Assert
+        assertThrows(DataAccessResourceFailureException.class, () -> handler.onContractOverdue(event));
     }
 
     @Test
@@ -168,7 +203,7 @@ class ContractOverdueEventHandlerTest {
         handler.onContractOverdue(event);
 
         // Assert
-        verify(contractService, never()).cancelContract(any());
+        verify(contractService, never()).updateContractsStatus(any(), any());
     }
 
     @Test
@@ -207,9 +242,8 @@ class ContractOverdueEventHandlerTest {
         handler.onContractOverdue(event);
 
         // Assert
-        verify(contractService, times(2)).cancelContract(any());
-        verify(contractService, times(1)).cancelContract(2L);
-        verify(contractService, times(1)).cancelContract(3L);
+        verify(contractService, times(1)).updateContractsStatus(List.of(2L, 3L), ContractStatus.CANCELLED);
+        verify(contractService, never()).updateContractsStatus(any(), any());
     }
 
     @Test
@@ -224,7 +258,7 @@ class ContractOverdueEventHandlerTest {
         handler.onContractOverdue(event);
 
         // Assert
-        verify(contractService, never()).cancelContract(any());
+        verify(contractService, never()).updateContractsStatus(any(), any());
     }
 
     @Test
@@ -272,4 +306,80 @@ class ContractOverdueEventHandlerTest {
         // Assert
         verify(contractRepository, times(1)).findById(differentContractId);
     }
+
+    // ==================== Retards regroupés ====================
+
+    @Test
+    @DisplayName("Deux retards sur le même véhicule : une seule lecture des contrats en attente et une annulation groupée")
+    void testOnContractOverdueBatch_SameVehicle() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        ContractEntity earlierOverdue = ContractEntity.builder()
+            .id(5L)
+            .client(testClient)
+            .vehicle(testVehicle)
+            .status(ContractStatus.ONGOING)
+            .startDate(now.minusDays(20))
+            .endDate(now.minusDays(15))
+            .createdAt(now.minusDays(21))
+            .build();
+
+        when(contractRepository.findAllById(List.of(contractId, 5L))).thenReturn(List.of(overdueContract, earlierOverdue));
+        when(contractRepository.findByVehicleIdInAndStatus(Set.of(testVehicle.getId()), ContractStatus.PENDING))
+            .thenReturn(List.of(pendingContract));
+
+        // Act
+        handler.onContractOverdueBatch(new ContractOverdueBatchEvent(this, List.of(contractId, 5L)));
+
+        // Assert - la fin la plus tardive (now-1h) chevauche le contrat en attente
+        verify(contractRepository, times(1)).findByVehicleIdInAndStatus(any(), eq(ContractStatus.PENDING));
+        verify(contractService, times(1)).updateContractsStatus(List.of(pendingContract.getId()), ContractStatus.CANCELLED);
+        verify(contractService, never()).cancelContract(any());
+        verify(contractRepository, never()).findByVehicleIdAndStatus(any(), any());
+    }
+
+    @Test
+    @DisplayName("Annule les contrats en attente bloqués par un retard d'un lot déjà annulé")
+    void testOnContractOverdueBatch_CancelledOverdueContract() {
+        // Arrange
+        overdueContract.setStatus(ContractStatus.CANCELLED);
+        when(contractRepository.findAllById(List.of(contractId))).thenReturn(List.of(overdueContract));
+        when(contractRepository.findByVehicleIdInAndStatus(Set.of(testVehicle.getId()), ContractStatus.PENDING))
+            .thenReturn(List.of(pendingContract));
+
+        // Act
+        handler.onContractOverdueBatch(new ContractOverdueBatchEvent(this, List.of(contractId)));
+
+        // Assert
+        verify(contractService, times(1)).updateContractsStatus(List.of(pendingContract.getId()), ContractStatus.CANCELLED);
+    }
+
+    @Test
+    @DisplayName("Propage l'échec de l'annulation groupée pour que l'outbox programme une nouvelle tentative")
+    void testOnContractOverdueBatch_FailurePropagates() {
+        // Arrange
+        when(contractRepository.findAllById(List.of(contractId))).thenReturn(List.of(overdueContract));
+        when(contractRepository.findByVehicleIdInAndStatus(Set.of(testVehicle.getId()), ContractStatus.PENDING))
+            .thenReturn(List.of(pendingContract));
+        doThrow(new DataAccessResourceFailureException("connexion perdue"))
+            .when(contractService).updateContractsStatus(List.of(pendingContract.getId()), ContractStatus.CANCELLED);
+
+        // Act & Assert
+        ContractOverdueBatchEvent batchEvent = new ContractOverdueBatchEvent(this, List.of(contractId));
+        assertThrows(DataAccessResourceFailureException.class, () -> handler.onContractOverdueBatch(batchEvent));
+    }
+
+    @Test
+    @DisplayName("Ignore les contrats introuvables d'un lot")
+    void testOnContractOverdueBatch_MissingContracts() {
+        // Arrange
+        when(contractRepository.findAllById(List.of(998L, 999L))).thenReturn(List.of());
+
+        // Act
+        handler.onContractOverdueBatch(new ContractOverdueBatchEvent(this, List.of(998L, 999L)));
+
+        // Assert
+        verify(contractRepository, never()).findByVehicleIdInAndStatus(any(), any());
+        verify(contractService, never()).updateContractsStatus(any(), any());
+    }
 }
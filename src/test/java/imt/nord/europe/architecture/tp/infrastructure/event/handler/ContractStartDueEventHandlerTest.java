@@ -0,0 +1,111 @@
+package imt.nord.europe.architecture.tp.infrastructure.event.handler;
+
+import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ClientEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractRepository;
+import imt.nord.europe.architecture.tp.infrastructure.event.ContractStartDueEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour ContractStartDueEventHandler.
+ * Vérifie le traitement d'un contrat en attente arrivé à sa date de début.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ContractStartDueEventHandler")
+class ContractStartDueEventHandlerTest {
+
+    @Mock
+    private ContractRepository contractRepository;
+
+    @InjectMocks
+    private ContractStartDueEventHandler handler;
+
+    private ContractStartDueEvent event;
+    private ContractEntity pendingContract;
+    private VehicleEntity testVehicle;
+
+    @BeforeEach
+    void setUp() {
+        event = new ContractStartDueEvent(this, 2L);
+
+        ClientEntity testClient = ClientEntity.builder()
+            .id(1L)
+            .firstName("Marie")
+            .lastName("Martin")
+            .build();
+
+        testVehicle = VehicleEntity.builder()
+            .id(1L)
+            .registrationPlate("XY-789-ZW")
+            .brand("Peugeot")
+            .model("308")
+            .build();
+
+        LocalDateTime now = LocalDateTime.now();
+        pendingContract = ContractEntity.builder()
+            .id(2L)
+            .client(testClient)
+            .vehicle(testVehicle)
+            .status(ContractStatus.PENDING)
+            .startDate(now.minusMinutes(1))
+            .endDate(now.plusDays(3))
+            .build();
+    }
+
+    @Test
+    @DisplayName("Signale le contrat en attente sans le modifier")
+    void testOnContractStartDue_SignalsWithoutCancelling() {
+        when(contractRepository.findById(2L)).thenReturn(Optional.of(pendingContract));
+
+        handler.onContractStartDue(event);
+
+        verify(contractRepository).findById(2L);
+        verifyNoMoreInteractions(contractRepository);
+    }
+
+    @Test
+    @DisplayName("Ignore un contrat qui n'est plus en attente")
+    void testOnContractStartDue_NoLongerPending() {
+        pendingContract.setStatus(ContractStatus.ONGOING);
+        when(contractRepository.findById(2L)).thenReturn(Optional.of(pendingContract));
+
+        handler.onContractStartDue(event);
+
+        verify(contractRepository).findById(2L);
+        verifyNoMoreInteractions(contractRepository);
+    }
+
+    @Test
+    @DisplayName("Ignore un contrat inexistant")
+    void testOnContractStartDue_NotFound() {
+        when(contractRepository.findById(2L)).thenReturn(Optional.empty());
+
+        handler.onContractStartDue(event);
+
+        verify(contractRepository).findById(2L);
+        verifyNoMoreInteractions(contractRepository);
+    }
+
+    @Test
+    @DisplayName("Propage les erreurs pour que l'outbox programme une nouvelle tentative")
+    void testOnContractStartDue_FailurePropagates() {
+        when(contractRepository.findById(2L)).thenThrow(new DataAccessResourceFailureException("connexion perdue"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> handler.onContractStartDue(event));
+    }
+}
@@ -0,0 +1,196 @@
+package imt.nord.europe.architecture.tp.infrastructure.imports;
+
+import imt.nord.europe.architecture.tp.common.exceptions.ValidationException;
+import imt.nord.europe.architecture.tp.common.imports.ImportReport;
+import imt.nord.europe.architecture.tp.infrastructure.config.ImportProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour BulkImporter.
+ * Vérifie le découpage en lots, le rejet des lignes invalides et des doublons, et le rapport d'import.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BulkImporter")
+class BulkImporterTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ImportProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private FakeTarget target;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ImportProperties();
+        properties.setChunkSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        target = new FakeTarget();
+    }
+
+    @Test
+    @DisplayName("Les lignes sont chargées par lots, chacun dans sa transaction")
+    void testRun_Chunks() {
+        ImportReport report = importer().run(rows("A", "B", "C", "D", "E").iterator(), target);
+
+        assertEquals(new ImportReport(5, 5, 0, List.of()), report);
+        assertEquals(List.of(List.of("A", "B"), List.of("C", "D"), List.of("E")), target.loads);
+        verify(transactionManager, times(3)).commit(any());
+        assertEquals(5.0, meterRegistry.get("tp.import.rows").tag("import", "fake").tag("result", "imported")
+            .counter().count());
+    }
+
+    @Test
+    @DisplayName("Les lignes invalides ou illisibles sont rejetées avec leur numéro, les autres importées")
+    void testRun_InvalidRows() {
+        List<ImportRow> rows = new ArrayList<>(rows("A", "", "C"));
+        rows.add(ImportRow.malformed(5, "JSON invalide"));
+
+        ImportReport report = importer().run(rows.iterator(), target);
+
+        assertEquals(4, report.total());
+        assertEquals(2, report.imported());
+        assertEquals(List.of(
+            new ImportReport.RowError(3, "La clé ne peut pas être vide"),
+            new ImportReport.RowError(5, "JSON invalide")), report.errors());
+        assertEquals(List.of(List.of("A"), List.of("C")), target.loads);
+    }
+
+    @Test
+    @DisplayName("Un doublon d'une ligne précédente du fichier est rejeté, même dans un autre lot")
+    void testRun_InFileDuplicate() {
+        ImportReport report = importer().run(rows("A", "B", "A").iterator(), target);
+
+        assertEquals(2, report.imported());
+        assertEquals(List.of(new ImportReport.RowError(4, "Doublon d'une ligne précédente du fichier")), report.errors());
+        assertEquals(List.of(List.of("A", "B")), target.loads);
+    }
+
+    @Test
+    @DisplayName("Une ligne en conflit avec la base n'est pas insérée et est rejetée")
+    void testRun_ExistingInDatabase() {
+        target.existing.add("B");
+
+        ImportReport report = importer().run(rows("A", "B").iterator(), target);
+
+        assertEquals(1, report.imported());
+        assertEquals(List.of(new ImportReport.RowError(3, "B existe déjà")), report.errors());
+    }
+
+    @Test
+    @DisplayName("L'échec du chargement d'un lot rejette ses lignes sans interrompre l'import")
+    void testRun_ChunkFailure() {
+        target.failingKey = "C";
+
+        ImportReport report = importer().run(rows("A", "B", "C", "D", "E").iterator(), target);
+
+        assertEquals(3, report.imported());
+        assertEquals(2, report.failed());
+        assertEquals(List.of(4L, 5L), report.errors().stream().map(ImportReport.RowError::line).toList());
+        assertTrue(report.errors().getFirst().message().startsWith("Échec du chargement du lot"));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Toutes les erreurs sont comptées, seules les premières sont détaillées")
+    void testRun_MaxReportedErrors() {
+        properties.setMaxReportedErrors(2);
+
+        ImportReport report = importer().run(rows("", "", "", "A").iterator(), target);
+
+        assertEquals(3, report.failed());
+        assertEquals(2, report.errors().size());
+        assertEquals(1, report.imported());
+    }
+
+    @Test
+    @DisplayName("Les lignes d'un grand lot sont validées en parallèle et rapportées dans l'ordre du fichier")
+    void testRun_ParallelValidationKeepsOrder() {
+        properties.setChunkSize(1000);
+        List<String> keys = IntStream.range(0, 1000).mapToObj(i -> i % 10 == 0 ? "" : "K" + i).toList();
+
+        ImportReport report = importer().run(rows(keys.toArray(String[]::new)).iterator(), target);
+
+        assertEquals(900, report.imported());
+        List<Long> lines = report.errors().stream().map(ImportReport.RowError::line).toList();
+        assertEquals(IntStream.range(0, 100).mapToObj(i -> 10L * i + 2).toList(), lines);
+        assertEquals(keys.stream().filter(key -> !key.isEmpty()).toList(), target.loads.getFirst());
+    }
+
+    private BulkImporter importer() {
+        return new BulkImporter(new TransactionTemplate(transactionManager), properties, meterRegistry);
+    }
+
+    /**
+     * Lignes d'un fichier CSV à une colonne « key », numérotées à partir de 2 (après l'en-tête).
+     */
+    private static List<ImportRow> rows(String... keys) {
+        return IntStream.range(0, keys.length)
+            .mapToObj(i -> ImportRow.of(i + 2, Map.of("key", keys[i])))
+            .toList();
+    }
+
+    /**
+     * Import de clés : une clé vide est invalide, les clés existantes ne sont pas insérées.
+     */
+    private static final class FakeTarget implements ImportTarget<String> {
+
+        private final List<List<String>> loads = new ArrayList<>();
+        private final Set<String> existing = new HashSet<>();
+        private String failingKey;
+
+        @Override
+        public String name() {
+            return "fake";
+        }
+
+        @Override
+        public String parse(ImportRow row) {
+            String key = row.text("key", 10);
+            if (key == null) {
+                throw new ValidationException("La clé ne peut pas être vide");
+            }
+            return key;
+        }
+
+        @Override
+        public List<String> uniqueKeys(String item) {
+            return List.of(item);
+        }
+
+        @Override
+        public Set<String> load(List<String> items) {
+            if (items.contains(failingKey)) {
+                throw new DataIntegrityViolationException("valeur trop longue");
+            }
+            loads.add(items);
+            Set<String> inserted = new HashSet<>(items);
+            inserted.removeAll(existing);
+            return inserted;
+        }
+
+        @Override
+        public String duplicateMessage(String item) {
+            return item + " existe déjà";
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package imt.nord.europe.architecture.tp.infrastructure.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import imt.nord.europe.architecture.tp.common.imports.ImportFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour ImportReader.
+ * Vérifie la lecture des fichiers CSV et NDJSON, la numérotation des lignes et les lignes illisibles.
+ */
+@DisplayName("ImportReader")
+class ImportReaderTest {
+
+    private final ImportReader importReader = new ImportReader(new ObjectMapper());
+
+    // ==================== CSV ====================
+
+    @Test
+    @DisplayName("Les valeurs CSV sont associées aux colonnes de l'en-tête, lignes numérotées depuis l'en-tête")
+    void testCsv_FieldsByHeader() {
+        List<ImportRow> rows = read(ImportFormat.CSV,
+            "registrationPlate,brand\r\nAB-123-CD,Peugeot\r\nEF-456-GH,Renault\r\n");
+
+        assertEquals(2, rows.size());
+        assertEquals(2, rows.get(0).line());
+        assertEquals("AB-123-CD", rows.get(0).fields().get("registrationPlate"));
+        assertEquals("Renault", rows.get(1).fields().get("brand"));
+        assertEquals(3, rows.get(1).line());
+    }
+
+    @Test
+    @DisplayName("Une valeur entre guillemets peut contenir virgules, guillemets doublés et sauts de ligne")
+    void testCsv_QuotedValues() {
+        List<ImportRow> rows = read(ImportFormat.CSV,
+            "address,email\n\"1, rue \"\"Haute\"\"\nBât. B\",jean@test.com\n\"\",x@test.com");
+
+        assertEquals("1, rue \"Haute\"\nBât. B", rows.get(0).fields().get("address"));
+        assertEquals("jean@test.com", rows.get(0).fields().get("email"));
+        assertEquals("", rows.get(1).fields().get("address"));
+        assertEquals(4, rows.get(1).line());
+    }
+
+    @Test
+    @DisplayName("Les lignes vides sont ignorées mais comptées, le BOM de l'en-tête est retiré")
+    void testCsv_BlankLinesAndBom() {
+        List<ImportRow> rows = read(ImportFormat.CSV, "\uFEFFbrand\n\nPeugeot\n\n");
+
+        assertEquals(1, rows.size());
+        assertEquals(3, rows.getFirst().line());
+        assertEquals("Peugeot", rows.getFirst().fields().get("brand"));
+    }
+
+    @Test
+    @DisplayName("Une ligne au nombre de colonnes incorrect est rejetée sans interrompre la lecture")
+    void testCsv_WrongColumnCount() {
+        List<ImportRow> rows = read(ImportFormat.CSV, "brand,model\nPeugeot\nRenault,Clio\n");
+
+        assertEquals(2, rows.size());
+        assertNotNull(rows.get(0).error());
+        assertEquals(2, rows.get(0).line());
+        assertNull(rows.get(1).error());
+        assertEquals("Clio", rows.get(1).fields().get("model"));
+    }
+
+    @Test
+    @DisplayName("Un fichier CSV vide ne contient aucune ligne")
+    void testCsv_Empty() {
+        assertTrue(read(ImportFormat.CSV, "").isEmpty());
+        assertTrue(read(ImportFormat.CSV, "brand,model\n").isEmpty());
+    }
+
+    // ==================== NDJSON ====================
+
+    @Test
+    @DisplayName("Chaque ligne NDJSON est un objet dont les champs sont lus en texte")
+    void testNdjson_Fields() {
+        List<ImportRow> rows = read(ImportFormat.NDJSON,
+            "{\"brand\":\"Peugeot\",\"year\":2024,\"color\":null}\n\n{\"brand\":\"Renault\"}\n");
+
+        assertEquals(2, rows.size());
+        assertEquals("Peugeot", rows.get(0).fields().get("brand"));
+        assertEquals("2024", rows.get(0).fields().get("year"));
+        assertNull(rows.get(0).fields().get("color"));
+        assertEquals(3, rows.get(1).line());
+    }
+
+    @Test
+    @DisplayName("Une ligne NDJSON invalide ou qui n'est pas un objet est rejetée")
+    void testNdjson_Malformed() {
+        List<ImportRow> rows = read(ImportFormat.NDJSON, "{\"brand\":\n[1,2]\n{\"brand\":\"Renault\"}");
+
+        assertTrue(rows.get(0).error().startsWith("JSON invalide"));
+        assertEquals("La ligne doit être un objet JSON", rows.get(1).error());
+        assertNull(rows.get(2).error());
+    }
+
+    private List<ImportRow> read(ImportFormat format, String content) {
+        List<ImportRow> rows = new ArrayList<>();
+        importReader.read(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), null, format)
+            .forEachRemaining(rows::add);
+        return rows;
+    }
+}
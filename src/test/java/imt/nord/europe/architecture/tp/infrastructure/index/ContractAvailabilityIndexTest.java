@@ -0,0 +1,214 @@
+package imt.nord.europe.architecture.tp.infrastructure.index;
+
+import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
+import imt.nord.europe.architecture.tp.infrastructure.config.ContractProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractWindow;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour ContractAvailabilityIndex.
+ * Vérifie la détection des chevauchements, la mise à jour de l'index et sa reconstruction.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ContractAvailabilityIndex")
+class ContractAvailabilityIndexTest {
+
+    @Mock
+    private ContractRepository contractRepository;
+
+    private ContractAvailabilityIndex index;
+
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        index = new ContractAvailabilityIndex(contractRepository, properties(true));
+        base = LocalDateTime.of(2030, 1, 1, 10, 0);
+        lenient().when(contractRepository.existsOverlapConstraint()).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("L'index n'est pas fiable tant qu'il n'est pas construit")
+    void testNotReliableBeforeRebuild() {
+        assertFalse(index.isReliable(1L));
+        assertFalse(index.isOverlapConstraintEnforced());
+    }
+
+    @Test
+    @DisplayName("Détecte un chevauchement avec une réservation existante")
+    void testHasConflict_Overlap() {
+        when(contractRepository.findActiveContractWindows()).thenReturn(List.of(
+            new ContractWindow(1L, 1L, base, base.plusDays(3)),
+            new ContractWindow(2L, 1L, base.plusDays(10), base.plusDays(12))
+        ));
+        index.rebuild();
+
+        assertTrue(index.isReliable(1L));
+        assertTrue(index.isOverlapConstraintEnforced());
+        assertTrue(index.hasConflict(1L, base.plusDays(2), base.plusDays(4), null));
+        assertTrue(index.hasConflict(1L, base.plusDays(9), base.plusDays(11), null));
+        assertTrue(index.hasConflict(1L, base.minusDays(1), base.plusDays(20), null));
+    }
+
+    @Test
+    @DisplayName("Aucun conflit entre deux réservations ou bord à bord")
+    void testHasConflict_NoOverlap() {
+        when(contractRepository.findActiveContractWindows()).thenReturn(List.of(
+            new ContractWindow(1L, 1L, base, base.plusDays(3)),
+            new ContractWindow(2L, 1L, base.plusDays(10), base.plusDays(12))
+        ));
+        index.rebuild();
+
+        assertFalse(index.hasConflict(1L, base.plusDays(3), base.plusDays(10), null));
+        assertFalse(index.hasConflict(1L, base.plusDays(12), base.plusDays(15), null));
+        assertFalse(index.hasConflict(2L, base, base.plusDays(3), null));
+    }
+
+    @Test
+    @DisplayName("Ignore le contrat exclu lors d'une modification")
+    void testHasConflict_ExcludedContract() {
+        when(contractRepository.findActiveContractWindows()).thenReturn(List.of(
+            new ContractWindow(1L, 1L, base, base.plusDays(3)),
+            new ContractWindow(2L, 1L, base.plusDays(10), base.plusDays(12))
+        ));
+        index.rebuild();
+
+        assertFalse(index.hasConflict(1L, base.plusDays(10), base.plusDays(11), 2L));
+        assertTrue(index.hasConflict(1L, base.plusDays(2), base.plusDays(11), 2L));
+    }
+
+    @Test
+    @DisplayName("Un véhicule avec des fenêtres incohérentes repasse par la base")
+    void testRebuild_OverlappingDataMarksVehicleUnreliable() {
+        when(contractRepository.findActiveContractWindows()).thenReturn(List.of(
+            new ContractWindow(1L, 1L, base, base.plusDays(5)),
+            new ContractWindow(2L, 1L, base.plusDays(2), base.plusDays(8))
+        ));
+        index.rebuild();
+
+        assertFalse(index.isReliable(1L));
+        assertTrue(index.isReliable(2L));
+    }
+
+    @Test
+    @DisplayName("Sans contrainte d'exclusion en base, l'index activé répond seul")
+    void testRebuild_WithoutOverlapConstraint() {
+        when(contractRepository.findActiveContractWindows()).thenReturn(List.of());
+        when(contractRepository.existsOverlapConstraint()).thenReturn(false);
+        index.rebuild();
+
+        assertTrue(index.isReliable(1L));
+        assertFalse(index.isOverlapConstraintEnforced());
+    }
+
+    @Test
+    @DisplayName("Désactivé, l'index ne charge rien mais suit la présence de la contrainte")
+    void testRebuild_Disabled() {
+        index = new ContractAvailabilityIndex(contractRepository, properties(false));
+
+        index.rebuild();
+        index.untrack(1L);
+
+        assertFalse(index.isReliable(1L));
+        assertTrue(index.isOverlapConstraintEnforced());
+        verify(contractRepository, never()).findActiveContractWindows();
+    }
+
+    @Test
+    @DisplayName("La reconstruction rétablit les véhicules en repli et vérifie de nouveau la contrainte")
+    void testRefresh_RestoresUnreliableVehicles() {
+        when(contractRepository.findActiveContractWindows())
+            .thenReturn(List.of(
+                new ContractWindow(1L, 1L, base, base.plusDays(5)),
+                new ContractWindow(2L, 1L, base.plusDays(2), base.plusDays(8))))
+            .thenReturn(List.of(new ContractWindow(1L, 1L, base, base.plusDays(5))));
+        when(contractRepository.existsOverlapConstraint()).thenReturn(true, false);
+        index.rebuild();
+        assertFalse(index.isReliable(1L));
+
+        index.refresh();
+
+        assertTrue(index.isReliable(1L));
+        assertFalse(index.isOverlapConstraintEnforced());
+        assertTrue(index.hasConflict(1L, base.plusDays(1), base.plusDays(2), null));
+        assertFalse(index.hasConflict(1L, base.plusDays(6), base.plusDays(8), null));
+    }
+
+    @Test
+    @DisplayName("Une écriture validée pendant la reconstruction prévaut sur la fenêtre lue en base")
+    void testRebuild_WriteDuringRebuildWins() {
+        when(contractRepository.findActiveContractWindows()).thenAnswer(invocation -> {
+            index.untrack(1L);
+            return List.of(new ContractWindow(1L, 1L, base, base.plusDays(3)));
+        });
+        index.rebuild();
+
+        assertTrue(index.isReliable(1L));
+        assertFalse(index.hasConflict(1L, base, base.plusDays(3), null));
+    }
+
+    @Test
+    @DisplayName("Une erreur de reconstruction planifiée est journalisée sans interrompre la planification")
+    void testRefresh_ErrorIsLogged() {
+        when(contractRepository.findActiveContractWindows()).thenThrow(new RuntimeException("base indisponible"));
+
+        assertDoesNotThrow(index::refresh);
+        assertFalse(index.isReliable(1L));
+    }
+
+    @Test
+    @DisplayName("Le suivi des écritures ajoute puis retire les contrats selon leur statut")
+    void testTrack_UpdatesIndex() {
+        when(contractRepository.findActiveContractWindows()).thenReturn(List.of());
+        index.rebuild();
+
+        VehicleEntity vehicle = VehicleEntity.builder().id(1L).build();
+        ContractEntity contract = ContractEntity.builder()
+            .id(1L)
+            .vehicle(vehicle)
+            .startDate(base)
+            .endDate(base.plusDays(3))
+            .status(ContractStatus.PENDING)
+            .build();
+
+        index.track(contract);
+        assertTrue(index.hasConflict(1L, base.plusDays(1), base.plusDays(2), null));
+
+        contract.setStatus(ContractStatus.CANCELLED);
+        index.track(contract);
+        assertFalse(index.hasConflict(1L, base.plusDays(1), base.plusDays(2), null));
+    }
+
+    @Test
+    @DisplayName("La suppression d'un contrat libère sa période")
+    void testUntrack_RemovesWindow() {
+        when(contractRepository.findActiveContractWindows()).thenReturn(List.of(
+            new ContractWindow(1L, 1L, base, base.plusDays(3))
+        ));
+        index.rebuild();
+
+        index.untrack(1L);
+
+        assertFalse(index.hasConflict(1L, base, base.plusDays(3), null));
+    }
+
+    private static ContractProperties properties(boolean enabled) {
+        ContractProperties properties = new ContractProperties();
+        properties.getAvailabilityIndex().setEnabled(enabled);
+        return properties;
+    }
+}
@@ -0,0 +1,178 @@
+package imt.nord.europe.architecture.tp.infrastructure.index;
+
+import imt.nord.europe.architecture.tp.infrastructure.config.UniquenessFilterProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ClientUniqueKeys;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.ClientRepository;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.VehicleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour UniqueKeyFilters (et BloomFilter).
+ * Vérifie le chargement des filtres, l'ajout des clés écrites, le repli sur la base (filtres non chargés
+ * ou contrainte d'unicité de l'identité absente) et les métriques.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UniqueKeyFilters")
+class UniqueKeyFiltersTest {
+
+    private static final LocalDate BIRTH_DATE = LocalDate.of(1990, 1, 1);
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UniquenessFilterProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private UniqueKeyFilters filters;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UniquenessFilterProperties();
+        properties.setMinCapacity(1_000);
+        meterRegistry = new SimpleMeterRegistry();
+        filters = newFilters();
+    }
+
+    @Test
+    @DisplayName("Tant que les filtres ne sont pas construits, toutes les clés sont vérifiées en base")
+    void testNotLoaded_AllKeysQueried() {
+        assertTrue(filters.mightContainLicenseNumber("LIC-1"));
+        assertTrue(filters.mightContainIdentity("Jean", "Dupont", BIRTH_DATE));
+        assertTrue(filters.mightContainRegistrationPlate("AB-123-CD"));
+    }
+
+    @Test
+    @DisplayName("Après construction, seules les clés existantes sont signalées présentes")
+    void testRebuild_LoadsExistingKeys() {
+        rebuildWith(Stream.of(new ClientUniqueKeys("LIC-1", "Jean", "Dupont", BIRTH_DATE)), Stream.of("AB-123-CD"));
+
+        assertTrue(filters.mightContainLicenseNumber("LIC-1"));
+        assertTrue(filters.mightContainIdentity("Jean", "Dupont", BIRTH_DATE));
+        assertTrue(filters.mightContainRegistrationPlate("AB-123-CD"));
+        assertFalse(filters.mightContainLicenseNumber("LIC-2"));
+        assertFalse(filters.mightContainIdentity("Jean", "Dupont", BIRTH_DATE.plusDays(1)));
+        assertFalse(filters.mightContainRegistrationPlate("EF-456-GH"));
+    }
+
+    @Test
+    @DisplayName("Sans la contrainte d'unicité de l'identité, les identités sont toujours vérifiées en base")
+    void testRebuild_WithoutIdentityConstraint() {
+        when(clientRepository.existsIdentityConstraint()).thenReturn(false);
+        when(clientRepository.streamAllUniqueKeys()).thenReturn(Stream.empty());
+        when(vehicleRepository.streamAllRegistrationPlates()).thenReturn(Stream.empty());
+
+        filters.rebuild();
+
+        assertTrue(filters.mightContainIdentity("Jean", "Dupont", BIRTH_DATE));
+        assertFalse(filters.mightContainLicenseNumber("LIC-1"));
+        assertEquals(1.0, meterRegistry.get("tp.uniqueness.filter.checks")
+            .tag("key", UniqueKeyFilters.IDENTITY).tag("result", "queried").counter().count());
+    }
+
+    @Test
+    @DisplayName("Les clés écrites après la construction sont ajoutées aux filtres")
+    void testRecord_AddsKeys() {
+        rebuildWith(Stream.empty(), Stream.empty());
+
+        filters.recordClient("LIC-2", "Marie", "Curie", BIRTH_DATE);
+        filters.recordRegistrationPlate("EF-456-GH");
+
+        assertTrue(filters.mightContainLicenseNumber("LIC-2"));
+        assertTrue(filters.mightContainIdentity("Marie", "Curie", BIRTH_DATE));
+        assertTrue(filters.mightContainRegistrationPlate("EF-456-GH"));
+    }
+
+    @Test
+    @DisplayName("Filtres désactivés : aucune construction et toutes les clés vérifiées en base")
+    void testDisabled() {
+        properties.setEnabled(false);
+        filters = newFilters();
+
+        filters.rebuild();
+
+        assertTrue(filters.mightContainLicenseNumber("LIC-1"));
+        verifyNoInteractions(clientRepository, vehicleRepository);
+    }
+
+    @Test
+    @DisplayName("Les vérifications sautées et effectuées sont comptées par clé")
+    void testMetrics() {
+        rebuildWith(Stream.empty(), Stream.of("AB-123-CD"));
+
+        filters.mightContainRegistrationPlate("AB-123-CD");
+        filters.mightContainRegistrationPlate("EF-456-GH");
+        filters.mightContainRegistrationPlate("IJ-789-KL");
+
+        assertEquals(2.0, meterRegistry.get("tp.uniqueness.filter.checks")
+            .tag("key", UniqueKeyFilters.REGISTRATION_PLATE).tag("result", "skipped").counter().count());
+        assertEquals(1.0, meterRegistry.get("tp.uniqueness.filter.checks")
+            .tag("key", UniqueKeyFilters.REGISTRATION_PLATE).tag("result", "queried").counter().count());
+    }
+
+    @Test
+    @DisplayName("Un filtre saturé est reconstruit au passage suivant")
+    void testRefresh_RebuildsWhenSaturated() {
+        rebuildWith(Stream.empty(), Stream.empty());
+        IntStream.rangeClosed(0, 1_000).forEach(i -> filters.recordRegistrationPlate("PL-" + i));
+        when(clientRepository.streamAllUniqueKeys()).thenReturn(Stream.empty());
+        when(vehicleRepository.streamAllRegistrationPlates()).thenReturn(Stream.empty());
+
+        filters.refresh();
+
+        verify(vehicleRepository, times(2)).streamAllRegistrationPlates();
+    }
+
+    @Test
+    @DisplayName("Un filtre récent et non saturé n'est pas reconstruit")
+    void testRefresh_KeepsFreshFilters() {
+        rebuildWith(Stream.empty(), Stream.empty());
+
+        filters.refresh();
+
+        verify(vehicleRepository, times(1)).streamAllRegistrationPlates();
+    }
+
+    @Test
+    @DisplayName("Filtre de Bloom : aucun faux négatif et un taux de faux positifs proche de la cible")
+    void testBloomFilter_FalsePositiveRate() {
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> bloomFilter.put("LIC-" + i));
+
+        assertTrue(IntStream.range(0, 10_000).allMatch(i -> bloomFilter.mightContain("LIC-" + i)));
+        long falsePositives = IntStream.range(0, 10_000).filter(i -> bloomFilter.mightContain("OTHER-" + i)).count();
+        assertTrue(falsePositives < 200, "Faux positifs : " + falsePositives);
+        assertFalse(bloomFilter.isSaturated());
+    }
+
+    private UniqueKeyFilters newFilters() {
+        return new UniqueKeyFilters(clientRepository, vehicleRepository,
+            new TransactionTemplate(transactionManager), properties, meterRegistry);
+    }
+
+    private void rebuildWith(Stream<ClientUniqueKeys> clients, Stream<String> plates) {
+        when(clientRepository.existsIdentityConstraint()).thenReturn(true);
+        when(clientRepository.streamAllUniqueKeys()).thenReturn(clients);
+        when(vehicleRepository.streamAllRegistrationPlates()).thenReturn(plates);
+        filters.rebuild();
+    }
+}
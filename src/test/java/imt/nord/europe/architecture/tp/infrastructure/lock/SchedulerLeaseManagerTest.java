@@ -0,0 +1,106 @@
+package imt.nord.europe.architecture.tp.infrastructure.lock;
+
+import imt.nord.europe.architecture.tp.infrastructure.config.ContractProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour SchedulerLeaseManager.
+ * Vérifie l'acquisition, le renouvellement et la perte des baux.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SchedulerLeaseManager")
+class SchedulerLeaseManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ContractProperties contractProperties;
+    private SchedulerLeaseManager leaseManager;
+
+    @BeforeEach
+    void setUp() {
+        contractProperties = new ContractProperties();
+        leaseManager = new SchedulerLeaseManager(jdbcTemplate, contractProperties);
+    }
+
+    @Test
+    @DisplayName("Refuse un heartbeat plus long que la durée du bail")
+    void testConstructor_InvalidHeartbeat() {
+        contractProperties.getCluster().setHeartbeatInterval(Duration.ofMinutes(1));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> new SchedulerLeaseManager(jdbcTemplate, contractProperties));
+    }
+
+    @Test
+    @DisplayName("Un bail obtenu est confirmé localement sans nouvelle requête")
+    void testTryAcquire_HeldLeaseIsCached() {
+        when(jdbcTemplate.update(anyString(), eq("job"), eq(leaseManager.getOwnerId()), anyDouble())).thenReturn(1);
+
+        assertTrue(leaseManager.tryAcquire("job"));
+        assertTrue(leaseManager.tryAcquire("job"));
+
+        verify(jdbcTemplate, times(1)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Un bail détenu par un autre nœud n'est pas redemandé avant l'intervalle de heartbeat")
+    void testTryAcquire_FailureIsThrottled() {
+        when(jdbcTemplate.update(anyString(), eq("job"), eq(leaseManager.getOwnerId()), anyDouble())).thenReturn(0);
+
+        assertFalse(leaseManager.tryAcquire("job"));
+        assertFalse(leaseManager.tryAcquire("job"));
+
+        verify(jdbcTemplate, times(1)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Une erreur de base n'accorde pas le bail")
+    void testTryAcquire_DatabaseError() {
+        when(jdbcTemplate.update(anyString(), eq("job"), eq(leaseManager.getOwnerId()), anyDouble()))
+            .thenThrow(new QueryTimeoutException("timeout"));
+
+        assertFalse(leaseManager.tryAcquire("job"));
+    }
+
+    @Test
+    @DisplayName("Le heartbeat renouvelle les baux détenus et abandonne ceux repris par un autre nœud")
+    void testHeartbeat_RenewsAndDropsLostLeases() {
+        when(jdbcTemplate.update(startsWith("INSERT"), anyString(), anyString(), anyDouble())).thenReturn(1);
+        assertTrue(leaseManager.tryAcquire("kept"));
+        assertTrue(leaseManager.tryAcquire("lost"));
+
+        when(jdbcTemplate.update(startsWith("UPDATE"), anyDouble(), eq("kept"), anyString())).thenReturn(1);
+        when(jdbcTemplate.update(startsWith("UPDATE"), anyDouble(), eq("lost"), anyString())).thenReturn(0);
+        leaseManager.heartbeat();
+
+        when(jdbcTemplate.update(startsWith("INSERT"), eq("lost"), anyString(), anyDouble())).thenReturn(0);
+        assertTrue(leaseManager.tryAcquire("kept"));
+        assertFalse(leaseManager.tryAcquire("lost"));
+    }
+
+    @Test
+    @DisplayName("Un bail relâché n'est plus renouvelé")
+    void testRelease_StopsRenewal() {
+        when(jdbcTemplate.update(startsWith("INSERT"), anyString(), anyString(), anyDouble())).thenReturn(1);
+        assertTrue(leaseManager.tryAcquire("job"));
+
+        leaseManager.release("job");
+        leaseManager.heartbeat();
+
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE"), any(Object[].class));
+    }
+}
@@ -0,0 +1,149 @@
+package imt.nord.europe.architecture.tp.infrastructure.lock;
+
+import imt.nord.europe.architecture.tp.infrastructure.config.ContractProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour VehicleLockManager.
+ * Vérifie la sérialisation par véhicule, le parallélisme entre véhicules et les métriques de contention.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VehicleLockManager")
+class VehicleLockManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ContractProperties contractProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private VehicleLockManager lockManager;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        contractProperties = new ContractProperties();
+        contractProperties.getLocking().setStripes(16);
+        meterRegistry = new SimpleMeterRegistry();
+        lockManager = new VehicleLockManager(contractProperties, meterRegistry, jdbcTemplate);
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Refuse de verrouiller hors transaction")
+    void testLockVehicles_RequiresTransaction() {
+        assertThrows(IllegalStateException.class, () -> lockManager.lockVehicles(1L));
+    }
+
+    @Test
+    @DisplayName("Deux réservations sur le même véhicule sont sérialisées")
+    void testLockVehicles_SameVehicleIsSerialized() throws Exception {
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        executor.submit(() -> inTransaction(() -> {
+            lockManager.lockVehicles(1L);
+            firstLocked.countDown();
+            await(releaseFirst);
+        }));
+        assertTrue(firstLocked.await(5, TimeUnit.SECONDS));
+
+        Future<?> second = executor.submit(() -> inTransaction(() -> lockManager.lockVehicles(1L)));
+        assertThrows(TimeoutException.class, () -> second.get(200, TimeUnit.MILLISECONDS));
+
+        releaseFirst.countDown();
+        second.get(5, TimeUnit.SECONDS);
+
+        int stripe = lockManager.stripeIndex(1L);
+        assertEquals(1.0, meterRegistry.get("tp.contracts.vehicle.lock.contended")
+            .tag("stripe", String.valueOf(stripe)).counter().count());
+    }
+
+    @Test
+    @DisplayName("Deux réservations sur des véhicules différents avancent en parallèle")
+    void testLockVehicles_DifferentVehiclesRunInParallel() throws Exception {
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        executor.submit(() -> inTransaction(() -> {
+            lockManager.lockVehicles(1L);
+            firstLocked.countDown();
+            await(releaseFirst);
+        }));
+        assertTrue(firstLocked.await(5, TimeUnit.SECONDS));
+
+        Future<?> second = executor.submit(() -> inTransaction(() -> lockManager.lockVehicles(2L)));
+        second.get(5, TimeUnit.SECONDS);
+
+        releaseFirst.countDown();
+        assertEquals(0.0, meterRegistry.find("tp.contracts.vehicle.lock.contended").counters()
+            .stream().mapToDouble(c -> c.count()).sum());
+    }
+
+    @Test
+    @DisplayName("Prend un verrou consultatif PostgreSQL si l'option est activée")
+    void testLockVehicles_AdvisoryLock() {
+        contractProperties.getLocking().setAdvisoryLocks(true);
+        lockManager = new VehicleLockManager(contractProperties, new SimpleMeterRegistry(), jdbcTemplate);
+
+        inTransaction(() -> lockManager.lockVehicles(42L));
+
+        verify(jdbcTemplate).execute("SELECT pg_advisory_xact_lock(" + VehicleLockManager.ADVISORY_LOCK_NAMESPACE + ", 42)");
+    }
+
+    @Test
+    @DisplayName("Sans l'option, aucun verrou consultatif n'est pris")
+    void testLockVehicles_NoAdvisoryLockByDefault() {
+        inTransaction(() -> lockManager.lockVehicles(42L));
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    /**
+     * Simule une transaction : les synchronisations sont déclenchées à la fin du bloc.
+     */
+    private void inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+        } finally {
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
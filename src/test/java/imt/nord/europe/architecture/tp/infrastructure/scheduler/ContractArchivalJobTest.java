@@ -0,0 +1,105 @@
+package imt.nord.europe.architecture.tp.infrastructure.scheduler;
+
+import imt.nord.europe.architecture.tp.infrastructure.config.ContractProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractArchiveRepository;
+import imt.nord.europe.architecture.tp.infrastructure.lock.SchedulerLeaseManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour ContractArchivalJob.
+ * Vérifie l'horizon d'archivage, le découpage en lots et la coordination par bail.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ContractArchivalJob")
+class ContractArchivalJobTest {
+
+    @Mock
+    private ContractArchiveRepository contractArchiveRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private SchedulerLeaseManager leaseManager;
+
+    private ContractProperties contractProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private ContractArchivalJob job;
+
+    @BeforeEach
+    void setUp() {
+        contractProperties = new ContractProperties();
+        contractProperties.getArchive().setChunkSize(2);
+        contractProperties.getArchive().setHorizon(Duration.ofDays(30));
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(leaseManager.tryAcquire(ContractArchivalJob.JOB_NAME)).thenReturn(true);
+
+        job = new ContractArchivalJob(contractArchiveRepository, new TransactionTemplate(transactionManager),
+            contractProperties, leaseManager, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Les contrats terminés avant l'horizon sont archivés par lots, jusqu'à un lot incomplet")
+    void testArchive_Chunks() {
+        LocalDateTime now = LocalDateTime.of(2025, 6, 30, 0, 30);
+        when(contractArchiveRepository.archiveTerminalContracts(now.minusDays(30), now, 2))
+            .thenReturn(List.of(1L, 2L))
+            .thenReturn(List.of(3L));
+
+        assertEquals(3, job.archive(now));
+
+        verify(contractArchiveRepository, times(2)).archiveTerminalContracts(now.minusDays(30), now, 2);
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(3.0, meterRegistry.get("tp.contracts.archived").counter().count());
+    }
+
+    @Test
+    @DisplayName("Sans le bail, un autre nœud archive : aucune requête")
+    void testArchiveContracts_LeaseHeldElsewhere() {
+        when(leaseManager.tryAcquire(ContractArchivalJob.JOB_NAME)).thenReturn(false);
+
+        job.archiveContracts();
+
+        verifyNoInteractions(contractArchiveRepository);
+        verify(leaseManager, never()).release(any());
+    }
+
+    @Test
+    @DisplayName("Un bail perdu en cours d'archivage interrompt la tâche, puis le bail est libéré")
+    void testArchiveContracts_LeaseLost() {
+        when(leaseManager.tryAcquire(ContractArchivalJob.JOB_NAME)).thenReturn(true, true, false);
+        when(contractArchiveRepository.archiveTerminalContracts(any(), any(), anyInt())).thenReturn(List.of(1L, 2L));
+
+        job.archiveContracts();
+
+        verify(contractArchiveRepository, times(1)).archiveTerminalContracts(any(), any(), anyInt());
+        verify(leaseManager).release(ContractArchivalJob.JOB_NAME);
+    }
+
+    @Test
+    @DisplayName("Archivage désactivé : la tâche ne fait rien")
+    void testArchiveContracts_Disabled() {
+        contractProperties.getArchive().setEnabled(false);
+
+        job.archiveContracts();
+
+        verifyNoInteractions(contractArchiveRepository, leaseManager);
+    }
+}
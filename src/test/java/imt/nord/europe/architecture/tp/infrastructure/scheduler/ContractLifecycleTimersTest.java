@@ -0,0 +1,228 @@
+package imt.nord.europe.architecture.tp.infrastructure.scheduler;
+
+import imt.nord.europe.architecture.tp.business.contract.services.ContractService;
+import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
+import imt.nord.europe.architecture.tp.infrastructure.config.ContractProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.projection.ContractDeadline;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractRepository;
+import imt.nord.europe.architecture.tp.infrastructure.lock.SchedulerLeaseManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour ContractLifecycleTimers.
+ * Vérifie le déclenchement des échéances, leur reprise après un échec et l'avancée de la fenêtre chargée.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ContractLifecycleTimers")
+class ContractLifecycleTimersTest {
+
+    @Mock
+    private ContractRepository contractRepository;
+
+    @Mock
+    private ContractService contractService;
+
+    @Mock
+    private SchedulerLeaseManager leaseManager;
+
+    private ContractDeadlineQueue deadlineQueue;
+    private ContractLifecycleTimers timers;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        ContractProperties properties = new ContractProperties();
+        deadlineQueue = new ContractDeadlineQueue(properties, new SimpleMeterRegistry());
+        timers = new ContractLifecycleTimers(
+            contractRepository,
+            contractService,
+            deadlineQueue,
+            leaseManager,
+            properties
+        );
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    @DisplayName("Passe en retard les contrats dont la date de fin est dépassée, et seulement eux")
+    void testFireDue_MarksEndedContractsOverdue() {
+        when(contractRepository.findOngoingContractEndDeadlines(any())).thenReturn(List.of(
+            new ContractDeadline(1L, now.minusMinutes(5)),
+            new ContractDeadline(2L, now.plusSeconds(2)),
+            new ContractDeadline(3L, now.plusMinutes(30))
+        ));
+        when(contractRepository.findPendingContractStartDeadlines(any())).thenReturn(List.of());
+        timers.load();
+
+        LocalDateTime firstTick = now.plusSeconds(1);
+        when(contractService.markOverdueContracts(List.of(1L), firstTick)).thenReturn(List.of(1L));
+        timers.fireDue(firstTick);
+
+        verify(contractService).markOverdueContracts(List.of(1L), firstTick);
+        assertEquals(2, timers.scheduledCount());
+
+        LocalDateTime secondTick = now.plusSeconds(3);
+        when(contractService.markOverdueContracts(List.of(2L), secondTick)).thenReturn(List.of());
+        timers.fireDue(secondTick);
+
+        // Contrat 2 entre-temps terminé : l'échéance obsolète est consommée sans effet
+        assertEquals(1, timers.scheduledCount());
+        verify(contractService, never()).signalStartDueContracts(any(), any());
+    }
+
+    @Test
+    @DisplayName("Signale les contrats encore en attente à leur date de début")
+    void testFireDue_FlagsPendingContractsAtStart() {
+        when(contractRepository.findOngoingContractEndDeadlines(any())).thenReturn(List.of());
+        when(contractRepository.findPendingContractStartDeadlines(any())).thenReturn(List.of(
+            new ContractDeadline(4L, now.plusSeconds(1)),
+            new ContractDeadline(5L, now.plusSeconds(1))
+        ));
+        timers.load();
+
+        LocalDateTime tick = now.plusSeconds(2);
+        when(contractService.signalStartDueContracts(List.of(4L, 5L), tick)).thenReturn(List.of(5L));
+        timers.fireDue(tick);
+
+        verify(contractService).signalStartDueContracts(List.of(4L, 5L), tick);
+        verify(contractService, never()).markOverdueContracts(any(), any());
+        assertEquals(0, timers.scheduledCount());
+    }
+
+    @Test
+    @DisplayName("Reprend au chargement les contrats en attente déjà échus et pas encore signalés")
+    void testLoad_IncludesPastUnsignalledPendingStarts() {
+        when(contractRepository.findOngoingContractEndDeadlines(any())).thenReturn(List.of());
+        when(contractRepository.findPendingContractStartDeadlines(any())).thenReturn(List.of(
+            new ContractDeadline(6L, now.minusMinutes(10))
+        ));
+        timers.load();
+        assertEquals(1, timers.scheduledCount());
+
+        when(contractService.signalStartDueContracts(List.of(6L), now)).thenReturn(List.of(6L));
+        timers.fireDue(now);
+
+        verify(contractService).signalStartDueContracts(List.of(6L), now);
+        assertEquals(0, timers.scheduledCount());
+    }
+
+    @Test
+    @DisplayName("Une transition en échec remet ses échéances dans la file, sans bloquer les autres")
+    void testFireDue_RequeuesFailedDeadlines() {
+        when(contractRepository.findOngoingContractEndDeadlines(any())).thenReturn(List.of(
+            new ContractDeadline(1L, now.minusMinutes(5))
+        ));
+        when(contractRepository.findPendingContractStartDeadlines(any())).thenReturn(List.of(
+            new ContractDeadline(4L, now.minusMinutes(1))
+        ));
+        timers.load();
+
+        when(contractService.markOverdueContracts(List.of(1L), now)).thenThrow(new RuntimeException("base indisponible"));
+        when(contractService.signalStartDueContracts(List.of(4L), now)).thenReturn(List.of(4L));
+        timers.fireDue(now);
+
+        verify(contractService).signalStartDueContracts(List.of(4L), now);
+        assertEquals(1, timers.scheduledCount());
+
+        LocalDateTime nextTick = now.plusSeconds(1);
+        when(contractService.markOverdueContracts(List.of(1L), nextTick)).thenReturn(List.of(1L));
+        timers.fireDue(nextTick);
+
+        verify(contractService).markOverdueContracts(List.of(1L), nextTick);
+        assertEquals(0, timers.scheduledCount());
+    }
+
+    @Test
+    @DisplayName("Planifie un contrat sauvegardé uniquement si son échéance est dans la fenêtre chargée")
+    void testSchedule_OnlyWithinLoadedWindow() {
+        when(contractRepository.findOngoingContractEndDeadlines(any())).thenReturn(List.of());
+        when(contractRepository.findPendingContractStartDeadlines(any())).thenReturn(List.of());
+        timers.load();
+
+        deadlineQueue.schedule(contract(10L, ContractStatus.ONGOING, now.minusDays(1), now.plusMinutes(10)));
+        deadlineQueue.schedule(contract(11L, ContractStatus.PENDING, now.plusDays(1), now.plusDays(3)));
+        deadlineQueue.schedule(contract(12L, ContractStatus.COMPLETED, now.minusDays(3), now.minusDays(1)));
+
+        assertEquals(1, timers.scheduledCount());
+    }
+
+    @Test
+    @DisplayName("Avance la fenêtre sans recharger les échéances déjà connues")
+    void testExtendWindow_LoadsOnlyNewDeadlines() {
+        when(contractRepository.findOngoingContractEndDeadlines(any())).thenReturn(List.of(
+            new ContractDeadline(1L, now.plusMinutes(30))
+        ));
+        when(contractRepository.findPendingContractStartDeadlines(any())).thenReturn(List.of());
+        timers.load();
+        assertEquals(1, timers.scheduledCount());
+
+        // Moins de la moitié de la fenêtre consommée : rien à charger
+        timers.extendWindow(now.plusMinutes(10));
+        verify(contractRepository, never()).findOngoingContractEndDeadlines(any(), any());
+
+        when(contractRepository.findOngoingContractEndDeadlines(any(), any())).thenReturn(List.of(
+            new ContractDeadline(2L, now.plusHours(3))
+        ));
+        timers.extendWindow(now.plusHours(1).plusMinutes(5));
+
+        // Seule la tranche au-delà de la fenêtre déjà chargée est lue
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(contractRepository).findOngoingContractEndDeadlines(from.capture(), any());
+        verify(contractRepository).findPendingContractStartDeadlines(eq(from.getValue()), any());
+        assertTrue(from.getValue().isAfter(now.plusMinutes(30)));
+        assertEquals(2, timers.scheduledCount());
+    }
+
+    @Test
+    @DisplayName("Ne déclenche rien sur un nœud qui ne détient pas le bail")
+    void testTick_SkipsWithoutLease() {
+        when(leaseManager.tryAcquire(ContractLifecycleTimers.LEASE_NAME)).thenReturn(false);
+
+        timers.tick();
+
+        verifyNoInteractions(contractRepository, contractService);
+        assertEquals(0, timers.scheduledCount());
+    }
+
+    @Test
+    @DisplayName("Charge la fenêtre en prenant le bail puis déclenche les échéances dépassées")
+    void testTick_LoadsWindowWhenLeaseAcquired() {
+        when(leaseManager.tryAcquire(ContractLifecycleTimers.LEASE_NAME)).thenReturn(true);
+        when(contractRepository.findOngoingContractEndDeadlines(any())).thenReturn(List.of(
+            new ContractDeadline(1L, now.minusMinutes(5))
+        ));
+        when(contractRepository.findPendingContractStartDeadlines(any())).thenReturn(List.of());
+        when(contractService.markOverdueContracts(eq(List.of(1L)), any())).thenReturn(List.of(1L));
+
+        timers.tick();
+        timers.tick();
+
+        verify(contractRepository, times(1)).findOngoingContractEndDeadlines(any());
+        verify(contractService, times(1)).markOverdueContracts(eq(List.of(1L)), any());
+    }
+
+    private ContractEntity contract(Long id, ContractStatus status, LocalDateTime startDate, LocalDateTime endDate) {
+        return ContractEntity.builder()
+            .id(id)
+            .status(status)
+            .startDate(startDate)
+            .endDate(endDate)
+            .build();
+    }
+}
@@ -0,0 +1,306 @@
+package imt.nord.europe.architecture.tp.infrastructure.scheduler;
+
+import imt.nord.europe.architecture.tp.business.contract.services.ContractService;
+import imt.nord.europe.architecture.tp.common.enums.ContractStatus;
+import imt.nord.europe.architecture.tp.common.enums.JobRunStatus;
+import imt.nord.europe.architecture.tp.infrastructure.config.ContractProperties;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ClientEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.ContractEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.JobRunEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.entity.VehicleEntity;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.ContractRepository;
+import imt.nord.europe.architecture.tp.infrastructure.db.repository.JobRunRepository;
+import imt.nord.europe.architecture.tp.infrastructure.event.ContractOverdueEvent;
+import imt.nord.europe.architecture.tp.infrastructure.event.SpringEventPublisher;
+import imt.nord.europe.architecture.tp.infrastructure.event.handler.ContractOverdueEventHandler;
+import imt.nord.europe.architecture.tp.infrastructure.lock.SchedulerLeaseManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour ContractOverdueScheduler.
+ * Vérifie le traitement par lots, les points de reprise et la reprise d'une exécution interrompue.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ContractOverdueScheduler")
+class ContractOverdueSchedulerTest {
+
+    @Mock
+    private ContractRepository contractRepository;
+
+    @Mock
+    private ContractService contractService;
+
+    @Mock
+    private SpringEventPublisher eventPublisher;
+
+    @Mock
+    private JobRunRepository jobRunRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private SchedulerLeaseManager leaseManager;
+
+    private ContractProperties contractProperties;
+    private ContractOverdueScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        contractProperties = new ContractProperties();
+        contractProperties.getOverdueJob().setChunkSize(2);
+
+        lenient().when(jobRunRepository.save(any(JobRunEntity.class))).thenAnswer(invocation -> {
+            JobRunEntity run = invocation.getArgument(0);
+            if (run.getId() == null) {
+                run.setId(1L);
+            }
+            return run;
+        });
+        lenient().when(leaseManager.getOwnerId()).thenReturn("node-a");
+        lenient().when(leaseManager.tryAcquire(anyString())).thenReturn(true);
+
+        scheduler = new ContractOverdueScheduler(
+            contractRepository,
+            contractService,
+            eventPublisher,
+            new JobRunTracker(jobRunRepository),
+            new TransactionTemplate(transactionManager),
+            contractProperties,
+            leaseManager
+        );
+    }
+
+    // ==================== TRAITEMENT PAR LOTS ====================
+
+    @Test
+    @DisplayName("Doit traiter les contrats en retard par lots jusqu'à épuisement")
+    void testUpdateOverdueContracts_ProcessesChunks() {
+        when(jobRunRepository.findFirstByJobNameOrderByIdDesc(ContractOverdueScheduler.JOB_NAME))
+            .thenReturn(Optional.empty());
+        when(contractRepository.findOverdueOngoingContractIds(any(LocalDateTime.class), eq(0L), eq(0), eq(1), any(Limit.class)))
+            .thenReturn(List.of(1L, 2L));
+        when(contractRepository.findOverdueOngoingContractIds(any(LocalDateTime.class), eq(2L), eq(0), eq(1), any(Limit.class)))
+            .thenReturn(List.of(5L));
+        when(contractService.markOverdueContracts(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+            .thenReturn(List.of(1L, 2L));
+        when(contractService.markOverdueContracts(eq(List.of(5L)), any(LocalDateTime.class)))
+            .thenReturn(List.of());
+        when(contractRepository.findOverdueContractIdsThatBlockPendingContracts(eq(0L), eq(0), eq(1), any(Limit.class)))
+            .thenReturn(List.of(2L));
+        when(contractService.updateContractsStatus(List.of(2L), ContractStatus.CANCELLED)).thenReturn(List.of(2L));
+
+        scheduler.updateOverdueContracts();
+
+        // Les événements de retard sont enregistrés par le service ; le scheduler publie ceux des annulations
+        verify(eventPublisher, never()).publishContractOverdueEvent(1L);
+        verify(eventPublisher, times(1)).publishContractOverdueEvent(2L);
+        verify(contractService, never()).cancelContract(any());
+        verify(transactionManager, times(3)).commit(any());
+
+        ArgumentCaptor<JobRunEntity> captor = ArgumentCaptor.forClass(JobRunEntity.class);
+        verify(jobRunRepository, atLeastOnce()).save(captor.capture());
+        JobRunEntity run = captor.getValue();
+        assertEquals(JobRunStatus.COMPLETED, run.getStatus());
+        assertEquals(ContractOverdueScheduler.STEP_CANCEL_BLOCKING, run.getCurrentStep());
+        assertEquals(4L, run.getRowsScanned());
+        assertEquals(3L, run.getRowsUpdated());
+        assertNotNull(run.getDurationMs());
+    }
+
+    @Test
+    @DisplayName("Doit annuler le contrat en attente bloqué par un contrat en retard annulé à l'étape 2")
+    void testUpdateOverdueContracts_CancelsBlockedPendingContract() {
+        LocalDateTime now = LocalDateTime.now();
+        ClientEntity client = ClientEntity.builder().id(1L).build();
+        VehicleEntity vehicle = VehicleEntity.builder().id(1L).build();
+        ContractEntity overdue = ContractEntity.builder()
+            .id(2L)
+            .client(client)
+            .vehicle(vehicle)
+            .status(ContractStatus.OVERDUE)
+            .startDate(now.minusDays(10))
+            .endDate(now.minusHours(1))
+            .build();
+        ContractEntity pending = ContractEntity.builder()
+            .id(3L)
+            .client(client)
+            .vehicle(vehicle)
+            .status(ContractStatus.PENDING)
+            .startDate(now.minusHours(2))
+            .endDate(now.plusDays(3))
+            .build();
+
+        // Les événements publiés par le scheduler sont transmis au handler réel
+        ContractOverdueEventHandler handler = new ContractOverdueEventHandler(contractRepository, contractService);
+        doAnswer(invocation -> {
+            handler.onContractOverdue(new ContractOverdueEvent(this, invocation.getArgument(0)));
+            return null;
+        }).when(eventPublisher).publishContractOverdueEvent(any());
+
+        when(jobRunRepository.findFirstByJobNameOrderByIdDesc(ContractOverdueScheduler.JOB_NAME))
+            .thenReturn(Optional.empty());
+        when(contractRepository.findOverdueOngoingContractIds(any(LocalDateTime.class), eq(0L), eq(0), eq(1), any(Limit.class)))
+            .thenReturn(List.of());
+        when(contractRepository.findOverdueContractIdsThatBlockPendingContracts(eq(0L), eq(0), eq(1), any(Limit.class)))
+            .thenReturn(List.of(2L));
+        when(contractService.updateContractsStatus(List.of(2L), ContractStatus.CANCELLED)).thenAnswer(invocation -> {
+            overdue.setStatus(ContractStatus.CANCELLED);
+            return List.of(2L);
+        });
+        when(contractRepository.findById(2L)).thenReturn(Optional.of(overdue));
+        when(contractRepository.findByVehicleIdAndStatus(vehicle.getId(), ContractStatus.PENDING)).thenReturn(List.of(pending));
+        when(contractService.cancelContract(pending.getId())).thenAnswer(invocation -> {
+            pending.setStatus(ContractStatus.CANCELLED);
+            return null;
+        });
+
+        scheduler.updateOverdueContracts();
+
+        assertEquals(ContractStatus.CANCELLED, overdue.getStatus());
+        assertEquals(ContractStatus.CANCELLED, pending.getStatus());
+    }
+
+    @Test
+    @DisplayName("Doit reprendre une exécution interrompue à son étape et son point de reprise")
+    void testUpdateOverdueContracts_ResumesFailedRun() {
+        LocalDateTime referenceTime = LocalDateTime.now().minusHours(3);
+        JobRunEntity failedRun = JobRunEntity.builder()
+            .id(7L)
+            .jobName(ContractOverdueScheduler.JOB_NAME)
+            .status(JobRunStatus.FAILED)
+            .currentStep(ContractOverdueScheduler.STEP_CANCEL_BLOCKING)
+            .referenceTime(referenceTime)
+            .lastProcessedId(40L)
+            .rowsScanned(10L)
+            .rowsUpdated(10L)
+            .startedAt(referenceTime)
+            .build();
+        when(jobRunRepository.findFirstByJobNameOrderByIdDesc(ContractOverdueScheduler.JOB_NAME))
+            .thenReturn(Optional.of(failedRun));
+        when(contractRepository.findOverdueContractIdsThatBlockPendingContracts(eq(40L), eq(0), eq(1), any(Limit.class)))
+            .thenReturn(List.of());
+
+        scheduler.updateOverdueContracts();
+
+        verify(contractRepository, never()).findOverdueOngoingContractIds(any(), any(), anyInt(), anyInt(), any());
+        assertEquals(JobRunStatus.COMPLETED, failedRun.getStatus());
+        assertEquals(10L, failedRun.getRowsScanned());
+    }
+
+    @Test
+    @DisplayName("Doit marquer l'exécution en échec en conservant le dernier point de reprise validé")
+    void testUpdateOverdueContracts_FailureKeepsCheckpoint() {
+        when(jobRunRepository.findFirstByJobNameOrderByIdDesc(ContractOverdueScheduler.JOB_NAME))
+            .thenReturn(Optional.empty());
+        when(contractRepository.findOverdueOngoingContractIds(any(LocalDateTime.class), eq(0L), eq(0), eq(1), any(Limit.class)))
+            .thenReturn(List.of(1L, 2L));
+        when(contractRepository.findOverdueOngoingContractIds(any(LocalDateTime.class), eq(2L), eq(0), eq(1), any(Limit.class)))
+            .thenReturn(List.of(3L, 4L));
+        when(contractService.markOverdueContracts(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+            .thenReturn(List.of(1L, 2L));
+        when(contractService.markOverdueContracts(eq(List.of(3L, 4L)), any(LocalDateTime.class)))
+            .thenThrow(new RuntimeException("Connexion perdue"));
+
+        JobRunEntity committed = JobRunEntity.builder()
+            .id(1L)
+            .status(JobRunStatus.RUNNING)
+            .currentStep(ContractOverdueScheduler.STEP_MARK_OVERDUE)
+            .lastProcessedId(2L)
+            .startedAt(LocalDateTime.now())
+            .build();
+        when(jobRunRepository.findById(1L)).thenReturn(Optional.of(committed));
+
+        assertDoesNotThrow(() -> scheduler.updateOverdueContracts());
+
+        verify(transactionManager, times(1)).rollback(any());
+        verify(contractRepository, never()).findOverdueContractIdsThatBlockPendingContracts(any(), anyInt(), anyInt(), any());
+        assertEquals(JobRunStatus.FAILED, committed.getStatus());
+        assertEquals(2L, committed.getLastProcessedId());
+        assertEquals("Connexion perdue", committed.getErrorMessage());
+    }
+
+    // ==================== COORDINATION ENTRE NŒUDS ====================
+
+    @Test
+    @DisplayName("Ne traite pas une tâche dont le bail est détenu par un autre nœud")
+    void testUpdateOverdueContracts_SkipsWithoutLease() {
+        when(leaseManager.tryAcquire(ContractOverdueScheduler.JOB_NAME)).thenReturn(false);
+
+        scheduler.updateOverdueContracts();
+
+        verifyNoInteractions(contractRepository, contractService, eventPublisher, jobRunRepository);
+    }
+
+    @Test
+    @DisplayName("Ne relance pas une tâche déjà terminée par un autre nœud pour ce déclenchement")
+    void testUpdateOverdueContracts_SkipsRecentlyCompletedRun() {
+        JobRunEntity completedRun = JobRunEntity.builder()
+            .id(3L)
+            .jobName(ContractOverdueScheduler.JOB_NAME)
+            .status(JobRunStatus.COMPLETED)
+            .startedAt(LocalDateTime.now().minusMinutes(1))
+            .build();
+        when(jobRunRepository.findFirstByJobNameOrderByIdDesc(ContractOverdueScheduler.JOB_NAME))
+            .thenReturn(Optional.of(completedRun));
+
+        scheduler.updateOverdueContracts();
+
+        verifyNoInteractions(contractRepository, contractService);
+        verify(leaseManager).release(ContractOverdueScheduler.JOB_NAME);
+    }
+
+    @Test
+    @DisplayName("Traite uniquement les partitions dont ce nœud obtient le bail")
+    void testUpdateOverdueContracts_Partitions() {
+        contractProperties.getCluster().setPartitions(3);
+        when(leaseManager.tryAcquire("contract-overdue-p0")).thenReturn(false);
+        when(leaseManager.tryAcquire("contract-overdue-p2")).thenReturn(false);
+        when(jobRunRepository.findFirstByJobNameOrderByIdDesc("contract-overdue-p1")).thenReturn(Optional.empty());
+        when(contractRepository.findOverdueOngoingContractIds(any(LocalDateTime.class), eq(0L), eq(1), eq(3), any(Limit.class)))
+            .thenReturn(List.of());
+        when(contractRepository.findOverdueContractIdsThatBlockPendingContracts(eq(0L), eq(1), eq(3), any(Limit.class)))
+            .thenReturn(List.of());
+
+        scheduler.updateOverdueContracts();
+
+        verify(contractRepository, times(1)).findOverdueOngoingContractIds(any(), any(), anyInt(), anyInt(), any());
+        verify(leaseManager).release("contract-overdue-p1");
+        verify(leaseManager, never()).release("contract-overdue-p0");
+    }
+
+    @Test
+    @DisplayName("S'interrompt si le bail est perdu en cours de traitement")
+    void testUpdateOverdueContracts_StopsWhenLeaseLost() {
+        when(jobRunRepository.findFirstByJobNameOrderByIdDesc(ContractOverdueScheduler.JOB_NAME))
+            .thenReturn(Optional.empty());
+        when(leaseManager.tryAcquire(ContractOverdueScheduler.JOB_NAME)).thenReturn(true, false);
+
+        scheduler.updateOverdueContracts();
+
+        verify(contractRepository, never()).findOverdueOngoingContractIds(any(), any(), anyInt(), anyInt(), any());
+        ArgumentCaptor<JobRunEntity> captor = ArgumentCaptor.forClass(JobRunEntity.class);
+        verify(jobRunRepository, atLeastOnce()).save(captor.capture());
+        assertEquals(JobRunStatus.FAILED, captor.getValue().getStatus());
+    }
+}